@@ -6,7 +6,7 @@ import picocli.CommandLine.Command;
 @Command(name = "project", aliases = {"p"}, description = "Manage and create Java projects.",
     subcommands = {
         AddCommand.class, RmCommand.class, BuildCommand.class, SetCommand.class,
-        TestCommand.class, InitCommand.class, CleanupCommand.class, UpdateCommand.class
+        TestCommand.class, InitCommand.class, CleanupCommand.class, UpdateCommand.class, DepsCommand.class, IndexCommand.class
     },
     mixinStandardHelpOptions = true
 )
@@ -1,14 +1,20 @@
 package dev.buildcli.cli.commands.ai.code;
 
-import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.AIBatchExecutor;
+import dev.buildcli.core.actions.ai.AIFileBatcher;
+import dev.buildcli.core.actions.ai.AIResponseCache;
+import dev.buildcli.core.actions.ai.AIRunJournal;
+import dev.buildcli.core.actions.ai.AIServiceRegistry;
+import dev.buildcli.core.actions.ai.ChangedSources;
 import dev.buildcli.core.constants.AIConstants;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.async.Async;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.ProjectFileIndex;
 import dev.buildcli.core.utils.ai.IAParamsUtils;
+import dev.buildcli.core.utils.ai.SourceChunker;
 import dev.buildcli.core.utils.console.markdown.MarkdownInterpreter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,13 +23,11 @@ import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
 
 import static dev.buildcli.core.utils.BeautifyShell.blueFg;
 import static dev.buildcli.core.utils.BeautifyShell.brightGreenFg;
@@ -41,6 +45,12 @@ public class CommentCommand implements BuildCLICommand {
   @Option(names = {"--context"}, description = "Overwrite the default AI command")
   private String context;
 
+  @Option(names = {"--resume"}, description = "Resume an interrupted run, skipping the files it completed", paramLabel = "<run id>")
+  private String resume;
+
+  @Option(names = {"--since"}, description = "Only comment files changed since this Git revision", paramLabel = "<ref>")
+  private String since;
+
   private final BuildCLIConfig allConfigs = ConfigContextLoader.getAllConfigs();
 
   @Override
@@ -50,43 +60,57 @@ public class CommentCommand implements BuildCLICommand {
       return;
     }
 
+    // one service for the whole run; the model loads while the sources are being scanned
+    var aiParams = IAParamsUtils.createAIParams();
+    AIServiceRegistry.shared().warmUp(aiParams);
+
     logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
-    var targetFiles = files.parallelStream()
-        .map(file -> FindFilesUtils.search(file, getExtensions()))
-        .flatMap(List::stream)
+    var sourceFiles = files.stream()
+        .flatMap(file -> ProjectFileIndex.search(file.toPath(), getExtensions()).stream())
         .toList();
 
-    logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
+    logger.info("Found {} files with extensions: {}.", sourceFiles.size(), Arrays.toString(getExtensions()));
 
-    var execsAsync = Async.group(targetFiles.size());
-
-    logger.info("Commenting files {}...", targetFiles.size());
-    for (int i = 0; i < targetFiles.size(); i++) {
-      execsAsync[i] = Async.run(createCodeCommenter(targetFiles.get(i)))
-          .consumeAsync(printCommentedCode(targetFiles.get(i)))
-          .catchAny(catchAnyError(targetFiles.get(i)));
+    var changedSources = since == null ? null : ChangedSources.since(files.stream().map(File::toPath).toList(), since);
+    if (changedSources != null) {
+      sourceFiles = changedSources.filter(sourceFiles);
+      logger.info("{} of them changed since {}.", sourceFiles.size(), since);
     }
 
-    Async.awaitAll(execsAsync);
-  }
-
-  private Supplier<String> createCodeCommenter(File source) {
-    try {
-      logger.info("Reading source file: {}", source.getAbsolutePath());
-      var sourceCode = Files.readString(source.toPath());
-      logger.info("Source file read: {}", source.getAbsolutePath());
+    // progress is journaled as files complete, so an interrupted run can pick up where it stopped
+    // a run resumes only under the command and options that started it
+    var command = "ai code comment";
+    var options = new String[]{aiParams.vendor(), aiParams.model().orElse(null), context, extensions};
+    var journal = resume == null ? AIRunJournal.start(command, options) : AIRunJournal.resume(resume, command, options);
+    if (resume != null) {
+      sourceFiles = sourceFiles.stream().filter(file -> !journal.isDone(file)).toList();
+      logger.info("Resuming run {}, {} files left.", resume, sourceFiles.size());
+    }
+    logger.info("Run {}; if it is interrupted, continue it with --resume {}", journal.getId(), journal.getId());
+    var targetFiles = sourceFiles.stream().map(Path::toFile).toList();
 
-      var aiParams = IAParamsUtils.createAIParams();
-      var iaService = new GeneralAIServiceFactory().create(aiParams);
+    var execsAsync = Async.group(targetFiles.size());
 
-      logger.info("Commenting with IA...");
-      return () -> iaService.generate(new AIChat(context == null || context.isEmpty() ? AIConstants.COMMENT_CODE_PROMPT : context, sourceCode));
+    // small files share requests, as many as fit the model context
+    var systemPrompt = context == null || context.isEmpty() ? AIConstants.COMMENT_CODE_PROMPT : context;
+    var contextSize = allConfigs.getProperty(ConfigDefaultConstants.AI_CONTEXT_SIZE).map(Integer::parseInt).orElse(4096);
+    var maxChars = SourceChunker.maxChars(contextSize, systemPrompt + AIConstants.FILE_BATCH_NOTE);
 
-    } catch (IOException e) {
-      return () -> {
-        logger.warn("Could not read source file: {}", source.getAbsolutePath());
-        throw new RuntimeException("Unable to read source file: " + source, e);
-      };
+    logger.info("Commenting files {}...", targetFiles.size());
+    try (var executor = AIBatchExecutor.fromConfig(aiParams)) {
+      var batcher = new AIFileBatcher(executor,
+          chat -> AIResponseCache.shared().generate(aiParams, chat, () -> AIServiceRegistry.shared().get(aiParams)));
+      var answers = batcher.submit(systemPrompt, targetFiles.stream().map(File::toPath).toList(), maxChars,
+          (source, answer) -> !answer.isBlank());
+
+      for (int i = 0; i < targetFiles.size(); i++) {
+        var file = targetFiles.get(i);
+        execsAsync[i] = Async.from(answers.get(file.toPath()))
+            .consumeAsync(printCommentedCode(file).andThen(output -> journal.completed(file.toPath(), output)))
+            .catchAny(catchAnyError(file, journal));
+      }
+
+      Async.awaitAll(execsAsync);
     }
   }
 
@@ -101,8 +125,9 @@ public class CommentCommand implements BuildCLICommand {
     };
   }
 
-  private Function<Throwable, Void> catchAnyError(File file) {
+  private Function<Throwable, Void> catchAnyError(File file, AIRunJournal journal) {
     return throwable -> {
+      journal.failed(file.toPath());
       var message = "Occurred an error when try comment code, file: %s".formatted(file);
       logger.error(message, throwable);
 
@@ -1,16 +1,24 @@
 package dev.buildcli.cli.commands.ai.code;
 
 import dev.buildcli.cli.commands.ai.CodeCommand;
+import dev.buildcli.core.actions.ai.AIBatchExecutor;
 import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.AIFileBatcher;
+import dev.buildcli.core.actions.ai.AIResponseCache;
+import dev.buildcli.core.actions.ai.AIRunJournal;
+import dev.buildcli.core.actions.ai.AIServiceParams;
+import dev.buildcli.core.actions.ai.AIServiceRegistry;
+import dev.buildcli.core.actions.ai.ChangedSources;
 import dev.buildcli.core.constants.AIConstants;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.async.Async;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.ProjectFileIndex;
 import dev.buildcli.core.utils.ai.CodeUtils;
 import dev.buildcli.core.utils.ai.IAParamsUtils;
+import dev.buildcli.core.utils.ai.SourceChunker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.*;
@@ -18,13 +26,12 @@ import picocli.CommandLine.*;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
-import java.util.function.Supplier;
-
-import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 @Command(name = "document", aliases = {"docs"}, description = "Generates documentation for the project code. Alias: 'docs'. This command scans the specified files and extracts structured documentation.", mixinStandardHelpOptions = true)
 public class DocumentCommand implements BuildCLICommand {
@@ -41,6 +48,12 @@ public class DocumentCommand implements BuildCLICommand {
   @Option(names = {"--context"}, description = "Overwrite the default AI command")
   private String context;
 
+  @Option(names = {"--resume"}, description = "Resume an interrupted run, skipping the files it completed", paramLabel = "<run id>")
+  private String resume;
+
+  @Option(names = {"--since"}, description = "Only document files changed since this Git revision", paramLabel = "<ref>")
+  private String since;
+
   private final BuildCLIConfig allConfigs = ConfigContextLoader.getAllConfigs();
 
 
@@ -53,52 +66,125 @@ public class DocumentCommand implements BuildCLICommand {
       return;
     }
 
+    // one service for the whole run; the model loads while the sources are being scanned
+    var aiParams = IAParamsUtils.createAIParams(parent.getModel(), parent.getVendor());
+    AIServiceRegistry.shared().warmUp(aiParams);
+
     logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
-    var targetFiles = files.parallelStream()
-        .map(file -> FindFilesUtils.search(file, getExtensions()))
-        .flatMap(List::stream)
+    var sourceFiles = files.stream()
+        .flatMap(file -> ProjectFileIndex.search(file.toPath(), getExtensions()).stream())
         .toList();
 
-    logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
+    logger.info("Found {} files with extensions: {}.", sourceFiles.size(), Arrays.toString(getExtensions()));
+
+    var changedSources = since == null ? null : ChangedSources.since(files.stream().map(File::toPath).toList(), since);
+    if (changedSources != null) {
+      sourceFiles = changedSources.filter(sourceFiles);
+      logger.info("{} of them changed since {}.", sourceFiles.size(), since);
+    }
+
+    // files this command rewrote are left alone until someone edits them
+    var undocumented = sourceFiles.stream().filter(file -> !isDocumented(aiParams, file)).toList();
+    if (undocumented.size() < sourceFiles.size()) {
+      logger.info("{} of them are already documented.", sourceFiles.size() - undocumented.size());
+      sourceFiles = undocumented;
+    }
+
+    // progress is journaled as files complete, so an interrupted run can pick up where it stopped
+    // a run resumes only under the command and options that started it
+    var command = "ai code document";
+    var options = new String[]{aiParams.vendor(), aiParams.model().orElse(null), context, extensions};
+    var journal = resume == null ? AIRunJournal.start(command, options) : AIRunJournal.resume(resume, command, options);
+    if (resume != null) {
+      sourceFiles = sourceFiles.stream().filter(file -> !journal.isDone(file)).toList();
+      logger.info("Resuming run {}, {} files left.", resume, sourceFiles.size());
+    }
+    logger.info("Run {}; if it is interrupted, continue it with --resume {}", journal.getId(), journal.getId());
+    var targetFiles = sourceFiles.stream().map(Path::toFile).toList();
 
     var execsAsync = Async.group(targetFiles.size());;
 
+    // files that do not fit the model context are documented member by member
+    var contextSize = allConfigs.getProperty(ConfigDefaultConstants.AI_CONTEXT_SIZE).map(Integer::parseInt).orElse(4096);
+    var maxChars = SourceChunker.maxChars(contextSize, getSystemPrompt() + AIConstants.CODE_EXCERPT_NOTE);
+
     logger.info("Documenting files {}...", targetFiles.size());
-    for (int i = 0; i < targetFiles.size(); i++) {
-      execsAsync[i] = Async.run(createCodeDocumenter(targetFiles.get(i)))
-          .then(CodeUtils::extractCode)
-          .consumeAsync(saveSourceCodeDocumented(targetFiles.get(i)))
-          .catchAny(catchAnyError(targetFiles.get(i)));
-    }
+    try (var executor = AIBatchExecutor.fromConfig(aiParams)) {
+      // small files share requests; an answer that changed the code sends its file again on its own
+      var batcher = new AIFileBatcher(executor, chat -> generate(aiParams, chat));
+      var smallFiles = targetFiles.stream().filter(file -> file.length() <= maxChars).map(File::toPath).toList();
+      var answers = batcher.submit(getSystemPrompt(), smallFiles, maxChars,
+          (source, answer) -> SourceChunker.sameCode(source, CodeUtils.extractCode(answer)));
+
+      for (int i = 0; i < targetFiles.size(); i++) {
+        var file = targetFiles.get(i);
+        var documented = file.length() > maxChars
+            ? Async.from(documentInChunks(file, aiParams, executor, maxChars, changedSources))
+            : Async.from(answers.get(file.toPath())).then(CodeUtils::extractCode);
+
+        execsAsync[i] = documented
+            .consumeAsync(saveSourceCodeDocumented(file, aiParams).andThen(output -> journal.completed(file.toPath(), output)))
+            .catchAny(catchAnyError(file, journal));
+      }
 
-    Async.awaitAll(execsAsync);
+      Async.awaitAll(execsAsync);
+    }
   }
 
+  private String generate(AIServiceParams aiParams, AIChat chat) {
+    return AIResponseCache.shared().generate(aiParams, chat, () -> AIServiceRegistry.shared().get(aiParams));
+  }
 
-  private Supplier<String> createCodeDocumenter(File source) {
+  /**
+   * Sends the chunks of a large source as separate requests and splices the answers back into the file. Chunks
+   * whose request fails, or whose answer changed the code, are kept as they are; so are unchanged chunks when
+   * {@code changedSources} is given.
+   */
+  private CompletableFuture<String> documentInChunks(File source, AIServiceParams aiParams, AIBatchExecutor executor,
+                                                     int maxChars, ChangedSources changedSources) {
+    String sourceCode;
     try {
-      logger.info("Reading source file: {}", source.getAbsolutePath());
-      var sourceCode = Files.readString(source.toPath());
-      logger.info("Source file read: {}", source.getAbsolutePath());
+      sourceCode = Files.readString(source.toPath());
+    } catch (IOException e) {
+      return CompletableFuture.failedFuture(new RuntimeException("Unable to read source file: " + source, e));
+    }
 
-      var aiParams = IAParamsUtils.createAIParams(parent.getModel(), parent.getVendor());;
-      var iaService = new GeneralAIServiceFactory().create(aiParams);
+    var chunks = SourceChunker.split(source.getName(), sourceCode, maxChars);
+    logger.info("Documenting {} in {} chunks", source.getAbsolutePath(), chunks.size());
+
+    var systemPrompt = getSystemPrompt() + AIConstants.CODE_EXCERPT_NOTE;
+    var answers = chunks.stream()
+        .map(chunk -> chunk.documentable()
+            && (changedSources == null || changedSources.isChanged(source.toPath(), sourceCode, chunk))
+            ? executor.submit(() -> CodeUtils.extractCode(generate(aiParams, new AIChat(systemPrompt, chunk.text()))))
+            .exceptionally(throwable -> {
+              logger.warn("Could not document {} from character {}: {}", source.getName(), chunk.start(), throwable.getMessage());
+              return null;
+            })
+            : CompletableFuture.<String>completedFuture(null))
+        .toList();
 
-      logger.info("Commenting with IA...");
-      return () -> iaService.generate(new AIChat(context == null || context.isEmpty() ? AIConstants.DOCUMENT_CODE_PROMPT : context, sourceCode));
+    return CompletableFuture.allOf(answers.toArray(CompletableFuture[]::new))
+        .thenApply(ignored -> SourceChunker.splice(chunks, answers.stream().map(CompletableFuture::join).toList()));
+  }
 
+  private String getSystemPrompt() {
+    return context == null || context.isEmpty() ? AIConstants.DOCUMENT_CODE_PROMPT : context;
+  }
+
+  private boolean isDocumented(AIServiceParams aiParams, Path file) {
+    try {
+      return AIResponseCache.shared().isProcessed(aiParams, getSystemPrompt(), file, Files.readString(file));
     } catch (IOException e) {
-      return () -> {
-        logger.warn("Could not read source file: {}", source.getAbsolutePath());
-        throw new RuntimeException("Unable to read source file: " + source, e);
-      };
+      return false;
     }
   }
 
-  private Consumer<String> saveSourceCodeDocumented(File file) {
+  private Consumer<String> saveSourceCodeDocumented(File file, AIServiceParams aiParams) {
     return sourceCode -> {
       try {
         Files.writeString(file.toPath(), sourceCode);
+        AIResponseCache.shared().markProcessed(aiParams, getSystemPrompt(), file.toPath(), sourceCode);
         logger.info("Source Code updated: {}", file.getAbsolutePath());
       } catch (IOException e) {
         throw new RuntimeException(e);
@@ -106,8 +192,9 @@ public class DocumentCommand implements BuildCLICommand {
     };
   }
 
-  private Function<Throwable, Void> catchAnyError(File file) {
+  private Function<Throwable, Void> catchAnyError(File file, AIRunJournal journal) {
     return throwable -> {
+      journal.failed(file.toPath());
       var message = "Occurred an error when try comment code, file: %s".formatted(file);
       logger.error(message, throwable);
 
@@ -1,17 +1,22 @@
 package dev.buildcli.cli.commands.ai.code;
 
 import dev.buildcli.cli.commands.ai.CodeCommand;
+import dev.buildcli.core.actions.ai.AIBatchExecutor;
 import dev.buildcli.core.actions.ai.AIChat;
-import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.AIResponseCache;
+import dev.buildcli.core.actions.ai.AIServiceParams;
+import dev.buildcli.core.actions.ai.AIServiceRegistry;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.LanguageDetector;
 import dev.buildcli.core.utils.ai.CodeUtils;
 import dev.buildcli.core.utils.ai.IAParamsUtils;
 import dev.buildcli.core.utils.async.Async;
+import dev.buildcli.core.utils.async.OrderedPrefetch;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.ProjectFileIndex;
 import dev.buildcli.core.utils.console.markdown.MarkdownInterpreter;
+import dev.buildcli.core.utils.console.markdown.MarkdownStreamRenderer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
@@ -22,16 +27,25 @@ import picocli.CommandLine.ParentCommand;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static dev.buildcli.core.constants.AIConstants.GENERATE_TEST_PROMPT;
 import static dev.buildcli.core.utils.BeautifyShell.blueFg;
+import static dev.buildcli.core.utils.BeautifyShell.yellowFg;
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.confirm;
+import static java.util.List.of;
 
 @Command(
     name = "test",
@@ -56,6 +70,11 @@ public class TestCommand implements BuildCLICommand {
   @Option(names = "-y", description = "Accept all code", defaultValue = "false")
   private boolean acceptAllCode;
 
+  private final ReentrantLock console = new ReentrantLock();
+  private final Set<File> streamed = ConcurrentHashMap.newKeySet();
+  private final Map<File, ReviewStream> reviewStreams = new ConcurrentHashMap<>();
+  private final Map<File, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
   @Override
   public void run() {
     logger.warn("Use this command with careful, IA may be crazy!");
@@ -65,89 +84,220 @@ public class TestCommand implements BuildCLICommand {
       return;
     }
 
+    // one service for the whole run; the model loads while the sources are being scanned
+    var aiParams = IAParamsUtils.createAIParams(parent.getModel(), parent.getVendor());
+    AIServiceRegistry.shared().warmUp(aiParams);
+
     logger.info("Loading files with extensions: {}", Arrays.toString(getExtensions()));
-    var targetFiles = files.parallelStream()
-        .map(file -> FindFilesUtils.search(file, getExtensions()))
-        .flatMap(List::stream)
+    var targetFiles = files.stream()
+        .flatMap(file -> ProjectFileIndex.search(file.toPath(), getExtensions()).stream())
+        .map(Path::toFile)
         .toList();
     logger.info("Found {} files with extensions: {}.", targetFiles.size(), Arrays.toString(getExtensions()));
 
     var execsAsync = Async.group(targetFiles.size());
 
     logger.info("Commenting files {}...", targetFiles.size());
-    for (int i = 0; i < targetFiles.size(); i++) {
-      execsAsync[i] = Async.run(createCodeTestGenerator(targetFiles.get(i)))
-          .then(printFormattedCode(targetFiles.get(i)))
-          .then(CodeUtils::extractCode)
-          .consumeAsync(writeTestCode(targetFiles.get(i)))
-          .catchAny(catchAnyError(targetFiles.get(i)));
+    try (var executor = AIBatchExecutor.fromConfig(aiParams)) {
+      if (!acceptAllCode) {
+        review(targetFiles, aiParams, executor);
+        return;
+      }
+
+      for (int i = 0; i < targetFiles.size(); i++) {
+        execsAsync[i] = Async.from(executor.submit(createCodeTestGenerator(targetFiles.get(i), aiParams)))
+            .then(printFormattedCode(targetFiles.get(i)))
+            .then(CodeUtils::extractCode)
+            .consumeAsync(writeTestCode(targetFiles.get(i)))
+            .catchAny(catchAnyError(targetFiles.get(i)));
+      }
+
+      Async.awaitAll(execsAsync);
+    }
+  }
+
+  /**
+   * Shows the generated tests one file at a time, in order, while the tests of the next files are generated.
+   * The file being shown streams its tests as they are generated; the next ones are buffered until their turn.
+   * Generations that were not reviewed yet are cancelled when the user stops.
+   */
+  private void review(List<File> targetFiles, AIServiceParams aiParams, AIBatchExecutor executor) {
+    if (targetFiles.isEmpty()) {
+      return;
     }
+    var heads = targetFiles.iterator();
+    show(heads.next());
 
-    Async.awaitAll(execsAsync);
+    var reviewed = OrderedPrefetch.review(targetFiles, executor.getMaxInFlight(),
+        file -> executor.submit(createCodeTestGenerator(file, aiParams)),
+        (file, response, failure) -> {
+          var next = reviewTests(file, response, failure, file == targetFiles.getLast());
+          if (next && heads.hasNext()) {
+            show(heads.next());
+          }
+          return next;
+        });
+
+    if (reviewed < targetFiles.size()) {
+      logger.info("Review stopped, {} files left without tests.", targetFiles.size() - reviewed);
+    }
+  }
+
+  private boolean reviewTests(File file, String response, Throwable failure, boolean last) {
+    if (failure != null) {
+      catchAnyError(file).apply(failure);
+      return true;
+    }
+
+    printFormattedCode(file).apply(response);
+    if (confirm("Do you agree with this code? %s".formatted(file.getName()))) {
+      try {
+        writeTestCode(file).accept(CodeUtils.extractCode(response));
+      } catch (RuntimeException e) {
+        catchAnyError(file).apply(e);
+      }
+      return true;
+    }
+    return last || confirm("Continue reviewing?", of("yes", "y"), of("no", "n"), true);
+  }
+
+  private void show(File file) {
+    reviewStreams.computeIfAbsent(file, ReviewStream::new).show();
+  }
+
+  /**
+   * Streams the response to the terminal while it is generated when no other file is being shown, otherwise
+   * generates it silently for {@link #printFormattedCode(File)} to print once the terminal is free. During a
+   * review, the response goes through the {@link ReviewStream} of its file.
+   *
+   * <p>Each call is one attempt of the executor. An attempt that timed out may go on producing tokens after its
+   * retry started, so tokens are only shown while their attempt is the latest for the file, and an answer cut
+   * short is marked as such before the retry shows its own.</p>
+   */
+  private String generate(File source, AIServiceParams aiParams, AIChat chat) {
+    var attempt = attempts.computeIfAbsent(source, ignored -> new AtomicInteger()).incrementAndGet();
+    if (!acceptAllCode) {
+      var stream = reviewStreams.computeIfAbsent(source, ReviewStream::new);
+      var response = AIResponseCache.shared().generate(aiParams, chat, () -> AIServiceRegistry.shared().get(aiParams),
+          stream.restart(attempt));
+      if (stream.finish(attempt)) {
+        streamed.add(source);
+      }
+      return response;
+    }
+    if (!console.tryLock()) {
+      return AIResponseCache.shared().generate(aiParams, chat, () -> AIServiceRegistry.shared().get(aiParams));
+    }
+
+    try {
+      printHeader(source);
+      var renderer = new MarkdownStreamRenderer(System.out);
+      var open = new AtomicBoolean(true);
+      Consumer<String> sink = token -> {
+        synchronized (open) {
+          if (open.get() && attempts.get(source).get() == attempt) {
+            renderer.accept(token);
+          }
+        }
+      };
+
+      String response;
+      try {
+        response = AIResponseCache.shared().generate(aiParams, chat, () -> AIServiceRegistry.shared().get(aiParams), sink);
+      } finally {
+        synchronized (open) {
+          open.set(false);
+          renderer.finish();
+        }
+      }
+      if (attempts.get(source).get() != attempt) {
+        printCutShort();
+        return response;
+      }
+      streamed.add(source);
+      return response;
+    } catch (RuntimeException e) {
+      printCutShort();
+      throw e;
+    } finally {
+      console.unlock();
+    }
+  }
+
+  private static void printCutShort() {
+    System.out.println(yellowFg("The answer above was cut short; it is generated again."));
   }
 
   private Function<String, String> printFormattedCode(File file) {
     return s -> {
-      System.out.println();
-      System.out.println("File: " + blueFg(file.toString()));
-      System.out.println(new MarkdownInterpreter().interpret(s));
+      if (streamed.remove(file)) {
+        return s;
+      }
+
+      console.lock();
+      try {
+        printHeader(file);
+        System.out.println(new MarkdownInterpreter().interpret(s));
+      } finally {
+        console.unlock();
+      }
       return s;
     };
   }
 
+  private static void printHeader(File file) {
+    System.out.println();
+    System.out.println("File: " + blueFg(file.toString()));
+  }
+
   private Consumer<String> writeTestCode(File source) {
     return sourceCode -> {
       try {
+        var file = source.getParentFile() == null ? source : source.getParentFile();
+        var parts = source.getName().split("\\.");
+        String simpleName;
 
-        if (acceptAllCode || confirm("Do you agree with this code? %s".formatted(source.getName()))) {
-          var file = source.getParentFile() == null ? source : source.getParentFile();
-          var parts = source.getName().split("\\.");
-          String simpleName;
-
-          if (parts.length > 1) {
-            var builder = new StringBuilder(parts[0] + "Test");
+        if (parts.length > 1) {
+          var builder = new StringBuilder(parts[0] + "Test");
 
-            for (int i = 1; i < parts.length; i++) {
-              builder.append(".").append(parts[i]);
-            }
-            simpleName = builder.toString();
-          } else {
-            simpleName = source.getName();
+          for (int i = 1; i < parts.length; i++) {
+            builder.append(".").append(parts[i]);
           }
-
-          var absolutePathValue = file.getName().equals(source.getName()) ? file.getAbsolutePath().replace(file.getName(), "") : file.getAbsolutePath();
-          absolutePathValue = new File(absolutePathValue, simpleName).getAbsolutePath();
-
-          var testPath = Paths.get(absolutePathValue.replaceFirst("main", "test"));
-          Files.writeString(testPath, sourceCode);
+          simpleName = builder.toString();
+        } else {
+          simpleName = source.getName();
         }
 
+        var absolutePathValue = file.getName().equals(source.getName()) ? file.getAbsolutePath().replace(file.getName(), "") : file.getAbsolutePath();
+        absolutePathValue = new File(absolutePathValue, simpleName).getAbsolutePath();
+
+        var testPath = Paths.get(absolutePathValue.replaceFirst("main", "test"));
+        Files.writeString(testPath, sourceCode);
       } catch (IOException e) {
         throw new RuntimeException(e);
       }
     };
   }
 
-  private Supplier<String> createCodeTestGenerator(File source) {
-    try {
-      logger.info("Reading source file: {}", source.getAbsolutePath());
-      var sourceCode = Files.readString(source.toPath());
-      logger.info("Source file read: {}", source.getAbsolutePath());
-
-      var aiParams = IAParamsUtils.createAIParams(parent.getModel(), parent.getVendor());
-      var iaService = new GeneralAIServiceFactory().create(aiParams);
-
-      var lang = LanguageDetector.detectLanguage(source.getName());
+  private Supplier<String> createCodeTestGenerator(File source, AIServiceParams aiParams) {
+    // read when the request runs, so queued files are not held in memory; logged at debug level, as a review
+    // prompts on the same terminal meanwhile
+    return () -> {
+      try {
+        logger.debug("Reading source file: {}", source.getAbsolutePath());
+        var sourceCode = Files.readString(source.toPath());
+        logger.debug("Source file read: {}", source.getAbsolutePath());
 
-      logger.info("Generating test with IA...");
-      return () -> iaService.generate(new AIChat(context == null || context.isEmpty() ? String.format(GENERATE_TEST_PROMPT, lang) : context, sourceCode));
+        var lang = LanguageDetector.detectLanguage(source.getName());
 
-    } catch (IOException e) {
-      return () -> {
+        logger.debug("Generating test with IA...");
+        var chat = new AIChat(context == null || context.isEmpty() ? String.format(GENERATE_TEST_PROMPT, lang) : context, sourceCode);
+        return generate(source, aiParams, chat);
+      } catch (IOException e) {
         logger.warn("Could not read source file: {}", source.getAbsolutePath());
         throw new RuntimeException("Unable to read source file: " + source, e);
-      };
-    }
+      }
+    };
   }
 
   private String[] getExtensions() {
@@ -166,4 +316,75 @@ public class TestCommand implements BuildCLICommand {
       return null;
     };
   }
+
+  /**
+   * The response for a file under review: buffered while other files are shown, then rendered as it is generated
+   * once its file is shown. Only the reviewing thread shows files, and it waits for the one shown, so the
+   * terminal is never shared. Only the tokens of the latest attempt are kept.
+   */
+  private static final class ReviewStream {
+    private final File source;
+    private final StringBuilder buffered = new StringBuilder();
+    private MarkdownStreamRenderer renderer;
+    private int attempt;
+    private boolean finished;
+
+    ReviewStream(File source) {
+      this.source = source;
+    }
+
+    /**
+     * Drops what earlier attempts produced, marking it as cut short when it was already shown.
+     *
+     * @return the sink for the tokens of {@code attempt}
+     */
+    synchronized Consumer<String> restart(int attempt) {
+      this.attempt = attempt;
+      buffered.setLength(0);
+      if (renderer != null) {
+        renderer.finish();
+        printCutShort();
+        printHeader(source);
+        renderer = new MarkdownStreamRenderer(System.out);
+      }
+      return token -> accept(attempt, token);
+    }
+
+    private synchronized void accept(int from, String token) {
+      if (finished || from != attempt) {
+        return;
+      }
+      if (renderer != null) {
+        renderer.accept(token);
+      } else {
+        buffered.append(token);
+      }
+    }
+
+    synchronized void show() {
+      if (finished || renderer != null) {
+        return;
+      }
+      printHeader(source);
+      renderer = new MarkdownStreamRenderer(System.out);
+      renderer.accept(buffered.toString());
+      buffered.setLength(0);
+    }
+
+    /**
+     * @return whether the response of {@code attempt}, the latest, was shown while it was generated
+     */
+    synchronized boolean finish(int attempt) {
+      if (finished || attempt != this.attempt) {
+        return false;
+      }
+      finished = true;
+      buffered.setLength(0);
+      if (renderer == null) {
+        return false;
+      }
+      renderer.finish();
+      return true;
+    }
+  }
 }
@@ -2,12 +2,12 @@ package dev.buildcli.cli.commands.plugin;
 
 import dev.buildcli.cli.utils.CommandUtils;
 import dev.buildcli.core.domain.BuildCLICommand;
-import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.domain.jar.Jar;
 import dev.buildcli.core.utils.ProjectUtils;
-import dev.buildcli.core.utils.config.ConfigContextLoader;
 import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.PluginStore;
 import dev.buildcli.core.utils.net.FileDownloader;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 import dev.buildcli.plugin.utils.BuildCLIPluginUtils;
 import org.eclipse.jgit.api.Git;
 import org.slf4j.Logger;
@@ -17,13 +17,15 @@ import picocli.CommandLine.Option;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.confirm;
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.question;
@@ -36,65 +38,130 @@ import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.questi
 )
 public class AddCommand implements BuildCLICommand {
   private static final Logger logger = LoggerFactory.getLogger("AddPluginCommand");
-  private static final String PLUGINS_DIR = Path.of(System.getProperty("user.home"), ".buildcli", "plugins").toString();
-  private final BuildCLIConfig globalConfig = ConfigContextLoader.getAllConfigs();
-  @Option(names = {"--file", "-f"}, description = "File can be a project or jar locally or remote")
-  private String file;
+  private final PluginStore store = new PluginStore(PluginStore.DEFAULT_DIRECTORY);
+  @Option(names = {"--file", "-f"}, description = "File can be a project or jar locally or remote. Repeat it to add several "
+      + "plugins, which are fetched and built in parallel")
+  private List<String> files;
+
+  @Option(names = {"--force"}, description = "Replace installed plugins without asking", defaultValue = "false")
+  private boolean force;
 
   @Override
   public void run() {
     try {
-      String pathOrUrl = file == null ? question("Enter Plugin path or URL", true) : file;
-      processPluginSource(pathOrUrl);
+      List<String> sources = files == null || files.isEmpty() ? List.of(question("Enter Plugin path or URL", true)) : files;
+      var resolved = resolveAll(sources);
+      installAll(resolved.jars());
+
+      if (!resolved.failures().isEmpty()) {
+        throw new IOException("Failed to process plugin sources: " + String.join(", ", resolved.failures()));
+      }
     } catch (Exception e) {
       logger.error("Failed to add plugin", e);
       throw new RuntimeException("Failed to add plugin", e);
     }
   }
 
-  private void processPluginSource(String pathOrUrl) throws IOException {
+  private record Resolution(List<Jar> jars, List<String> failures) {
+  }
+
+  /**
+   * Downloads, clones and builds every source concurrently; installing the resulting jars is fast and
+   * happens afterwards, one at a time, so confirmations are not interleaved. A source that fails does not
+   * keep the others from being installed, but the command still fails once they are.
+   */
+  private Resolution resolveAll(List<String> sources) {
+    var futures = sources.stream()
+        .map(source -> CompletableFuture.supplyAsync(() -> {
+          try {
+            return processPluginSource(source);
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+        }, ThreadPoolUtils.virtual()))
+        .toList();
+
+    var jars = new ArrayList<Jar>();
+    var failures = new ArrayList<String>();
+    for (int i = 0; i < futures.size(); i++) {
+      try {
+        jars.addAll(futures.get(i).join());
+      } catch (CompletionException e) {
+        var cause = e.getCause() instanceof UncheckedIOException unchecked ? unchecked.getCause() : e.getCause();
+        logger.error("Failed to process plugin source {}", sources.get(i), cause);
+        failures.add(sources.get(i));
+      }
+    }
+
+    return new Resolution(jars, failures);
+  }
+
+  private void installAll(List<Jar> jars) throws IOException {
+    for (Jar jar : jars) {
+      String name = PluginStore.nameOf(jar.getFile().toPath());
+      if (store.isInstalled(name) && !force && !confirm("Do you want to overwrite existing plugin %s?".formatted(name))) {
+        logger.info("Installation of plugin {} cancelled by user", name);
+        continue;
+      }
+
+      logger.info("Installing jar {}...", jar.getFile());
+      Path version = store.install(jar.getFile().toPath());
+      logger.info("Plugin {} installed as {}", name, version);
+    }
+  }
+
+  private List<Jar> processPluginSource(String pathOrUrl) throws IOException {
     if (pathOrUrl.startsWith("http")) {
-      processRemoteSource(pathOrUrl);
+      return processRemoteSource(pathOrUrl);
     } else {
-      processLocalSource(pathOrUrl);
+      return processLocalSource(pathOrUrl);
     }
   }
 
-  private void processRemoteSource(String url) throws IOException {
+  private List<Jar> processRemoteSource(String url) throws IOException {
     if (url.endsWith(".git")) {
-      processGitRepository(url);
+      return processGitRepository(url);
     } else {
-      processRemoteJar(url);
+      return processRemoteJar(url);
     }
   }
 
-  private void processGitRepository(String gitUrl) throws IOException {
+  private List<Jar> processGitRepository(String gitUrl) throws IOException {
     File tempDir = Files.createTempDirectory(UUID.randomUUID().toString()).toFile();
 
     try (Git git = Git.cloneRepository().setURI(gitUrl).setDirectory(tempDir).call()) {
-      buildAndCopyPlugins(tempDir);
+      return loadPluginFromDirectory(tempDir);
     } catch (Exception e) {
       logger.error("Failed to clone git repository: {}", gitUrl, e);
       throw new IOException("Failed to clone git repository: " + gitUrl, e);
     }
   }
 
-  private void processRemoteJar(String jarUrl) throws IOException {
-    File downloadedFile = FileDownloader.download(jarUrl);
+  private List<Jar> processRemoteJar(String jarUrl) throws IOException {
+    URI uri = URI.create(jarUrl);
+    Path downloadedFile = Files.createTempDirectory("buildcli-plugin").resolve(Path.of(uri.getPath()).getFileName());
 
-    if (isValidJarFile(downloadedFile)) {
-      Jar jar = new Jar(downloadedFile);
+    try {
+      new FileDownloader().fetch(uri, downloadedFile, null, FileDownloader.ProgressListener.none());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Download interrupted: " + jarUrl, e);
+    }
+
+    if (isValidJarFile(downloadedFile.toFile())) {
+      Jar jar = new Jar(downloadedFile.toFile());
       if (BuildCLIPluginUtils.isValid(jar)) {
-        copyJarPlugin(jar);
+        return List.of(jar);
       } else {
         logger.warn("Downloaded JAR is not a valid plugin: {}", downloadedFile);
       }
     } else {
       logger.warn("Downloaded file is not a valid JAR: {}", downloadedFile);
     }
+    return List.of();
   }
 
-  private void processLocalSource(String path) throws IOException {
+  private List<Jar> processLocalSource(String path) throws IOException {
     Path filePath = Path.of(path);
 
     if (!Files.exists(filePath)) {
@@ -102,23 +169,24 @@ public class AddCommand implements BuildCLICommand {
     }
 
     if (Files.isDirectory(filePath)) {
-      buildAndCopyPlugins(filePath.toFile());
+      return loadPluginFromDirectory(filePath.toFile());
     } else if (isValidJarFile(filePath.toFile())) {
-      processLocalJar(filePath.toFile());
+      return processLocalJar(filePath.toFile());
     } else {
       throw new IllegalArgumentException("Plugin path is not a valid JAR file or directory: " + path);
     }
   }
 
-  private void processLocalJar(File jarFile) throws IOException {
+  private List<Jar> processLocalJar(File jarFile) {
     Jar jar = new Jar(jarFile);
     logger.info("Validating jar: {}", jar.getFile());
 
     if (BuildCLIPluginUtils.isValid(jar)) {
       logger.info("Jar is a valid plugin");
-      copyJarPlugin(jar);
+      return List.of(jar);
     } else {
       logger.info("Jar is not a valid plugin");
+      return List.of();
     }
   }
 
@@ -126,123 +194,6 @@ public class AddCommand implements BuildCLICommand {
     return file.isFile() && file.getName().endsWith(".jar");
   }
 
-  private void buildAndCopyPlugins(File directory) throws IOException {
-    List<Jar> jars = loadPluginFromDirectory(directory);
-
-    for (Jar jar : jars) {
-      copyJarPlugin(jar);
-    }
-  }
-
-  private void copyJarPlugin(Jar jar) throws IOException {
-    final int maxRetries = 5;
-    int retries = maxRetries;
-    boolean copied = false;
-
-    logger.info("Copying jar {}...", jar.getFile());
-    Path destPath = Path.of(PLUGINS_DIR, jar.getFile().getName());
-    Files.createDirectories(destPath.getParent());
-
-    // Usar um nome de arquivo temporário para evitar conflitos
-    Path tempDestPath = Path.of(PLUGINS_DIR, jar.getFile().getName() + ".tmp");
-
-    if (Files.exists(destPath)) {
-      if (!confirm("Do you want to overwrite existing plugin file?")) {
-        logger.info("Plugin installation cancelled by user");
-        return;
-      }
-    }
-
-    while (retries > 0 && !copied) {
-      try {
-        // Primeiro copiar para o arquivo temporário
-        Files.copy(jar.getFile().toPath(), tempDestPath, StandardCopyOption.REPLACE_EXISTING);
-
-        // Tentar diferentes abordagens para substituir o arquivo original
-        if (Files.exists(destPath)) {
-          try {
-            // Tentar renomear o arquivo temporário para o destino final
-            Files.move(tempDestPath, destPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
-            copied = true;
-          } catch (IOException e) {
-            // Se falhar com ATOMIC_MOVE, tentar sem essa opção
-            try {
-              Files.move(tempDestPath, destPath, StandardCopyOption.REPLACE_EXISTING);
-              copied = true;
-            } catch (IOException e2) {
-              // Se ainda falhar, tentar primeiro excluir e depois copiar
-              tryDeleteWithRetries(destPath, 3);
-              Files.move(tempDestPath, destPath);
-              copied = true;
-            }
-          }
-        } else {
-          // Se o arquivo de destino não existir, basta renomear o temporário
-          Files.move(tempDestPath, destPath);
-          copied = true;
-        }
-      } catch (Exception e) {
-        logger.error("Failed to copy plugin file: {}", jar.getFile(), e);
-        logger.info("Retrying ({} attempts left)", retries - 1);
-        retries--;
-
-        // Aumentar o tempo de espera progressivamente entre as tentativas
-        try {
-          TimeUnit.MILLISECONDS.sleep(2000L + (maxRetries - retries) * 1000L);
-        } catch (InterruptedException ex) {
-          Thread.currentThread().interrupt();
-          throw new IOException("Operation interrupted", ex);
-        }
-      }
-    }
-
-    // Limpar arquivo temporário se ainda existir
-    if (Files.exists(tempDestPath)) {
-      try {
-        Files.delete(tempDestPath);
-      } catch (IOException e) {
-        logger.warn("Could not delete temporary file: {}", tempDestPath, e);
-      }
-    }
-
-    if (copied) {
-      logger.info("Jar copied to {}...", destPath);
-    } else {
-      throw new IOException("Failed to copy plugin after " + maxRetries + " attempts. " +
-          "Please ensure the plugin is not in use and try again later.");
-    }
-  }
-
-  private void tryDeleteWithRetries(Path path, int retries) throws IOException {
-    IOException lastException = null;
-
-    for (int i = 0; i < retries; i++) {
-      try {
-        Files.delete(path);
-        return; // Sucesso, saindo da função
-      } catch (IOException e) {
-        lastException = e;
-        logger.warn("Failed to delete file (attempt {}): {}", i + 1, path);
-
-        try {
-          // Aguardar antes de tentar novamente (tempo crescente)
-          TimeUnit.MILLISECONDS.sleep(1000L * (i + 1));
-        } catch (InterruptedException ie) {
-          Thread.currentThread().interrupt();
-          throw new IOException("Operation interrupted", ie);
-        }
-
-        // Sugerir ao GC que execute para liberar recursos
-        System.gc();
-      }
-    }
-
-    // Se chegou aqui, todas as tentativas falharam
-    if (lastException != null) {
-      throw lastException;
-    }
-  }
-
   private List<Jar> loadPluginFromDirectory(File directory) {
     validateDirectory(directory);
 
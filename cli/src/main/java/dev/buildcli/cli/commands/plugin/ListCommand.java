@@ -4,14 +4,13 @@ import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.domain.jar.Jar;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.PluginStore;
 import dev.buildcli.plugin.utils.BuildCLIPluginUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
-import java.io.File;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -30,7 +29,7 @@ import static dev.buildcli.core.utils.BeautifyShell.*;
 )
 public class ListCommand implements BuildCLICommand {
   private static final Logger logger = LoggerFactory.getLogger("ListPluginCommand");
-  private static final String DEFAULT_PLUGINS_DIR = System.getProperty("user.home") + "/.buildcli/plugins";
+  private static final String DEFAULT_PLUGINS_DIR = PluginStore.DEFAULT_DIRECTORY.toString();
 
   @Option(
       names = {"--verbose", "-v"},
@@ -72,11 +71,11 @@ public class ListCommand implements BuildCLICommand {
         continue;
       }
 
-      List<File> jarFiles = FindFilesUtils.searchJarFiles(path.toFile());
+      List<Path> jarFiles = new PluginStore(path).jars();
 
-      for (File jarFile : jarFiles) {
+      for (Path jarFile : jarFiles) {
         try {
-          Jar jar = new Jar(jarFile);
+          Jar jar = new Jar(jarFile.toFile());
           if (BuildCLIPluginUtils.isValid(jar)) {
             plugins.add(extractPluginInfo(jar));
           }
@@ -3,15 +3,14 @@ package dev.buildcli.cli.commands.plugin;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.filesystem.PluginStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Parameters;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -27,7 +26,7 @@ import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.questi
 )
 public class RmCommand implements BuildCLICommand {
   private static final Logger logger = LoggerFactory.getLogger("RmPluginCommand");
-  private static final String DEFAULT_PLUGINS_DIR = System.getProperty("user.home") + "/.buildcli/plugins";
+  private static final String DEFAULT_PLUGINS_DIR = PluginStore.DEFAULT_DIRECTORY.toString();
 
   @Parameters(description = "Names of the plugins to remove (without .jar extension)")
   private List<String> names;
@@ -71,9 +70,9 @@ public class RmCommand implements BuildCLICommand {
     boolean anyRemoved = false;
 
     for (String path : pluginPaths) {
+      PluginStore store = new PluginStore(Path.of(path));
       for (String pluginName : pluginsToRemove) {
-        Path jarPath = Paths.get(path, pluginName + ".jar");
-        anyRemoved |= removePlugin(jarPath);
+        anyRemoved |= removePlugin(store, pluginName);
       }
     }
 
@@ -82,22 +81,22 @@ public class RmCommand implements BuildCLICommand {
     }
   }
 
-  private boolean removePlugin(Path jarPath) {
-    logger.info("Checking for plugin at {}", jarPath);
+  private boolean removePlugin(PluginStore store, String pluginName) {
+    logger.info("Checking for plugin {} in {}", pluginName, store.getDirectory());
 
-    if (!Files.isRegularFile(jarPath)) {
-      logger.info("Plugin {} does not exist", jarPath.getFileName());
+    if (!store.isInstalled(pluginName)) {
+      logger.info("Plugin {} does not exist", pluginName);
       return false;
     }
 
     try {
-      logger.info("Removing plugin {}", jarPath);
-      Files.delete(jarPath);
-      logger.info("Successfully removed plugin {}", jarPath.getFileName());
+      logger.info("Removing plugin {}", pluginName);
+      store.remove(pluginName);
+      logger.info("Successfully removed plugin {}", pluginName);
       return true;
     } catch (IOException e) {
-      logger.error("Failed to remove plugin {}: {}", jarPath, e.getMessage());
-      throw new RuntimeException("Failed to remove plugin: " + jarPath, e);
+      logger.error("Failed to remove plugin {}: {}", pluginName, e.getMessage());
+      throw new RuntimeException("Failed to remove plugin: " + pluginName, e);
     }
   }
 }
\ No newline at end of file
@@ -4,11 +4,100 @@ import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.domain.BuildCLICommand;
 import dev.buildcli.core.utils.DirectoryCleanup;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static dev.buildcli.core.utils.BeautifyShell.*;
 
 @Command(name = "cleanup", aliases = {"clean"}, description = "Removes generated files by cleaning the project's target directory.", mixinStandardHelpOptions = true)
 public class CleanupCommand implements BuildCLICommand {
+  @Option(names = {"--recursive", "-r"}, description = "Cleans the target directory of every Maven module below the current directory.",
+      defaultValue = "false")
+  private boolean recursive;
+
+  @Option(names = {"--detach", "-d"}, description = "Returns as soon as the directories are moved aside and lets the "
+      + "operating system delete them in the background.", defaultValue = "false")
+  private boolean detach;
+
   @Override
   public void run() {
-    DirectoryCleanup.cleanup(MavenConstants.TARGET);
+    var workspace = Path.of(".").toAbsolutePath().normalize();
+    var targets = recursive ? DirectoryCleanup.findTargets(workspace) : existing(workspace.resolve(MavenConstants.TARGET));
+
+    var trash = new LinkedHashSet<Path>();
+    var inPlace = new ArrayList<Path>();
+    for (var target : targets) {
+      DirectoryCleanup.moveToTrash(target).ifPresentOrElse(trash::add, () -> inPlace.add(target));
+      // leftovers of cleanups that were interrupted before they finished deleting
+      trash.addAll(DirectoryCleanup.findTrash(target.getParent()));
+    }
+    if (targets.isEmpty()) {
+      trash.addAll(DirectoryCleanup.findTrash(workspace));
+    }
+
+    if (trash.isEmpty() && inPlace.isEmpty()) {
+      System.out.println(yellowFg("Nothing to clean."));
+      return;
+    }
+
+    targets.forEach(target -> System.out.println("Cleaned " + greenFg(workspace.relativize(target))));
+
+    if (detach && inPlace.isEmpty()) {
+      try {
+        DirectoryCleanup.deleteDetached(List.copyOf(trash));
+        return;
+      } catch (IOException e) {
+        System.err.println(yellowFg("Could not delete in the background, deleting now: " + e.getMessage()));
+      }
+    }
+
+    delete(List.copyOf(trash), inPlace);
+  }
+
+  private void delete(List<Path> trash, List<Path> inPlace) {
+    var progress = new LongAdder();
+    var reports = new ArrayList<CompletableFuture<DirectoryCleanup.Report>>();
+    trash.forEach(path -> reports.add(DirectoryCleanup.deleteAsync(path, progress)));
+    inPlace.forEach(path -> reports.add(DirectoryCleanup.deleteAsync(path, progress)));
+
+    var all = CompletableFuture.allOf(reports.toArray(CompletableFuture[]::new));
+    try {
+      while (true) {
+        try {
+          all.get(250, TimeUnit.MILLISECONDS);
+          break;
+        } catch (TimeoutException e) {
+          System.out.print("\rDeleted " + progress.sum() + " files...");
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return;
+    } catch (ExecutionException e) {
+      System.err.println(redFg("Cleanup failed: " + e.getCause().getMessage()));
+      return;
+    }
+
+    var errors = reports.stream().flatMap(report -> report.join().errors().stream()).toList();
+    System.out.println("\rDeleted " + progress.sum() + " files.   ");
+    if (!errors.isEmpty()) {
+      System.err.println(redFg("Could not delete %d entries:".formatted(errors.size())));
+      errors.stream().limit(10).forEach(error -> System.err.println("  " + error));
+    }
+  }
+
+  private static List<Path> existing(Path target) {
+    return Files.isDirectory(target) ? List.of(target) : List.of();
   }
 }
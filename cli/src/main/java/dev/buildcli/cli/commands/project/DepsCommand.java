@@ -0,0 +1,10 @@
+package dev.buildcli.cli.commands.project;
+
+import dev.buildcli.cli.commands.project.deps.TreeCommand;
+import picocli.CommandLine.Command;
+
+@Command(name = "deps", description = "Inspects the project dependency graph.", mixinStandardHelpOptions = true,
+    subcommands = {TreeCommand.class}
+)
+public class DepsCommand {
+}
@@ -0,0 +1,60 @@
+package dev.buildcli.cli.commands.project;
+
+import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.utils.filesystem.ProjectFileIndex;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+import static dev.buildcli.core.utils.BeautifyShell.*;
+
+@Command(name = "index", description = "Refreshes the file index other commands read instead of walking the project, "
+    + "or keeps it live with --watch.", mixinStandardHelpOptions = true)
+public class IndexCommand implements BuildCLICommand {
+  @Option(names = {"--path", "-p"}, description = "The project directory.", defaultValue = ".")
+  private Path path;
+
+  @Option(names = {"--watch", "-w"}, description = "Keeps running and updates the index as files change.",
+      defaultValue = "false")
+  private boolean watch;
+
+  @Override
+  public void run() {
+    var index = ProjectFileIndex.open(path);
+    System.out.printf("Indexed %s files of %s%n", greenFg(index.entries().size()), index.getRoot());
+
+    if (!watch) {
+      return;
+    }
+
+    try {
+      var watcher = index.watch(this::printChanges);
+      // Ctrl+C ends the JVM without returning from await(), so the watcher is closed by a shutdown hook
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> close(watcher)));
+      System.out.println(italic("Watching for changes, press Ctrl+C to stop."));
+      new CountDownLatch(1).await();
+    } catch (IOException e) {
+      System.err.println(redFg("Could not watch " + index.getRoot() + ": " + e.getMessage()));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private static void close(Closeable watcher) {
+    try {
+      watcher.close();
+    } catch (IOException e) {
+      // exiting anyway; a stale heartbeat expires on its own
+    }
+  }
+
+  private void printChanges(ProjectFileIndex.Changes changes) {
+    changes.added().forEach(file -> System.out.println(greenFg("+ ") + file));
+    changes.modified().forEach(file -> System.out.println(yellowFg("~ ") + file));
+    changes.removed().forEach(file -> System.out.println(redFg("- ") + file));
+  }
+}
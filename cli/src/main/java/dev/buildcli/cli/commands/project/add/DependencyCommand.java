@@ -27,6 +27,8 @@ public class DependencyCommand implements BuildCLICommand {
   private String dependency;
   @Option(names = {"--manual", "-m"}, description = "Defines if dependency will be added manually or not.")
   Boolean manually;
+  @Option(names = {"--offline", "-o"}, description = "Searches only the local dependency index, without reaching Maven Central.")
+  boolean offline;
 
   @Override
   public void run() {
@@ -47,7 +49,7 @@ public class DependencyCommand implements BuildCLICommand {
 
   @NotNull
   private String getPomWithAddedDependencies() {
-    DependencySearchService service = new DependencySearchService();
+    DependencySearchService service = new DependencySearchService().offline(offline);
     List<String> dependencies =  List.of(dependency);
 
     if(manually==null) {
@@ -56,7 +58,11 @@ public class DependencyCommand implements BuildCLICommand {
     List<String> pomWithAddedDependencies = new ArrayList<>();
     dependencies.forEach(dep -> {
       try {
-        pomWithAddedDependencies.add(PomReader.addOrUpdateDependency(MavenConstants.FILE, PomUtils.convertToDependency(dep)));
+        var parsed = PomUtils.convertToDependency(dep);
+        if (manually != null && parsed.getVersion() == null) {
+          service.resolveVersion(parsed.getGroupId(), parsed.getArtifactId()).ifPresent(parsed::setVersion);
+        }
+        pomWithAddedDependencies.add(PomReader.addOrUpdateDependency(MavenConstants.FILE, parsed));
       } catch (Exception e) {
         throw new RuntimeException(e);
       }
@@ -0,0 +1,75 @@
+package dev.buildcli.cli.commands.project.deps;
+
+import dev.buildcli.core.actions.dependency.DependencyNode;
+import dev.buildcli.core.actions.dependency.DependencyTree;
+import dev.buildcli.core.actions.dependency.DependencyTreeResolver;
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.exceptions.ModelResolutionException;
+import dev.buildcli.core.utils.tools.maven.EffectiveModelBuilder;
+import dev.buildcli.core.utils.tools.maven.MavenRepository;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Objects;
+
+import static dev.buildcli.core.utils.BeautifyShell.*;
+
+@Command(name = "tree", description = "Prints the transitive dependency tree without running Maven, "
+    + "and reports version conflicts.", mixinStandardHelpOptions = true)
+public class TreeCommand implements BuildCLICommand {
+  @Option(names = {"--file", "-f"}, description = "The pom to resolve.", defaultValue = MavenConstants.FILE)
+  private Path pomFile;
+
+  @Option(names = {"--verbose", "-v"}, description = "Also prints dependencies omitted as duplicates or conflicts.",
+      defaultValue = "false")
+  private boolean verbose;
+
+  @Override
+  public void run() {
+    DependencyTree tree;
+    try {
+      tree = new DependencyTreeResolver(new EffectiveModelBuilder(MavenRepository.fromConfig())).resolve(pomFile);
+    } catch (ModelResolutionException e) {
+      System.err.println(redFg("Could not resolve " + pomFile + ": " + e.getMessage()));
+      return;
+    }
+
+    var project = tree.project();
+    System.out.println(project.key() + ":" + project.packaging() + ":" + project.version());
+    print(tree.dependencies(), "");
+
+    if (tree.conflicts().isEmpty()) {
+      return;
+    }
+
+    System.out.println();
+    System.out.println(yellowFg("Version conflicts (nearest wins):"));
+    tree.conflicts().forEach(conflict -> System.out.printf("  %s %s (also requested: %s)%n",
+        conflict.key(), greenFg(conflict.selectedVersion()), String.join(", ", conflict.omittedVersions())));
+  }
+
+  private void print(List<DependencyNode> nodes, String indent) {
+    var visible = nodes.stream().filter(node -> verbose || !node.isOmitted()).toList();
+
+    for (int i = 0; i < visible.size(); i++) {
+      var node = visible.get(i);
+      var last = i == visible.size() - 1;
+      var line = new StringBuilder(indent).append(last ? "\\- " : "+- ").append(node);
+
+      if (node.isOmitted()) {
+        line.append(Objects.equals(node.getOmittedFor(), node.getVersion())
+            ? italic(" (omitted for duplicate)")
+            : yellowFg(" (omitted for conflict with " + node.getOmittedFor() + ")"));
+      }
+      if (node.getError() != null) {
+        line.append(redFg(" (" + node.getError() + ")"));
+      }
+
+      System.out.println(line);
+      print(node.getChildren(), indent + (last ? "   " : "|  "));
+    }
+  }
+}
@@ -1,18 +1,104 @@
 package dev.buildcli.cli.commands.project.update;
 
+import dev.buildcli.core.actions.dependency.BulkDependencyBump;
+import dev.buildcli.core.actions.dependency.DependencyUpdate;
+import dev.buildcli.core.actions.dependency.DependencyUpdateChecker;
+import dev.buildcli.core.actions.dependency.PomBumpResult;
+import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.project.ProjectUpdater;
 import dev.buildcli.core.domain.BuildCLICommand;
+import dev.buildcli.core.utils.tools.maven.MavenRepository;
+import dev.buildcli.core.utils.tools.maven.PomReader;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
-@Command(name = "dependency", aliases = {"d"}, description = "", mixinStandardHelpOptions = true)
+import java.nio.file.Path;
+import java.util.List;
+
+import static dev.buildcli.core.utils.BeautifyShell.*;
+
+@Command(name = "dependency", aliases = {"d"}, description = "Updates the project dependencies to their latest releases, "
+    + "or only lists the available updates.", mixinStandardHelpOptions = true)
 public class DependencyCommand implements BuildCLICommand {
-  @Option(names = {"--checkOnly"}, description = "", defaultValue = "false")
+  @Option(names = {"--checkOnly"}, description = "Only lists newer versions, reading repository metadata "
+      + "directly instead of running Maven.", defaultValue = "false")
   private boolean checkOnly;
 
+  @Option(names = {"--group", "-g"}, description = "Sets the version of every dependency of this groupId "
+      + "instead of updating to the latest releases. Requires --to.")
+  private String group;
+
+  @Option(names = {"--artifact", "-a"}, description = "Restricts --group to one artifactId.")
+  private String artifact;
+
+  @Option(names = {"--to"}, description = "The version to set with --group.")
+  private String to;
+
+  @Option(names = {"--recursive", "-r"}, description = "Edits every pom.xml under the current directory, "
+      + "not only the one in it.", defaultValue = "false")
+  private boolean recursive;
+
   @Override
   public void run() {
+    if (group != null) {
+      if (to == null) {
+        System.err.println(redFg("--group requires --to <version>."));
+        return;
+      }
+      printBumps(new BulkDependencyBump(group, artifact, to).apply(Path.of("."), recursive));
+      return;
+    }
+
+    if (checkOnly) {
+      var checker = new DependencyUpdateChecker(MavenRepository.fromConfig());
+      printUpdates(checker.check(PomReader.read(MavenConstants.FILE)));
+      return;
+    }
+
     ProjectUpdater updater = new ProjectUpdater();
-    updater.updateNow(!checkOnly).execute();
+    updater.updateNow(true).execute();
+  }
+
+  private void printBumps(List<PomBumpResult> results) {
+    if (results.isEmpty()) {
+      System.out.println(yellowFg("No pom.xml found."));
+      return;
+    }
+
+    for (var result : results) {
+      if (result.isFailed()) {
+        System.out.printf("%s %s%n", redFg("FAILED   "), result.pom() + ": " + result.error());
+      } else if (result.isChanged()) {
+        System.out.printf("%s %s%n", greenFg("UPDATED  "), result.pom());
+        result.changes().forEach(change -> System.out.println(italic("      " + change)));
+      } else {
+        System.out.printf("%s %s%n", "unchanged", result.pom());
+      }
+    }
+
+    System.out.printf("%d updated, %d unchanged, %d failed%n",
+        results.stream().filter(PomBumpResult::isChanged).count(),
+        results.stream().filter(r -> !r.isChanged() && !r.isFailed()).count(),
+        results.stream().filter(PomBumpResult::isFailed).count());
+  }
+
+  private void printUpdates(List<DependencyUpdate> updates) {
+    var outdated = updates.stream().filter(DependencyUpdate::hasUpdates).toList();
+
+    if (outdated.isEmpty()) {
+      System.out.println(greenFg("All checked dependencies are up to date."));
+    } else {
+      System.out.println(yellowFg("The following dependencies have newer versions:"));
+      for (var update : outdated) {
+        System.out.printf("  %s %s -> %s%n", update.dependency().getKey(),
+            update.dependency().getVersion(), greenFg(update.latestVersion()));
+        System.out.println(italic("      newer: " + String.join(", ", update.newerVersions())));
+      }
+    }
+
+    updates.stream()
+        .filter(DependencyUpdate::isSkipped)
+        .forEach(update -> System.out.printf("  %s skipped: %s%n",
+            update.dependency().getKey(), italic(update.skippedReason())));
   }
 }
@@ -0,0 +1,126 @@
+package dev.buildcli.cli.benchmark;
+
+import ch.qos.logback.classic.Logger;
+import dev.buildcli.cli.BuildCLI;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code ai code document} and {@code ai code test -y} end to end over a synthetic source tree, answered by
+ * the fake vendor, so the numbers are the pipeline's own: scanning, batching, chunking, scheduling, caching and
+ * writing files.
+ *
+ * <p>Every trial runs in a fresh JVM whose {@code user.home} is {@code target/benchmark-home}, so the cache,
+ * run journals and global configuration of the user are left alone. Run it offline with:</p>
+ *
+ * <pre>
+ * mvn -pl cli -am install -DskipTests
+ * mvn -pl cli test-compile exec:exec -Dexec.executable=java -Dexec.classpathScope=test \
+ *     -Dexec.args="-cp %classpath org.openjdk.jmh.Main dev.buildcli.cli.benchmark"
+ * </pre>
+ *
+ * <p>JMH options go after the pattern, e.g. {@code -p latency=200 -p tokensPerSecond=50} to add model time, or
+ * {@code -p cacheSize=0} to measure without the response cache. The source tree is rewritten before every call,
+ * so with the cache on, the calls after the first one measure answers served from the cache.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Duser.home=target/benchmark-home")
+public class AIPipelineBenchmark {
+  @Param({"50"})
+  public int files;
+
+  @Param({"2", "8"})
+  public int concurrency;
+
+  /**
+   * Megabytes of response cache, {@code 0} disables it.
+   */
+  @Param({"0", "256"})
+  public int cacheSize;
+
+  /**
+   * Milliseconds before the first token of every answer.
+   */
+  @Param({"0"})
+  public int latency;
+
+  @Param({"0"})
+  public int tokensPerSecond;
+
+  private Path project;
+  private Path sources;
+  private Path cache;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    // the commands log a line or more per file; writing them out would be measured along with the pipeline
+    ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(ch.qos.logback.classic.Level.WARN);
+
+    project = Files.createTempDirectory("buildcli-benchmark");
+    cache = Files.createTempDirectory("buildcli-benchmark-cache");
+
+    // the fork is fresh, so these are read before anything caches them
+    var configs = ConfigContextLoader.getAllConfigs();
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_VENDOR, "fake");
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_FAKE_LATENCY, String.valueOf(latency));
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_FAKE_JITTER, String.valueOf(latency / 4));
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_FAKE_TOKENS_PER_SECOND, String.valueOf(tokensPerSecond));
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_CONCURRENCY, String.valueOf(concurrency));
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_CACHE_SIZE, String.valueOf(cacheSize));
+    configs.addOrSetProperty(ConfigDefaultConstants.AI_CACHE_DIR, cache.toString());
+  }
+
+  /**
+   * {@code document} skips the files an earlier call documented, so each call starts from the original sources,
+   * without the tests generated by earlier calls either.
+   */
+  @Setup(Level.Invocation)
+  public void resetSources() throws IOException {
+    SyntheticSources.delete(project.resolve("src"));
+    sources = SyntheticSources.write(project, files);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    SyntheticSources.delete(project);
+    SyntheticSources.delete(cache);
+  }
+
+  @Benchmark
+  public int document() {
+    return run("ai", "code", "document", sources.toString());
+  }
+
+  @Benchmark
+  public int generateTests() {
+    return run("ai", "code", "test", "-y", sources.toString());
+  }
+
+  private static int run(String... args) {
+    return new CommandLine(new BuildCLI()).execute(args);
+  }
+}
@@ -0,0 +1,45 @@
+package dev.buildcli.cli.benchmark;
+
+import dev.buildcli.core.utils.ai.CodeUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link CodeUtils#extractCode(String)} on answers shaped like the model's: prose around a fenced
+ * class of {@code methods} methods. See {@link AIPipelineBenchmark} for how to run it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodeUtilsBenchmark {
+  @Param({"4", "80"})
+  public int methods;
+
+  private String answer;
+
+  @Setup
+  public void setUp() {
+    answer = "Here is the documented code:\n\n```java\n"
+        + SyntheticSources.source("bench", "Documented", methods)
+        + "```\n\nEvery public method now has a Javadoc comment.\n";
+  }
+
+  @Benchmark
+  public String extractCode() {
+    return CodeUtils.extractCode(answer);
+  }
+}
@@ -0,0 +1,71 @@
+package dev.buildcli.cli.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Writes a Maven-like tree of generated Java sources: mostly small classes, and every tenth one large enough
+ * to be documented in chunks.
+ */
+final class SyntheticSources {
+  private static final int PACKAGES = 5;
+
+  private SyntheticSources() {
+  }
+
+  /**
+   * @return the {@code src/main/java} directory of the tree
+   */
+  static Path write(Path project, int files) throws IOException {
+    var sources = project.resolve("src/main/java");
+    for (int i = 0; i < files; i++) {
+      var pkg = "bench.pkg" + (i % PACKAGES);
+      var directory = sources.resolve(pkg.replace('.', '/'));
+      Files.createDirectories(directory);
+      Files.createDirectories(project.resolve("src/test/java").resolve(pkg.replace('.', '/')));
+
+      var name = "Class" + i;
+      Files.writeString(directory.resolve(name + ".java"), source(pkg, name, i % 10 == 9 ? 80 : 4));
+    }
+    return sources;
+  }
+
+  static String source(String pkg, String name, int methods) {
+    var source = new StringBuilder()
+        .append("package ").append(pkg).append(";\n\n")
+        .append("import java.util.List;\n\n")
+        .append("public class ").append(name).append(" {\n")
+        .append("  private final List<String> values;\n\n")
+        .append("  public ").append(name).append("(List<String> values) {\n")
+        .append("    this.values = values;\n")
+        .append("  }\n");
+
+    for (int i = 0; i < methods; i++) {
+      source.append('\n')
+          .append("  public int count").append(i).append("(String prefix) {\n")
+          .append("    int count = 0;\n")
+          .append("    for (var value : values) {\n")
+          .append("      if (value.startsWith(prefix) && value.length() > ").append(i).append(") {\n")
+          .append("        count++;\n")
+          .append("      }\n")
+          .append("    }\n")
+          .append("    return count;\n")
+          .append("  }\n");
+    }
+    return source.append("}\n").toString();
+  }
+
+  static void delete(Path directory) throws IOException {
+    if (directory == null || !Files.exists(directory)) {
+      return;
+    }
+    try (Stream<Path> files = Files.walk(directory)) {
+      for (var file : files.sorted(Comparator.reverseOrder()).toList()) {
+        Files.delete(file);
+      }
+    }
+  }
+}
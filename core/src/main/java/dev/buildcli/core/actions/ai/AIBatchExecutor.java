@@ -0,0 +1,305 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Runs AI requests for a batch of files at a pace the model can sustain.
+ *
+ * <p>A fixed number of workers takes requests from a bounded queue, so at most {@code maxInFlight}
+ * requests reach the model at once and {@link #submit(Supplier)} blocks once the queue is full instead of
+ * piling up work in memory. Each attempt waits for a token of the optional rate limit, is abandoned
+ * after {@code timeout} and is retried with exponential backoff up to {@code retries} times.</p>
+ *
+ * <p>An abandoned attempt may go on running: HTTP clients do not always answer an interrupt. It keeps its
+ * in-flight slot until it really ends, so a retry never pushes the model past {@code maxInFlight}. The model
+ * is loaded by the optional {@code warmUp} before the timer starts, so a slow download or load is never taken
+ * for a request that timed out.</p>
+ */
+public class AIBatchExecutor implements AutoCloseable {
+  private static final Logger logger = LoggerFactory.getLogger(AIBatchExecutor.class);
+  private static final Runnable STOP = () -> {};
+
+  private final BlockingQueue<Runnable> queue;
+  private final List<Thread> workers = new ArrayList<>();
+  private final Semaphore inFlight;
+  private final TokenBucket rateLimit;
+  private final Supplier<? extends Future<?>> warmUp;
+  private final Duration timeout;
+  private final int retries;
+  private final Duration backoff;
+  private volatile boolean closed;
+
+  private AIBatchExecutor(Builder builder) {
+    this.queue = new ArrayBlockingQueue<>(builder.queueCapacity);
+    this.inFlight = new Semaphore(builder.maxInFlight);
+    this.rateLimit = builder.requestsPerMinute > 0 ? new TokenBucket(builder.requestsPerMinute, builder.maxInFlight) : null;
+    this.timeout = builder.timeout;
+    this.retries = builder.retries;
+    this.backoff = builder.backoff;
+    this.warmUp = builder.warmUp;
+
+    for (int i = 0; i < builder.maxInFlight; i++) {
+      workers.add(Thread.ofVirtual().name("ai-batch-", i).start(this::work));
+    }
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * @return an executor configured by {@code buildcli.ai.concurrency}, {@code buildcli.ai.rate.limit},
+   * {@code buildcli.ai.timeout} and {@code buildcli.ai.retries}
+   */
+  public static AIBatchExecutor fromConfig() {
+    return configured().build();
+  }
+
+  /**
+   * @return an executor configured like {@link #fromConfig()} that has the shared service for {@code aiParams}
+   * built before timing the first attempt
+   */
+  public static AIBatchExecutor fromConfig(AIServiceParams aiParams) {
+    return configured().warmUp(() -> AIServiceRegistry.shared().warmUp(aiParams)).build();
+  }
+
+  private static Builder configured() {
+    var configs = ConfigContextLoader.getAllConfigs();
+    var maxInFlight = configs.getProperty(ConfigDefaultConstants.AI_CONCURRENCY).map(Integer::parseInt).orElse(2);
+
+    return builder()
+        .maxInFlight(maxInFlight)
+        .queueCapacity(maxInFlight * 4)
+        .requestsPerMinute(configs.getProperty(ConfigDefaultConstants.AI_RATE_LIMIT).map(Double::parseDouble).orElse(0d))
+        .timeout(Duration.ofSeconds(configs.getProperty(ConfigDefaultConstants.AI_TIMEOUT).map(Long::parseLong).orElse(300L)))
+        .retries(configs.getProperty(ConfigDefaultConstants.AI_RETRIES).map(Integer::parseInt).orElse(2));
+  }
+
+  public int getMaxInFlight() {
+    return workers.size();
+  }
+
+  /**
+   * Queues {@code request}, blocking while the queue is full.
+   *
+   * @return a future completed with the result of the first successful attempt, or with the failure of the last;
+   * cancelling it before the request starts keeps the request from being sent, cancelling it later interrupts the
+   * running attempt and stops the retries
+   */
+  public <T> CompletableFuture<T> submit(Supplier<T> request) {
+    if (closed) {
+      throw new IllegalStateException("AIBatchExecutor is closed");
+    }
+
+    var result = new CompletableFuture<T>();
+    try {
+      queue.put(() -> {
+        if (result.isDone()) {
+          return;
+        }
+
+        // the worker is interrupted only while it runs this request, never once it has moved on to the next
+        var worker = new AtomicReference<>(Thread.currentThread());
+        result.whenComplete((value, throwable) -> {
+          synchronized (worker) {
+            if (worker.get() != null && result.isCancelled()) {
+              worker.get().interrupt();
+            }
+          }
+        });
+        try {
+          result.complete(execute(request, result));
+        } catch (Throwable e) {
+          result.completeExceptionally(e);
+        } finally {
+          synchronized (worker) {
+            worker.set(null);
+            Thread.interrupted();
+          }
+        }
+      });
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      result.completeExceptionally(e);
+    }
+    return result;
+  }
+
+  /**
+   * Lets the workers finish every queued request and waits for them.
+   */
+  @Override
+  public void close() {
+    if (closed) {
+      return;
+    }
+    closed = true;
+
+    try {
+      for (int i = 0; i < workers.size(); i++) {
+        queue.put(STOP);
+      }
+      for (var worker : workers) {
+        worker.join();
+      }
+    } catch (InterruptedException e) {
+      workers.forEach(Thread::interrupt);
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void work() {
+    try {
+      for (var task = queue.take(); task != STOP; task = queue.take()) {
+        task.run();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private <T> T execute(Supplier<T> request, CompletableFuture<T> result) throws Exception {
+    for (int attempt = 0; ; attempt++) {
+      try {
+        return attempt(request);
+      } catch (InterruptedException e) {
+        throw e;
+      } catch (Exception e) {
+        if (attempt >= retries || result.isDone()) {
+          throw e;
+        }
+
+        var delay = backoff.multipliedBy(1L << attempt);
+        logger.warn("AI request failed ({}), retrying in {} ms", e.getMessage(), delay.toMillis());
+        Thread.sleep(delay);
+      }
+    }
+  }
+
+  /**
+   * Runs one attempt on its own thread so that it can be abandoned, and interrupted, when it exceeds the timeout.
+   * The thread holds an in-flight permit until the request returns, whether or not the attempt was abandoned.
+   */
+  private <T> T attempt(Supplier<T> request) throws Exception {
+    if (warmUp != null) {
+      try {
+        warmUp.get().get();
+      } catch (ExecutionException e) {
+        throw e.getCause() instanceof Exception cause ? cause : e;
+      }
+    }
+    if (rateLimit != null) {
+      rateLimit.acquire();
+    }
+
+    inFlight.acquire();
+    Future<T> future;
+    try {
+      future = ThreadPoolUtils.virtual().submit(() -> {
+        try {
+          return request.get();
+        } finally {
+          inFlight.release();
+        }
+      });
+    } catch (RuntimeException e) {
+      inFlight.release();
+      throw e;
+    }
+    try {
+      return future.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      future.cancel(true);
+      throw new TimeoutException("AI request timed out after %d ms".formatted(timeout.toMillis()));
+    } catch (InterruptedException | CancellationException e) {
+      future.cancel(true);
+      throw e;
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof Exception cause ? cause : e;
+    }
+  }
+
+  public static class Builder {
+    private int maxInFlight = 2;
+    private int queueCapacity = 8;
+    private double requestsPerMinute;
+    private Duration timeout = Duration.ofMinutes(5);
+    private int retries = 2;
+    private Duration backoff = Duration.ofSeconds(1);
+    private Supplier<? extends Future<?>> warmUp;
+
+    private Builder() {
+    }
+
+    public Builder maxInFlight(int maxInFlight) {
+      if (maxInFlight <= 0) {
+        throw new IllegalArgumentException("maxInFlight must be greater than 0");
+      }
+      this.maxInFlight = maxInFlight;
+      return this;
+    }
+
+    public Builder queueCapacity(int queueCapacity) {
+      if (queueCapacity <= 0) {
+        throw new IllegalArgumentException("queueCapacity must be greater than 0");
+      }
+      this.queueCapacity = queueCapacity;
+      return this;
+    }
+
+    /**
+     * @param requestsPerMinute attempts allowed per minute, {@code 0} for no limit
+     */
+    public Builder requestsPerMinute(double requestsPerMinute) {
+      this.requestsPerMinute = requestsPerMinute;
+      return this;
+    }
+
+    public Builder timeout(Duration timeout) {
+      this.timeout = timeout;
+      return this;
+    }
+
+    public Builder retries(int retries) {
+      this.retries = Math.max(0, retries);
+      return this;
+    }
+
+    public Builder backoff(Duration backoff) {
+      this.backoff = backoff;
+      return this;
+    }
+
+    /**
+     * @param warmUp returns a future completed once the model is ready; it is waited for, untimed, before each
+     *               attempt and asked again after a failure
+     */
+    public Builder warmUp(Supplier<? extends Future<?>> warmUp) {
+      this.warmUp = warmUp;
+      return this;
+    }
+
+    public AIBatchExecutor build() {
+      return new AIBatchExecutor(this);
+    }
+  }
+}
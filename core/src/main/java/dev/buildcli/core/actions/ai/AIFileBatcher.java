@@ -0,0 +1,187 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.constants.AIConstants;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Sends small files to the model several at a time, so that a module full of DTOs and enums does not cost a
+ * round trip, and a copy of the system prompt, per file.
+ *
+ * <p>Files are packed in order into batches of at most {@code maxChars} characters and {@value #MAX_FILES}
+ * files. A batch is sent as one message, each file between {@code <<<FILE n: name>>>} and
+ * {@code <<<END FILE n>>>} lines, and the model is asked to answer between the same markers. Files whose answer
+ * is missing, or rejected by the caller, are sent again on their own. A batch of one file is sent as is.</p>
+ */
+public class AIFileBatcher {
+  private static final Logger logger = LoggerFactory.getLogger(AIFileBatcher.class);
+  private static final Pattern ANSWER = Pattern.compile("<<<FILE (\\d+)[^\\n>]*>>>\\R?(.*?)\\R?<<<END FILE \\1>>>", Pattern.DOTALL);
+
+  public static final int MAX_FILES = 10;
+
+  private final AIBatchExecutor executor;
+  private final Function<AIChat, String> model;
+
+  /**
+   * @param model answers a chat, usually through the response cache and the shared service
+   */
+  public AIFileBatcher(AIBatchExecutor executor, Function<AIChat, String> model) {
+    this.executor = executor;
+    this.model = model;
+  }
+
+  /**
+   * Submits a request for every file, blocking while the executor queue is full.
+   *
+   * @param accept tells whether an answer taken from a batch is acceptable for a source, e.g. that the
+   *               documented code is still the same code
+   * @return the answer of every file, in the order of {@code files}
+   */
+  public Map<Path, CompletableFuture<String>> submit(String systemPrompt, List<Path> files, long maxChars,
+                                                     BiPredicate<String, String> accept) {
+    var answers = new LinkedHashMap<Path, CompletableFuture<String>>();
+
+    for (var batch : pack(files, maxChars)) {
+      if (batch.size() == 1) {
+        answers.put(batch.getFirst(), submitSingle(systemPrompt, batch.getFirst()));
+        continue;
+      }
+
+      logger.debug("Sending {} files in one request", batch.size());
+      var response = executor.submit(() -> generate(systemPrompt + AIConstants.FILE_BATCH_NOTE, batch))
+          .exceptionally(throwable -> {
+            logger.warn("Batch request failed, sending its files one by one: {}", throwable.getMessage());
+            return null;
+          });
+
+      for (int i = 0; i < batch.size(); i++) {
+        var file = batch.get(i);
+        var index = i;
+        // composed on another thread: submitting from an executor worker could wait for itself
+        answers.put(file, response.thenComposeAsync(result -> {
+          var answer = result == null ? null : result.answer(index);
+          if (answer != null && accept.test(result.sources().get(index), answer)) {
+            return CompletableFuture.completedFuture(answer);
+          }
+
+          logger.debug("No usable answer for {} in its batch, sending it on its own", file);
+          return submitSingle(systemPrompt, file);
+        }, ThreadPoolUtils.virtual()));
+      }
+    }
+    return answers;
+  }
+
+  /**
+   * Packs files in order, by size, into batches of at most {@code maxChars} characters and {@value #MAX_FILES}
+   * files. Larger files get a batch of their own.
+   */
+  static List<List<Path>> pack(List<Path> files, long maxChars) {
+    var batches = new ArrayList<List<Path>>();
+    var batch = new ArrayList<Path>();
+    long size = 0;
+
+    for (var file : files) {
+      var fileSize = size(file);
+      if (!batch.isEmpty() && (size + fileSize > maxChars || batch.size() == MAX_FILES)) {
+        batches.add(batch);
+        batch = new ArrayList<>();
+        size = 0;
+      }
+      batch.add(file);
+      size += fileSize;
+    }
+
+    if (!batch.isEmpty()) {
+      batches.add(batch);
+    }
+    return batches;
+  }
+
+  static String message(List<Path> files, List<String> sources) {
+    var message = new StringBuilder();
+    for (int i = 0; i < files.size(); i++) {
+      var number = i + 1;
+      message.append("<<<FILE ").append(number).append(": ").append(files.get(i).getFileName()).append(">>>\n")
+          .append(sources.get(i).stripTrailing()).append('\n')
+          .append("<<<END FILE ").append(number).append(">>>\n\n");
+    }
+    return message.toString();
+  }
+
+  /**
+   * @return the answer of every file, or nothing when an answer is missing or repeated
+   */
+  static Optional<List<String>> parse(String response, int files) {
+    var answers = new String[files];
+    var matcher = ANSWER.matcher(response == null ? "" : response);
+
+    while (matcher.find()) {
+      var index = Integer.parseInt(matcher.group(1)) - 1;
+      if (index < 0 || index >= files || answers[index] != null) {
+        return Optional.empty();
+      }
+      answers[index] = matcher.group(2);
+    }
+
+    for (var answer : answers) {
+      if (answer == null || answer.isBlank()) {
+        return Optional.empty();
+      }
+    }
+    return Optional.of(List.of(answers));
+  }
+
+  private BatchResult generate(String systemPrompt, List<Path> batch) {
+    var sources = batch.stream().map(AIFileBatcher::read).toList();
+    var response = model.apply(new AIChat(systemPrompt, message(batch, sources)));
+    var answers = parse(response, batch.size());
+
+    if (answers.isEmpty()) {
+      logger.debug("Could not split the answer to a batch of {} files", batch.size());
+    }
+    return new BatchResult(sources, answers.orElse(null));
+  }
+
+  private CompletableFuture<String> submitSingle(String systemPrompt, Path file) {
+    return executor.submit(() -> model.apply(new AIChat(systemPrompt, read(file))));
+  }
+
+  private static String read(Path file) {
+    try {
+      logger.debug("Reading source file: {}", file);
+      return Files.readString(file);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read source file: " + file, e);
+    }
+  }
+
+  private static long size(Path file) {
+    try {
+      return Files.size(file);
+    } catch (IOException e) {
+      return Long.MAX_VALUE;
+    }
+  }
+
+  private record BatchResult(List<String> sources, List<String> answers) {
+    String answer(int index) {
+      return answers == null ? null : answers.get(index);
+    }
+  }
+}
@@ -0,0 +1,210 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.filesystem.LruDirectory;
+import dev.buildcli.core.utils.filesystem.ProjectFileIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Remembers model responses so that files which did not change are not sent to the model again.
+ *
+ * <p>An entry is keyed by the SHA-256 of the vendor, the model, the Ollama URL, the system prompt and the user
+ * message, and stored as {@code <directory>/<first two hex digits>/<key>}. Hits are touched, and once the cache
+ * outgrows its limit the least recently used entries are evicted until it is back under 90% of it.</p>
+ *
+ * <p>Commands that rewrite a file with the answer also {@link #markProcessed mark} the written content, keyed by
+ * the file and that content; otherwise the next run would find a file it has never seen and send it again.</p>
+ */
+public class AIResponseCache {
+  private static final Logger logger = LoggerFactory.getLogger(AIResponseCache.class);
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_CACHE_DIR.resolve("ai");
+  public static final long DEFAULT_MAX_SIZE = 256L * 1024 * 1024;
+
+  private static AIResponseCache sharedInstance;
+
+  private final Path directory;
+  private final long maxSize;
+  private final LruDirectory entries;
+  private final ReentrantLock evictionLock = new ReentrantLock();
+  private AtomicLong size;
+
+  public AIResponseCache(Path directory, long maxSize) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.entries = new LruDirectory(directory, 2, file -> !file.getFileName().toString().startsWith(".tmp-"));
+  }
+
+  public static synchronized AIResponseCache shared() {
+    if (sharedInstance == null) {
+      var configs = ConfigContextLoader.getAllConfigs();
+      var directory = configs.getProperty(ConfigDefaultConstants.AI_CACHE_DIR).map(Path::of).orElse(DEFAULT_DIRECTORY);
+      var maxSize = configs.getProperty(ConfigDefaultConstants.AI_CACHE_SIZE)
+          .map(Long::parseLong)
+          .map(megabytes -> megabytes * 1024 * 1024)
+          .orElse(DEFAULT_MAX_SIZE);
+
+      sharedInstance = new AIResponseCache(directory, maxSize);
+    }
+
+    return sharedInstance;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * Returns the cached response to {@code chat}, asking the service supplied by {@code service} only on a miss.
+   * The service is not obtained at all when the response is cached.
+   */
+  public String generate(AIServiceParams params, AIChat chat, Supplier<AIService> service) {
+    return lookup(params, chat, () -> service.get().generate(chat), cached -> {});
+  }
+
+  /**
+   * Like {@link #generate(AIServiceParams, AIChat, Supplier)}, streaming the response to {@code onToken}: a cached
+   * response is passed at once, a generated one as the model produces it.
+   */
+  public String generate(AIServiceParams params, AIChat chat, Supplier<AIService> service, Consumer<String> onToken) {
+    return lookup(params, chat, () -> service.get().generate(chat, onToken), onToken);
+  }
+
+  private String lookup(AIServiceParams params, AIChat chat, Supplier<String> generator, Consumer<String> onHit) {
+    if (!isEnabled()) {
+      return generator.get();
+    }
+
+    var key = key(params, chat);
+    var cached = get(key);
+    if (cached.isPresent()) {
+      logger.debug("Using cached AI response {}", key);
+      onHit.accept(cached.get());
+      return cached.get();
+    }
+
+    var response = generator.get();
+    put(key, response);
+    return response;
+  }
+
+  /**
+   * Records that {@code file} now holds {@code content}, written from an answer to {@code systemPrompt}.
+   */
+  public void markProcessed(AIServiceParams params, String systemPrompt, Path file, String content) {
+    if (isEnabled()) {
+      put(processedKey(params, systemPrompt, file, content), "");
+    }
+  }
+
+  /**
+   * @return whether {@code file} still holds what was written there from an answer to {@code systemPrompt}
+   */
+  public boolean isProcessed(AIServiceParams params, String systemPrompt, Path file, String content) {
+    return isEnabled() && get(processedKey(params, systemPrompt, file, content)).isPresent();
+  }
+
+  static String key(AIServiceParams params, AIChat chat) {
+    return hash(params, chat.getSystemMessage(), chat.getUserMessage());
+  }
+
+  static String processedKey(AIServiceParams params, String systemPrompt, Path file, String content) {
+    return hash(params, "processed", systemPrompt, file.toAbsolutePath().normalize().toString(), content);
+  }
+
+  private static String hash(AIServiceParams params, String... parts) {
+    var content = new StringBuilder()
+        .append(params.vendor().toLowerCase())
+        .append('\0').append(params.model().orElse(""))
+        .append('\0').append(params instanceof OllamaAIServiceParams ollama && ollama.url() != null ? ollama.url() : "");
+    for (var part : parts) {
+      content.append('\0').append(part == null ? "" : part);
+    }
+    return ProjectFileIndex.sha256(content.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  Optional<String> get(String key) {
+    var entry = entry(key);
+    try {
+      var response = Files.readString(entry, StandardCharsets.UTF_8);
+      LruDirectory.touch(entry);
+      return Optional.of(response);
+    } catch (NoSuchFileException e) {
+      return Optional.empty();
+    } catch (IOException e) {
+      logger.debug("Could not read cached AI response {}: {}", entry, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  void put(String key, String response) {
+    var entry = entry(key);
+    var bytes = response.getBytes(StandardCharsets.UTF_8);
+    try {
+      Files.createDirectories(entry.getParent());
+      var temporary = entry.resolveSibling(".tmp-" + UUID.randomUUID());
+      try {
+        Files.write(temporary, bytes);
+        Files.move(temporary, entry, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    } catch (IOException e) {
+      logger.debug("Could not cache AI response {}: {}", entry, e.getMessage());
+      return;
+    }
+
+    if (size().addAndGet(bytes.length) > maxSize) {
+      evict();
+    }
+  }
+
+  /**
+   * Removes the least recently used entries until the cache uses at most 90% of its limit, leaving room for
+   * the next responses before having to walk the directory again.
+   */
+  public void evict() {
+    evictionLock.lock();
+    try {
+      size().set(entries.evict(maxSize - maxSize / 10, entry -> false));
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private AtomicLong size() {
+    evictionLock.lock();
+    try {
+      if (size == null) {
+        size = new AtomicLong(entries.size());
+      }
+      return size;
+    } finally {
+      evictionLock.unlock();
+    }
+  }
+
+  private Path entry(String key) {
+    return directory.resolve(key.substring(0, 2)).resolve(key);
+  }
+}
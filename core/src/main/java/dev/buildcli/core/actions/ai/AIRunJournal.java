@@ -0,0 +1,233 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.filesystem.ProjectFileIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Records the progress of an AI run, so that an interrupted run can be resumed without redoing the files it
+ * already completed.
+ *
+ * <p>The journal of a run is {@code <runs>/<id>/journal.log}, one line appended per file as it completes:
+ * {@code DONE|FAILED <file hash> <output hash> <absolute path>}. Lines are appended whole, under a lock, and
+ * forced to disk, so a crash leaves at most a partial last line, which is ignored when the journal is read.
+ * A file counts as done when its last line is {@code DONE} and the file still has the hash it had when it
+ * completed, so files edited since are processed again.</p>
+ *
+ * <p>Next to it, {@code <runs>/<id>/command} holds the SHA-256 of the options of the run and the command that
+ * started it. A run can only be resumed by the same command with the same options: an answer from one prompt
+ * or model must not pass for the answer of another.</p>
+ */
+public class AIRunJournal {
+  private static final Logger logger = LoggerFactory.getLogger(AIRunJournal.class);
+  private static final DateTimeFormatter ID_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+  private static final Pattern RUN_ID = Pattern.compile("[\\w-]+");
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_HOME.resolve("runs");
+
+  private enum Status {DONE, FAILED}
+
+  private record Entry(Status status, String fileHash, String outputHash) {
+  }
+
+  private final String id;
+  private final Path journal;
+  private final Path command;
+  private final Map<Path, Entry> entries = new ConcurrentHashMap<>();
+  private final ReentrantLock appendLock = new ReentrantLock();
+
+  AIRunJournal(Path directory, String id) {
+    this.id = id;
+    this.journal = directory.resolve(id).resolve("journal.log");
+    this.command = directory.resolve(id).resolve("command");
+  }
+
+  /**
+   * Starts the journal of a new run under {@link #DEFAULT_DIRECTORY}.
+   *
+   * @param command the command of the run, e.g. {@code ai code document}
+   * @param options the options that shape its answers, such as the model and the prompt
+   */
+  public static AIRunJournal start(String command, String... options) {
+    return start(DEFAULT_DIRECTORY, command, options);
+  }
+
+  static AIRunJournal start(Path directory, String command, String... options) {
+    var id = "%s-%s".formatted(LocalDateTime.now().format(ID_FORMAT),
+        HexFormat.of().toHexDigits((short) ThreadLocalRandom.current().nextInt()));
+    var runJournal = new AIRunJournal(directory, id);
+    try {
+      Files.createDirectories(runJournal.journal.getParent());
+      Files.writeString(runJournal.command, "%s %s\n".formatted(hash(options), command), StandardCharsets.UTF_8);
+      Files.createFile(runJournal.journal);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to create the journal of run " + id, e);
+    }
+    return runJournal;
+  }
+
+  /**
+   * Reopens the journal of run {@code id} under {@link #DEFAULT_DIRECTORY}, to continue it.
+   *
+   * @throws IllegalArgumentException when the run is unknown, or was started by another command or with other
+   *                                  options
+   */
+  public static AIRunJournal resume(String id, String command, String... options) {
+    return resume(DEFAULT_DIRECTORY, id, command, options);
+  }
+
+  static AIRunJournal resume(Path directory, String id, String command, String... options) {
+    if (!RUN_ID.matcher(id).matches()) {
+      throw new IllegalArgumentException("Invalid run id: " + id);
+    }
+
+    var runJournal = new AIRunJournal(directory, id);
+    if (!Files.isRegularFile(runJournal.journal)) {
+      throw new IllegalArgumentException("Unknown run: " + id);
+    }
+    runJournal.checkStartedBy(command, hash(options));
+    runJournal.load();
+    return runJournal;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public Path getJournal() {
+    return journal;
+  }
+
+  /**
+   * @return whether {@code file} was completed by this run and has not changed since
+   */
+  public boolean isDone(Path file) {
+    var entry = entries.get(normalize(file));
+    if (entry == null || entry.status() != Status.DONE) {
+      return false;
+    }
+
+    try {
+      return entry.fileHash().equals(ProjectFileIndex.hash(file));
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Records that {@code file} was completed with {@code output}, once the output was applied to it.
+   */
+  public void completed(Path file, String output) {
+    try {
+      var outputHash = ProjectFileIndex.sha256(output.getBytes(StandardCharsets.UTF_8));
+      append(file, new Entry(Status.DONE, ProjectFileIndex.hash(file), outputHash));
+    } catch (IOException e) {
+      logger.warn("Could not record {} in the journal of run {}: {}", file, id, e.getMessage());
+    }
+  }
+
+  public void failed(Path file) {
+    try {
+      append(file, new Entry(Status.FAILED, "-", "-"));
+    } catch (IOException e) {
+      logger.warn("Could not record {} in the journal of run {}: {}", file, id, e.getMessage());
+    }
+  }
+
+  private void append(Path file, Entry entry) throws IOException {
+    var path = normalize(file);
+    var line = "%s %s %s %s\n".formatted(entry.status(), entry.fileHash(), entry.outputHash(), path);
+
+    appendLock.lock();
+    try (var channel = FileChannel.open(journal, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+      var buffer = ByteBuffer.wrap(line.getBytes(StandardCharsets.UTF_8));
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      channel.force(false);
+      entries.put(path, entry);
+    } finally {
+      appendLock.unlock();
+    }
+  }
+
+  private void checkStartedBy(String expectedCommand, String expectedOptions) {
+    String started;
+    try {
+      started = Files.isRegularFile(command) ? Files.readString(command, StandardCharsets.UTF_8).strip() : "";
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read the command of run " + id, e);
+    }
+
+    var fields = started.split(" ", 2);
+    if (fields.length < 2) {
+      throw new IllegalArgumentException("Run %s does not record the command that started it".formatted(id));
+    }
+    if (!fields[1].equals(expectedCommand)) {
+      throw new IllegalArgumentException("Run %s was started by '%s', it cannot be resumed by '%s'"
+          .formatted(id, fields[1], expectedCommand));
+    }
+    if (!fields[0].equals(expectedOptions)) {
+      throw new IllegalArgumentException(("Run %s was started with other options; resume it with the same vendor, "
+          + "model, context and extensions").formatted(id));
+    }
+  }
+
+  private static String hash(String... options) {
+    var joined = String.join("\0", Arrays.stream(options).map(option -> option == null ? "" : option).toList());
+    return ProjectFileIndex.sha256(joined.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void load() {
+    String content;
+    try {
+      content = Files.readString(journal, StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Unable to read the journal of run " + id, e);
+    }
+
+    // the last line may have been cut short by a crash; only whole lines count, and the next one starts afresh
+    var complete = content.substring(0, content.lastIndexOf('\n') + 1);
+    if (complete.length() < content.length()) {
+      try {
+        Files.writeString(journal, "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Unable to repair the journal of run " + id, e);
+      }
+    }
+    for (var line : complete.split("\n")) {
+      var fields = line.split(" ", 4);
+      if (fields.length < 4) {
+        continue;
+      }
+      try {
+        entries.put(Path.of(fields[3]), new Entry(Status.valueOf(fields[0]), fields[1], fields[2]));
+      } catch (IllegalArgumentException e) {
+        logger.debug("Skipping malformed line in the journal of run {}: {}", id, line);
+      }
+    }
+  }
+
+  private static Path normalize(Path file) {
+    return file.toAbsolutePath().normalize();
+  }
+}
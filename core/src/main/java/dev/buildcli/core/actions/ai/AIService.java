@@ -1,5 +1,19 @@
 package dev.buildcli.core.actions.ai;
 
+import java.util.function.Consumer;
+
 public interface AIService {
   String generate(AIChat chat);
+
+  /**
+   * Generates a response, passing each piece of it to {@code onToken} as soon as the model produces it.
+   * Services that cannot stream pass the whole response at once.
+   *
+   * @return the complete response
+   */
+  default String generate(AIChat chat, Consumer<String> onToken) {
+    var response = generate(chat);
+    onToken.accept(response);
+    return response;
+  }
 }
@@ -0,0 +1,76 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keeps one {@link AIService} per vendor, model and URL for the lifetime of the process.
+ *
+ * <p>Building a service is expensive: JLama loads the model weights and Ollama opens its HTTP client. Commands
+ * that process many files ask the registry instead of a factory, so the work happens once per run and every
+ * file shares the same instance. {@link #warmUp(AIServiceParams)} starts the build in the background, letting
+ * callers scan and read their sources while the model loads. A build that fails is forgotten, so the next
+ * request tries again.</p>
+ */
+public class AIServiceRegistry {
+  private static final Logger logger = LoggerFactory.getLogger(AIServiceRegistry.class);
+  private static final AIServiceRegistry SHARED = new AIServiceRegistry(new GeneralAIServiceFactory()::create);
+
+  private final Map<Key, CompletableFuture<AIService>> services = new ConcurrentHashMap<>();
+  private final Function<AIServiceParams, AIService> factory;
+
+  public AIServiceRegistry(Function<AIServiceParams, AIService> factory) {
+    this.factory = factory;
+  }
+
+  public static AIServiceRegistry shared() {
+    return SHARED;
+  }
+
+  /**
+   * Starts building the service for {@code params} unless it is already built or being built.
+   *
+   * @return a future completed with the shared service
+   */
+  public CompletableFuture<AIService> warmUp(AIServiceParams params) {
+    var key = Key.of(params);
+    var service = services.computeIfAbsent(key, ignored -> CompletableFuture.supplyAsync(() -> {
+      logger.debug("Building AI service for {}", key);
+      return factory.apply(params);
+    }, ThreadPoolUtils.virtual()));
+
+    service.whenComplete((built, throwable) -> {
+      if (throwable != null) {
+        services.remove(key, service);
+      }
+    });
+    return service;
+  }
+
+  /**
+   * @return the shared service for {@code params}, waiting for it to be built if necessary
+   */
+  public AIService get(AIServiceParams params) {
+    return warmUp(params).join();
+  }
+
+  public int size() {
+    return services.size();
+  }
+
+  record Key(String vendor, String model, String url) {
+    static Key of(AIServiceParams params) {
+      var url = params instanceof OllamaAIServiceParams ollama ? ollama.url() : null;
+      return new Key(params.vendor().toLowerCase(Locale.ROOT), params.model().orElse(null), url);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.domain.git.GitCommandExecutor;
+import dev.buildcli.core.utils.ai.SourceChunker;
+import org.eclipse.jgit.diff.Edit;
+import org.eclipse.jgit.diff.EditList;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The sources changed since a Git revision, so that incremental runs only send what changed to the model.
+ *
+ * <p>Files added or modified in the working tree since the revision, committed or not, are changed; so are
+ * untracked files that are not ignored. Within a changed file, a chunk is changed when one of the lines it
+ * spans was added, modified, or sits next to removed lines.</p>
+ *
+ * <p>Paths are compared by their real path, so a file reached through a symbolic link still matches. Paths
+ * in different repositories are diffed each in their own repository against the same revision.</p>
+ */
+public class ChangedSources {
+  private final Map<Path, EditList> changes;
+
+  ChangedSources(Map<Path, EditList> changes) {
+    this.changes = changes;
+  }
+
+  /**
+   * @param path a file or directory inside the repository
+   * @param ref  the revision to compare the working tree against, e.g. {@code origin/main}
+   */
+  public static ChangedSources since(Path path, String ref) {
+    return since(List.of(path), ref);
+  }
+
+  /**
+   * @param paths files or directories, each inside a repository which has {@code ref}
+   * @param ref   the revision to compare the working trees against, e.g. {@code origin/main}
+   */
+  public static ChangedSources since(List<Path> paths, String ref) {
+    var git = new GitCommandExecutor();
+    var roots = new LinkedHashSet<String>();
+    for (var path : paths) {
+      var root = git.findGitRepository(path.toAbsolutePath().toString());
+      if (root == null) {
+        throw new IllegalArgumentException("No Git repository found from " + path);
+      }
+      roots.add(root);
+    }
+
+    var changes = new HashMap<Path, EditList>();
+    for (var root : roots) {
+      git.openGitRepository(root);
+      try {
+        changes.putAll(git.changesSince(ref));
+      } finally {
+        git.closeGitRepository();
+      }
+    }
+    return new ChangedSources(changes);
+  }
+
+  public int size() {
+    return changes.size();
+  }
+
+  public boolean isChanged(Path file) {
+    return changes.containsKey(normalize(file));
+  }
+
+  /**
+   * @return the changed files among {@code files}, in their order
+   */
+  public List<Path> filter(List<Path> files) {
+    return files.stream().filter(this::isChanged).toList();
+  }
+
+  /**
+   * @param source the current content of {@code file}, which {@code chunk} was split from
+   */
+  public boolean isChanged(Path file, String source, SourceChunker.Chunk chunk) {
+    var edits = changes.get(normalize(file));
+    if (edits == null) {
+      return false;
+    }
+
+    var firstLine = lineOf(source, chunk.start());
+    var lastLine = lineOf(source, Math.max(chunk.start(), chunk.end() - 1));
+    for (Edit edit : edits) {
+      // lines are 0-based and end exclusive; a removal sits between the lines begin - 1 and begin
+      var touched = edit.getLengthB() == 0
+          ? edit.getBeginB() >= firstLine && edit.getBeginB() <= lastLine + 1
+          : edit.getBeginB() <= lastLine && edit.getEndB() > firstLine;
+      if (touched) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static int lineOf(String source, int offset) {
+    int line = 0;
+    for (int i = 0; i < offset && i < source.length(); i++) {
+      if (source.charAt(i) == '\n') {
+        line++;
+      }
+    }
+    return line;
+  }
+
+  private static Path normalize(Path file) {
+    try {
+      return file.toRealPath();
+    } catch (IOException e) {
+      return file.toAbsolutePath().normalize();
+    }
+  }
+}
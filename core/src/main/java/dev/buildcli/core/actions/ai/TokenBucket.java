@@ -0,0 +1,47 @@
+package dev.buildcli.core.actions.ai;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token bucket rate limiter: tokens refill continuously at the configured rate up to {@code capacity}, and
+ * every request takes one, waiting for the next token when the bucket is empty.
+ */
+class TokenBucket {
+  private final ReentrantLock lock = new ReentrantLock();
+  private final double capacity;
+  private final double nanosPerToken;
+  private double tokens;
+  private long refilledAt;
+
+  TokenBucket(double permitsPerMinute, int capacity) {
+    if (permitsPerMinute <= 0 || capacity <= 0) {
+      throw new IllegalArgumentException("permitsPerMinute and capacity must be greater than 0");
+    }
+    this.capacity = capacity;
+    this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / permitsPerMinute;
+    this.tokens = capacity;
+    this.refilledAt = System.nanoTime();
+  }
+
+  void acquire() throws InterruptedException {
+    while (true) {
+      long wait;
+      lock.lock();
+      try {
+        var now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) / nanosPerToken);
+        refilledAt = now;
+
+        if (tokens >= 1) {
+          tokens -= 1;
+          return;
+        }
+        wait = (long) Math.ceil((1 - tokens) * nanosPerToken);
+      } finally {
+        lock.unlock();
+      }
+      TimeUnit.NANOSECONDS.sleep(wait);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package dev.buildcli.core.actions.ai.factories;
+
+import dev.buildcli.core.actions.ai.params.FakeAIServiceParams;
+import dev.buildcli.core.actions.ai.service.FakeAIService;
+
+public class FakeAIServiceFactory implements AIServiceFactory<FakeAIService, FakeAIServiceParams> {
+
+  @Override
+  public FakeAIService create(FakeAIServiceParams params) {
+    return FakeAIService.builder()
+        .latency(params.latency())
+        .jitter(params.jitter())
+        .tokensPerSecond(params.tokensPerSecond())
+        .build();
+  }
+}
@@ -0,0 +1,49 @@
+package dev.buildcli.core.actions.ai.params;
+
+import dev.buildcli.core.actions.ai.AIServiceParams;
+
+import java.time.Duration;
+import java.util.Optional;
+
+public class FakeAIServiceParams implements AIServiceParams {
+  private final Duration latency;
+  private final Duration jitter;
+  private final int tokensPerSecond;
+
+  public FakeAIServiceParams(Duration latency, Duration jitter, int tokensPerSecond) {
+    this.latency = latency;
+    this.jitter = jitter;
+    this.tokensPerSecond = tokensPerSecond;
+  }
+
+  @Override
+  public Optional<String> model() {
+    return Optional.of("echo");
+  }
+
+  @Override
+  public String vendor() {
+    return "fake";
+  }
+
+  public Duration latency() {
+    return latency;
+  }
+
+  public Duration jitter() {
+    return jitter;
+  }
+
+  public int tokensPerSecond() {
+    return tokensPerSecond;
+  }
+
+  @Override
+  public String toString() {
+    return "FakeAIServiceParams{" +
+        "latency=" + latency +
+        ", jitter=" + jitter +
+        ", tokensPerSecond=" + tokensPerSecond +
+        '}';
+  }
+}
@@ -1,24 +1,51 @@
 package dev.buildcli.core.actions.ai.service;
 
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
 import dev.langchain4j.data.message.SystemMessage;
 import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
 import dev.buildcli.core.actions.ai.AIChat;
 import dev.buildcli.core.actions.ai.AIService;
 
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
 public abstract class AbstractLangchain4jAIService implements AIService {
   private final ChatLanguageModel model;
+  private final StreamingChatLanguageModel streamingModel;
 
   protected AbstractLangchain4jAIService() {
-    this(null);
+    this(null, null);
   }
 
   protected AbstractLangchain4jAIService(ChatLanguageModel model) {
+    this(model, null);
+  }
+
+  /**
+   * @param model          answers {@link #generate(AIChat)}; when {@code null} the streaming model is used and its
+   *                       tokens are collected, so models that are expensive to load are only loaded once
+   * @param streamingModel answers {@link #generate(AIChat, Consumer)}; when {@code null} the response is passed
+   *                       to the consumer at once
+   */
+  protected AbstractLangchain4jAIService(ChatLanguageModel model, StreamingChatLanguageModel streamingModel) {
     this.model = model;
+    this.streamingModel = streamingModel;
   }
 
   @Override
   public String generate(AIChat chat) {
+    if (model == null && streamingModel != null) {
+      return generate(chat, token -> {});
+    }
+
     var aiMessageResponse = model.generate(
         new SystemMessage(chat.getSystemMessage()),
         new UserMessage(chat.getUserMessage())
@@ -26,4 +53,42 @@ public abstract class AbstractLangchain4jAIService implements AIService {
 
     return aiMessageResponse.content().text();
   }
+
+  @Override
+  public String generate(AIChat chat, Consumer<String> onToken) {
+    if (streamingModel == null) {
+      return AIService.super.generate(chat, onToken);
+    }
+
+    var response = new CompletableFuture<String>();
+    var text = new StringBuilder();
+    List<ChatMessage> messages = List.of(new SystemMessage(chat.getSystemMessage()), new UserMessage(chat.getUserMessage()));
+
+    streamingModel.generate(messages, new StreamingResponseHandler<>() {
+      @Override
+      public void onNext(String token) {
+        text.append(token);
+        onToken.accept(token);
+      }
+
+      @Override
+      public void onComplete(Response<AiMessage> complete) {
+        response.complete(complete.content() == null ? text.toString() : complete.content().text());
+      }
+
+      @Override
+      public void onError(Throwable error) {
+        response.completeExceptionally(error);
+      }
+    });
+
+    try {
+      return response.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Generation interrupted");
+    } catch (ExecutionException e) {
+      throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+    }
+  }
 }
@@ -0,0 +1,45 @@
+package dev.buildcli.core.actions.ai.service;
+
+import java.time.Duration;
+
+/**
+ * Answers with {@link FakeChatLanguageModel}, offline, to run and benchmark the AI commands without a model.
+ */
+public class FakeAIService extends AbstractLangchain4jAIService {
+
+  protected FakeAIService(FakeChatLanguageModel model) {
+    super(model, model);
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public static class Builder {
+    private Duration latency = Duration.ofMillis(200);
+    private Duration jitter = Duration.ofMillis(50);
+    private int tokensPerSecond = 50;
+
+    private Builder() {
+    }
+
+    public Builder latency(Duration latency) {
+      this.latency = latency;
+      return this;
+    }
+
+    public Builder jitter(Duration jitter) {
+      this.jitter = jitter;
+      return this;
+    }
+
+    public Builder tokensPerSecond(int tokensPerSecond) {
+      this.tokensPerSecond = tokensPerSecond;
+      return this;
+    }
+
+    public FakeAIService build() {
+      return new FakeAIService(new FakeChatLanguageModel(latency, jitter, tokensPerSecond));
+    }
+  }
+}
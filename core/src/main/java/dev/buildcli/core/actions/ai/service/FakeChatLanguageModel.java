@@ -0,0 +1,105 @@
+package dev.buildcli.core.actions.ai.service;
+
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.ChatLanguageModel;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+/**
+ * A model that answers offline and deterministically, for measuring the AI pipeline apart from inference.
+ *
+ * <p>It answers with the last user message in a Java code block, so documentation and test generation keep
+ * the code they were given. The answer is produced in tokens of four characters, after a latency varying by
+ * up to {@code jitter} and then at {@code tokensPerSecond}. The jitter is drawn from the message itself, so
+ * the same request always takes the same time.</p>
+ */
+public class FakeChatLanguageModel implements ChatLanguageModel, StreamingChatLanguageModel {
+  private static final int TOKEN_CHARS = 4;
+
+  private final Duration latency;
+  private final Duration jitter;
+  private final int tokensPerSecond;
+
+  /**
+   * @param tokensPerSecond {@code 0} to produce the answer at once
+   */
+  public FakeChatLanguageModel(Duration latency, Duration jitter, int tokensPerSecond) {
+    this.latency = latency;
+    this.jitter = jitter;
+    this.tokensPerSecond = tokensPerSecond;
+  }
+
+  @Override
+  public Response<AiMessage> generate(List<ChatMessage> messages) {
+    var answer = answer(messages);
+    pause(firstTokenDelay(answer));
+    pause(tokenDelay().multipliedBy(tokens(answer).size()));
+    return Response.from(AiMessage.from(answer));
+  }
+
+  @Override
+  public void generate(List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) {
+    try {
+      var answer = answer(messages);
+      pause(firstTokenDelay(answer));
+      for (var token : tokens(answer)) {
+        pause(tokenDelay());
+        handler.onNext(token);
+      }
+      handler.onComplete(Response.from(AiMessage.from(answer)));
+    } catch (RuntimeException e) {
+      handler.onError(e);
+    }
+  }
+
+  static String answer(List<ChatMessage> messages) {
+    var question = "";
+    for (var message : messages) {
+      if (message instanceof UserMessage user) {
+        question = user.singleText();
+      }
+    }
+    return "```java\n" + question.strip() + "\n```\n";
+  }
+
+  static List<String> tokens(String answer) {
+    var tokens = new ArrayList<String>((answer.length() + TOKEN_CHARS - 1) / TOKEN_CHARS);
+    for (int i = 0; i < answer.length(); i += TOKEN_CHARS) {
+      tokens.add(answer.substring(i, Math.min(answer.length(), i + TOKEN_CHARS)));
+    }
+    return tokens;
+  }
+
+  private Duration firstTokenDelay(String answer) {
+    if (jitter.isZero()) {
+      return latency;
+    }
+    var offset = new Random(answer.hashCode()).nextLong(-jitter.toNanos(), jitter.toNanos() + 1);
+    return Duration.ofNanos(Math.max(0, latency.toNanos() + offset));
+  }
+
+  private Duration tokenDelay() {
+    return tokensPerSecond <= 0 ? Duration.ZERO : Duration.ofNanos(1_000_000_000L / tokensPerSecond);
+  }
+
+  private static void pause(Duration delay) {
+    if (delay.isZero()) {
+      return;
+    }
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CancellationException("Generation interrupted");
+    }
+  }
+}
@@ -1,14 +1,18 @@
 package dev.buildcli.core.actions.ai.service;
 
-import dev.langchain4j.model.chat.ChatLanguageModel;
-import dev.langchain4j.model.jlama.JlamaChatModel.JlamaChatModelBuilder;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.jlama.JlamaStreamingChatModel.JlamaStreamingChatModelBuilder;
 
 import java.nio.file.Path;
 
+/**
+ * Runs the model in process. Only the streaming model is built, since every JLama model loads its own copy of
+ * the weights; blocking generation collects its tokens.
+ */
 public class JLamaAIService extends AbstractLangchain4jAIService {
 
-  protected JLamaAIService(ChatLanguageModel model) {
-    super(model);
+  protected JLamaAIService(StreamingChatLanguageModel streamingModel) {
+    super(null, streamingModel);
   }
 
   public static Builder builder() {
@@ -16,10 +20,10 @@ public class JLamaAIService extends AbstractLangchain4jAIService {
   }
 
   public static class Builder {
-    private final JlamaChatModelBuilder builder;
+    private final JlamaStreamingChatModelBuilder builder;
 
     private Builder() {
-      builder = new JlamaChatModelBuilder();
+      builder = new JlamaStreamingChatModelBuilder();
       var path = Path.of(System.getProperty("user.home"), ".buildcli", "ai", "jlama");
 
       builder.workingDirectory(path).modelCachePath(path).temperature(.7f);
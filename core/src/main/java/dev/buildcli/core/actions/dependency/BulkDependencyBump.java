@@ -0,0 +1,110 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.constants.MavenConstants;
+import dev.buildcli.core.utils.filesystem.ParallelFileWalker;
+import dev.buildcli.core.utils.tools.maven.PomHierarchy;
+import dev.buildcli.core.utils.tools.maven.PomVersionEditor;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+
+/**
+ * Sets the version of a group's dependencies in every pom under a root directory.
+ *
+ * <p>Poms are found with a {@link ParallelFileWalker} and edited with {@link PomVersionEditor} on a
+ * bounded pool, so formatting is kept and a rollout across hundreds of modules is limited by disk rather
+ * than by starting BuildCLI once per pom. Properties are handled in two passes: the first resolves each
+ * property a matching dependency uses through the parent chain of the pom using it, the second changes it
+ * in the pom of that chain which defines it, so a {@code ${foo.version}} declared in a parent and used in its
+ * modules is bumped in the parent and an unrelated property of the same name elsewhere is left alone.</p>
+ */
+public class BulkDependencyBump {
+  private final String groupId;
+  private final String artifactId;
+  private final String version;
+  private final int workers;
+
+  /**
+   * @param artifactId restricts the bump to one artifact of the group, or {@code null} for all of them
+   */
+  public BulkDependencyBump(String groupId, String artifactId, String version, int workers) {
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.version = version;
+    this.workers = Math.max(1, workers);
+  }
+
+  public BulkDependencyBump(String groupId, String artifactId, String version) {
+    this(groupId, artifactId, version, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param recursive whether to edit every pom under {@code root} or only {@code root/pom.xml}
+   * @return one result per pom found, in path order
+   */
+  public List<PomBumpResult> apply(Path root, boolean recursive) {
+    var poms = recursive
+        ? new ParallelFileWalker().findByName(root, MavenConstants.FILE)
+        : Files.isRegularFile(root.resolve(MavenConstants.FILE)) ? List.of(root.resolve(MavenConstants.FILE)) : List.<Path>of();
+
+    try (var executor = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, poms.size())))) {
+      var properties = new HashMap<Path, Set<String>>();
+      runAll(executor, poms, this::definingPoms).forEach(defined -> defined.forEach((pom, names) ->
+          properties.computeIfAbsent(pom, p -> new HashSet<>()).addAll(names)));
+
+      return runAll(executor, poms, pom -> bump(pom, properties.getOrDefault(pom.toAbsolutePath().normalize(), Set.of())));
+    }
+  }
+
+  /**
+   * @return the properties used by matching dependencies of {@code pom}, grouped by the pom defining them
+   */
+  private Map<Path, Set<String>> definingPoms(Path pom) {
+    Set<String> referenced;
+    try {
+      referenced = PomVersionEditor.referencedProperties(Files.readString(pom), groupId, artifactId);
+    } catch (IOException e) {
+      return Map.of(); // reported by the second pass
+    }
+
+    var defined = new HashMap<Path, Set<String>>();
+    referenced.forEach(property -> PomHierarchy.definingPom(pom, property)
+        .ifPresent(definingPom -> defined.computeIfAbsent(definingPom, p -> new HashSet<>()).add(property)));
+    return defined;
+  }
+
+  private PomBumpResult bump(Path pom, Set<String> properties) {
+    try {
+      var result = PomVersionEditor.setVersion(Files.readString(pom), groupId, artifactId, version, properties);
+
+      if (result.isChanged()) {
+        var tmp = pom.resolveSibling(pom.getFileName() + ".buildcli.tmp");
+        Files.writeString(tmp, result.content());
+        Files.move(tmp, pom, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      }
+
+      return new PomBumpResult(pom, result.changes(), null);
+    } catch (IOException e) {
+      return new PomBumpResult(pom, List.of(), e.getMessage());
+    }
+  }
+
+  private static <T> List<T> runAll(ExecutorService executor, List<Path> poms, Function<Path, T> task) {
+    var futures = poms.stream()
+        .map(pom -> CompletableFuture.supplyAsync(() -> task.apply(pom), executor))
+        .toList();
+
+    return futures.stream().map(CompletableFuture::join).toList();
+  }
+}
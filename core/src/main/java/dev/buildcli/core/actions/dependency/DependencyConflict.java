@@ -0,0 +1,11 @@
+package dev.buildcli.core.actions.dependency;
+
+import java.util.List;
+
+/**
+ * An artifact requested in more than one version; the nearest declaration won.
+ *
+ * @param omittedVersions the other requested versions, in the order they were met
+ */
+public record DependencyConflict(String key, String selectedVersion, List<String> omittedVersions) {
+}
@@ -0,0 +1,124 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.model.Dependency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One entry of a resolved dependency tree. A node that lost a version conflict is kept (without
+ * children) so the tree can show what was requested; {@link #getOmittedFor()} then holds the version
+ * that won.
+ */
+public class DependencyNode {
+  private final String groupId;
+  private final String artifactId;
+  private final String version;
+  private final String type;
+  private final String classifier;
+  private final String scope;
+  private final boolean optional;
+  private final int depth;
+  private final List<DependencyNode> children = new ArrayList<>();
+  private String omittedFor;
+  private String error;
+
+  public DependencyNode(String groupId, String artifactId, String version, String type, String classifier,
+                        String scope, boolean optional, int depth) {
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.version = version;
+    this.type = type;
+    this.classifier = classifier;
+    this.scope = scope;
+    this.optional = optional;
+    this.depth = depth;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getArtifactId() {
+    return artifactId;
+  }
+
+  public String getVersion() {
+    return version;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public String getClassifier() {
+    return classifier;
+  }
+
+  public String getScope() {
+    return scope;
+  }
+
+  public boolean isOptional() {
+    return optional;
+  }
+
+  /**
+   * @return 1 for dependencies declared by the project, 2 for their dependencies, and so on
+   */
+  public int getDepth() {
+    return depth;
+  }
+
+  public List<DependencyNode> getChildren() {
+    return Collections.unmodifiableList(children);
+  }
+
+  void addChild(DependencyNode child) {
+    children.add(child);
+  }
+
+  public String getOmittedFor() {
+    return omittedFor;
+  }
+
+  void setOmittedFor(String omittedFor) {
+    this.omittedFor = omittedFor;
+  }
+
+  public boolean isOmitted() {
+    return omittedFor != null;
+  }
+
+  /**
+   * @return why the pom of this dependency could not be read, or {@code null}
+   */
+  public String getError() {
+    return error;
+  }
+
+  void setError(String error) {
+    this.error = error;
+  }
+
+  public String getKey() {
+    return Dependency.key(groupId, artifactId);
+  }
+
+  public Dependency toDependency() {
+    return new Dependency(groupId, artifactId, version, type, scope, optional ? "true" : null);
+  }
+
+  /**
+   * @return the node in {@code mvn dependency:tree} notation, e.g. {@code g:a:jar:1.0:compile}
+   */
+  @Override
+  public String toString() {
+    var coordinates = new StringBuilder(getKey()).append(':').append(type);
+    if (classifier != null) {
+      coordinates.append(':').append(classifier);
+    }
+    return coordinates.append(':').append(version).append(':').append(scope).toString();
+  }
+}
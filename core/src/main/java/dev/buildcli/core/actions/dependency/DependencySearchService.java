@@ -1,26 +1,60 @@
 package dev.buildcli.core.actions.dependency;
 
 import com.google.gson.*;
+import dev.buildcli.core.actions.dependency.index.ArtifactIndexStore;
+import dev.buildcli.core.actions.dependency.index.ArtifactSearchIndex;
+import dev.buildcli.core.actions.dependency.index.IndexedArtifact;
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.net.HttpResponseCache;
+import dev.buildcli.core.utils.tools.maven.LocalRepositoryIndex;
+import dev.buildcli.core.utils.tools.maven.MavenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.StreamSupport;
 
 import static dev.buildcli.core.utils.console.input.InteractiveInputUtils.options;
 import static dev.buildcli.core.constants.DependencyConstants.DEPENDENCIES;
 
 public class DependencySearchService {
+    private static final Logger log = LoggerFactory.getLogger(DependencySearchService.class);
 
     private static final String API_MAVEN = "https://search.maven.org/solrsearch/select?q=";
-    private static final String ROWS = "&rows=25";
+    private static final int MAX_RESULTS = 25;
+    private static final String ROWS = "&rows=" + MAX_RESULTS;
     private static final String OUTPUT ="&wt=json";
 
+    private final ArtifactIndexStore indexStore;
+    private final LocalRepositoryIndex localRepositoryIndex;
+    private boolean offline;
+    private ArtifactSearchIndex localRepositorySearch;
+
+    public DependencySearchService() {
+        this(ArtifactIndexStore.fromConfig(), LocalRepositoryIndex.shared());
+    }
+
+    public DependencySearchService(ArtifactIndexStore indexStore, LocalRepositoryIndex localRepositoryIndex) {
+        this.indexStore = indexStore;
+        this.localRepositoryIndex = localRepositoryIndex;
+    }
+
+    /**
+     * When offline, searches are answered from the local index only and never reach search.maven.org.
+     */
+    public DependencySearchService offline(boolean offline) {
+        this.offline = offline;
+        return this;
+    }
+
     public HttpRequest createSearchGetRequest(String groupOrArtifactID){
         return HttpRequest.newBuilder()
                 .uri(URI.create(API_MAVEN + groupOrArtifactID + ROWS + OUTPUT))
@@ -29,14 +63,12 @@ public class DependencySearchService {
     }
 
     private String getResponseBody(HttpRequest request){
-        HttpClient client = HttpClient.newHttpClient();
-
-        HttpResponse<String> response = null;
         try {
-            response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            client.close();
-            return response.body();
-        } catch (IOException | InterruptedException e) {
+            return HttpResponseCache.shared().get(request.uri());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
     }
@@ -56,7 +88,106 @@ public class DependencySearchService {
         return promptOptionsToAdd(sendSearchRequest(dependencyName));
     }
 
+    /**
+     * Answers from the local index when it is fresh and has an exact or prefix match on
+     * {@code groupId:artifactId}; fuzzy matches alone still go to search.maven.org. The index is refreshed
+     * from the configured source when stale, and stale local results are the fallback when the remote search
+     * is unavailable. Without a configured source, the index is fresh for the TTL after its last merge.
+     *
+     * <p>Artifacts already in the local Maven repository are searched separately: their prefix matches rank
+     * ahead of the other results, but they never decide whether the remote search is needed.</p>
+     */
     public List<String> sendSearchRequest(String dependencyName) {
+        var index = indexStore.load();
+        var source = ConfigContextLoader.getAllConfigs().getProperty(ConfigDefaultConstants.DEPENDENCY_INDEX_SOURCE);
+
+        if (!offline && source.isPresent() && indexStore.isStale()) {
+            refreshFrom(source.get());
+        }
+        var stale = source.isPresent() ? indexStore.isStale() : indexStore.isMergeStale();
+
+        var repositoryResults = searchLocalRepository(dependencyName);
+        var localResults = index.search(dependencyName, MAX_RESULTS).stream()
+                .map(IndexedArtifact::coordinates)
+                .toList();
+
+        if (offline || (!stale && !index.prefixSearch(dependencyName, 1).isEmpty())) {
+            return rank(dependencyName, repositoryResults, localResults);
+        }
+
+        try {
+            var remoteResults = searchRemote(dependencyName);
+            indexStore.merge(remoteResults.stream().map(IndexedArtifact::parse).toList());
+            return rank(dependencyName, repositoryResults, remoteResults);
+        } catch (RuntimeException e) {
+            if (localResults.isEmpty() && repositoryResults.isEmpty()) {
+                throw e;
+            }
+            log.warn("Remote dependency search failed, using local index: {}", e.getMessage());
+            return rank(dependencyName, repositoryResults, localResults);
+        }
+    }
+
+    /**
+     * Picks a version for a dependency given without one: the newest release already in the local
+     * repository, otherwise (unless offline) the release advertised by the remote repository metadata.
+     */
+    public Optional<String> resolveVersion(String groupId, String artifactId) {
+        var local = localRepositoryIndex.newestVersion(groupId, artifactId);
+
+        if (local.isPresent() || offline) {
+            return local;
+        }
+
+        return MavenRepository.fromConfig().metadata(groupId, artifactId)
+                .map(metadata -> metadata.release() != null ? metadata.release() : metadata.latest());
+    }
+
+    /**
+     * Searches what is already downloaded to ~/.m2, once its index has been built in the background.
+     */
+    private List<IndexedArtifact> searchLocalRepository(String dependencyName) {
+        if (localRepositorySearch == null) {
+            var artifacts = localRepositoryIndex.artifacts();
+            if (artifacts.isEmpty()) {
+                return List.of();
+            }
+
+            var search = new ArtifactSearchIndex();
+            artifacts.forEach(artifact -> search.add(new IndexedArtifact(
+                    artifact.groupId(), artifact.artifactId(), artifact.newestVersion().orElse(null))));
+            localRepositorySearch = search;
+        }
+
+        return localRepositorySearch.search(dependencyName, MAX_RESULTS);
+    }
+
+    /**
+     * Puts local repository prefix matches first, then {@code results}, then the remaining local repository
+     * matches, keeping one entry per {@code groupId:artifactId}.
+     */
+    private List<String> rank(String dependencyName, List<IndexedArtifact> repositoryResults, List<String> results) {
+        var ranked = new LinkedHashMap<String, String>();
+        repositoryResults.stream()
+                .filter(artifact -> ArtifactSearchIndex.isPrefixMatch(artifact, dependencyName))
+                .forEach(artifact -> ranked.putIfAbsent(artifact.key(), artifact.coordinates()));
+        results.forEach(coordinates -> ranked.putIfAbsent(IndexedArtifact.parse(coordinates).key(), coordinates));
+        repositoryResults.forEach(artifact -> ranked.putIfAbsent(artifact.key(), artifact.coordinates()));
+
+        return ranked.values().stream().limit(MAX_RESULTS).toList();
+    }
+
+    private void refreshFrom(String source) {
+        try {
+            indexStore.importFrom(source);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not refresh dependency index from {}: {}", source, e.getMessage());
+        }
+    }
+
+    private List<String> searchRemote(String dependencyName) {
         dependencyName = URLEncoder.encode(dependencyName, StandardCharsets.UTF_8);
 
         HttpRequest request = createSearchGetRequest(dependencyName);
@@ -0,0 +1,35 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.utils.tools.maven.EffectiveModel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of {@link DependencyTreeResolver#resolve}: the project, its dependency tree and the version
+ * conflicts that were mediated while building it.
+ */
+public record DependencyTree(EffectiveModel project, List<DependencyNode> dependencies,
+                             List<DependencyConflict> conflicts) {
+
+  /**
+   * @return every node that made it into the resolved graph, in breadth-first order
+   */
+  public List<DependencyNode> selected() {
+    var result = new ArrayList<DependencyNode>();
+    var level = dependencies;
+
+    while (!level.isEmpty()) {
+      var next = new ArrayList<DependencyNode>();
+      for (var node : level) {
+        if (!node.isOmitted()) {
+          result.add(node);
+          next.addAll(node.getChildren());
+        }
+      }
+      level = next;
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,155 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.exceptions.ModelResolutionException;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import dev.buildcli.core.utils.tools.maven.EffectiveModel;
+import dev.buildcli.core.utils.tools.maven.EffectiveModelBuilder;
+import dev.buildcli.core.utils.tools.maven.ModelDependency;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Computes the transitive dependency graph of a project in-process, like {@code mvn dependency:tree}.
+ *
+ * <p>The graph is walked breadth-first. All poms of one level are fetched concurrently on virtual
+ * threads through a shared {@link EffectiveModelBuilder}, so an artifact reachable through many paths is
+ * read once. Each level is then processed in declaration order, which gives Maven's nearest-wins
+ * mediation: the first version met at the shallowest depth is selected and every other requested
+ * version is reported as a {@link DependencyConflict}.</p>
+ *
+ * <p>Scopes follow Maven's transitivity table, {@code test} and {@code provided} dependencies of
+ * dependencies are left out, transitive optional dependencies are skipped, exclusions apply to the whole
+ * subtree and the project's dependency management pins transitive versions.</p>
+ */
+public class DependencyTreeResolver {
+  private final EffectiveModelBuilder builder;
+
+  public DependencyTreeResolver(EffectiveModelBuilder builder) {
+    this.builder = builder;
+  }
+
+  private record Pending(DependencyNode parent, ModelDependency dependency, String scope,
+                         List<ModelDependency> path) {
+  }
+
+  public DependencyTree resolve(Path pomFile) {
+    return resolve(builder.build(pomFile));
+  }
+
+  public DependencyTree resolve(EffectiveModel project) {
+    var roots = new ArrayList<DependencyNode>();
+    var selected = new HashMap<String, DependencyNode>();
+    var omitted = new LinkedHashMap<String, LinkedHashSet<String>>();
+
+    var level = project.dependencies().stream()
+        .filter(dependency -> !dependency.isImport())
+        .map(dependency -> new Pending(null, dependency, dependency.scope(), List.of(dependency)))
+        .toList();
+
+    for (int depth = 1; !level.isEmpty(); depth++) {
+      var expand = new ArrayList<Pending>();
+      var nodes = new ArrayList<DependencyNode>();
+
+      for (var pending : level) {
+        var dependency = pending.dependency();
+        var node = new DependencyNode(dependency.groupId(), dependency.artifactId(), dependency.version(),
+            dependency.type(), dependency.classifier(), pending.scope(), dependency.optional(), depth);
+
+        if (pending.parent() == null) {
+          roots.add(node);
+        } else {
+          pending.parent().addChild(node);
+        }
+
+        var key = dependency.managementKey();
+        var winner = selected.get(key);
+        if (winner != null) {
+          node.setOmittedFor(winner.getVersion());
+          if (!Objects.equals(winner.getVersion(), node.getVersion())) {
+            omitted.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(node.getVersion());
+          }
+          continue;
+        }
+
+        selected.put(key, node);
+        if (!"system".equals(pending.scope()) && node.getVersion() != null) {
+          expand.add(pending);
+          nodes.add(node);
+        }
+      }
+
+      var models = expand.stream()
+          .map(pending -> CompletableFuture.supplyAsync(() -> builder.resolve(pending.dependency().groupId(),
+              pending.dependency().artifactId(), pending.dependency().version()), ThreadPoolUtils.virtual()))
+          .toList();
+
+      var next = new ArrayList<Pending>();
+      for (int i = 0; i < expand.size(); i++) {
+        var pending = expand.get(i);
+        var node = nodes.get(i);
+
+        EffectiveModel model;
+        try {
+          model = models.get(i).join();
+        } catch (CompletionException e) {
+          var cause = e.getCause();
+          node.setError(cause instanceof ModelResolutionException ? cause.getMessage() : String.valueOf(cause));
+          continue;
+        }
+
+        for (var child : model.dependencies()) {
+          var scope = transitiveScope(pending.scope(), child.scope());
+          if (scope == null || child.optional() || isExcluded(pending.path(), child)) {
+            continue;
+          }
+
+          var managed = project.dependencyManagement().get(child.managementKey());
+          if (managed != null && managed.version() != null) {
+            child = new ModelDependency(child.groupId(), child.artifactId(), managed.version(), child.type(),
+                child.classifier(), child.scope(), child.optional(), child.exclusions());
+          }
+
+          var path = new ArrayList<>(pending.path());
+          path.add(child);
+          next.add(new Pending(node, child, scope, path));
+        }
+      }
+
+      level = next;
+    }
+
+    var conflicts = omitted.entrySet().stream()
+        .map(entry -> new DependencyConflict(selected.get(entry.getKey()).getKey(),
+            selected.get(entry.getKey()).getVersion(), List.copyOf(entry.getValue())))
+        .toList();
+
+    return new DependencyTree(project, roots, conflicts);
+  }
+
+  private static boolean isExcluded(List<ModelDependency> path, ModelDependency dependency) {
+    return path.stream().anyMatch(ancestor -> ancestor.excludes(dependency.groupId(), dependency.artifactId()));
+  }
+
+  /**
+   * Maven's scope transitivity table; {@code null} means the dependency is not inherited.
+   */
+  static String transitiveScope(String parentScope, String scope) {
+    if (!"compile".equals(scope) && !"runtime".equals(scope)) {
+      return null;
+    }
+
+    return switch (parentScope) {
+      case "compile" -> scope;
+      case "runtime", "provided", "test" -> parentScope;
+      default -> null;
+    };
+  }
+}
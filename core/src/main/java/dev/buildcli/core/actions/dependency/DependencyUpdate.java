@@ -0,0 +1,30 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.model.Dependency;
+
+import java.util.List;
+
+/**
+ * Result of checking one declared dependency for newer versions.
+ *
+ * @param newerVersions versions newer than the declared one, oldest first
+ * @param skippedReason why the dependency could not be checked, or {@code null} when it was
+ */
+public record DependencyUpdate(Dependency dependency, List<String> newerVersions, String skippedReason) {
+
+  public static DependencyUpdate skipped(Dependency dependency, String reason) {
+    return new DependencyUpdate(dependency, List.of(), reason);
+  }
+
+  public boolean isSkipped() {
+    return skippedReason != null;
+  }
+
+  public boolean hasUpdates() {
+    return !newerVersions.isEmpty();
+  }
+
+  public String latestVersion() {
+    return hasUpdates() ? newerVersions.getLast() : dependency.getVersion();
+  }
+}
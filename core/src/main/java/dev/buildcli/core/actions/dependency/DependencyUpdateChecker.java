@@ -0,0 +1,68 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.model.Pom;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import dev.buildcli.core.utils.tools.maven.MavenRepository;
+import dev.buildcli.core.utils.tools.maven.MavenVersionComparator;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Lists newer versions of the dependencies declared in a pom by reading {@code maven-metadata.xml}
+ * directly, instead of starting Maven for {@code versions:display-dependency-updates}.
+ *
+ * <p>Every dependency is checked concurrently on a virtual thread; the metadata requests share one
+ * pooled HTTP client and the on-disk response cache.</p>
+ */
+public class DependencyUpdateChecker {
+  private final MavenRepository repository;
+
+  public DependencyUpdateChecker(MavenRepository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * @return one result per declared dependency, ordered by {@code groupId:artifactId}
+   */
+  public List<DependencyUpdate> check(Pom pom) {
+    var futures = pom.getDependencies().stream()
+        .map(dependency -> CompletableFuture.supplyAsync(() -> check(dependency), ThreadPoolUtils.virtual()))
+        .toList();
+
+    return futures.stream()
+        .map(CompletableFuture::join)
+        .sorted(Comparator.comparing(update -> update.dependency().getKey()))
+        .toList();
+  }
+
+  public DependencyUpdate check(Dependency dependency) {
+    var current = dependency.getVersion();
+
+    if (current == null || current.isBlank()) {
+      return DependencyUpdate.skipped(dependency, "version is managed elsewhere");
+    }
+    if (current.contains("${")) {
+      return DependencyUpdate.skipped(dependency, "version is a property: " + current);
+    }
+    if (current.equals("LATEST") || current.equals("RELEASE")) {
+      return DependencyUpdate.skipped(dependency, "version is " + current);
+    }
+
+    var metadata = repository.metadata(dependency.getGroupId(), dependency.getArtifactId());
+    if (metadata.isEmpty()) {
+      return DependencyUpdate.skipped(dependency, "no metadata found");
+    }
+
+    // only suggest pre-releases to projects that are already on one
+    boolean includePreReleases = !MavenVersionComparator.isRelease(current);
+    var newer = metadata.get().sortedVersions().stream()
+        .filter(version -> MavenVersionComparator.INSTANCE.compare(version, current) > 0)
+        .filter(version -> includePreReleases || MavenVersionComparator.isRelease(version))
+        .toList();
+
+    return new DependencyUpdate(dependency, newer, null);
+  }
+}
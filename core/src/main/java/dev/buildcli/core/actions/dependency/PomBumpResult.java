@@ -0,0 +1,21 @@
+package dev.buildcli.core.actions.dependency;
+
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Outcome of a {@link BulkDependencyBump} for one pom.
+ *
+ * @param changes the replaced versions, empty when the pom had nothing to change
+ * @param error   why the pom could not be read or written, or {@code null}
+ */
+public record PomBumpResult(Path pom, List<String> changes, String error) {
+
+  public boolean isFailed() {
+    return error != null;
+  }
+
+  public boolean isChanged() {
+    return !changes.isEmpty();
+  }
+}
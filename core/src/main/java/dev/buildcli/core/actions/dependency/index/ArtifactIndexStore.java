@@ -0,0 +1,249 @@
+package dev.buildcli.core.actions.dependency.index;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.net.HttpClientProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Persists the dependency search index under {@code ~/.buildcli/cache/index} as a gzipped list of
+ * {@code groupId:artifactId:version} lines, and refreshes it from a configured source.
+ *
+ * <p>A source may be a flat coordinates file (optionally {@code .gz}), a directory laid out like a
+ * Maven repository (a local mirror or {@code ~/.m2/repository}), or an {@code http(s)} URL serving a
+ * coordinates file. Without a source the index still grows from the results of remote searches.</p>
+ *
+ * <p>The time of the last import is kept in a sidecar file rather than taken from the index file, which is
+ * rewritten whenever remote results are merged and would otherwise look fresh forever. Without a source
+ * there is nothing to import, so the time of the last merge is what {@link #isMergeStale()} reports on.</p>
+ */
+public class ArtifactIndexStore {
+  private static final Logger log = LoggerFactory.getLogger(ArtifactIndexStore.class);
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_CACHE_DIR.resolve("index");
+  public static final Duration DEFAULT_TTL = Duration.ofDays(7);
+  private static final String INDEX_FILE = "artifacts.idx.gz";
+  private static final String REFRESHED_FILE = "artifacts.refreshed";
+
+  private final Path indexFile;
+  private final Path refreshedFile;
+  private final Duration ttl;
+  private ArtifactSearchIndex index;
+
+  public ArtifactIndexStore(Path directory, Duration ttl) {
+    this.indexFile = directory.resolve(INDEX_FILE);
+    this.refreshedFile = directory.resolve(REFRESHED_FILE);
+    this.ttl = ttl;
+  }
+
+  public static ArtifactIndexStore fromConfig() {
+    var ttl = ConfigContextLoader.getAllConfigs().getProperty(ConfigDefaultConstants.DEPENDENCY_INDEX_TTL)
+        .map(Long::parseLong)
+        .map(Duration::ofHours)
+        .orElse(DEFAULT_TTL);
+
+    return new ArtifactIndexStore(DEFAULT_DIRECTORY, ttl);
+  }
+
+  public Path getIndexFile() {
+    return indexFile;
+  }
+
+  public synchronized ArtifactSearchIndex load() {
+    if (index != null) {
+      return index;
+    }
+
+    index = new ArtifactSearchIndex();
+
+    if (Files.isRegularFile(indexFile)) {
+      try (var input = Files.newInputStream(indexFile)) {
+        index.addAll(readCoordinates(new GZIPInputStream(input)));
+        log.debug("Loaded {} artifacts from {}", index.size(), indexFile);
+      } catch (IOException | RuntimeException e) {
+        log.warn("Ignoring unreadable dependency index {}: {}", indexFile, e.getMessage());
+      }
+    }
+
+    return index;
+  }
+
+  /**
+   * @return {@code true} when the index was never imported from a source or was last imported longer ago than
+   * the TTL; merging search results does not make it fresh
+   */
+  public boolean isStale() {
+    return isExpired(lastRefreshed());
+  }
+
+  /**
+   * @return {@code true} when search results were never merged into the index or were last merged longer ago
+   * than the TTL
+   */
+  public boolean isMergeStale() {
+    return isExpired(lastMerged());
+  }
+
+  public Optional<Instant> lastRefreshed() {
+    try {
+      if (!Files.isRegularFile(refreshedFile)) {
+        return Optional.empty();
+      }
+      return Optional.of(Instant.parse(Files.readString(refreshedFile).trim()));
+    } catch (IOException | DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  public Optional<Instant> lastMerged() {
+    try {
+      if (!Files.isRegularFile(indexFile)) {
+        return Optional.empty();
+      }
+      return Optional.of(Files.getLastModifiedTime(indexFile).toInstant());
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  private boolean isExpired(Optional<Instant> time) {
+    return time.map(instant -> instant.plus(ttl).isBefore(Instant.now())).orElse(true);
+  }
+
+  public synchronized void merge(Collection<IndexedArtifact> artifacts) {
+    load().addAll(artifacts);
+    save();
+  }
+
+  /**
+   * Imports every artifact found in {@code source} into the index and persists it.
+   *
+   * @return the number of artifacts read from the source
+   */
+  public int importFrom(String source) throws IOException, InterruptedException {
+    List<IndexedArtifact> artifacts;
+
+    if (source.startsWith("http://") || source.startsWith("https://")) {
+      artifacts = fetchCoordinates(URI.create(source));
+    } else {
+      var path = Path.of(source);
+      if (Files.isDirectory(path)) {
+        artifacts = scanRepository(path);
+      } else {
+        try (var input = Files.newInputStream(path)) {
+          artifacts = readCoordinates(source.endsWith(".gz") ? new GZIPInputStream(input) : input);
+        }
+      }
+    }
+
+    merge(artifacts);
+    markRefreshed();
+    log.info("Imported {} artifacts into the dependency index from {}", artifacts.size(), source);
+    return artifacts.size();
+  }
+
+  private synchronized void save() {
+    try {
+      Files.createDirectories(indexFile.getParent());
+      var tmp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+
+      try (var writer = new BufferedWriter(new OutputStreamWriter(
+          new GZIPOutputStream(Files.newOutputStream(tmp)), StandardCharsets.UTF_8))) {
+        for (var artifact : index.getAll()) {
+          writer.write(artifact.coordinates());
+          writer.newLine();
+        }
+      }
+
+      Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Could not write dependency index " + indexFile, e);
+    }
+  }
+
+  private void markRefreshed() {
+    try {
+      Files.writeString(refreshedFile, Instant.now().toString());
+    } catch (IOException e) {
+      log.warn("Could not record dependency index refresh in {}: {}", refreshedFile, e.getMessage());
+    }
+  }
+
+  private static List<IndexedArtifact> fetchCoordinates(URI uri) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(uri).GET().timeout(Duration.ofMinutes(5)).build();
+    var response = HttpClientProvider.shared().send(request, HttpResponse.BodyHandlers.ofInputStream());
+
+    try (var body = response.body()) {
+      if (response.statusCode() != 200) {
+        throw new IOException("Failed to fetch dependency index from " + uri + ": " + response.statusCode());
+      }
+      return readCoordinates(uri.getPath().endsWith(".gz") ? new GZIPInputStream(body) : body);
+    }
+  }
+
+  static List<IndexedArtifact> readCoordinates(InputStream input) throws IOException {
+    var artifacts = new ArrayList<IndexedArtifact>();
+
+    try (var reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        line = line.trim();
+        if (line.isEmpty() || line.startsWith("#")) {
+          continue;
+        }
+
+        try {
+          artifacts.add(IndexedArtifact.parse(line));
+        } catch (IllegalArgumentException e) {
+          log.debug("Skipping index line '{}': {}", line, e.getMessage());
+        }
+      }
+    }
+
+    return artifacts;
+  }
+
+  /**
+   * Derives coordinates from {@code <group path>/<artifactId>/<version>/<artifactId>-<version>.pom} files.
+   */
+  static List<IndexedArtifact> scanRepository(Path root) throws IOException {
+    try (var poms = Files.walk(root)) {
+      return poms
+          .filter(path -> path.getFileName().toString().endsWith(".pom"))
+          .map(root::relativize)
+          .filter(path -> path.getNameCount() >= 4)
+          .filter(path -> path.getFileName().toString()
+              .equals(path.getName(path.getNameCount() - 3) + "-" + path.getName(path.getNameCount() - 2) + ".pom"))
+          .map(path -> new IndexedArtifact(
+              path.subpath(0, path.getNameCount() - 3).toString().replace(path.getFileSystem().getSeparator(), "."),
+              path.getName(path.getNameCount() - 3).toString(),
+              path.getName(path.getNameCount() - 2).toString()))
+          .toList();
+    }
+  }
+}
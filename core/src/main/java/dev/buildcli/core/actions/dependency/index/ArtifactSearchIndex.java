@@ -0,0 +1,168 @@
+package dev.buildcli.core.actions.dependency.index;
+
+import dev.buildcli.core.utils.tools.maven.MavenVersionComparator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * In-memory search structure over {@link IndexedArtifact}s.
+ *
+ * <p>Prefix lookups go through a sorted map keyed by both {@code groupId:artifactId} and the bare
+ * {@code artifactId}, so "spring-boot-st" and "org.springframework.boot:spring-boot-st" both hit.
+ * Fuzzy lookups go through a trigram inverted index scored with the Dice coefficient, which
+ * tolerates typos such as "jakson-databind". Both the full coordinates and the bare artifactId are
+ * indexed as separate documents so short queries are not drowned by long groupIds.</p>
+ */
+public class ArtifactSearchIndex {
+  private static final int GRAM_SIZE = 3;
+  private static final double MIN_FUZZY_SCORE = 0.35;
+
+  private final List<IndexedArtifact> artifacts = new ArrayList<>();
+  private final Map<String, Integer> idsByKey = new HashMap<>();
+  private final TreeMap<String, List<Integer>> prefixes = new TreeMap<>();
+  // documents 2 * id and 2 * id + 1 hold the coordinates and the artifactId of artifact id
+  private final Map<String, List<Integer>> grams = new HashMap<>();
+  private final List<Integer> gramCounts = new ArrayList<>();
+
+  public synchronized void add(IndexedArtifact artifact) {
+    var existingId = idsByKey.get(artifact.key());
+
+    if (existingId != null) {
+      var existing = artifacts.get(existingId);
+      if (existing.latestVersion() == null || (artifact.latestVersion() != null
+          && MavenVersionComparator.INSTANCE.compare(artifact.latestVersion(), existing.latestVersion()) > 0)) {
+        artifacts.set(existingId, artifact);
+      }
+      return;
+    }
+
+    int id = artifacts.size();
+    artifacts.add(artifact);
+    idsByKey.put(artifact.key(), id);
+
+    var key = normalize(artifact.key());
+    prefixes.computeIfAbsent(key, k -> new ArrayList<>()).add(id);
+    prefixes.computeIfAbsent(normalize(artifact.artifactId()), k -> new ArrayList<>()).add(id);
+
+    indexGrams(2 * id, key);
+    indexGrams(2 * id + 1, normalize(artifact.artifactId()));
+  }
+
+  private void indexGrams(int document, String value) {
+    var documentGrams = gramsOf(value);
+    documentGrams.forEach(gram -> grams.computeIfAbsent(gram, g -> new ArrayList<>()).add(document));
+    gramCounts.add(documentGrams.size());
+  }
+
+  public void addAll(Collection<IndexedArtifact> toAdd) {
+    toAdd.forEach(this::add);
+  }
+
+  public synchronized int size() {
+    return artifacts.size();
+  }
+
+  public synchronized List<IndexedArtifact> getAll() {
+    return List.copyOf(artifacts);
+  }
+
+  /**
+   * Prefix matches first (exact artifactId matches on top, then shortest coordinates), topped up
+   * with fuzzy matches until {@code limit} results are collected.
+   */
+  public synchronized List<IndexedArtifact> search(String query, int limit) {
+    var results = new LinkedHashSet<>(prefixSearch(query, limit));
+
+    if (results.size() < limit) {
+      for (var artifact : fuzzySearch(query, limit)) {
+        if (results.size() >= limit) {
+          break;
+        }
+        results.add(artifact);
+      }
+    }
+
+    return List.copyOf(results);
+  }
+
+  public synchronized List<IndexedArtifact> prefixSearch(String query, int limit) {
+    var prefix = normalize(query);
+    if (prefix.isEmpty()) {
+      return List.of();
+    }
+
+    var ids = new LinkedHashSet<Integer>();
+    prefixes.subMap(prefix, true, prefix + Character.MAX_VALUE, false)
+        .values()
+        .forEach(ids::addAll);
+
+    return ids.stream()
+        .map(artifacts::get)
+        .sorted(Comparator.<IndexedArtifact>comparingInt(a -> normalize(a.artifactId()).equals(prefix) ? 0 : 1)
+            .thenComparingInt(a -> a.key().length())
+            .thenComparing(IndexedArtifact::key))
+        .limit(limit)
+        .toList();
+  }
+
+  /**
+   * @return whether {@link #prefixSearch} would find {@code artifact} for {@code query}
+   */
+  public static boolean isPrefixMatch(IndexedArtifact artifact, String query) {
+    var prefix = normalize(query);
+    return !prefix.isEmpty()
+        && (normalize(artifact.key()).startsWith(prefix) || normalize(artifact.artifactId()).startsWith(prefix));
+  }
+
+  public synchronized List<IndexedArtifact> fuzzySearch(String query, int limit) {
+    var queryGrams = gramsOf(normalize(query));
+    if (queryGrams.isEmpty()) {
+      return List.of();
+    }
+
+    var shared = new HashMap<Integer, Integer>();
+    for (var gram : queryGrams) {
+      for (var document : grams.getOrDefault(gram, List.of())) {
+        shared.merge(document, 1, Integer::sum);
+      }
+    }
+
+    var scores = new HashMap<Integer, Double>();
+    shared.forEach((document, count) ->
+        scores.merge(document / 2, 2.0 * count / (queryGrams.size() + gramCounts.get(document)), Math::max));
+
+    return scores.entrySet().stream()
+        .filter(e -> e.getValue() >= MIN_FUZZY_SCORE)
+        .sorted(Map.Entry.<Integer, Double>comparingByValue().reversed()
+            .thenComparing(e -> artifacts.get(e.getKey()).key()))
+        .limit(limit)
+        .map(e -> artifacts.get(e.getKey()))
+        .toList();
+  }
+
+  private static String normalize(String value) {
+    return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private static LinkedHashSet<String> gramsOf(String value) {
+    var result = new LinkedHashSet<String>();
+    if (value.isEmpty()) {
+      return result;
+    }
+
+    var padded = " " + value + " ";
+    for (int i = 0; i + GRAM_SIZE <= padded.length(); i++) {
+      result.add(padded.substring(i, i + GRAM_SIZE));
+    }
+
+    return result;
+  }
+}
@@ -0,0 +1,30 @@
+package dev.buildcli.core.actions.dependency.index;
+
+import dev.buildcli.core.model.Dependency;
+
+/**
+ * One {@code groupId:artifactId} entry of the local search index, with the newest version known for it.
+ */
+public record IndexedArtifact(String groupId, String artifactId, String latestVersion) {
+
+  public static IndexedArtifact parse(String coordinates) {
+    var parts = coordinates.trim().split(":");
+
+    if (parts.length < 2 || parts[0].isBlank() || parts[1].isBlank()) {
+      throw new IllegalArgumentException("Invalid artifact coordinates: " + coordinates);
+    }
+
+    return new IndexedArtifact(parts[0], parts[1], parts.length > 2 && !parts[2].isBlank() ? parts[2] : null);
+  }
+
+  public String key() {
+    return Dependency.key(groupId, artifactId);
+  }
+
+  /**
+   * @return {@code groupId:artifactId:version}, or {@code groupId:artifactId} when no version is known
+   */
+  public String coordinates() {
+    return latestVersion == null ? key() : key() + ":" + latestVersion;
+  }
+}
@@ -85,4 +85,17 @@ public abstract class AIConstants {
       Ensure clear descriptions for each test case and include boundary conditions, edge cases, and error handling scenarios.
       """;
 
+  public static final String FILE_BATCH_NOTE = """
+      
+      The message contains several files. Each one starts with a line <<<FILE n: name>>> and ends with a line \
+      <<<END FILE n>>>. Handle every file on its own and answer for all of them, in the same order, putting each \
+      answer between the same two marker lines.
+      """;
+
+  public static final String CODE_EXCERPT_NOTE = """
+      
+      The code below is an excerpt of a larger file: it may start or end in the middle of a class. \
+      Answer with exactly the same excerpt, with your comments added, and do not complete or wrap it.
+      """;
+
 }
@@ -7,7 +7,9 @@ import static dev.buildcli.core.utils.BeautifyShell.*;
 
 public abstract class ConfigDefaultConstants {
   public static final String BUILD_CLI_CONFIG_FILE_NAME = "buildcli.properties";
-  public static final Path BUILD_CLI_CONFIG_GLOBAL_FILE = Path.of(System.getProperty("user.home"), ".buildcli", BUILD_CLI_CONFIG_FILE_NAME);
+  public static final Path BUILD_CLI_HOME = Path.of(System.getProperty("user.home"), ".buildcli");
+  public static final Path BUILD_CLI_CONFIG_GLOBAL_FILE = BUILD_CLI_HOME.resolve(BUILD_CLI_CONFIG_FILE_NAME);
+  public static final Path BUILD_CLI_CACHE_DIR = BUILD_CLI_HOME.resolve("cache");
 
   //Logs
   public static final String LOGGING_PARENT = "logging";
@@ -29,26 +31,77 @@ public abstract class ConfigDefaultConstants {
   public static final String AI_MODEL = composePropertyName(AI_PARENT, "model");
   public static final String AI_URL = composePropertyName(AI_PARENT, "url");
   public static final String AI_TOKEN = composePropertyName(AI_PARENT, "token");
+  public static final String AI_CONCURRENCY = composePropertyName(AI_PARENT, "concurrency");
+  public static final String AI_RATE_LIMIT = composePropertyName(AI_PARENT, "rate", "limit");
+  public static final String AI_TIMEOUT = composePropertyName(AI_PARENT, "timeout");
+  public static final String AI_RETRIES = composePropertyName(AI_PARENT, "retries");
+  public static final String AI_CONTEXT_SIZE = composePropertyName(AI_PARENT, "context", "size");
+  public static final String AI_CACHE_DIR = composePropertyName(AI_PARENT, "cache", "dir");
+  public static final String AI_CACHE_SIZE = composePropertyName(AI_PARENT, "cache", "size");
+  public static final String AI_FAKE_LATENCY = composePropertyName(AI_PARENT, "fake", "latency");
+  public static final String AI_FAKE_JITTER = composePropertyName(AI_PARENT, "fake", "jitter");
+  public static final String AI_FAKE_TOKENS_PER_SECOND = composePropertyName(AI_PARENT, "fake", "tokens", "per", "second");
 
   //Plugins
   public static final String PLUGIN_PARENT = "plugin";
   public static final String PLUGIN_PATHS = composePropertyName(PLUGIN_PARENT, "paths");
 
+  //Dependencies
+  public static final String DEPENDENCY_PARENT = "dependency";
+  public static final String DEPENDENCY_INDEX_SOURCE = composePropertyName(DEPENDENCY_PARENT, "index", "source");
+  public static final String DEPENDENCY_INDEX_TTL = composePropertyName(DEPENDENCY_PARENT, "index", "ttl");
+
+  //Maven repositories
+  public static final String MAVEN_PARENT = "maven";
+  public static final String MAVEN_REPOSITORY_URL = composePropertyName(MAVEN_PARENT, "repository", "url");
+  public static final String MAVEN_LOCAL_REPOSITORY = composePropertyName(MAVEN_PARENT, "repository", "local");
+
+  //Network
+  public static final String HTTP_PARENT = "http";
+  public static final String HTTP_CACHE_TTL = composePropertyName(HTTP_PARENT, "cache", "ttl");
+
+  //File discovery
+  public static final String FILES_PARENT = "files";
+  public static final String FILES_EXCLUDE = composePropertyName(FILES_PARENT, "exclude");
+
+  //Downloads
+  public static final String DOWNLOADS_PARENT = "downloads";
+  public static final String DOWNLOADS_CACHE_DIR = composePropertyName(DOWNLOADS_PARENT, "cache", "dir");
+  public static final String DOWNLOADS_CACHE_SIZE = composePropertyName(DOWNLOADS_PARENT, "cache", "size");
+
 
 
   private static final Map<String, String> configs;
 
   static {
-    configs = Map.of(
-        BANNER_ENABLED, "Show or hidden banner. It's %s by default".formatted(greenFg(true)),
-        BANNER_PATH, "Custom banner path",
-        PROJECT_NAME, "Project name",
-        PROJECT_TYPE, "Project type, e.g., %s, %s".formatted(greenFg("spring-boot"), greenFg("quarkus")),
-        AI_VENDOR, "LLM vendor, e.g, %s, %s".formatted(greenFg("jlama"), greenFg("ollama")),
-        AI_TOKEN, "LLM token",
-        AI_URL, "LLM url, e.g, %s".formatted(content("http://localhost:11434").italic().greenFg()),
-        AI_MODEL, "LLM model",
-        PLUGIN_PATHS, "Path to yours plugins, separated by %s".formatted(greenFg(";"))
+    configs = Map.ofEntries(
+        Map.entry(BANNER_ENABLED, "Show or hidden banner. It's %s by default".formatted(greenFg(true))),
+        Map.entry(BANNER_PATH, "Custom banner path"),
+        Map.entry(PROJECT_NAME, "Project name"),
+        Map.entry(PROJECT_TYPE, "Project type, e.g., %s, %s".formatted(greenFg("spring-boot"), greenFg("quarkus"))),
+        Map.entry(AI_VENDOR, "LLM vendor, e.g, %s, %s, or %s for an offline model echoing its input".formatted(greenFg("jlama"), greenFg("ollama"), greenFg("fake"))),
+        Map.entry(AI_TOKEN, "LLM token"),
+        Map.entry(AI_URL, "LLM url, e.g, %s".formatted(content("http://localhost:11434").italic().greenFg())),
+        Map.entry(AI_MODEL, "LLM model"),
+        Map.entry(AI_CONCURRENCY, "Maximum LLM requests in flight at once. It's %s by default".formatted(greenFg(2))),
+        Map.entry(AI_RATE_LIMIT, "Maximum LLM requests per minute, %s for no limit. It's %s by default".formatted(greenFg(0), greenFg(0))),
+        Map.entry(AI_TIMEOUT, "Seconds an LLM request may take before it is retried. It's %s by default".formatted(greenFg(300))),
+        Map.entry(AI_RETRIES, "Times a failed or timed out LLM request is retried. It's %s by default".formatted(greenFg(2))),
+        Map.entry(AI_CONTEXT_SIZE, "Tokens the LLM context window holds, large sources are split to fit it. It's %s by default".formatted(greenFg(4096))),
+        Map.entry(AI_CACHE_DIR, "Directory caching LLM responses for unchanged sources. It's %s by default".formatted(greenFg("~/.buildcli/cache/ai"))),
+        Map.entry(AI_CACHE_SIZE, "Megabytes of cached LLM responses kept, %s disables the cache. It's %s by default".formatted(greenFg(0), greenFg(256))),
+        Map.entry(AI_FAKE_LATENCY, "Milliseconds the fake LLM waits before its first token. It's %s by default".formatted(greenFg(200))),
+        Map.entry(AI_FAKE_JITTER, "Milliseconds the fake LLM latency may vary by. It's %s by default".formatted(greenFg(50))),
+        Map.entry(AI_FAKE_TOKENS_PER_SECOND, "Tokens the fake LLM produces per second, %s for no limit. It's %s by default".formatted(greenFg(0), greenFg(50))),
+        Map.entry(PLUGIN_PATHS, "Path to yours plugins, separated by %s".formatted(greenFg(";"))),
+        Map.entry(DEPENDENCY_INDEX_SOURCE, "File, local Maven mirror or URL the dependency search index is imported from"),
+        Map.entry(DEPENDENCY_INDEX_TTL, "Hours before the dependency search index is refreshed. It's %s by default".formatted(greenFg(168))),
+        Map.entry(MAVEN_REPOSITORY_URL, "Remote Maven repository used for metadata and poms, e.g, %s".formatted(content("https://repo.maven.apache.org/maven2").italic().greenFg())),
+        Map.entry(MAVEN_LOCAL_REPOSITORY, "Local Maven repository. It's %s by default".formatted(greenFg("~/.m2/repository"))),
+        Map.entry(HTTP_CACHE_TTL, "Minutes a cached HTTP response is served without revalidation. It's %s by default".formatted(greenFg(60))),
+        Map.entry(FILES_EXCLUDE, "Glob patterns skipped when scanning project files, separated by %s, e.g, %s".formatted(greenFg(";"), greenFg("**/generated/**"))),
+        Map.entry(DOWNLOADS_CACHE_DIR, "Directory caching downloaded tool distributions, can be shared between users. It's %s by default".formatted(greenFg("~/.buildcli/cache/downloads"))),
+        Map.entry(DOWNLOADS_CACHE_SIZE, "Megabytes the download cache may use before the least recently used files are evicted. It's %s by default".formatted(greenFg(2048)))
     );
   }
 
@@ -3,14 +3,15 @@ package dev.buildcli.core.domain.git;
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
+import dev.buildcli.core.utils.net.HttpResponseCache;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -20,6 +21,7 @@ import static dev.buildcli.core.domain.git.GitCommandFormatter.*;
 public class GitCommandExecutor extends GitCommandUtils {
 
     private static final Logger logger = Logger.getLogger(GitCommandExecutor.class.getName());
+    private static final Duration CONTRIBUTORS_TTL = Duration.ofDays(1);
 
     protected int runGitCommand(String... command) {
         try {
@@ -70,26 +72,22 @@ public class GitCommandExecutor extends GitCommandUtils {
         return getContributorsFromAPI();
     }
 
-    // TODO: improve the hotfix below
-
     private static String getContributorsFromAPI() {
         String url = "https://api.github.com/repos/BuildCLI/BuildCLI/contributors";
 
-        HttpRequest httpRequest = HttpRequest.newBuilder()
-                .uri(java.net.URI.create(url))
-                .GET()
-                .build();
-
-        HttpClient client = HttpClient.newHttpClient();
-        HttpResponse<String> response = null;
+        String body;
         try {
-            response = client.send(httpRequest, HttpResponse.BodyHandlers.ofString());
-            client.close();
-        } catch (IOException | InterruptedException e) {
+            // contributors barely change, and GitHub answers conditional requests without spending rate limit
+            body = HttpResponseCache.shared().get(URI.create(url), CONTRIBUTORS_TTL,
+                    Map.of("Accept", "application/vnd.github+json"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
             throw new RuntimeException(e);
         }
 
-        JsonArray json = new Gson().fromJson(response.body(), JsonArray.class);
+        JsonArray json = new Gson().fromJson(body, JsonArray.class);
 
         return json.asList().stream()
                 .map(JsonObject.class::cast)
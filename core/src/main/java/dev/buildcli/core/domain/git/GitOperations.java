@@ -2,6 +2,9 @@ package dev.buildcli.core.domain.git;
 
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.diff.DiffFormatter;
+import org.eclipse.jgit.diff.EditList;
 import org.eclipse.jgit.errors.IncorrectObjectTypeException;
 import org.eclipse.jgit.errors.MissingObjectException;
 import org.eclipse.jgit.lib.ObjectId;
@@ -11,13 +14,20 @@ import org.eclipse.jgit.revwalk.RevCommit;
 import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.transport.URIish;
 import org.eclipse.jgit.transport.sshd.SshdSessionFactory;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.filter.NotIgnoredFilter;
 import org.eclipse.jgit.util.StringUtils;
+import org.eclipse.jgit.util.io.DisabledOutputStream;
 
 import java.net.URISyntaxException;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -178,6 +188,38 @@ public class GitOperations {
         }
     }
 
+    /**
+     * Diffs the working tree, untracked files included and ignored ones left out, against {@code ref}.
+     *
+     * @return the lines changed in every file that was added or modified since {@code ref}, by absolute path
+     */
+    public Map<Path, EditList> changesSince(String ref) {
+        try (var reader = repository.newObjectReader();
+             var formatter = new DiffFormatter(DisabledOutputStream.INSTANCE)) {
+            var tree = repository.resolve(ref + "^{tree}");
+            if (tree == null) {
+                throw new IllegalArgumentException("Unknown Git revision: " + ref);
+            }
+
+            var oldTree = new CanonicalTreeParser();
+            oldTree.reset(reader, tree);
+            formatter.setRepository(repository);
+            formatter.setPathFilter(new NotIgnoredFilter(1));
+
+            var workTree = repository.getWorkTree().toPath().toRealPath();
+            var changes = new LinkedHashMap<Path, EditList>();
+            for (var entry : formatter.scan(oldTree, new FileTreeIterator(repository))) {
+                if (entry.getChangeType() != DiffEntry.ChangeType.DELETE) {
+                    changes.put(workTree.resolve(entry.getNewPath()), formatter.toFileHeader(entry).toEditList());
+                }
+            }
+            return changes;
+        } catch (IOException e) {
+            handleException("Error diffing against " + ref, e);
+            return null;
+        }
+    }
+
     public boolean isRemoteDefined(String remoteName) {
         return repository.getConfig().getSubsections("remote").contains(remoteName);
     }
@@ -0,0 +1,11 @@
+package dev.buildcli.core.exceptions;
+
+public class ModelResolutionException extends RuntimeException {
+  public ModelResolutionException(String message, Throwable cause) {
+    super(message, cause);
+  }
+
+  public ModelResolutionException(String message) {
+    super(message);
+  }
+}
@@ -34,6 +34,18 @@ public class Dependency {
         this.optional = optional;
     }
 
+    /**
+     * Builds the identity key used to tell dependencies apart inside a pom: {@code groupId:artifactId}.
+     * Version, type, scope and optional flag are not part of the identity.
+     */
+    public static String key(String groupId, String artifactId) {
+        return groupId + ":" + artifactId;
+    }
+
+    public String getKey() {
+        return key(groupId, artifactId);
+    }
+
     public String getGroupId() {
         return groupId;
     }
@@ -1,13 +1,19 @@
 package dev.buildcli.core.model;
 
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.Unmarshaller;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlElementWrapper;
 import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlTransient;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.logging.Logger;
 
@@ -21,9 +27,29 @@ public class Pom {
 	@XmlElementWrapper
 	@XmlElement(name = "dependency")
     private final List<Dependency> dependencies;
+
+    /**
+     * Dependencies keyed by {@link Dependency#getKey()}, in declaration order. This is the source of truth
+     * once the pom is loaded; {@link #dependencies} only mirrors it for JAXB (un)marshalling.
+     */
+    @XmlTransient
+    private final Map<String, Dependency> dependencyIndex;
     
     public Pom() {
     	this.dependencies = new ArrayList<>();
+    	this.dependencyIndex = new LinkedHashMap<>();
+    }
+
+    @SuppressWarnings("unused") // JAXB callback
+    private void afterUnmarshal(Unmarshaller unmarshaller, Object parent) {
+        dependencyIndex.clear();
+        dependencies.forEach(d -> dependencyIndex.putIfAbsent(d.getKey(), d));
+    }
+
+    @SuppressWarnings("unused") // JAXB callback
+    private void beforeMarshal(Marshaller marshaller) {
+        dependencies.clear();
+        dependencies.addAll(dependencyIndex.values());
     }
 
     public void addDependency(String dependency) {
@@ -43,12 +69,14 @@ public class Pom {
     }
 
     public void addDependency(String groupId, String artifactId, String version) {
-        dependencies.stream()
-                .filter(d -> d.getArtifactId()
-                        .equals(artifactId) && d.getGroupId().equals(groupId))
-                .findFirst()
-                .ifPresentOrElse(f -> f.setVersion(version),
-                        () -> dependencies.add(new Dependency(groupId, artifactId, version)));
+        var existing = dependencyIndex.get(Dependency.key(groupId, artifactId));
+
+        if (existing != null) {
+            existing.setVersion(version);
+        } else {
+            var dependency = new Dependency(groupId, artifactId, version);
+            dependencyIndex.put(dependency.getKey(), dependency);
+        }
     }
 
     public void addDependency(String groupId, String artifactId) {
@@ -68,9 +96,7 @@ public class Pom {
     }
 
     public void rmDependency(String groupId, String artifactId) {
-        dependencies.remove(dependencies.stream()
-                .filter(d -> d.getArtifactId().equals(artifactId) && d.getGroupId().equals(groupId))
-                .findFirst().orElse(null));
+        dependencyIndex.remove(Dependency.key(groupId, artifactId));
     }
 
     public String getDependencyFormatted(){
@@ -78,7 +104,7 @@ public class Pom {
         result.append("""
                                 <dependencies>
                             """);
-        for (Dependency dependency : dependencies) {
+        for (Dependency dependency : dependencyIndex.values()) {
         	
         	if (Objects.isNull(dependency.getVersion()) || dependency.getVersion().isBlank()) {
         		result.append( """
@@ -120,35 +146,38 @@ public class Pom {
     }
 
     public boolean hasDependency(String groupId, String artifactId) {
-    	return this.dependencies.stream()
-    			.anyMatch(d -> d.getGroupId().equals(groupId) && d.getArtifactId().equals(artifactId));
+    	return this.dependencyIndex.containsKey(Dependency.key(groupId, artifactId));
     }
 
     public boolean hasDependency(Dependency dependency) {
-        return this.hasDependency(dependency.getGroupId(), dependency.getArtifactId());
+        return this.dependencyIndex.containsKey(dependency.getKey());
     }
     
     public int countDependencies() {
-    	return this.dependencies.size();
+    	return this.dependencyIndex.size();
     }
 
+    /**
+     * @return an unmodifiable snapshot of the dependencies in declaration order
+     */
     public List<Dependency> getDependencies() {
-        return dependencies;
+        return List.copyOf(dependencyIndex.values());
     }
 
     public Dependency getDependency(Dependency dependency) {
-        return this.dependencies
-                .stream()
-                .filter(d -> d.getGroupId().equals(dependency.getGroupId())
-                        && d.getArtifactId().equals(dependency.getArtifactId()))
-                .findFirst()
-                .orElseThrow();
+        var found = this.dependencyIndex.get(dependency.getKey());
+
+        if (found == null) {
+            throw new NoSuchElementException("Dependency not found: " + dependency.getKey());
+        }
+
+        return found;
     }
 
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder("[");
-        dependencies.forEach(dependency -> sb.append(dependency.getGroupId())
+        dependencyIndex.values().forEach(dependency -> sb.append(dependency.getGroupId())
                 .append(":")
                 .append(dependency.getArtifactId())
                 .append(":")
@@ -1,42 +1,209 @@
 package dev.buildcli.core.utils;
 
+import dev.buildcli.core.constants.MavenConstants;
 import dev.buildcli.core.log.SystemOutLogger;
+import dev.buildcli.core.utils.filesystem.ParallelFileWalker;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.FileVisitResult;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.SimpleFileVisitor;
-import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
 
+/**
+ * Deletes build output quickly.
+ *
+ * <p>A directory is first renamed to a hidden trash sibling ({@code .buildcli-trash-*}), which is a single
+ * atomic operation on the same file system, so the original path is free again at once. The trash is then
+ * deleted in parallel, one fork/join task per directory, on a pool shared by every delete of the process.
+ * Trash left behind by an interrupted run is picked
+ * up by the next cleanup of the same parent directory.</p>
+ */
 public class DirectoryCleanup {
+  public static final String TRASH_PREFIX = ".buildcli-trash-";
+
+  private static final int DELETE_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+  // deletes are I/O bound, hence more threads than the common pool; its workers are daemons
+  private static final ForkJoinPool DELETE_POOL = new ForkJoinPool(DELETE_PARALLELISM);
+
+  /**
+   * @param deleted number of files and directories removed by this delete
+   * @param errors  one message per entry that could not be removed
+   */
+  public record Report(Path path, long deleted, List<String> errors) {
+    public boolean isSuccessful() {
+      return errors.isEmpty();
+    }
+  }
 
   public static void cleanup(String directory) {
     var targetPath = new File(directory).toPath();
 
-    if (!Files.exists(targetPath)) {
+    if (!Files.exists(targetPath, LinkOption.NOFOLLOW_LINKS)) {
       SystemOutLogger.log("The '%s' directory does not exist.".formatted(targetPath.toString()));
       return;
     }
 
-    try {
-      Files.walkFileTree(targetPath, new SimpleFileVisitor<>() {
-        @Override
-        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-          Files.delete(file);
-          return FileVisitResult.CONTINUE;
-        }
+    var trash = moveToTrash(targetPath).orElse(targetPath);
+    var report = delete(trash, new LongAdder());
 
-        @Override
-        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
-          Files.delete(dir);
-          return FileVisitResult.CONTINUE;
-        }
-      });
+    if (report.isSuccessful()) {
       SystemOutLogger.log("The '%s' directory was successfully cleaned.".formatted(targetPath.toString()));
+    } else {
+      SystemOutLogger.log("Error clearing '%s' directory: %s".formatted(directory, report.errors().getFirst()));
+    }
+  }
+
+  /**
+   * Renames {@code path} to a trash sibling in the same directory.
+   *
+   * @return the trash path, or empty when the rename is not possible (e.g. a file is locked on Windows);
+   * the caller should then delete {@code path} in place
+   */
+  public static Optional<Path> moveToTrash(Path path) {
+    var absolute = path.toAbsolutePath().normalize();
+    var parent = absolute.getParent();
+    if (parent == null) {
+      return Optional.empty();
+    }
+
+    var trash = parent.resolve(TRASH_PREFIX + absolute.getFileName() + "-" + UUID.randomUUID().toString().substring(0, 8));
+    try {
+      return Optional.of(Files.move(absolute, trash, StandardCopyOption.ATOMIC_MOVE));
+    } catch (IOException | UnsupportedOperationException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return trash directories left in {@code parent} by earlier cleanups
+   */
+  public static List<Path> findTrash(Path parent) {
+    if (!Files.isDirectory(parent)) {
+      return List.of();
+    }
+
+    try (Stream<Path> entries = Files.list(parent)) {
+      return entries.filter(entry -> entry.getFileName().toString().startsWith(TRASH_PREFIX)).sorted().toList();
+    } catch (IOException e) {
+      return List.of();
+    }
+  }
+
+  /**
+   * Finds the {@code target} directory of every Maven module under {@code workspace}.
+   */
+  public static List<Path> findTargets(Path workspace) {
+    return ParallelFileWalker.fromConfig().findByName(workspace, MavenConstants.FILE).stream()
+        .map(pom -> pom.resolveSibling(MavenConstants.TARGET))
+        .filter(Files::isDirectory)
+        .toList();
+  }
+
+  /**
+   * Deletes {@code path} and everything below it, continuing past entries that cannot be removed.
+   * Symbolic links are removed, never followed.
+   *
+   * @param progress incremented once per removed entry, for progress reporting while the delete runs
+   */
+  public static Report delete(Path path, LongAdder progress) {
+    var errors = new ConcurrentLinkedQueue<String>();
+    // progress may be shared by several deletes, the report counts this one only
+    var deleted = new LongAdder();
+    Runnable onDeleted = () -> {
+      deleted.increment();
+      progress.increment();
+    };
+
+    if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+      DELETE_POOL.invoke(new DeleteDirectory(path, onDeleted, errors));
+    } else {
+      deleteEntry(path, onDeleted, errors);
+    }
+
+    return new Report(path, deleted.sum(), List.copyOf(errors));
+  }
+
+  public static CompletableFuture<Report> deleteAsync(Path path, LongAdder progress) {
+    return CompletableFuture.supplyAsync(() -> delete(path, progress), ThreadPoolUtils.virtual());
+  }
+
+  /**
+   * Hands the paths to the operating system's recursive delete in a process that outlives this one, so
+   * the caller can exit without waiting.
+   */
+  public static void deleteDetached(List<Path> paths) throws IOException {
+    if (paths.isEmpty()) {
+      return;
+    }
+
+    var command = new ArrayList<String>();
+    if (OS.isWindows()) {
+      command.addAll(List.of("cmd", "/c", "rmdir", "/s", "/q"));
+    } else {
+      command.addAll(List.of("rm", "-rf", "--"));
+    }
+    paths.forEach(path -> command.add(path.toAbsolutePath().toString()));
+
+    new ProcessBuilder(command)
+        .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+        .redirectError(ProcessBuilder.Redirect.DISCARD)
+        .start();
+  }
+
+  private static boolean deleteEntry(Path path, Runnable onDeleted, ConcurrentLinkedQueue<String> errors) {
+    try {
+      Files.deleteIfExists(path);
+      onDeleted.run();
+      return true;
     } catch (IOException e) {
-      SystemOutLogger.log("Error clearing '%s' directory: %s".formatted(directory, e.getMessage()));
+      errors.add("%s: %s".formatted(path, e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage()));
+      return false;
+    }
+  }
+
+  private static class DeleteDirectory extends RecursiveAction {
+    private final Path directory;
+    private final Runnable onDeleted;
+    private final ConcurrentLinkedQueue<String> errors;
+
+    DeleteDirectory(Path directory, Runnable onDeleted, ConcurrentLinkedQueue<String> errors) {
+      this.directory = directory;
+      this.onDeleted = onDeleted;
+      this.errors = errors;
+    }
+
+    @Override
+    protected void compute() {
+      var subdirectories = new ArrayList<DeleteDirectory>();
+
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (var entry : entries) {
+          if (Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS)) {
+            subdirectories.add(new DeleteDirectory(entry, onDeleted, errors));
+          } else {
+            deleteEntry(entry, onDeleted, errors);
+          }
+        }
+      } catch (IOException e) {
+        errors.add("%s: %s".formatted(directory, e.getMessage()));
+      }
+
+      invokeAll(subdirectories);
+      deleteEntry(directory, onDeleted, errors);
     }
   }
 }
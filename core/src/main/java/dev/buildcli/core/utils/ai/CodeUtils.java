@@ -1,6 +1,13 @@
 package dev.buildcli.core.utils.ai;
 
 public final class CodeUtils {
+  /**
+   * Rough token count of {@code content}, about four characters per token for code and English text.
+   */
+  public static int estimateTokens(String content) {
+    return content == null ? 0 : (content.length() + 3) / 4;
+  }
+
   public static int endCode(String content) {
     return content.indexOf("```", startCode(content) + 3);
   }
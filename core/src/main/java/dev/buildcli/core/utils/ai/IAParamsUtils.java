@@ -1,12 +1,15 @@
 package dev.buildcli.core.utils.ai;
 
 import dev.buildcli.core.actions.ai.AIServiceParams;
+import dev.buildcli.core.actions.ai.params.FakeAIServiceParams;
 import dev.buildcli.core.actions.ai.params.JlamaAIServiceParams;
 import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
 import dev.buildcli.core.constants.ConfigDefaultConstants;
 import dev.buildcli.core.domain.configs.BuildCLIConfig;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
 
+import java.time.Duration;
+
 public final class IAParamsUtils {
   private static final BuildCLIConfig allConfigs = ConfigContextLoader.getAllConfigs();
 
@@ -29,6 +32,13 @@ public final class IAParamsUtils {
 
         yield new JlamaAIServiceParams(aiModel);
       }
+      case "fake" -> {
+        var latency = allConfigs.getProperty(ConfigDefaultConstants.AI_FAKE_LATENCY).map(Long::parseLong).orElse(200L);
+        var jitter = allConfigs.getProperty(ConfigDefaultConstants.AI_FAKE_JITTER).map(Long::parseLong).orElse(50L);
+        var tokensPerSecond = allConfigs.getProperty(ConfigDefaultConstants.AI_FAKE_TOKENS_PER_SECOND).map(Integer::parseInt).orElse(50);
+
+        yield new FakeAIServiceParams(Duration.ofMillis(latency), Duration.ofMillis(jitter), tokensPerSecond);
+      }
       default -> throw new IllegalStateException("Unexpected AI Vendor: " + aiVendor);
     };
   }
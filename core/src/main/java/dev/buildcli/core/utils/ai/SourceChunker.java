@@ -0,0 +1,332 @@
+package dev.buildcli.core.utils.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits Java and Kotlin sources that are too large for one AI request at type and member boundaries, and
+ * splices the answers back together.
+ *
+ * <p>The chunker is lexical: it tracks braces and parentheses while skipping comments, strings, text blocks
+ * and character literals. Top level declarations that do not fit are opened up and their members packed
+ * into chunks of at most {@code maxChars} characters; nested types are opened up the same way, method bodies
+ * never are. The chunks partition the file exactly, so splicing a chunk that was not answered, or whose
+ * answer changed anything but comments and whitespace, gives back the original bytes.</p>
+ */
+public final class SourceChunker {
+  private static final Pattern TYPE_DECLARATION = Pattern.compile("\\b(class|interface|enum|record|object)\\b");
+  private static final Pattern KOTLIN_DECLARATION = Pattern.compile(
+      "^(@|/\\*|//|(public|private|protected|internal|override|open|abstract|sealed|data|inline|value|suspend|const"
+          + "|lateinit|operator|infix|tailrec|external|annotation|companion|enum|inner|fun|val|var|class|interface"
+          + "|object|typealias|import|package|init|constructor)\\b)");
+  private static final Pattern IMPORTS = Pattern.compile("(?m)^\\s*(package|import)\\b.*$");
+
+  private SourceChunker() {
+  }
+
+  /**
+   * @return the size of chunks that fit a context window of {@code contextTokens} along with the system prompt,
+   * leaving room for the answer to repeat the chunk with comments added
+   */
+  public static int maxChars(int contextTokens, String systemPrompt) {
+    var chunkTokens = (contextTokens - CodeUtils.estimateTokens(systemPrompt)) / 3;
+    return Math.max(1024, chunkTokens * 4);
+  }
+
+  /**
+   * A region of the source, {@code documentable} when it declares more than the package and imports.
+   */
+  public record Chunk(int start, int end, String text, boolean documentable) {
+  }
+
+  /**
+   * @return chunks of at most {@code maxChars} characters, unless a single member is larger, covering the
+   * whole source in order; a single chunk when the source fits
+   */
+  public static List<Chunk> split(String fileName, String source, int maxChars) {
+    if (source.length() <= maxChars) {
+      return List.of(chunk(source, 0, source.length()));
+    }
+
+    var kotlin = fileName.endsWith(".kt") || fileName.endsWith(".kts");
+    var pieces = new ArrayList<int[]>();
+    collect(source, 0, source.length(), kotlin, maxChars, pieces);
+
+    var chunks = new ArrayList<Chunk>();
+    int start = 0;
+    int end = 0;
+    for (var piece : pieces) {
+      if (piece[1] - start > maxChars && end > start) {
+        chunks.add(chunk(source, start, end));
+        start = end;
+      }
+      end = piece[1];
+    }
+    if (end > start) {
+      chunks.add(chunk(source, start, end));
+    }
+    return chunks;
+  }
+
+  /**
+   * Joins the chunks, replacing each by its answer when the answer only added or changed comments and
+   * whitespace. The original leading and trailing whitespace of a chunk is kept.
+   *
+   * @param answers one answer per chunk, {@code null} to keep the chunk as it is
+   */
+  public static String splice(List<Chunk> chunks, List<String> answers) {
+    var result = new StringBuilder();
+    for (int i = 0; i < chunks.size(); i++) {
+      var original = chunks.get(i).text();
+      var answer = answers.get(i);
+
+      if (answer == null || answer.isBlank() || !sameCode(original, answer)) {
+        result.append(original);
+        continue;
+      }
+
+      var stripped = original.strip();
+      var leading = stripped.isEmpty() ? original : original.substring(0, original.indexOf(stripped));
+      var trailing = stripped.isEmpty() ? "" : original.substring(leading.length() + stripped.length());
+      result.append(leading).append(answer.strip()).append(trailing);
+    }
+    return result.toString();
+  }
+
+  /**
+   * @return whether both sources are the same once comments and whitespace outside of literals are removed
+   */
+  public static boolean sameCode(String original, String changed) {
+    return code(original).equals(code(changed));
+  }
+
+  private static Chunk chunk(String source, int start, int end) {
+    var text = source.substring(start, end);
+    var declarations = IMPORTS.matcher(withoutComments(text)).replaceAll("");
+    return new Chunk(start, end, text, !declarations.isBlank());
+  }
+
+  /**
+   * Adds the declarations in {@code [from, to)} to {@code pieces}, opening up types larger than {@code maxChars}.
+   */
+  private static void collect(String source, int from, int to, boolean kotlin, int maxChars, List<int[]> pieces) {
+    for (var unit : units(source, from, to, kotlin)) {
+      var body = unit[1] - unit[0] > maxChars ? typeBody(source, unit[0], unit[1]) : null;
+      if (body == null) {
+        pieces.add(unit);
+        continue;
+      }
+
+      pieces.add(new int[]{unit[0], body[0]});
+      collect(source, body[0], body[1], kotlin, maxChars, pieces);
+      pieces.add(new int[]{body[1], unit[1]});
+    }
+  }
+
+  /**
+   * Splits {@code [from, to)} after every declaration at its top level: after a {@code ;}, after a {@code }}
+   * closing a body and, in Kotlin, before a line starting a new declaration. Leading comments and blank lines
+   * belong to the declaration that follows them.
+   */
+  private static List<int[]> units(String source, int from, int to, boolean kotlin) {
+    var units = new ArrayList<int[]>();
+    int depth = 0;
+    int parens = 0;
+    int start = from;
+    int lineStart = from;
+
+    for (int i = from; i < to; ) {
+      var skipped = skip(source, i, to);
+      if (skipped != i) {
+        i = skipped;
+        continue;
+      }
+
+      var c = source.charAt(i);
+      int cut = -1;
+      switch (c) {
+        case '{' -> depth++;
+        case '}' -> {
+          depth--;
+          if (depth == 0 && parens == 0 && !continues(source, i + 1, to)) {
+            cut = i + 1;
+          }
+        }
+        case '(', '[' -> parens++;
+        case ')', ']' -> parens--;
+        case ';' -> {
+          if (depth == 0 && parens == 0) {
+            cut = i + 1;
+          }
+        }
+        case '\n' -> {
+          if (kotlin && depth == 0 && parens == 0 && endsKotlinDeclaration(source, start, lineStart, i, to)) {
+            cut = i + 1;
+          }
+          lineStart = i + 1;
+        }
+        default -> {
+        }
+      }
+
+      i++;
+      if (cut > start) {
+        units.add(new int[]{start, cut});
+        start = cut;
+      }
+    }
+
+    if (start < to) {
+      units.add(new int[]{start, to});
+    }
+    return units;
+  }
+
+  private static boolean endsKotlinDeclaration(String source, int unitStart, int lineStart, int newline, int to) {
+    var line = withoutComments(source.substring(lineStart, newline)).strip();
+    if (line.isEmpty() || line.startsWith("@") || withoutComments(source.substring(unitStart, newline)).isBlank()) {
+      return false;
+    }
+
+    int next = newline + 1;
+    while (next < to && Character.isWhitespace(source.charAt(next))) {
+      next++;
+    }
+    return next < to && KOTLIN_DECLARATION.matcher(source.substring(next, Math.min(to, next + 40))).find();
+  }
+
+  /**
+   * @return whether the expression goes on after a closing brace, as in a lambda or an array initializer
+   */
+  private static boolean continues(String source, int from, int to) {
+    for (int i = from; i < to; i++) {
+      var c = source.charAt(i);
+      if (!Character.isWhitespace(c)) {
+        return c == ';' || c == ',' || c == ')' || c == '.';
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return the body {@code [after the opening brace, closing brace)} of the type declared by the unit, or
+   * {@code null} when the unit is not a type declaration
+   */
+  private static int[] typeBody(String source, int from, int to) {
+    int parens = 0;
+    for (int i = from; i < to; ) {
+      var skipped = skip(source, i, to);
+      if (skipped != i) {
+        i = skipped;
+        continue;
+      }
+
+      var c = source.charAt(i);
+      if (c == '(') {
+        parens++;
+      } else if (c == ')') {
+        parens--;
+      } else if (c == '{' && parens == 0) {
+        if (!TYPE_DECLARATION.matcher(withoutComments(source.substring(from, i))).find()) {
+          return null;
+        }
+        var close = matchingBrace(source, i, to);
+        return close < 0 ? null : new int[]{i + 1, close};
+      }
+      i++;
+    }
+    return null;
+  }
+
+  private static int matchingBrace(String source, int open, int to) {
+    int depth = 0;
+    for (int i = open; i < to; ) {
+      var skipped = skip(source, i, to);
+      if (skipped != i) {
+        i = skipped;
+        continue;
+      }
+
+      var c = source.charAt(i);
+      if (c == '{') {
+        depth++;
+      } else if (c == '}' && --depth == 0) {
+        return i;
+      }
+      i++;
+    }
+    return -1;
+  }
+
+  /**
+   * @return the index after the comment or literal starting at {@code i}, or {@code i} when none starts there
+   */
+  private static int skip(String source, int i, int to) {
+    if (source.startsWith("//", i)) {
+      var end = source.indexOf('\n', i);
+      return end < 0 || end > to ? to : end;
+    }
+    if (source.startsWith("/*", i)) {
+      var end = source.indexOf("*/", i + 2);
+      return end < 0 || end + 2 > to ? to : end + 2;
+    }
+    if (source.startsWith("\"\"\"", i)) {
+      var end = source.indexOf("\"\"\"", i + 3);
+      return end < 0 || end + 3 > to ? to : end + 3;
+    }
+
+    var c = source.charAt(i);
+    if (c == '"' || c == '\'') {
+      for (int j = i + 1; j < to; j++) {
+        var d = source.charAt(j);
+        if (d == '\\') {
+          j++;
+        } else if (d == c || d == '\n') {
+          return j + 1;
+        }
+      }
+      return to;
+    }
+    return i;
+  }
+
+  private static boolean isComment(String source, int i) {
+    return source.startsWith("//", i) || source.startsWith("/*", i);
+  }
+
+  private static String withoutComments(String source) {
+    var result = new StringBuilder(source.length());
+    for (int i = 0; i < source.length(); ) {
+      var skipped = skip(source, i, source.length());
+      if (skipped == i) {
+        result.append(source.charAt(i++));
+        continue;
+      }
+      if (!isComment(source, i)) {
+        result.append(source, i, skipped);
+      }
+      i = skipped;
+    }
+    return result.toString();
+  }
+
+  private static String code(String source) {
+    var result = new StringBuilder(source.length());
+    for (int i = 0; i < source.length(); ) {
+      var skipped = skip(source, i, source.length());
+      if (skipped == i) {
+        var c = source.charAt(i++);
+        if (!Character.isWhitespace(c)) {
+          result.append(c);
+        }
+        continue;
+      }
+      if (!isComment(source, i)) {
+        result.append(source, i, skipped);
+      }
+      i = skipped;
+    }
+    return result.toString();
+  }
+}
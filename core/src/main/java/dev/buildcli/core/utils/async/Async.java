@@ -16,6 +16,10 @@ public class Async<T> {
     this.execsAsync = CompletableFuture.supplyAsync(supplier, ThreadPoolUtils.virtual());
   }
 
+  private Async(CompletableFuture<T> execsAsync) {
+    this.execsAsync = execsAsync;
+  }
+
   public boolean isDone() {
     return execsAsync.isDone();
   }
@@ -36,6 +40,10 @@ public class Async<T> {
     return new Async<>(supplier);
   }
 
+  public static <T> Async<T> from(CompletableFuture<T> future) {
+    return new Async<>(future);
+  }
+
   public static Async<Void> justRun(Runnable runnable) {
     return new Async<>(() -> {
       runnable.run();
@@ -0,0 +1,65 @@
+package dev.buildcli.core.utils.async;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Presents results one at a time, in the order of their items, while the work for the next items runs ahead.
+ *
+ * <p>Used for interactive reviews: while the user reviews the result of one item, the work for up to
+ * {@code ahead} following items is already running, so the user waits at most for the first one. Work that was
+ * started but not reviewed is cancelled once the review stops, whether the reviewer stopped it or it failed.</p>
+ */
+public final class OrderedPrefetch {
+  private OrderedPrefetch() {
+  }
+
+  @FunctionalInterface
+  public interface Reviewer<T, R> {
+    /**
+     * @param result  the result of {@code item}, {@code null} when its work failed
+     * @param failure why the work for {@code item} failed, {@code null} when it succeeded
+     * @return whether to go on with the next item
+     */
+    boolean review(T item, R result, Throwable failure);
+  }
+
+  /**
+   * Starts the work for the first {@code ahead + 1} items and reviews the results in order on the calling
+   * thread, starting the work for one more item before each review.
+   *
+   * @return the number of items reviewed
+   */
+  public static <T, R> int review(List<T> items, int ahead, Function<T, CompletableFuture<R>> start,
+                                  Reviewer<T, R> reviewer) {
+    var started = new ArrayList<CompletableFuture<R>>(items.size());
+    try {
+      for (int i = 0; i < items.size(); i++) {
+        while (started.size() < items.size() && started.size() <= i + ahead) {
+          started.add(start.apply(items.get(started.size())));
+        }
+
+        R result = null;
+        Throwable failure = null;
+        try {
+          result = started.get(i).join();
+        } catch (CompletionException e) {
+          failure = e.getCause() == null ? e : e.getCause();
+        } catch (CancellationException e) {
+          failure = e;
+        }
+
+        if (!reviewer.review(items.get(i), result, failure)) {
+          return i + 1;
+        }
+      }
+      return items.size();
+    } finally {
+      started.forEach(future -> future.cancel(true));
+    }
+  }
+}
@@ -2,19 +2,33 @@ package dev.buildcli.core.utils.compress;
 
 import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
 import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipFile;
 import org.apache.commons.compress.compressors.gzip.GzipCompressorInputStream;
 import dev.buildcli.core.log.SystemOutLogger;
 
-import java.io.FileInputStream;
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.OutputStream;
+import java.nio.file.FileSystems;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public abstract class FileExtractor {
+  private static final int TAR_BUFFER_SIZE = 1 << 20;
+  private static final boolean POSIX = FileSystems.getDefault().supportedFileAttributeViews().contains("posix");
+
   private FileExtractor() {
   }
 
@@ -38,52 +52,192 @@ public abstract class FileExtractor {
     void extract(String filePath, String extractTo) throws IOException;
   }
 
+  /**
+   * Extracts entries in parallel: the central directory gives random access to every entry, so each
+   * worker inflates its own entries straight into the target file without buffering them in memory.
+   */
   public static class ZipFileExtractor implements CompressedFileExtractor {
+    private final int workers;
+
+    public ZipFileExtractor() {
+      this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ZipFileExtractor(int workers) {
+      this.workers = Math.max(1, workers);
+    }
+
     @Override
     public void extract(String filePath, String extractTo) throws IOException {
-      Path outputPath = Paths.get(extractTo);
-      Files.createDirectories(outputPath);
-
-      try (ZipInputStream zis = new ZipInputStream(new FileInputStream(filePath))) {
-        ZipEntry zipEntry;
-        while ((zipEntry = zis.getNextEntry()) != null) {
-          Path entryPath = outputPath.resolve(zipEntry.getName());
-          if (zipEntry.isDirectory()) {
-            Files.createDirectories(entryPath);
+      Path outputPath = Paths.get(extractTo).toAbsolutePath().normalize();
+      Path outputRoot = Files.createDirectories(outputPath).toRealPath();
+
+      try (ZipFile zipFile = ZipFile.builder().setPath(filePath).get()) {
+        var files = new ArrayList<ZipArchiveEntry>();
+        var links = new ArrayList<ZipArchiveEntry>();
+
+        for (var entry : Collections.list(zipFile.getEntriesInPhysicalOrder())) {
+          Path entryPath = resolveEntry(outputPath, entry.getName());
+          if (entry.isDirectory()) {
+            createDirectoriesInside(outputRoot, entryPath);
+          } else if (entry.isUnixSymlink()) {
+            links.add(entry);
           } else {
-            Files.createDirectories(entryPath.getParent());
-            try (OutputStream os = Files.newOutputStream(entryPath)) {
-              os.write(zis.readAllBytes());
-            }
+            createDirectoriesInside(outputRoot, entryPath.getParent());
+            files.add(entry);
           }
         }
+
+        try (var executor = Executors.newFixedThreadPool(Math.min(workers, Math.max(1, files.size())))) {
+          var futures = new ArrayList<Future<?>>();
+          for (var entry : files) {
+            futures.add(executor.submit(() -> {
+              Path entryPath = resolveEntry(outputPath, entry.getName());
+              try (var input = zipFile.getInputStream(entry)) {
+                Files.copy(input, entryPath, StandardCopyOption.REPLACE_EXISTING);
+              }
+              setMode(entryPath, entry.getUnixMode());
+              return null;
+            }));
+          }
+          awaitAll(futures);
+        }
+
+        for (var entry : links) {
+          createSymbolicLink(outputRoot, resolveEntry(outputPath, entry.getName()), zipFile.getUnixSymlink(entry));
+        }
       }
       SystemOutLogger.log("Extracted: %s to %s".formatted(filePath, extractTo));
     }
   }
 
+  /**
+   * A tar.gz can only be read front to back, so entries are streamed one after the other through a large
+   * buffer. Symbolic links are created once every other entry is written, so that no entry is written through
+   * a link of the same archive.
+   */
   public static class TarGzFileExtractor implements CompressedFileExtractor {
     @Override
     public void extract(String filePath, String extractTo) throws IOException {
-      Path outputPath = Paths.get(extractTo);
-      Files.createDirectories(outputPath);
+      Path outputPath = Paths.get(extractTo).toAbsolutePath().normalize();
+      Path outputRoot = Files.createDirectories(outputPath).toRealPath();
+      var links = new ArrayList<Map.Entry<Path, String>>();
 
-      try (TarArchiveInputStream tais = new TarArchiveInputStream(new GzipCompressorInputStream(new FileInputStream(filePath)))) {
+      var input = new BufferedInputStream(Files.newInputStream(Paths.get(filePath)), TAR_BUFFER_SIZE);
+      try (TarArchiveInputStream tais = new TarArchiveInputStream(new GzipCompressorInputStream(input))) {
 
         TarArchiveEntry entry;
         while ((entry = tais.getNextEntry()) != null) {
-          Path entryPath = outputPath.resolve(entry.getName());
+          Path entryPath = resolveEntry(outputPath, entry.getName());
           if (entry.isDirectory()) {
-            Files.createDirectories(entryPath);
-          } else {
-            Files.createDirectories(entryPath.getParent());
-            try (OutputStream os = Files.newOutputStream(entryPath)) {
-              os.write(tais.readAllBytes());
+            createDirectoriesInside(outputRoot, entryPath);
+          } else if (entry.isSymbolicLink()) {
+            links.add(Map.entry(entryPath, entry.getLinkName()));
+          } else if (entry.isLink()) {
+            createDirectoriesInside(outputRoot, entryPath.getParent());
+            var target = resolveEntry(outputPath, entry.getLinkName());
+            if (!target.toRealPath().startsWith(outputRoot)) {
+              throw new IOException("Archive link points outside of the target directory: " + entry.getName());
             }
+            Files.deleteIfExists(entryPath);
+            Files.createLink(entryPath, target);
+          } else {
+            createDirectoriesInside(outputRoot, entryPath.getParent());
+            Files.copy(tais, entryPath, StandardCopyOption.REPLACE_EXISTING);
+            setMode(entryPath, entry.getMode());
           }
         }
       }
+
+      for (var link : links) {
+        createSymbolicLink(outputRoot, link.getKey(), link.getValue());
+      }
       SystemOutLogger.log("Extracted: %s to %s".formatted(filePath, extractTo));
     }
   }
+
+  /**
+   * Rejects entries such as {@code ../../.bashrc} that would be written outside the target directory.
+   */
+  static Path resolveEntry(Path outputPath, String name) throws IOException {
+    Path entryPath = outputPath.resolve(name).normalize();
+    if (!entryPath.startsWith(outputPath)) {
+      throw new IOException("Archive entry is outside of the target directory: " + name);
+    }
+    return entryPath;
+  }
+
+  /**
+   * Creates {@code directory} after checking that its closest existing ancestor, with symbolic links followed,
+   * is inside {@code outputRoot}: a textual check alone lets {@code link/file} be written wherever {@code link}
+   * points.
+   */
+  static void createDirectoriesInside(Path outputRoot, Path directory) throws IOException {
+    var existing = directory;
+    while (!Files.exists(existing)) {
+      existing = existing.getParent();
+    }
+    if (!existing.toRealPath().startsWith(outputRoot)) {
+      throw new IOException("Archive entry is outside of the target directory: " + directory);
+    }
+    Files.createDirectories(directory);
+  }
+
+  private static void createSymbolicLink(Path outputRoot, Path link, String target) throws IOException {
+    createDirectoriesInside(outputRoot, link.getParent());
+    var resolved = link.getParent().toRealPath().resolve(target).normalize();
+    if (!resolved.startsWith(outputRoot)) {
+      throw new IOException("Archive link points outside of the target directory: %s -> %s".formatted(link, target));
+    }
+
+    Files.deleteIfExists(link);
+    try {
+      Files.createSymbolicLink(link, Paths.get(target));
+    } catch (UnsupportedOperationException e) {
+      if (Files.isRegularFile(resolved)) {
+        Files.copy(resolved, link); // no symlinks on this file system
+      }
+      return;
+    }
+
+    // the target may run through links created before this one
+    if (Files.exists(link) && !link.toRealPath().startsWith(outputRoot)) {
+      Files.delete(link);
+      throw new IOException("Archive link points outside of the target directory: %s -> %s".formatted(link, target));
+    }
+  }
+
+  /**
+   * Applies the permission bits of a Unix mode, which keeps launchers such as {@code bin/mvn} executable.
+   */
+  private static void setMode(Path path, int mode) throws IOException {
+    if (!POSIX || (mode & 0777) == 0) {
+      return;
+    }
+
+    Set<PosixFilePermission> permissions = EnumSet.noneOf(PosixFilePermission.class);
+    var values = PosixFilePermission.values(); // OWNER_READ ... OTHERS_EXECUTE, highest bit first
+    for (int i = 0; i < values.length; i++) {
+      if ((mode & (1 << (values.length - 1 - i))) != 0) {
+        permissions.add(values[i]);
+      }
+    }
+    Files.setPosixFilePermissions(path, permissions);
+  }
+
+  private static void awaitAll(List<Future<?>> futures) throws IOException {
+    try {
+      for (var future : futures) {
+        future.get();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Extraction interrupted", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
+      }
+      throw new IOException(e.getCause());
+    }
+  }
 }
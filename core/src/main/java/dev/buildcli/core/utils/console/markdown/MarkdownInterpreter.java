@@ -245,7 +245,7 @@ public class MarkdownInterpreter {
     return result.toString();
   }
 
-  private String processInlineFormatting(String text) {
+  String processInlineFormatting(String text) {
     // Process code spans
     text = processCodeSpans(text);
 
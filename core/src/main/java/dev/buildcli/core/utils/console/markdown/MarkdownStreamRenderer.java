@@ -0,0 +1,139 @@
+package dev.buildcli.core.utils.console.markdown;
+
+import java.io.PrintStream;
+import java.util.function.Consumer;
+
+import static dev.buildcli.core.utils.BeautifyShell.brightBlackFg;
+import static dev.buildcli.core.utils.BeautifyShell.content;
+
+/**
+ * Renders Markdown while it is still being generated, styling it like {@link MarkdownInterpreter}.
+ *
+ * <p>Tokens are buffered until a line is complete, so block elements can be recognised. Long paragraphs are
+ * flushed at a word boundary once no inline markup is left open, so text keeps appearing even when the
+ * model does not break lines. Code blocks are highlighted line by line and framed on the left only, since
+ * their width is unknown until they end.</p>
+ */
+public class MarkdownStreamRenderer implements Consumer<String> {
+  private static final int SOFT_WRAP = 100;
+  private static final String FENCE = "```";
+
+  private final MarkdownInterpreter interpreter = new MarkdownInterpreter();
+  private final PrintStream out;
+  private final StringBuilder pending = new StringBuilder();
+  private boolean inCodeBlock;
+  private boolean inBlockQuote;
+  private boolean continuation;
+  private String language = "";
+
+  public MarkdownStreamRenderer(PrintStream out) {
+    this.out = out;
+  }
+
+  @Override
+  public synchronized void accept(String token) {
+    pending.append(token);
+
+    for (int newline; (newline = pending.indexOf("\n")) >= 0; ) {
+      var line = pending.substring(0, newline);
+      pending.delete(0, newline + 1);
+      renderLine(line);
+    }
+
+    softWrap();
+    out.flush();
+  }
+
+  /**
+   * Renders what is left of the last line and closes an unterminated code block.
+   */
+  public synchronized void finish() {
+    if (!pending.isEmpty()) {
+      renderLine(pending.toString());
+      pending.setLength(0);
+    }
+    if (inCodeBlock) {
+      out.println(brightBlackFg("└─"));
+      inCodeBlock = false;
+    }
+    out.flush();
+  }
+
+  private void renderLine(String line) {
+    if (continuation) {
+      out.println(interpreter.processInlineFormatting(line));
+      continuation = false;
+      return;
+    }
+
+    if (line.startsWith(FENCE) || (inCodeBlock && line.contains(FENCE))) {
+      if (inCodeBlock) {
+        out.println(brightBlackFg("└─"));
+      } else {
+        language = line.substring(FENCE.length()).trim();
+        if (!language.isEmpty()) {
+          out.println(content(language).brightWhiteFg().blackBg());
+        }
+        out.println(brightBlackFg("┌─"));
+      }
+      inCodeBlock = !inCodeBlock;
+      return;
+    }
+
+    if (inCodeBlock) {
+      out.println(brightBlackFg("│ ") + SyntaxHighlighter.highlight(line, language));
+      return;
+    }
+
+    if (line.isBlank()) {
+      inBlockQuote = false;
+      out.println();
+      return;
+    }
+
+    if (line.startsWith(">")) {
+      inBlockQuote = true;
+    } else if (inBlockQuote) {
+      line = ">" + line;
+    }
+    out.print(interpreter.interpret(line));
+  }
+
+  /**
+   * Flushes the start of a long unfinished line, up to its last space, once no inline markup is left open.
+   */
+  private void softWrap() {
+    if (inCodeBlock || pending.length() < SOFT_WRAP || (!continuation && pending.indexOf(FENCE) == 0)) {
+      return;
+    }
+
+    for (int space = pending.lastIndexOf(" "); space > 0; space = pending.lastIndexOf(" ", space - 1)) {
+      var piece = pending.substring(0, space + 1);
+      if (!isBalanced(piece)) {
+        continue;
+      }
+
+      if (continuation) {
+        out.print(interpreter.processInlineFormatting(piece));
+      } else {
+        var rendered = interpreter.interpret(inBlockQuote && !piece.startsWith(">") ? ">" + piece : piece);
+        rendered = rendered.endsWith("\n") ? rendered.substring(0, rendered.length() - 1) : rendered;
+        out.print(rendered.endsWith(" ") ? rendered : rendered + " ");
+        continuation = true;
+      }
+      pending.delete(0, space + 1);
+      return;
+    }
+  }
+
+  private static boolean isBalanced(String text) {
+    return count(text, '`') % 2 == 0
+        && count(text, '*') % 2 == 0
+        && count(text, '~') % 2 == 0
+        && count(text, '[') == count(text, ')');
+  }
+
+  private static long count(String text, char character) {
+    return text.chars().filter(c -> c == character).count();
+  }
+}
@@ -1,44 +1,24 @@
 package dev.buildcli.core.utils.filesystem;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import java.io.File;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 
+/**
+ * {@link File}-based shortcuts over {@link ParallelFileWalker}. Source searches skip build output,
+ * VCS directories and anything {@code .gitignore} or {@code buildcli.files.exclude} excludes; jar
+ * searches look everywhere, since jars usually live in {@code target}.
+ */
 public abstract class FindFilesUtils {
-  private static final Logger logger = LoggerFactory.getLogger(FindFilesUtils.class);
   private FindFilesUtils() {
   }
 
   public static List<File> search(File dir, String...extensions) {
-    List<File> files = new ArrayList<>();
-    if (dir.isDirectory()) {
-      var listFiles = dir.listFiles();
-      if (listFiles == null || listFiles.length == 0) {
-        return files;
-      }
-
-      for (File file : listFiles) {
-        if (file.isDirectory()) {
-          files.addAll(search(file, extensions));
-          continue;
-        }
-
-        if (endsWith(file, extensions)) {
-          files.add(file);
-        }
-      }
-    } else if (dir.isFile() && endsWith(dir, extensions)) {
-      files.add(dir);
-    }
-
-    return List.copyOf(files);
+    return toFiles(ParallelFileWalker.fromConfig().find(dir.toPath(), ParallelFileWalker.withExtensions(extensions)));
   }
 
   public static List<File> searchJarFiles(File dir) {
-    return search(dir, ".jar");
+    return toFiles(ParallelFileWalker.unfiltered().find(dir.toPath(), ParallelFileWalker.withExtensions(".jar")));
   }
 
   public static List<File> searchJavaFiles(File dir) {
@@ -51,13 +31,7 @@ public abstract class FindFilesUtils {
     return search(dir, extensions);
   }
 
-  private static boolean endsWith(File file, String...suffixes) {
-    for (String suffix : suffixes) {
-      if (file.getName().endsWith(suffix)) {
-        return true;
-      }
-    }
-
-    return false;
+  private static List<File> toFiles(List<Path> paths) {
+    return paths.stream().map(Path::toFile).toList();
   }
 }
@@ -0,0 +1,125 @@
+package dev.buildcli.core.utils.filesystem;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * The patterns of one {@code .gitignore} file, matched relative to the directory holding it.
+ *
+ * <p>Supports comments, negation ({@code !}), directory-only patterns (trailing {@code /}), anchoring
+ * (a {@code /} anywhere but at the end) and the {@code *}, {@code ?}, {@code [...]} and {@code **}
+ * wildcards. Escaped characters and trailing-space escapes are not handled.</p>
+ */
+final class IgnoreRules {
+  private record Rule(Pattern pattern, boolean negated, boolean directoryOnly) {
+  }
+
+  private final Path base;
+  private final List<Rule> rules;
+
+  private IgnoreRules(Path base, List<Rule> rules) {
+    this.base = base;
+    this.rules = rules;
+  }
+
+  static IgnoreRules read(Path gitignore) throws IOException {
+    return parse(gitignore.getParent(), Files.readAllLines(gitignore));
+  }
+
+  static IgnoreRules parse(Path base, List<String> lines) {
+    var rules = new ArrayList<Rule>();
+
+    for (var line : lines) {
+      var pattern = line.strip();
+      if (pattern.isEmpty() || pattern.startsWith("#")) {
+        continue;
+      }
+
+      var negated = pattern.startsWith("!");
+      if (negated) {
+        pattern = pattern.substring(1);
+      }
+
+      var directoryOnly = pattern.endsWith("/");
+      if (directoryOnly) {
+        pattern = pattern.substring(0, pattern.length() - 1);
+      }
+
+      var anchored = pattern.contains("/");
+      if (pattern.startsWith("/")) {
+        pattern = pattern.substring(1);
+      }
+
+      if (!pattern.isEmpty()) {
+        var regex = (anchored ? "" : "(?:.*/)?") + toRegex(pattern);
+        rules.add(new Rule(Pattern.compile(regex), negated, directoryOnly));
+      }
+    }
+
+    return new IgnoreRules(base, List.copyOf(rules));
+  }
+
+  boolean isEmpty() {
+    return rules.isEmpty();
+  }
+
+  /**
+   * @return {@code TRUE} if the last matching pattern ignores the path, {@code FALSE} if it re-includes it,
+   * {@code null} when no pattern matches
+   */
+  Boolean match(Path path, boolean directory) {
+    if (!path.startsWith(base)) {
+      return null;
+    }
+
+    var relative = base.relativize(path).toString().replace(path.getFileSystem().getSeparator(), "/");
+    Boolean result = null;
+
+    for (var rule : rules) {
+      if ((!rule.directoryOnly() || directory) && rule.pattern().matcher(relative).matches()) {
+        result = !rule.negated();
+      }
+    }
+
+    return result;
+  }
+
+  private static String toRegex(String glob) {
+    var regex = new StringBuilder();
+
+    for (int i = 0; i < glob.length(); i++) {
+      var c = glob.charAt(i);
+
+      if (c == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+        if (i + 2 < glob.length() && glob.charAt(i + 2) == '/') {
+          regex.append("(?:.*/)?"); // "**/" also matches no directory at all
+          i += 2;
+        } else {
+          regex.append(".*");
+          i++;
+        }
+      } else if (c == '*') {
+        regex.append("[^/]*");
+      } else if (c == '?') {
+        regex.append("[^/]");
+      } else if (c == '[') {
+        var end = glob.indexOf(']', i + 1);
+        if (end < 0) {
+          regex.append("\\[");
+        } else {
+          var set = glob.substring(i + 1, end);
+          regex.append('[').append(set.startsWith("!") ? "^" + set.substring(1) : set).append(']');
+          i = end;
+        }
+      } else {
+        regex.append(Pattern.quote(String.valueOf(c)));
+      }
+    }
+
+    return regex.toString();
+  }
+}
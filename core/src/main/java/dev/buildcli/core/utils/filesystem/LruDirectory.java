@@ -0,0 +1,118 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * The files of a cache directory seen as least recently used entries: the modification time of an entry is the
+ * time it was last used, refreshed by {@link #touch}, and {@link #evict} deletes the entries used longest ago.
+ */
+public class LruDirectory {
+  private static final Logger logger = LoggerFactory.getLogger(LruDirectory.class);
+
+  private final Path directory;
+  private final int depth;
+  private final Predicate<Path> isEntry;
+
+  /**
+   * @param depth   how many levels below {@code directory} entries are found
+   * @param isEntry which of the files found are entries, as opposed to locks, metadata or temporary files
+   */
+  public LruDirectory(Path directory, int depth, Predicate<Path> isEntry) {
+    this.directory = directory;
+    this.depth = depth;
+    this.isEntry = isEntry;
+  }
+
+  public List<Path> entries() {
+    var entries = new ArrayList<Path>();
+    if (!Files.isDirectory(directory)) {
+      return entries;
+    }
+
+    try (Stream<Path> stream = Files.walk(directory, depth)) {
+      stream.filter(Files::isRegularFile)
+          .filter(isEntry)
+          .forEach(entries::add);
+    } catch (IOException e) {
+      logger.debug("Could not list {}: {}", directory, e.getMessage());
+    }
+    return entries;
+  }
+
+  /**
+   * @return the total size of the entries
+   */
+  public long size() {
+    return entries().stream().mapToLong(LruDirectory::sizeOf).sum();
+  }
+
+  /**
+   * Deletes the least recently used entries, except the ones {@code keep} accepts, until the entries take at
+   * most {@code target} bytes or only kept ones are left.
+   *
+   * @return the total size of the entries left
+   */
+  public long evict(long target, Predicate<Path> keep) {
+    var entries = entries();
+    var total = entries.stream().mapToLong(LruDirectory::sizeOf).sum();
+
+    entries.sort(Comparator.comparing(LruDirectory::lastUsed));
+    for (var entry : entries) {
+      if (total <= target) {
+        break;
+      }
+      if (keep.test(entry)) {
+        continue;
+      }
+
+      var size = sizeOf(entry);
+      try {
+        Files.delete(entry);
+        total -= size;
+        logger.debug("Evicted {} from {}", entry, directory);
+      } catch (IOException e) {
+        logger.debug("Could not evict {}: {}", entry, e.getMessage());
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Marks {@code entry} as just used.
+   */
+  public static void touch(Path entry) {
+    try {
+      Files.setLastModifiedTime(entry, FileTime.from(Instant.now()));
+    } catch (IOException e) {
+      logger.debug("Could not mark {} as used: {}", entry, e.getMessage()); // e.g. owned by another user
+    }
+  }
+
+  private static FileTime lastUsed(Path entry) {
+    try {
+      return Files.getLastModifiedTime(entry);
+    } catch (IOException e) {
+      return FileTime.fromMillis(0);
+    }
+  }
+
+  private static long sizeOf(Path entry) {
+    try {
+      return Files.size(entry);
+    } catch (IOException e) {
+      return 0;
+    }
+  }
+}
@@ -0,0 +1,391 @@
+package dev.buildcli.core.utils.filesystem;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Finds files under a root by listing directories in parallel on the common fork/join pool.
+ *
+ * <p>Each directory becomes one task, so wide trees (monorepos with hundreds of modules) are listed
+ * concurrently instead of one directory at a time. Directories are pruned before they are listed when
+ * their name is in the skip set, when they are build output ({@code target}, {@code build}, {@code out})
+ * next to a {@code pom.xml} or Gradle build file, when a {@code .gitignore} (including those of enclosing directories up to
+ * the repository root) ignores them, or when they match one of the exclude globs, which are relative to
+ * the walked root. Symbolic links to directories are not followed.</p>
+ *
+ * <p>{@link #find} collects and sorts the matches; {@link #stream} hands them out while the walk is
+ * still running, and closing the stream stops the walk.</p>
+ */
+public class ParallelFileWalker {
+  private static final Logger logger = LoggerFactory.getLogger(ParallelFileWalker.class);
+
+  public static final Set<String> DEFAULT_SKIPPED_DIRECTORIES = Set.of(
+      ".git", ".svn", ".hg", ".idea", ".gradle", ".mvn", "node_modules");
+  /**
+   * Skipped only when their parent has a build file and they have none, so packages such as
+   * {@code com/acme/build} and modules named {@code out} are still walked.
+   */
+  public static final Set<String> DEFAULT_BUILD_OUTPUT_DIRECTORIES = Set.of("target", "build", "out");
+
+  private static final List<String> BUILD_FILES = List.of("pom.xml", "build.gradle", "build.gradle.kts");
+
+  private static final String GITIGNORE = ".gitignore";
+  private static final Path END_OF_WALK = Path.of(".end-of-walk");
+
+  private final Set<String> skippedDirectories;
+  private final Set<String> buildOutputDirectories;
+  private final boolean useGitIgnore;
+  private final List<PathMatcher> excludes;
+
+  public ParallelFileWalker() {
+    this(DEFAULT_SKIPPED_DIRECTORIES, DEFAULT_BUILD_OUTPUT_DIRECTORIES, true, List.of());
+  }
+
+  /**
+   * @param excludes glob patterns matched against paths relative to the walked root
+   */
+  public ParallelFileWalker(Set<String> skippedDirectories, boolean useGitIgnore, List<String> excludes) {
+    this(skippedDirectories, Set.of(), useGitIgnore, excludes);
+  }
+
+  /**
+   * @param buildOutputDirectories names skipped only directly under a project or module root
+   * @param excludes               glob patterns matched against paths relative to the walked root
+   */
+  public ParallelFileWalker(Set<String> skippedDirectories, Set<String> buildOutputDirectories, boolean useGitIgnore,
+                            List<String> excludes) {
+    this.skippedDirectories = skippedDirectories;
+    this.buildOutputDirectories = buildOutputDirectories;
+    this.useGitIgnore = useGitIgnore;
+    this.excludes = excludes.stream()
+        .map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob))
+        .toList();
+  }
+
+  /**
+   * A walker for project sources: default skip set, {@code .gitignore} support and the
+   * {@code buildcli.files.exclude} globs.
+   */
+  public static ParallelFileWalker fromConfig() {
+    var excludes = ConfigContextLoader.getAllConfigs().getProperty(ConfigDefaultConstants.FILES_EXCLUDE)
+        .map(value -> Arrays.stream(value.split(";")).map(String::trim).filter(s -> !s.isEmpty()).toList())
+        .orElse(List.of());
+
+    return new ParallelFileWalker(DEFAULT_SKIPPED_DIRECTORIES, DEFAULT_BUILD_OUTPUT_DIRECTORIES, true, excludes);
+  }
+
+  /**
+   * A walker that visits everything, e.g. to find jars in a {@code target} directory.
+   */
+  public static ParallelFileWalker unfiltered() {
+    return new ParallelFileWalker(Set.of(), false, List.of());
+  }
+
+  /**
+   * Matches file names by extension through a set lookup per dot in the name, so the cost does not grow
+   * with the number of extensions. {@code "java"} and {@code ".java"} are equivalent, multi-part
+   * extensions such as {@code tar.gz} work, and {@code all} matches every file.
+   */
+  public static Predicate<Path> withExtensions(String... extensions) {
+    var suffixes = Arrays.stream(extensions)
+        .map(extension -> extension.startsWith(".") ? extension.substring(1) : extension)
+        .collect(Collectors.toUnmodifiableSet());
+
+    if (suffixes.contains("all")) {
+      return path -> true;
+    }
+
+    return path -> {
+      var name = path.getFileName().toString();
+      for (int dot = name.indexOf('.'); dot >= 0; dot = name.indexOf('.', dot + 1)) {
+        if (suffixes.contains(name.substring(dot + 1))) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  public List<Path> find(Path root, Predicate<Path> filter) {
+    if (!Files.isDirectory(root)) {
+      return Files.isRegularFile(root) && filter.test(root) ? List.of(root) : List.of();
+    }
+
+    var files = new ConcurrentLinkedQueue<Path>();
+    ForkJoinPool.commonPool().invoke(new ListDirectory(root, root, ancestorRules(root), filter, files::add, null, new AtomicBoolean()));
+    return files.stream().sorted().toList();
+  }
+
+  /**
+   * @return {@code root} and every directory below it that the walk would enter, sorted
+   */
+  public List<Path> directories(Path root) {
+    if (!Files.isDirectory(root)) {
+      return List.of();
+    }
+
+    var directories = new ConcurrentLinkedQueue<Path>();
+    directories.add(root);
+    var task = new ListDirectory(root, root, ancestorRules(root), path -> false, path -> { }, directories::add, new AtomicBoolean());
+    ForkJoinPool.commonPool().invoke(task);
+    return directories.stream().sorted().toList();
+  }
+
+  /**
+   * Tells whether a walk of {@code root} would reach {@code path}, applying the same skip set, globs and
+   * {@code .gitignore} files to each of its parent directories. Useful for single paths reported by a
+   * file watcher; the path does not need to exist.
+   */
+  public boolean accepts(Path root, Path path) {
+    var relative = root.relativize(path);
+    var rules = new ArrayList<>(ancestorRules(root));
+    var current = root;
+
+    for (int i = 0; i < relative.getNameCount(); i++) {
+      if (useGitIgnore) {
+        readRules(current.toAbsolutePath().normalize()).ifPresent(rules::add);
+      }
+
+      current = current.resolve(relative.getName(i));
+      var directory = i < relative.getNameCount() - 1 || Files.isDirectory(current, LinkOption.NOFOLLOW_LINKS);
+      if (isIgnored(root, current, directory, rules)) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  public List<Path> findByName(Path root, String fileName) {
+    return find(root, path -> path.getFileName().toString().equals(fileName));
+  }
+
+  /**
+   * Streams matches in discovery order while the walk runs in the background. Close the stream (or use
+   * try-with-resources) when not consuming it to the end.
+   */
+  public Stream<Path> stream(Path root, Predicate<Path> filter) {
+    if (!Files.isDirectory(root)) {
+      return Files.isRegularFile(root) && filter.test(root) ? Stream.of(root) : Stream.empty();
+    }
+
+    BlockingQueue<Path> queue = new LinkedBlockingQueue<>();
+    var cancelled = new AtomicBoolean();
+    var task = new ListDirectory(root, root, ancestorRules(root), filter, queue::add, null, cancelled);
+
+    ForkJoinPool.commonPool().execute(() -> {
+      try {
+        task.invoke();
+      } catch (RuntimeException e) {
+        logger.warn("File walk of {} failed: {}", root, e.getMessage());
+      } finally {
+        queue.add(END_OF_WALK);
+      }
+    });
+
+    var iterator = new Iterator<Path>() {
+      private Path next;
+
+      @Override
+      public boolean hasNext() {
+        if (next == null) {
+          try {
+            // compensates the pool if the consumer itself runs on a fork/join worker
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+              @Override
+              public boolean block() throws InterruptedException {
+                next = queue.take();
+                return true;
+              }
+
+              @Override
+              public boolean isReleasable() {
+                return next != null || (next = queue.poll()) != null;
+              }
+            });
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            next = END_OF_WALK;
+          }
+        }
+        return next != END_OF_WALK;
+      }
+
+      @Override
+      public Path next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        var current = next;
+        next = null;
+        return current;
+      }
+    };
+
+    return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.NONNULL), false)
+        .onClose(() -> cancelled.set(true));
+  }
+
+  /**
+   * {@code .gitignore} files between the repository root and {@code root} also apply to the walk.
+   */
+  private List<IgnoreRules> ancestorRules(Path root) {
+    if (!useGitIgnore || Files.exists(root.resolve(".git"))) {
+      return List.of();
+    }
+
+    var ancestors = new ArrayList<Path>();
+    for (var directory = root.toAbsolutePath().normalize().getParent(); directory != null; directory = directory.getParent()) {
+      ancestors.addFirst(directory);
+      if (Files.exists(directory.resolve(".git"))) {
+        var rules = new ArrayList<IgnoreRules>();
+        ancestors.forEach(ancestor -> readRules(ancestor).ifPresent(rules::add));
+        return rules;
+      }
+    }
+
+    return List.of(); // not inside a repository
+  }
+
+  private static Optional<IgnoreRules> readRules(Path directory) {
+    var gitignore = directory.resolve(GITIGNORE);
+    if (!Files.isRegularFile(gitignore)) {
+      return Optional.empty();
+    }
+
+    try {
+      var rules = IgnoreRules.read(gitignore);
+      return rules.isEmpty() ? Optional.empty() : Optional.of(rules);
+    } catch (IOException e) {
+      logger.debug("Skipping unreadable {}: {}", gitignore, e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  private boolean isIgnored(Path root, Path path, boolean directory, List<IgnoreRules> rules) {
+    if (directory && skippedDirectories.contains(path.getFileName().toString())) {
+      return true;
+    }
+
+    if (directory && buildOutputDirectories.contains(path.getFileName().toString())
+        && hasBuildFile(path.getParent()) && !hasBuildFile(path)) {
+      return true;
+    }
+
+    if (!excludes.isEmpty()) {
+      var relative = root.relativize(path);
+      if (excludes.stream().anyMatch(exclude -> exclude.matches(relative))) {
+        return true;
+      }
+    }
+
+    if (rules.isEmpty()) {
+      return false;
+    }
+
+    var absolute = path.toAbsolutePath().normalize();
+    Boolean ignored = null;
+    for (var rule : rules) {
+      var match = rule.match(absolute, directory);
+      if (match != null) {
+        ignored = match;
+      }
+    }
+    return Boolean.TRUE.equals(ignored);
+  }
+
+  static boolean hasBuildFile(Path directory) {
+    return BUILD_FILES.stream().anyMatch(file -> Files.isRegularFile(directory.resolve(file)));
+  }
+
+  private class ListDirectory extends RecursiveAction {
+    private final Path root;
+    private final Path directory;
+    private final List<IgnoreRules> rules;
+    private final Predicate<Path> filter;
+    private final Consumer<Path> sink;
+    private final Consumer<Path> directorySink;
+    private final AtomicBoolean cancelled;
+
+    ListDirectory(Path root, Path directory, List<IgnoreRules> rules, Predicate<Path> filter,
+                  Consumer<Path> sink, Consumer<Path> directorySink, AtomicBoolean cancelled) {
+      this.root = root;
+      this.directory = directory;
+      this.rules = rules;
+      this.filter = filter;
+      this.sink = sink;
+      this.directorySink = directorySink;
+      this.cancelled = cancelled;
+    }
+
+    @Override
+    protected void compute() {
+      if (cancelled.get()) {
+        return;
+      }
+
+      var effectiveRules = rules;
+      if (useGitIgnore) {
+        var own = readRules(directory.toAbsolutePath().normalize());
+        if (own.isPresent()) {
+          effectiveRules = new ArrayList<>(rules);
+          effectiveRules.add(own.get());
+        }
+      }
+
+      var subdirectories = new ArrayList<ListDirectory>();
+
+      try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+        for (var entry : entries) {
+          var isDirectory = Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS);
+          if (isIgnored(root, entry, isDirectory, effectiveRules)) {
+            continue;
+          }
+
+          if (isDirectory) {
+            if (directorySink != null) {
+              directorySink.accept(entry);
+            }
+            subdirectories.add(new ListDirectory(root, entry, effectiveRules, filter, sink, directorySink, cancelled));
+          } else if (filter.test(entry)) {
+            sink.accept(entry);
+          }
+        }
+      } catch (IOException e) {
+        logger.debug("Skipping unreadable directory {}: {}", directory, e.getMessage());
+      }
+
+      invokeAll(subdirectories);
+    }
+  }
+}
@@ -0,0 +1,214 @@
+package dev.buildcli.core.utils.filesystem;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Installs plugin jars without ever overwriting one that a running buildcli may have open.
+ *
+ * <p>Every installed jar is kept under {@code .versions/<name>/<content hash>.jar}. The active version is
+ * selected by {@code <name>.jar}, a symbolic link that is replaced atomically, or, where symbolic links are
+ * not available (e.g. Windows without developer mode), by a {@code <name>.plugin} pointer file holding the
+ * relative path of the version. Installing the same jar twice is a no-op, and versions that are no longer
+ * active are pruned when they are not locked. Plain jars copied into the directory by hand keep working.</p>
+ */
+public class PluginStore {
+  private static final Logger logger = LoggerFactory.getLogger(PluginStore.class);
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_HOME.resolve("plugins");
+  public static final String VERSIONS_DIRECTORY = ".versions";
+  public static final String POINTER_EXTENSION = ".plugin";
+
+  private static final String JAR_EXTENSION = ".jar";
+
+  private final Path directory;
+
+  public PluginStore(Path directory) {
+    this.directory = directory;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * @return the plugin name of a jar file, i.e. its file name without {@code .jar}
+   */
+  public static String nameOf(Path jar) {
+    var fileName = jar.getFileName().toString();
+    return fileName.endsWith(JAR_EXTENSION) ? fileName.substring(0, fileName.length() - JAR_EXTENSION.length()) : fileName;
+  }
+
+  public boolean isInstalled(String name) {
+    return Files.exists(directory.resolve(name + JAR_EXTENSION), LinkOption.NOFOLLOW_LINKS)
+        || Files.isRegularFile(directory.resolve(name + POINTER_EXTENSION));
+  }
+
+  /**
+   * Installs {@code jar} as the active version of its plugin.
+   *
+   * @return the installed version inside the store
+   */
+  public Path install(Path jar) throws IOException {
+    var name = nameOf(jar);
+    var versions = directory.resolve(VERSIONS_DIRECTORY).resolve(name);
+    Files.createDirectories(versions);
+
+    var version = versions.resolve(ProjectFileIndex.hash(jar).substring(0, 16) + JAR_EXTENSION);
+    if (!Files.isRegularFile(version)) {
+      var temporary = versions.resolve(".tmp-" + UUID.randomUUID() + JAR_EXTENSION);
+      try {
+        copy(jar, temporary);
+        Files.move(temporary, version, StandardCopyOption.ATOMIC_MOVE);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    }
+
+    activate(name, version);
+    prune(name, version);
+    return version;
+  }
+
+  /**
+   * Deactivates the plugin and deletes its stored versions where possible.
+   *
+   * @return {@code false} when no plugin of that name is installed
+   */
+  public boolean remove(String name) throws IOException {
+    var removed = Files.deleteIfExists(directory.resolve(name + JAR_EXTENSION));
+    removed |= Files.deleteIfExists(directory.resolve(name + POINTER_EXTENSION));
+    prune(name, null);
+    return removed;
+  }
+
+  /**
+   * @return the jars of every active plugin: linked and pointed-to versions, and jars placed in the
+   * directory (or its subdirectories) by hand
+   */
+  public List<Path> jars() {
+    if (!Files.isDirectory(directory)) {
+      return List.of();
+    }
+
+    var jars = new ArrayList<Path>();
+    var walker = new ParallelFileWalker(Set.of(VERSIONS_DIRECTORY), false, List.of());
+    for (var file : walker.find(directory, ParallelFileWalker.withExtensions("jar", POINTER_EXTENSION))) {
+      if (file.getFileName().toString().endsWith(POINTER_EXTENSION)) {
+        pointedVersion(file).ifPresent(jars::add);
+      } else if (Files.isRegularFile(file)) {
+        jars.add(file);
+      } else {
+        logger.warn("Ignoring broken plugin link {}", file);
+      }
+    }
+    return jars;
+  }
+
+  /**
+   * Copies through {@link FileChannel#transferTo}, which lets the kernel move the bytes without a trip
+   * through the Java heap.
+   */
+  private static void copy(Path source, Path target) throws IOException {
+    try (var in = FileChannel.open(source, StandardOpenOption.READ);
+         var out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+      long size = in.size();
+      for (long position = 0; position < size; ) {
+        position += in.transferTo(position, size - position, out);
+      }
+      out.force(true);
+    }
+  }
+
+  private void activate(String name, Path version) throws IOException {
+    var link = directory.resolve(name + JAR_EXTENSION);
+    var pointer = directory.resolve(name + POINTER_EXTENSION);
+    var relative = directory.relativize(version);
+    var temporary = directory.resolve("." + name + "-" + UUID.randomUUID() + ".link");
+
+    try {
+      Files.createSymbolicLink(temporary, relative);
+      Files.move(temporary, link, StandardCopyOption.ATOMIC_MOVE);
+      Files.deleteIfExists(pointer);
+      return;
+    } catch (IOException | UnsupportedOperationException e) {
+      Files.deleteIfExists(temporary);
+      logger.debug("Falling back to a pointer file for {}: {}", name, e.getMessage());
+    }
+
+    Files.writeString(temporary, relative.toString().replace('\\', '/'), StandardCharsets.UTF_8);
+    Files.move(temporary, pointer, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+    // a plain jar of the same name would be loaded as well
+    if (Files.exists(link, LinkOption.NOFOLLOW_LINKS)) {
+      try {
+        Files.delete(link);
+      } catch (IOException e) {
+        logger.warn("Could not remove the previous {}, remove it once it is no longer in use", link);
+      }
+    }
+  }
+
+  private Optional<Path> pointedVersion(Path pointer) {
+    try {
+      var version = directory.resolve(Files.readString(pointer, StandardCharsets.UTF_8).strip()).normalize();
+      if (version.startsWith(directory.resolve(VERSIONS_DIRECTORY)) && Files.isRegularFile(version)) {
+        return Optional.of(version);
+      }
+      logger.warn("Ignoring plugin pointer {} to a missing version", pointer);
+    } catch (IOException e) {
+      logger.warn("Ignoring unreadable plugin pointer {}: {}", pointer, e.getMessage());
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Deletes the stored versions of {@code name} except {@code keep}. Versions still open by another
+   * process cannot be deleted on Windows and are left for a later install.
+   */
+  private void prune(String name, Path keep) {
+    var versions = directory.resolve(VERSIONS_DIRECTORY).resolve(name);
+    if (!Files.isDirectory(versions)) {
+      return;
+    }
+
+    try (DirectoryStream<Path> entries = Files.newDirectoryStream(versions)) {
+      for (var entry : entries) {
+        if (entry.equals(keep)) {
+          continue;
+        }
+        try {
+          Files.delete(entry);
+        } catch (IOException e) {
+          logger.debug("Keeping plugin version {} for now: {}", entry, e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      logger.debug("Could not list {}: {}", versions, e.getMessage());
+    }
+
+    if (keep == null) {
+      try {
+        Files.deleteIfExists(versions);
+      } catch (IOException e) {
+        logger.debug("Keeping {}: {}", versions, e.getMessage());
+      }
+    }
+  }
+}
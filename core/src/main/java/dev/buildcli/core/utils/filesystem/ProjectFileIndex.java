@@ -0,0 +1,491 @@
+package dev.buildcli.core.utils.filesystem;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Persistent index of the source files of one project: relative path, size, modification time and SHA-256
+ * of the content, stored in a small binary file under {@code ~/.buildcli/cache/projects}.
+ *
+ * <p>Only files with one of the {@link #SOURCE_EXTENSIONS} the AI commands read are indexed, and there is
+ * one index per project root, however many of its directories are searched.</p>
+ *
+ * <p>{@link #refresh()} walks the project with {@link ParallelFileWalker#fromConfig()} but only hashes
+ * files whose size or modification time changed, and reports what was added, modified or removed since
+ * the previous refresh; {@link #refresh(Path)} does the same for one directory of it, which is all
+ * {@link #search} needs. {@link #watch} keeps the index live from a {@link WatchService} instead; while a
+ * watcher is running, {@link #open(Path)} trusts the persisted index and skips the walk entirely.</p>
+ */
+public class ProjectFileIndex {
+  private static final Logger logger = LoggerFactory.getLogger(ProjectFileIndex.class);
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_CACHE_DIR.resolve("projects");
+  public static final Set<String> SOURCE_EXTENSIONS = Set.of("java", "kt", "scala", "groovy");
+
+  private static final int MAGIC = 0x42434c46; // "BCLF"
+  private static final int FORMAT_VERSION = 1;
+  private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(10);
+  private static final Duration HEARTBEAT_TIMEOUT = HEARTBEAT_INTERVAL.multipliedBy(3);
+  private static final long DEBOUNCE_MILLIS = 200;
+
+  public record FileEntry(String path, long size, long lastModified, String hash) {
+  }
+
+  /**
+   * Paths (relative to the project root, {@code /}-separated) that changed between two states of the index.
+   */
+  public record Changes(List<String> added, List<String> modified, List<String> removed) {
+    public boolean isEmpty() {
+      return added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+    }
+  }
+
+  private final Path root;
+  private final Path indexFile;
+  private final Path heartbeatFile;
+  private final ParallelFileWalker walker;
+  private final Predicate<Path> include;
+  private final Map<String, FileEntry> entries = new ConcurrentHashMap<>();
+
+  public ProjectFileIndex(Path root, Path indexFile, ParallelFileWalker walker) {
+    this(root, indexFile, walker, ParallelFileWalker.withExtensions(SOURCE_EXTENSIONS.toArray(String[]::new)));
+  }
+
+  /**
+   * @param include the files to index
+   */
+  public ProjectFileIndex(Path root, Path indexFile, ParallelFileWalker walker, Predicate<Path> include) {
+    this.root = root.toAbsolutePath().normalize();
+    this.indexFile = indexFile;
+    this.heartbeatFile = indexFile.resolveSibling(indexFile.getFileName() + ".watch");
+    this.walker = walker;
+    this.include = include;
+  }
+
+  /**
+   * Loads the index of the project {@code directory} belongs to and brings it up to date, unless a watcher
+   * already keeps it current.
+   */
+  public static ProjectFileIndex open(Path directory) {
+    var index = load(directory);
+    if (!index.isWatched()) {
+      index.refresh();
+    }
+    return index;
+  }
+
+  private static ProjectFileIndex load(Path directory) {
+    var normalized = projectRoot(directory);
+    var name = sha256(normalized.toString().getBytes(StandardCharsets.UTF_8)).substring(0, 16) + ".idx";
+    var index = new ProjectFileIndex(normalized, DEFAULT_DIRECTORY.resolve(name), ParallelFileWalker.fromConfig());
+
+    index.load();
+    return index;
+  }
+
+  /**
+   * Lists the files with one of {@code extensions} under {@code target} through the index of its project, or
+   * {@code target} itself when it is a file. Only {@code target} is refreshed, and exclude globs are matched
+   * relative to it, as for a plain walk of {@code target}. Extensions the index does not hold are found by
+   * walking {@code target}.
+   */
+  public static List<Path> search(Path target, String... extensions) {
+    var filter = ParallelFileWalker.withExtensions(extensions);
+    if (Files.isRegularFile(target)) {
+      return filter.test(target) ? List.of(target) : List.of();
+    }
+    if (!Files.isDirectory(target)) {
+      return List.of();
+    }
+
+    var indexed = Arrays.stream(extensions)
+        .map(extension -> extension.startsWith(".") ? extension.substring(1) : extension)
+        .allMatch(SOURCE_EXTENSIONS::contains);
+    if (!indexed) {
+      return ParallelFileWalker.fromConfig().find(target, filter);
+    }
+
+    var directory = target.toAbsolutePath().normalize();
+    var index = load(directory);
+    if (!index.isWatched()) {
+      index.refresh(directory);
+      return index.files(file -> file.startsWith(directory) && filter.test(file));
+    }
+    // a watcher keeps the whole project current, against the globs of the project root
+    return index.files(file -> file.startsWith(directory) && filter.test(file) && index.walker.accepts(directory, file));
+  }
+
+  /**
+   * @return the outermost directory of the build that {@code directory} is part of: the topmost of the
+   * enclosing directories with a {@code pom.xml} or Gradle build file that follow each other without a gap,
+   * not going above a git repository root, or {@code directory} itself outside of any build
+   */
+  public static Path projectRoot(Path directory) {
+    var normalized = directory.toAbsolutePath().normalize();
+    Path root = null;
+
+    for (var current = normalized; current != null; current = current.getParent()) {
+      if (ParallelFileWalker.hasBuildFile(current)) {
+        root = current;
+      } else if (root != null) {
+        break;
+      }
+      if (Files.exists(current.resolve(".git"))) {
+        break;
+      }
+    }
+
+    return root != null ? root : normalized;
+  }
+
+  public Path getRoot() {
+    return root;
+  }
+
+  public Path getIndexFile() {
+    return indexFile;
+  }
+
+  public Collection<FileEntry> entries() {
+    return List.copyOf(entries.values());
+  }
+
+  public Optional<FileEntry> entry(Path file) {
+    return Optional.ofNullable(entries.get(relative(file.toAbsolutePath().normalize())));
+  }
+
+  /**
+   * @return absolute paths of the indexed files accepted by {@code filter}, sorted
+   */
+  public List<Path> files(Predicate<Path> filter) {
+    return entries.keySet().stream()
+        .map(root::resolve)
+        .filter(filter)
+        .sorted()
+        .toList();
+  }
+
+  /**
+   * @return {@code true} when a {@link #watch} of this project in any process refreshed its heartbeat recently
+   */
+  public boolean isWatched() {
+    try {
+      return Files.exists(heartbeatFile) && Files.getLastModifiedTime(heartbeatFile).toInstant()
+          .isAfter(Instant.now().minus(HEARTBEAT_TIMEOUT));
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  public synchronized void load() {
+    entries.clear();
+    if (!Files.isRegularFile(indexFile)) {
+      return;
+    }
+
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION || !input.readUTF().equals(root.toString())) {
+        throw new IOException("Unsupported index format");
+      }
+
+      int count = input.readInt();
+      var hash = new byte[32];
+      for (int i = 0; i < count; i++) {
+        var path = input.readUTF();
+        var size = input.readLong();
+        var lastModified = input.readLong();
+        input.readFully(hash);
+        entries.put(path, new FileEntry(path, size, lastModified, HexFormat.of().formatHex(hash)));
+      }
+    } catch (IOException e) {
+      logger.debug("Ignoring unreadable project index {}: {}", indexFile, e.getMessage());
+      entries.clear();
+    }
+  }
+
+  /**
+   * Re-walks the project, hashing only files whose size or modification time changed, and persists the
+   * result.
+   */
+  public Changes refresh() {
+    return refresh(root);
+  }
+
+  /**
+   * Re-walks {@code directory}, which must be inside the project, the same way as {@link #refresh()}. Entries
+   * outside of it are kept as they are; exclude globs are relative to {@code directory}.
+   */
+  public synchronized Changes refresh(Path directory) {
+    var normalized = directory.toAbsolutePath().normalize();
+    var prefix = normalized.equals(root) ? "" : relative(normalized) + "/";
+    var previous = new HashMap<String, FileEntry>();
+    entries.forEach((path, entry) -> {
+      if (path.startsWith(prefix)) {
+        previous.put(path, entry);
+      }
+    });
+    var current = new ConcurrentHashMap<String, FileEntry>();
+
+    walker.find(normalized, include).parallelStream().forEach(file -> {
+      var entry = scan(file, previous.get(relative(file)));
+      if (entry != null) {
+        current.put(entry.path(), entry);
+      }
+    });
+
+    var changes = diff(previous, current);
+    entries.keySet().removeAll(previous.keySet());
+    entries.putAll(current);
+    if (!changes.isEmpty() || !Files.exists(indexFile)) {
+      write();
+    }
+    return changes;
+  }
+
+  /**
+   * Keeps the index live until the returned handle is closed: file events are applied as they arrive
+   * (debounced), the index is persisted after each batch and {@code listener} receives the batch.
+   */
+  public Closeable watch(Consumer<Changes> listener) throws IOException {
+    var watchService = root.getFileSystem().newWatchService();
+    var keys = new ConcurrentHashMap<WatchKey, Path>();
+    walker.directories(root).forEach(directory -> register(watchService, keys, directory));
+    heartbeat();
+
+    var events = ThreadPoolUtils.virtual().submit(() -> processEvents(watchService, keys, listener));
+    var heartbeats = ThreadPoolUtils.virtual().submit(() -> {
+      try {
+        while (!Thread.currentThread().isInterrupted()) {
+          Thread.sleep(HEARTBEAT_INTERVAL.toMillis());
+          heartbeat();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    });
+
+    return () -> {
+      heartbeats.cancel(true);
+      watchService.close();
+      events.cancel(true);
+      Files.deleteIfExists(heartbeatFile);
+    };
+  }
+
+  private void processEvents(WatchService watchService, Map<WatchKey, Path> keys, Consumer<Changes> listener) {
+    try {
+      while (true) {
+        var key = watchService.take();
+        var touched = new ArrayList<Path>();
+        var overflow = false;
+
+        // collect everything that arrives shortly after the first event into one batch
+        for (; key != null; key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) {
+          var directory = keys.get(key);
+          for (var event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+              overflow = true;
+            } else if (directory != null) {
+              touched.add(directory.resolve((Path) event.context()));
+            }
+          }
+          if (!key.reset()) {
+            keys.remove(key);
+          }
+        }
+
+        var changes = overflow ? refresh() : apply(touched, watchService, keys);
+        if (!changes.isEmpty()) {
+          listener.accept(changes);
+        }
+      }
+    } catch (ClosedWatchServiceException e) {
+      // watch closed
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private synchronized Changes apply(List<Path> touched, WatchService watchService, Map<WatchKey, Path> keys) {
+    var previous = new HashMap<>(entries);
+
+    for (var path : touched) {
+      if (Files.isDirectory(path, LinkOption.NOFOLLOW_LINKS)) {
+        if (walker.accepts(root, path)) {
+          walker.directories(path).forEach(directory -> register(watchService, keys, directory));
+          walker.find(path, include).forEach(file -> update(file, previous));
+        }
+        continue;
+      }
+
+      var relative = relative(path);
+      if (Files.isRegularFile(path) && include.test(path) && walker.accepts(root, path)) {
+        update(path, previous);
+      } else {
+        // a deleted file, or a deleted directory and everything that was indexed under it
+        entries.keySet().removeIf(indexed -> indexed.equals(relative) || indexed.startsWith(relative + "/"));
+      }
+    }
+
+    var changes = diff(previous, entries);
+    if (!changes.isEmpty()) {
+      write();
+    }
+    return changes;
+  }
+
+  private void update(Path file, Map<String, FileEntry> previous) {
+    var entry = scan(file, previous.get(relative(file)));
+    if (entry != null) {
+      entries.put(entry.path(), entry);
+    }
+  }
+
+  private void register(WatchService watchService, Map<WatchKey, Path> keys, Path directory) {
+    try {
+      keys.put(directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+          StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), directory);
+    } catch (IOException e) {
+      logger.debug("Cannot watch {}: {}", directory, e.getMessage());
+    }
+  }
+
+  private void heartbeat() {
+    try {
+      Files.createDirectories(heartbeatFile.getParent());
+      if (Files.exists(heartbeatFile)) {
+        Files.setLastModifiedTime(heartbeatFile, FileTime.from(Instant.now()));
+      } else {
+        Files.createFile(heartbeatFile);
+      }
+    } catch (IOException e) {
+      logger.debug("Could not update {}: {}", heartbeatFile, e.getMessage());
+    }
+  }
+
+  private FileEntry scan(Path file, FileEntry known) {
+    try {
+      var attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      var lastModified = attributes.lastModifiedTime().toMillis();
+
+      if (known != null && known.size() == attributes.size() && known.lastModified() == lastModified) {
+        return known;
+      }
+      return new FileEntry(relative(file), attributes.size(), lastModified, hash(file));
+    } catch (IOException e) {
+      logger.debug("Skipping {}: {}", file, e.getMessage());
+      return null;
+    }
+  }
+
+  private static Changes diff(Map<String, FileEntry> before, Map<String, FileEntry> after) {
+    var added = new ArrayList<String>();
+    var modified = new ArrayList<String>();
+
+    after.forEach((path, entry) -> {
+      var old = before.get(path);
+      if (old == null) {
+        added.add(path);
+      } else if (!Objects.equals(old.hash(), entry.hash())) {
+        modified.add(path);
+      }
+    });
+
+    var removed = before.keySet().stream().filter(path -> !after.containsKey(path)).sorted().toList();
+    return new Changes(added.stream().sorted().toList(), modified.stream().sorted().toList(), removed);
+  }
+
+  private String relative(Path file) {
+    return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+  }
+
+  private void write() {
+    try {
+      Files.createDirectories(indexFile.getParent());
+      var tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        var snapshot = List.copyOf(entries.values());
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeUTF(root.toString());
+        output.writeInt(snapshot.size());
+
+        for (var entry : snapshot) {
+          output.writeUTF(entry.path());
+          output.writeLong(entry.size());
+          output.writeLong(entry.lastModified());
+          output.write(HexFormat.of().parseHex(entry.hash()));
+        }
+      }
+
+      Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      logger.warn("Could not write project index {}: {}", indexFile, e.getMessage());
+    }
+  }
+
+  /**
+   * @return the hex SHA-256 of the file content
+   */
+  public static String hash(Path file) throws IOException {
+    var digest = sha256Digest();
+    try (var input = Files.newInputStream(file)) {
+      var buffer = new byte[64 * 1024];
+      for (int read; (read = input.read(buffer)) != -1; ) {
+        digest.update(buffer, 0, read);
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  public static String sha256(byte[] content) {
+    return HexFormat.of().formatHex(sha256Digest().digest(content));
+  }
+
+  private static MessageDigest sha256Digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
@@ -4,15 +4,13 @@ import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.DirectoryCleanup;
 import dev.buildcli.core.utils.OS;
 import dev.buildcli.core.utils.compress.FileExtractor;
+import dev.buildcli.core.utils.net.DownloadCache;
+import dev.buildcli.core.utils.net.FileDownloader;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Paths;
 import java.util.Scanner;
 
@@ -61,24 +59,11 @@ public abstract class GradleInstaller {
   }
 
   public static File downloadGradle() throws IOException, InterruptedException {
-    var request = HttpRequest.newBuilder().uri(URI.create(GRADLE_DOWNLOAD_URL)).GET().build();
-    var client = HttpClient.newBuilder()
-        .followRedirects(HttpClient.Redirect.ALWAYS)
-        .build();
-
-    SystemOutLogger.log("Downloading Gradle artifact from: " + GRADLE_DOWNLOAD_URL);
-
-    var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-
-    if (response.statusCode() != 200) {
-      throw new IOException("Failed to download Gradle artifact: " + response.statusCode());
-    }
-
-    long contentLength = response.headers().firstValue("Content-Length").map(GradleInstaller::parseContentLengthToLong).orElse(0L);
+    return downloadGradle(URI.create(GRADLE_DOWNLOAD_URL), DownloadCache.shared());
+  }
 
-    if (contentLength == 0L) {
-      throw new IOException("Failed to download maven artifact: " + response.statusCode());
-    }
+  static File downloadGradle(URI url, DownloadCache cache) throws IOException, InterruptedException {
+    SystemOutLogger.log("Downloading Gradle artifact from: " + url);
 
     var gradleZip = new File(GRADLE_NAME +  ".zip");
 
@@ -87,27 +72,8 @@ public abstract class GradleInstaller {
       DirectoryCleanup.cleanup(gradleZip.getAbsolutePath());
     }
 
-    try (var bodyStream = response.body()) {
-      try (var fos = new FileOutputStream(gradleZip)) {
-        byte[] buffer = new byte[1024];
-        long totalRead = 0;
-        int read;
-
-        while ((read = bodyStream.read(buffer)) != -1) {
-          fos.write(buffer, 0, read);
-          totalRead += read;
-
-          int progress = (int) ((totalRead * 100) / contentLength);
-          int progressBarLength = 50;
-          int filledLength = (int) ((progress / 100.0) * progressBarLength);
-
-          String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
-
-          System.out.printf("\r[%s] %d%%", progressBar, progress);
-        }
-        System.out.println();
-      }
-    }
+    var checksum = FileDownloader.Checksum.published(url).orElse(null);
+    cache.copy(url, checksum, gradleZip.toPath(), FileDownloader.ProgressListener.console());
 
     if (!gradleZip.exists()) {
       throw new IOException("Failed to create Gradle zip file: " + gradleZip);
@@ -158,9 +124,5 @@ public abstract class GradleInstaller {
       scanner.close();
     }
   }
-
-  private static long parseContentLengthToLong(String s) {
-    return s.isEmpty() ? 0 : Long.parseLong(s);
-  }
 }
 
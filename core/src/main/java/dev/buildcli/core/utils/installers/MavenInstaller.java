@@ -4,15 +4,13 @@ import dev.buildcli.core.log.SystemOutLogger;
 import dev.buildcli.core.utils.DirectoryCleanup;
 import dev.buildcli.core.utils.OS;
 import dev.buildcli.core.utils.compress.FileExtractor;
+import dev.buildcli.core.utils.net.DownloadCache;
+import dev.buildcli.core.utils.net.FileDownloader;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
 import java.nio.file.Paths;
 
 public abstract class MavenInstaller {
@@ -67,27 +65,10 @@ public abstract class MavenInstaller {
 
   public static File downloadMaven() throws IOException, InterruptedException {
     var isWindows = OS.isWindows();
-    var url = MAVEN_DOWNLOAD_URL + (isWindows ? "zip" : "tar.gz");
-    var request = HttpRequest.newBuilder().uri(URI.create(url)).GET().build();
+    var url = URI.create(MAVEN_DOWNLOAD_URL + (isWindows ? "zip" : "tar.gz"));
 
     SystemOutLogger.log("Downloading Maven artifact from: " + url);
 
-    var client = HttpClient.newHttpClient();
-
-    SystemOutLogger.log("Connecting to " + url);
-    var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-    SystemOutLogger.log("Connected to " + url);
-
-    if (response.statusCode() != 200) {
-      throw new IOException("Failed to download maven artifact: " + response.statusCode());
-    }
-
-    long contentLength = response.headers().firstValue("Content-Length").map(MavenInstaller::parseContentLengthToLong).orElse(0L);
-
-    if (contentLength == 0L) {
-      throw new IOException("Failed to download maven artifact: " + response.statusCode());
-    }
-
     var mavenInstallDir = new File(MAVEN_NAME + (isWindows ? ".zip" : ".tar.gz"));
 
     if (mavenInstallDir.exists()) {
@@ -95,28 +76,12 @@ public abstract class MavenInstaller {
       DirectoryCleanup.cleanup(mavenInstallDir.getAbsolutePath());
     }
 
-    try (var bodyStream = response.body()) {
-      try (var fos = new FileOutputStream(mavenInstallDir)) {
-        byte[] buffer = new byte[1024];
-        long totalRead = 0;
-        int read;
-
-        while ((read = bodyStream.read(buffer)) != -1) {
-          fos.write(buffer, 0, read);
-          totalRead += read;
-
-          int progress = (int) ((totalRead * 100) / contentLength);
-          int progressBarLength = 50;
-          int filledLength = (int) ((progress / 100.0) * progressBarLength);
-
-          String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
-
-          System.out.printf("\r[%s] %d%%", progressBar, progress);
-        }
-        System.out.println();
-      }
+    var checksum = FileDownloader.Checksum.published(url).orElse(null);
+    if (checksum == null) {
+      SystemOutLogger.log("No published checksum found for " + url + ", the download will not be verified");
     }
 
+    DownloadCache.shared().copy(url, checksum, mavenInstallDir.toPath(), FileDownloader.ProgressListener.console());
 
     if (!mavenInstallDir.exists()) {
       throw new IOException("Failed to create maven download directory: " + mavenInstallDir);
@@ -125,10 +90,6 @@ public abstract class MavenInstaller {
     return mavenInstallDir;
   }
 
-  private static long parseContentLengthToLong(String s) {
-    return s.isEmpty() ? 0 : Long.parseLong(s);
-  }
-
   public static void extractMaven(String filePath, String extractTo) throws IOException, InterruptedException {
     FileExtractor.extractFile(filePath, extractTo);
   }
@@ -0,0 +1,264 @@
+package dev.buildcli.core.utils.net;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.filesystem.LruDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps downloaded distributions so that installing a tool again, on the same machine or by another user
+ * sharing the directory, does not fetch it again.
+ *
+ * <p>Entries are keyed by their published checksum ({@code <directory>/sha512/<hex>/<file name>}), or by a
+ * hash of the URL when none is published. The checksum an entry was stored under is remembered for its URL, so
+ * that without network, when the checksum cannot be fetched, the URL still finds the entry. Downloads run inside the entry directory under a file lock, so
+ * concurrent installs wait for each other and an interrupted download resumes on the next attempt.
+ * Callers get a hard link to the entry where the file system allows it and a copy otherwise. Entries are
+ * touched on every hit and the least recently used ones are evicted once the cache outgrows its limit.</p>
+ *
+ * <p>To be shareable, the directories and lock files the cache creates are group-writable whatever the
+ * umask, and directories carry the setgid bit so everything below the cache root keeps its group. Users
+ * sharing a cache need a common group owning its root. This applies to POSIX file systems only.</p>
+ */
+public class DownloadCache {
+  private static final Logger logger = LoggerFactory.getLogger(DownloadCache.class);
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_CACHE_DIR.resolve("downloads");
+  public static final long DEFAULT_MAX_SIZE = 2048L * 1024 * 1024;
+
+  private static final String LOCK_FILE = ".lock";
+  private static final String CHECKSUM_FILE = ".checksum";
+  private static final int SHARED_DIRECTORY_MODE = 02775; // rwxrwsr-x
+  private static final int SHARED_FILE_MODE = 0664;       // rw-rw-r--
+  private static final Map<Path, Object> LOCAL_LOCKS = new ConcurrentHashMap<>();
+  private static DownloadCache sharedInstance;
+
+  private final Path directory;
+  private final long maxSize;
+  private final FileDownloader downloader;
+  private final LruDirectory entries;
+
+  public DownloadCache(Path directory, long maxSize, FileDownloader downloader) {
+    this.directory = directory;
+    this.maxSize = maxSize;
+    this.downloader = downloader;
+    this.entries = new LruDirectory(directory, 3, file -> !file.getFileName().toString().equals(LOCK_FILE)
+        && !file.getFileName().toString().equals(CHECKSUM_FILE));
+  }
+
+  public static synchronized DownloadCache shared() {
+    if (sharedInstance == null) {
+      var configs = ConfigContextLoader.getAllConfigs();
+      var directory = configs.getProperty(ConfigDefaultConstants.DOWNLOADS_CACHE_DIR).map(Path::of).orElse(DEFAULT_DIRECTORY);
+      var maxSize = configs.getProperty(ConfigDefaultConstants.DOWNLOADS_CACHE_SIZE)
+          .map(Long::parseLong)
+          .map(megabytes -> megabytes * 1024 * 1024)
+          .orElse(DEFAULT_MAX_SIZE);
+
+      sharedInstance = new DownloadCache(directory, maxSize, new FileDownloader());
+    }
+
+    return sharedInstance;
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  /**
+   * Returns the cached copy of {@code uri}, downloading it first on a miss.
+   *
+   * @param checksum the expected digest, which is also the cache key; {@code null} uses the checksum last seen
+   *                 for {@code uri}, or keys the entry by URL
+   * @param fileName name of the file inside the entry, usually the last segment of the URL
+   */
+  public Path get(URI uri, FileDownloader.Checksum checksum, String fileName, FileDownloader.ProgressListener listener)
+      throws IOException, InterruptedException {
+    if (checksum == null) {
+      checksum = rememberedChecksum(uri);
+    } else {
+      rememberChecksum(uri, checksum);
+    }
+
+    var entryDirectory = entryDirectory(uri, checksum);
+    var entry = entryDirectory.resolve(fileName);
+
+    if (Files.isRegularFile(entry)) {
+      logger.info("Using cached {}", entry);
+      LruDirectory.touch(entry);
+      return entry;
+    }
+
+    createSharedDirectories(entryDirectory);
+    synchronized (LOCAL_LOCKS.computeIfAbsent(entryDirectory, key -> new Object())) {
+      var lockFile = createSharedFile(entryDirectory.resolve(LOCK_FILE));
+      try (var channel = FileChannel.open(lockFile, StandardOpenOption.WRITE)) {
+        var lock = channel.lock();
+        try {
+          // another process may have finished the download while we waited for the lock
+          if (!Files.isRegularFile(entry)) {
+            discardForeignPartialDownload(entry);
+            downloader.fetch(uri, entry, checksum, listener);
+          }
+        } finally {
+          lock.release();
+        }
+      }
+    }
+
+    LruDirectory.touch(entry);
+    evict(entry);
+    return entry;
+  }
+
+  /**
+   * Gets {@code uri} through the cache and places it at {@code target}.
+   */
+  public Path copy(URI uri, FileDownloader.Checksum checksum, Path target, FileDownloader.ProgressListener listener)
+      throws IOException, InterruptedException {
+    var entry = get(uri, checksum, target.getFileName().toString(), listener);
+    link(entry, target);
+    return target;
+  }
+
+  /**
+   * Hard links {@code target} to {@code entry}, which costs neither time nor space, and falls back to a copy
+   * across file systems or where links are not supported.
+   */
+  static void link(Path entry, Path target) throws IOException {
+    Files.deleteIfExists(target);
+    try {
+      Files.createLink(target, entry);
+    } catch (FileSystemException | UnsupportedOperationException e) {
+      logger.debug("Copying {} because it cannot be linked: {}", entry, e.getMessage());
+      Files.copy(entry, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Removes the least recently used entries until the cache fits its size limit. {@code keep} is never
+   * removed.
+   */
+  public void evict(Path keep) {
+    entries.evict(maxSize, file -> file.equals(keep) || file.getFileName().toString().endsWith(".part")
+        || file.getFileName().toString().endsWith(".part.state"));
+  }
+
+  /**
+   * Creates the missing directories between the cache root and {@code target}, each group-writable and setgid.
+   */
+  private void createSharedDirectories(Path target) throws IOException {
+    var root = directory.toAbsolutePath().getParent();
+    if (root != null) {
+      Files.createDirectories(root);
+    }
+
+    var missing = new ArrayList<Path>();
+    for (var current = target; current != null && !Files.isDirectory(current); current = current.getParent()) {
+      missing.addFirst(current);
+      if (current.equals(directory)) {
+        break;
+      }
+    }
+
+    for (var path : missing) {
+      try {
+        Files.createDirectory(path);
+        share(path, SHARED_DIRECTORY_MODE);
+      } catch (FileAlreadyExistsException e) {
+        // created by a concurrent install, which shared it
+      }
+    }
+  }
+
+  private static Path createSharedFile(Path file) throws IOException {
+    try {
+      Files.createFile(file);
+      share(file, SHARED_FILE_MODE);
+    } catch (FileAlreadyExistsException e) {
+      // created by an earlier install
+    }
+    return file;
+  }
+
+  private static void share(Path path, int mode) {
+    try {
+      Files.setAttribute(path, "unix:mode", mode);
+    } catch (IOException | UnsupportedOperationException | IllegalArgumentException e) {
+      logger.debug("Could not make {} group-writable: {}", path, e.getMessage());
+    }
+  }
+
+  /**
+   * A partial download left by another user cannot be resumed by this one, but it can be removed from the
+   * group-writable entry directory so the download starts over.
+   */
+  private static void discardForeignPartialDownload(Path entry) throws IOException {
+    for (var suffix : new String[]{".part", ".part.state"}) {
+      var file = entry.resolveSibling(entry.getFileName() + suffix);
+      if (Files.exists(file) && !Files.isWritable(file)) {
+        Files.delete(file);
+      }
+    }
+  }
+
+  private FileDownloader.Checksum rememberedChecksum(URI uri) {
+    var file = urlDirectory(uri).resolve(CHECKSUM_FILE);
+    try {
+      var fields = Files.readString(file, StandardCharsets.UTF_8).strip().split(" ");
+      return fields.length == 2 ? new FileDownloader.Checksum(fields[0], fields[1]) : null;
+    } catch (IOException e) {
+      return null;
+    }
+  }
+
+  private void rememberChecksum(URI uri, FileDownloader.Checksum checksum) {
+    if (checksum.equals(rememberedChecksum(uri))) {
+      return;
+    }
+
+    var urlDirectory = urlDirectory(uri);
+    try {
+      createSharedDirectories(urlDirectory);
+      var file = createSharedFile(urlDirectory.resolve(CHECKSUM_FILE));
+      Files.writeString(file, "%s %s\n".formatted(checksum.algorithm(), checksum.hex()), StandardCharsets.UTF_8);
+    } catch (IOException e) {
+      logger.debug("Could not remember the checksum of {}: {}", uri, e.getMessage());
+    }
+  }
+
+  private Path entryDirectory(URI uri, FileDownloader.Checksum checksum) {
+    if (checksum != null) {
+      return directory.resolve(checksum.algorithm().replace("-", "").toLowerCase(Locale.ROOT)).resolve(checksum.hex());
+    }
+    return urlDirectory(uri);
+  }
+
+  private Path urlDirectory(URI uri) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+      return directory.resolve("url").resolve(HexFormat.of().formatHex(digest));
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+}
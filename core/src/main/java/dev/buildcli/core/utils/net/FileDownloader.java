@@ -1,77 +1,444 @@
 package dev.buildcli.core.utils.net;
 
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
+/**
+ * Downloads files over HTTP.
+ *
+ * <p>When the server accepts range requests, the file is split into fixed-size chunks that several
+ * connections fetch concurrently, each writing at its own offset of a preallocated {@code .part} file.
+ * Finished chunks are recorded in a {@code .part.state} file next to it, so an interrupted download
+ * resumes with the missing chunks as long as the remote length and ETag (or, without one, Last-Modified)
+ * are unchanged; when the server sends neither, the download starts over. Servers without range support
+ * get a single streamed request. The result is verified against a checksum when one is
+ * given and only then moved to its final name.</p>
+ */
 public final class FileDownloader {
   private static final Logger log = LoggerFactory.getLogger(FileDownloader.class);
 
+  public static final int DEFAULT_CONNECTIONS = 4;
+  public static final long DEFAULT_CHUNK_SIZE = 4L * 1024 * 1024;
+
+  private static final int ATTEMPTS = 3;
+  private static final int BUFFER_SIZE = 64 * 1024;
+  private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(30);
+  private static final long PROGRESS_INTERVAL_MILLIS = 200;
+
+  /**
+   * An expected digest, e.g. from the {@code .sha512} file published next to an Apache distribution.
+   */
+  public record Checksum(String algorithm, String hex) {
+    public static Checksum sha256(String hex) {
+      return new Checksum("SHA-256", hex.toLowerCase(Locale.ROOT));
+    }
+
+    public static Checksum sha512(String hex) {
+      return new Checksum("SHA-512", hex.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Looks for {@code <uri>.sha512}, then {@code <uri>.sha256}.
+     */
+    public static Optional<Checksum> published(URI uri) {
+      return published(HttpClientProvider.shared(), uri);
+    }
+
+    static Optional<Checksum> published(HttpClient client, URI uri) {
+      for (var algorithm : List.of("SHA-512", "SHA-256")) {
+        var suffix = "." + algorithm.replace("-", "").toLowerCase(Locale.ROOT);
+        try {
+          var request = HttpRequest.newBuilder(URI.create(uri + suffix)).GET().timeout(Duration.ofSeconds(30)).build();
+          var response = client.send(request, HttpResponse.BodyHandlers.ofString());
+          if (response.statusCode() != 200) {
+            continue;
+          }
+
+          // either the bare digest or "<digest>  <file name>" as written by sha512sum
+          var value = response.body().strip().split("\\s+")[0].toLowerCase(Locale.ROOT);
+          var length = algorithm.equals("SHA-512") ? 128 : 64;
+          if (value.length() == length && value.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+            return Optional.of(new Checksum(algorithm, value));
+          }
+        } catch (IOException e) {
+          log.debug("No {} published for {}: {}", suffix, uri, e.getMessage());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          return Optional.empty();
+        }
+      }
+      return Optional.empty();
+    }
+  }
+
+  @FunctionalInterface
+  public interface ProgressListener {
+    /**
+     * @param total the size of the file, or {@code -1} when the server does not say
+     */
+    void onProgress(long done, long total);
+
+    static ProgressListener none() {
+      return (done, total) -> {
+      };
+    }
+
+    static ProgressListener console() {
+      return (done, total) -> {
+        if (total <= 0) {
+          System.out.printf("\r%d KB", done / 1024);
+          return;
+        }
+
+        int progress = (int) ((done * 100) / total);
+        int progressBarLength = 50;
+        int filledLength = (int) ((progress / 100.0) * progressBarLength);
+
+        String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
+
+        System.out.printf("\r[%s] %d%%", progressBar, progress);
+        if (done == total) {
+          System.out.println();
+        }
+      };
+    }
+  }
+
+  /**
+   * @param validator the ETag, else the Last-Modified date, else empty when the remote file cannot be
+   *                  recognized again
+   */
+  private record Remote(long length, boolean ranges, String validator, Optional<String> fileName) {
+  }
+
+  private final HttpClient client;
+  private final int connections;
+  private final long chunkSize;
+
+  public FileDownloader() {
+    this(HttpClientProvider.http1(), DEFAULT_CONNECTIONS, DEFAULT_CHUNK_SIZE);
+  }
+
+  public FileDownloader(HttpClient client, int connections, long chunkSize) {
+    this.client = client;
+    this.connections = Math.max(1, connections);
+    this.chunkSize = Math.max(1, chunkSize);
+  }
+
+  /**
+   * Downloads {@code url} into the working directory, named after the {@code Content-Disposition} header
+   * or else the last path segment of the URL.
+   */
   public static File download(String url) {
-    try (var client = HttpClient.newHttpClient()) {
-      var request = HttpRequest.newBuilder().GET().uri(URI.create(url)).timeout(Duration.ofMinutes(30)).build();
+    try {
+      var downloader = new FileDownloader();
+      var uri = URI.create(url);
 
       log.info("Connecting to {}", url);
-      var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
-      log.info("Connected to {}", url);
+      var remote = downloader.probe(uri);
+      var filename = remote.fileName().orElseGet(() -> Path.of(uri.getPath()).getFileName().toString());
 
-      if (response.statusCode() != 200) {
-        throw new IOException("Failed to download file: " + response.statusCode());
+      return downloader.fetch(uri, Path.of(filename), null, ProgressListener.console()).toFile();
+    } catch (IOException | InterruptedException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Downloads {@code uri} to {@code target}, resuming a previous partial download of the same file.
+   *
+   * @param checksum verified before {@code target} is written; {@code null} to skip verification
+   */
+  public Path fetch(URI uri, Path target, Checksum checksum, ProgressListener listener) throws IOException, InterruptedException {
+    var part = target.resolveSibling(target.getFileName() + ".part");
+    var state = target.resolveSibling(target.getFileName() + ".part.state");
+    var progress = throttled(listener);
+    if (target.toAbsolutePath().getParent() != null) {
+      Files.createDirectories(target.toAbsolutePath().getParent());
+    }
+
+    var remote = probe(uri);
+    if (remote.ranges() && remote.length() > 0) {
+      fetchChunks(uri, remote, part, state, progress);
+    } else {
+      fetchStream(uri, part, progress);
+    }
+
+    if (checksum != null) {
+      var actual = digest(part, checksum.algorithm());
+      if (!actual.equalsIgnoreCase(checksum.hex())) {
+        Files.deleteIfExists(part);
+        Files.deleteIfExists(state);
+        throw new IOException("%s checksum mismatch for %s: expected %s but was %s".formatted(checksum.algorithm(), uri,
+            checksum.hex(), actual));
+      }
+    }
+
+    Files.move(part, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    Files.deleteIfExists(state);
+    return target;
+  }
+
+  private Remote probe(URI uri) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(uri).method("HEAD", HttpRequest.BodyPublishers.noBody())
+        .timeout(Duration.ofSeconds(30)).build();
+    var response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+    if (response.statusCode() != 200) {
+      log.debug("HEAD {} returned {}, downloading without ranges", uri, response.statusCode());
+      return new Remote(-1, false, "", Optional.empty());
+    }
+
+    var headers = response.headers();
+    var length = headers.firstValueAsLong("Content-Length").orElse(-1);
+    var ranges = headers.firstValue("Accept-Ranges").map(value -> value.equalsIgnoreCase("bytes")).orElse(false);
+    var fileName = headers.firstValue("Content-Disposition")
+        .flatMap(value -> List.of(value.split(";")).stream()
+            .map(String::strip)
+            .filter(parameter -> parameter.toLowerCase(Locale.ROOT).startsWith("filename="))
+            .map(parameter -> parameter.substring("filename=".length()).replace("\"", ""))
+            .map(name -> Path.of(name).getFileName().toString()) // never a path from the server
+            .findFirst());
+
+    var validator = headers.firstValue("ETag").or(() -> headers.firstValue("Last-Modified")).orElse("");
+    return new Remote(length, ranges, validator, fileName);
+  }
+
+  private void fetchChunks(URI uri, Remote remote, Path part, Path state, ProgressListener progress) throws IOException {
+    var chunks = (int) ((remote.length() + chunkSize - 1) / chunkSize);
+    var done = readState(state, remote, part);
+
+    try (var file = new RandomAccessFile(part.toFile(), "rw")) {
+      if (file.length() != remote.length()) {
+        file.setLength(remote.length());
       }
+    }
 
-      long contentLength = response.headers().firstValue("Content-Length").map(s -> s.isEmpty() ? 0 : Long.parseLong(s)).orElse(0L);
+    var pending = new ConcurrentLinkedQueue<Integer>();
+    var transferred = new LongAdder();
+    for (int chunk = 0; chunk < chunks; chunk++) {
+      if (done.contains(chunk)) {
+        transferred.add(chunkLength(chunk, remote.length()));
+      } else {
+        pending.add(chunk);
+      }
+    }
+    if (!done.isEmpty()) {
+      log.info("Resuming {} with {} of {} chunks already downloaded", uri, done.size(), chunks);
+    }
+    progress.onProgress(transferred.sum(), remote.length());
 
-      if (contentLength == 0L) {
-        throw new IOException("Failed to download maven artifact: " + response.statusCode());
+    try (var channel = FileChannel.open(part, StandardOpenOption.WRITE)) {
+      var workers = new ArrayList<CompletableFuture<Void>>();
+      for (int i = 0; i < Math.min(connections, Math.max(1, pending.size())); i++) {
+        workers.add(CompletableFuture.runAsync(() -> {
+          for (Integer chunk; (chunk = pending.poll()) != null; ) {
+            fetchChunk(uri, chunk, remote, channel, transferred, progress);
+            recordChunk(state, chunk);
+          }
+        }, ThreadPoolUtils.virtual()));
+      }
+      CompletableFuture.allOf(workers.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof IOException io) {
+        throw io;
       }
+      throw new IOException("Download of " + uri + " failed", e.getCause());
+    }
 
-      var contentDisposition = response.headers().firstValue("Content-disposition");
+    progress.onProgress(remote.length(), remote.length());
+  }
 
-      if (contentDisposition.isEmpty()) {
-        throw new IOException("Failed to download file: " + response.statusCode());
+  private void fetchChunk(URI uri, int chunk, Remote remote, FileChannel channel, LongAdder transferred,
+                          ProgressListener progress) {
+    var start = chunk * chunkSize;
+    var length = chunkLength(chunk, remote.length());
+
+    for (int attempt = 1; ; attempt++) {
+      long written = 0;
+      try {
+        var request = HttpRequest.newBuilder(uri).GET().timeout(REQUEST_TIMEOUT)
+            .header("Range", "bytes=%d-%d".formatted(start, start + length - 1));
+        if (!remote.validator().isEmpty()) {
+          request.header("If-Range", remote.validator());
+        }
+
+        var response = client.send(request.build(), HttpResponse.BodyHandlers.ofInputStream());
+        try (var body = response.body()) {
+          if (response.statusCode() != 206) {
+            throw new IOException("Expected a partial response for chunk %d of %s but got %d".formatted(chunk, uri,
+                response.statusCode()));
+          }
+
+          var buffer = new byte[BUFFER_SIZE];
+          for (int read; written < length && (read = body.read(buffer, 0, (int) Math.min(buffer.length, length - written))) != -1; ) {
+            var byteBuffer = ByteBuffer.wrap(buffer, 0, read);
+            while (byteBuffer.hasRemaining()) {
+              channel.write(byteBuffer, start + written + (read - byteBuffer.remaining()));
+            }
+            written += read;
+            transferred.add(read);
+            progress.onProgress(transferred.sum(), remote.length());
+          }
+        }
+
+        if (written != length) {
+          throw new IOException("Chunk %d of %s ended after %d of %d bytes".formatted(chunk, uri, written, length));
+        }
+        return;
+      } catch (IOException e) {
+        transferred.add(-written);
+        if (attempt >= ATTEMPTS) {
+          throw new CompletionException(e);
+        }
+        log.debug("Retrying chunk {} of {} after: {}", chunk, uri, e.getMessage());
+        sleep(500L * attempt);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new CompletionException(new IOException("Download of " + uri + " interrupted", e));
       }
+    }
+  }
 
-      var filename = contentDisposition.map(s -> s.split("=")[1].replaceAll("\"", "")).orElse("");
+  private void fetchStream(URI uri, Path part, ProgressListener progress) throws IOException, InterruptedException {
+    var request = HttpRequest.newBuilder(uri).GET().timeout(REQUEST_TIMEOUT).build();
+    var response = client.send(request, HttpResponse.BodyHandlers.ofInputStream());
 
-      if (filename.isEmpty()) {
+    try (InputStream body = response.body()) {
+      if (response.statusCode() != 200) {
         throw new IOException("Failed to download file: " + response.statusCode());
       }
 
-      var file = new File(filename);
+      var total = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+      try (var output = Files.newOutputStream(part)) {
+        var buffer = new byte[BUFFER_SIZE];
+        long done = 0;
+        for (int read; (read = body.read(buffer)) != -1; ) {
+          output.write(buffer, 0, read);
+          done += read;
+          progress.onProgress(done, total);
+        }
+        progress.onProgress(done, total < 0 ? done : total);
+      }
+    }
+  }
 
-      try (var bodyStream = response.body()) {
-        try (var fos = new FileOutputStream(file)) {
-          byte[] buffer = new byte[1024];
-          long totalRead = 0;
-          int read;
+  private long chunkLength(int chunk, long total) {
+    return Math.min(chunkSize, total - chunk * chunkSize);
+  }
 
-          while ((read = bodyStream.read(buffer)) != -1) {
-            fos.write(buffer, 0, read);
-            totalRead += read;
+  /**
+   * @return chunks finished by an earlier run, or none when the remote file changed since or cannot be
+   * told apart from a changed one
+   */
+  private Set<Integer> readState(Path state, Remote remote, Path part) throws IOException {
+    var header = remote.length() + " " + chunkSize + " " + remote.validator();
+    Set<Integer> done = ConcurrentHashMap.newKeySet();
 
-            int progress = (int) ((totalRead * 100) / contentLength);
-            int progressBarLength = 50;
-            int filledLength = (int) ((progress / 100.0) * progressBarLength);
+    if (!remote.validator().isEmpty() && Files.isRegularFile(state) && Files.isRegularFile(part)) {
+      var lines = Files.readAllLines(state, StandardCharsets.UTF_8);
+      if (!lines.isEmpty() && lines.getFirst().equals(header)) {
+        lines.stream().skip(1).filter(line -> !line.isBlank()).map(Integer::parseInt).forEach(done::add);
+        return done;
+      }
+    }
+
+    Files.deleteIfExists(part);
+    Files.writeString(state, header + "\n", StandardCharsets.UTF_8);
+    return done;
+  }
+
+  private static synchronized void recordChunk(Path state, int chunk) {
+    try {
+      Files.writeString(state, chunk + "\n", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      log.debug("Could not record chunk {} in {}: {}", chunk, state, e.getMessage());
+    }
+  }
 
-            String progressBar = "=".repeat(filledLength) + " ".repeat(progressBarLength - filledLength);
+  /**
+   * Forwards at most one update per {@value #PROGRESS_INTERVAL_MILLIS} ms, so rendering does not slow the
+   * transfer down. The final update is always forwarded, exactly once, and nothing after it.
+   */
+  private static ProgressListener throttled(ProgressListener listener) {
+    var last = new AtomicLong();
+    var finished = new AtomicBoolean();
+    return (done, total) -> {
+      if (done == total) {
+        synchronized (last) {
+          if (finished.compareAndSet(false, true)) {
+            listener.onProgress(done, total);
+          }
+        }
+        return;
+      }
 
-            System.out.printf("\r[%s] %d%%", progressBar, progress);
+      var now = System.currentTimeMillis();
+      var previous = last.get();
+      if (now - previous >= PROGRESS_INTERVAL_MILLIS && last.compareAndSet(previous, now)) {
+        synchronized (last) {
+          if (!finished.get()) {
+            listener.onProgress(done, total);
           }
-          System.out.println();
         }
       }
+    };
+  }
 
-      return file;
-    } catch (IOException | InterruptedException e) {
-      throw new RuntimeException(e);
+  private static String digest(Path file, String algorithm) throws IOException {
+    try {
+      var digest = MessageDigest.getInstance(algorithm);
+      try (var input = Files.newInputStream(file)) {
+        var buffer = new byte[BUFFER_SIZE];
+        for (int read; (read = input.read(buffer)) != -1; ) {
+          digest.update(buffer, 0, read);
+        }
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IOException("Unsupported checksum algorithm " + algorithm, e);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CompletionException(new IOException("Download interrupted", e));
     }
   }
 }
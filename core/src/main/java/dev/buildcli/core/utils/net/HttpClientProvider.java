@@ -0,0 +1,50 @@
+package dev.buildcli.core.utils.net;
+
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+
+/**
+ * Holds the single {@link HttpClient} shared by every network call buildcli makes. The JDK client pools
+ * connections per instance and multiplexes requests over HTTP/2 where the server supports it, so reusing
+ * one instance is what gives us connection reuse across searches, API calls and downloads.
+ */
+public final class HttpClientProvider {
+  private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(15);
+  private static HttpClient sharedInstance;
+  private static HttpClient http1Instance;
+
+  private HttpClientProvider() {
+  }
+
+  public static synchronized HttpClient shared() {
+    if (sharedInstance == null) {
+      sharedInstance = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_2)
+          .followRedirects(HttpClient.Redirect.NORMAL)
+          .connectTimeout(CONNECT_TIMEOUT)
+          .executor(ThreadPoolUtils.virtual())
+          .build();
+    }
+
+    return sharedInstance;
+  }
+
+  /**
+   * A client that stays on HTTP/1.1, for parallel range requests: over HTTP/2 they would become streams of a
+   * single connection and share its bandwidth instead of each getting their own.
+   */
+  public static synchronized HttpClient http1() {
+    if (http1Instance == null) {
+      http1Instance = HttpClient.newBuilder()
+          .version(HttpClient.Version.HTTP_1_1)
+          .followRedirects(HttpClient.Redirect.NORMAL)
+          .connectTimeout(CONNECT_TIMEOUT)
+          .executor(ThreadPoolUtils.virtual())
+          .build();
+    }
+
+    return http1Instance;
+  }
+}
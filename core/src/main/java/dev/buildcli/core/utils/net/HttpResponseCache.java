@@ -0,0 +1,181 @@
+package dev.buildcli.core.utils.net;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * On-disk cache for small text responses (search results, API payloads, repository metadata).
+ *
+ * <p>Entries younger than their TTL are served without touching the network. Older entries are
+ * revalidated with {@code If-None-Match}/{@code If-Modified-Since}, so an unchanged resource costs a
+ * {@code 304} instead of a full body. If the revalidation fails because the network is down, the stale
+ * body is served rather than failing the command.</p>
+ */
+public class HttpResponseCache {
+  private static final Logger log = LoggerFactory.getLogger(HttpResponseCache.class);
+
+  public static final Path DEFAULT_DIRECTORY = ConfigDefaultConstants.BUILD_CLI_CACHE_DIR.resolve("http");
+  public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+  private static final String ETAG = "etag";
+  private static final String LAST_MODIFIED = "last-modified";
+  private static final String FETCHED_AT = "fetched-at";
+
+  private static HttpResponseCache sharedInstance;
+
+  private final HttpClient client;
+  private final Path directory;
+  private final Duration defaultTtl;
+
+  public HttpResponseCache(HttpClient client, Path directory, Duration defaultTtl) {
+    this.client = client;
+    this.directory = directory;
+    this.defaultTtl = defaultTtl;
+  }
+
+  public static synchronized HttpResponseCache shared() {
+    if (sharedInstance == null) {
+      var ttl = ConfigContextLoader.getAllConfigs().getProperty(ConfigDefaultConstants.HTTP_CACHE_TTL)
+          .map(Long::parseLong)
+          .map(Duration::ofMinutes)
+          .orElse(DEFAULT_TTL);
+
+      sharedInstance = new HttpResponseCache(HttpClientProvider.shared(), DEFAULT_DIRECTORY, ttl);
+    }
+
+    return sharedInstance;
+  }
+
+  public String get(URI uri) throws IOException, InterruptedException {
+    return get(uri, defaultTtl, Map.of());
+  }
+
+  public String get(URI uri, Duration ttl) throws IOException, InterruptedException {
+    return get(uri, ttl, Map.of());
+  }
+
+  /**
+   * @param headers extra request headers, e.g. {@code Accept}; they are not part of the cache key
+   */
+  public String get(URI uri, Duration ttl, Map<String, String> headers) throws IOException, InterruptedException {
+    var key = keyOf(uri);
+    var bodyFile = directory.resolve(key + ".body");
+    var metaFile = directory.resolve(key + ".meta");
+    var meta = readMeta(metaFile);
+
+    if (meta.isPresent() && Files.isRegularFile(bodyFile)) {
+      var fetchedAt = Instant.ofEpochMilli(Long.parseLong(meta.get().getProperty(FETCHED_AT, "0")));
+      if (fetchedAt.plus(ttl).isAfter(Instant.now())) {
+        log.debug("HTTP cache hit for {}", uri);
+        return Files.readString(bodyFile);
+      }
+    }
+
+    var request = HttpRequest.newBuilder(uri).GET().timeout(REQUEST_TIMEOUT);
+    headers.forEach(request::header);
+    meta.ifPresent(m -> {
+      Optional.ofNullable(m.getProperty(ETAG)).ifPresent(etag -> request.header("If-None-Match", etag));
+      Optional.ofNullable(m.getProperty(LAST_MODIFIED)).ifPresent(date -> request.header("If-Modified-Since", date));
+    });
+
+    HttpResponse<String> response;
+    try {
+      response = client.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    } catch (IOException e) {
+      if (meta.isPresent() && Files.isRegularFile(bodyFile)) {
+        log.warn("Could not reach {}, using cached response: {}", uri, e.getMessage());
+        return Files.readString(bodyFile);
+      }
+      throw e;
+    }
+
+    if (response.statusCode() == 304 && meta.isPresent() && Files.isRegularFile(bodyFile)) {
+      log.debug("HTTP cache revalidated for {}", uri);
+      meta.get().setProperty(FETCHED_AT, String.valueOf(Instant.now().toEpochMilli()));
+      writeMeta(metaFile, meta.get());
+      return Files.readString(bodyFile);
+    }
+
+    if (response.statusCode() != 200) {
+      throw new IOException("Request to " + uri + " failed: " + response.statusCode());
+    }
+
+    store(response, bodyFile, metaFile);
+    return response.body();
+  }
+
+  private void store(HttpResponse<String> response, Path bodyFile, Path metaFile) {
+    var meta = new Properties();
+    response.headers().firstValue("ETag").ifPresent(etag -> meta.setProperty(ETAG, etag));
+    response.headers().firstValue("Last-Modified").ifPresent(date -> meta.setProperty(LAST_MODIFIED, date));
+    meta.setProperty(FETCHED_AT, String.valueOf(Instant.now().toEpochMilli()));
+
+    try {
+      Files.createDirectories(directory);
+      var tmp = Files.createTempFile(directory, "body", ".tmp");
+      Files.writeString(tmp, response.body());
+      Files.move(tmp, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      writeMeta(metaFile, meta);
+    } catch (IOException e) {
+      // a cache that cannot be written must never fail the request itself
+      log.warn("Could not cache response in {}: {}", directory, e.getMessage());
+    }
+  }
+
+  private static Optional<Properties> readMeta(Path metaFile) {
+    if (!Files.isRegularFile(metaFile)) {
+      return Optional.empty();
+    }
+
+    try (var reader = Files.newBufferedReader(metaFile)) {
+      var meta = new Properties();
+      meta.load(reader);
+      return Optional.of(meta);
+    } catch (IOException | IllegalArgumentException e) {
+      return Optional.empty();
+    }
+  }
+
+  private void writeMeta(Path metaFile, Properties meta) {
+    try {
+      Files.createDirectories(directory);
+      var tmp = Files.createTempFile(directory, "meta", ".tmp");
+      try (var writer = Files.newBufferedWriter(tmp)) {
+        meta.store(writer, null);
+      }
+      Files.move(tmp, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Could not write cache metadata {}: {}", metaFile, e.getMessage());
+    }
+  }
+
+  private static String keyOf(URI uri) {
+    try {
+      var digest = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,34 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Dependency;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A pom after parent inheritance, property interpolation, BOM imports and dependency management were
+ * applied, i.e. roughly what {@code mvn help:effective-pom} prints for the parts BuildCLI cares about.
+ *
+ * @param parent               {@code groupId:artifactId:version} of the parent, or {@code null}
+ * @param dependencyManagement managed dependencies keyed by {@link ModelDependency#managementKey()}
+ * @param dependencies         declared and inherited dependencies with versions and scopes filled in
+ * @param pomFile              the pom on disk, or {@code null} when it was read from a remote repository
+ */
+public record EffectiveModel(String groupId, String artifactId, String version, String packaging, String parent,
+                             Map<String, String> properties, Map<String, ModelDependency> dependencyManagement,
+                             List<ModelDependency> dependencies, List<String> modules, Path pomFile) {
+
+  public String key() {
+    return Dependency.key(groupId, artifactId);
+  }
+
+  public String gav() {
+    return key() + ":" + version;
+  }
+
+  public Optional<ModelDependency> managed(String groupId, String artifactId) {
+    return Optional.ofNullable(dependencyManagement.get(Dependency.key(groupId, artifactId) + ":jar"));
+  }
+}
@@ -0,0 +1,254 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ModelResolutionException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Builds {@link EffectiveModel}s in-process instead of running {@code mvn help:effective-pom}.
+ *
+ * <p>Parents are looked up through {@code <relativePath>} first and the {@link MavenRepository} second.
+ * Every model is memoized by {@code groupId:artifactId:version}, so modules sharing a parent or a BOM
+ * resolve it once per builder. The builder is thread-safe: concurrent requests for the same model wait
+ * for the first one instead of resolving it again.</p>
+ *
+ * <p>Supported: parent inheritance of properties, dependencies and dependency management,
+ * {@code ${...}} interpolation (model properties, {@code project.*}, {@code env.*} and system
+ * properties) and {@code import}-scoped BOMs. Profiles, plugins and version ranges are not evaluated.</p>
+ */
+public class EffectiveModelBuilder {
+  private static final Pattern EXPRESSION = Pattern.compile("\\$\\{([^}]+)}");
+  private static final int MAX_INTERPOLATION_DEPTH = 16;
+
+  private final MavenRepository repository;
+  private final Map<String, CompletableFuture<Resolved>> models = new ConcurrentHashMap<>();
+
+  public EffectiveModelBuilder(MavenRepository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * The inherited model before interpolation (children interpolate inherited values in their own
+   * context, e.g. {@code ${project.version}}) next to the finished effective model.
+   */
+  private record Resolved(RawModel inherited, EffectiveModel effective) {
+  }
+
+  public EffectiveModel build(Path pomFile) {
+    var raw = RawModel.read(pomFile.toAbsolutePath().normalize());
+    return resolve(raw.gav(), new HashSet<>(), () -> inherit(raw, new HashSet<>(Set.of(raw.gav())))).effective();
+  }
+
+  public EffectiveModel resolve(String groupId, String artifactId, String version) {
+    return resolveFromRepository(groupId + ":" + artifactId + ":" + version, new HashSet<>()).effective();
+  }
+
+  /**
+   * @return how many distinct models this builder resolved so far
+   */
+  public int size() {
+    return models.size();
+  }
+
+  private Resolved resolveFromRepository(String gav, Set<String> chain) {
+    return resolve(gav, chain, () -> {
+      var parts = gav.split(":");
+      var xml = repository.pom(parts[0], parts[1], parts[2])
+          .orElseThrow(() -> new ModelResolutionException("Could not find pom " + gav));
+      var local = repository.localPom(parts[0], parts[1], parts[2]);
+      return inherit(RawModel.parse(xml, Files.isRegularFile(local) ? local : null), withGav(chain, gav));
+    });
+  }
+
+  private Resolved resolve(String gav, Set<String> chain, Supplier<Resolved> loader) {
+    if (chain.contains(gav)) {
+      throw new ModelResolutionException("Cycle in parent or import chain: " + String.join(" -> ", chain) + " -> " + gav);
+    }
+
+    var future = new CompletableFuture<Resolved>();
+    var existing = models.putIfAbsent(gav, future);
+
+    if (existing == null) {
+      try {
+        future.complete(loader.get());
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    }
+
+    try {
+      return (existing == null ? future : existing).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof ModelResolutionException cause) {
+        throw cause;
+      }
+      throw new ModelResolutionException("Could not resolve " + gav, e.getCause());
+    }
+  }
+
+  private Resolved inherit(RawModel raw, Set<String> chain) {
+    var inherited = raw;
+
+    if (raw.parent() != null) {
+      var parent = resolveParent(raw, chain).inherited();
+      inherited = new RawModel(
+          raw.groupId() != null ? raw.groupId() : parent.groupId(),
+          raw.artifactId(),
+          raw.version() != null ? raw.version() : parent.version(),
+          raw.packaging(),
+          raw.parent(),
+          merge(parent.properties(), raw.properties()),
+          mergeDependencies(parent.dependencyManagement(), raw.dependencyManagement()),
+          mergeDependencies(parent.dependencies(), raw.dependencies()),
+          raw.modules(),
+          raw.pomFile());
+    }
+
+    return new Resolved(inherited, interpolate(inherited, chain));
+  }
+
+  private Resolved resolveParent(RawModel raw, Set<String> chain) {
+    var gav = raw.parent().gav();
+
+    if (models.containsKey(gav)) {
+      return resolveFromRepository(gav, chain);
+    }
+
+    var local = raw.localParent();
+    if (local.isPresent()) {
+      return resolve(gav, chain, () -> inherit(local.get(), withGav(chain, gav)));
+    }
+
+    return resolveFromRepository(gav, chain);
+  }
+
+  private EffectiveModel interpolate(RawModel model, Set<String> chain) {
+    var context = new LinkedHashMap<>(model.properties());
+    putProjectProperty(context, "groupId", model.groupId());
+    putProjectProperty(context, "artifactId", model.artifactId());
+    putProjectProperty(context, "version", model.version());
+    putProjectProperty(context, "packaging", model.packaging() != null ? model.packaging() : "jar");
+    if (model.parent() != null) {
+      putProjectProperty(context, "parent.groupId", model.parent().groupId());
+      putProjectProperty(context, "parent.artifactId", model.parent().artifactId());
+      putProjectProperty(context, "parent.version", model.parent().version());
+    }
+    if (model.pomFile() != null) {
+      var basedir = model.pomFile().getParent().toString();
+      putProjectProperty(context, "basedir", basedir);
+      context.put("basedir", basedir);
+    }
+
+    var properties = new LinkedHashMap<String, String>();
+    model.properties().keySet().forEach(name -> properties.put(name, interpolate(context, context.get(name))));
+
+    var managed = new LinkedHashMap<String, ModelDependency>();
+    var imports = new ArrayList<ModelDependency>();
+    for (var dependency : model.dependencyManagement()) {
+      var interpolated = dependency.interpolate(value -> interpolate(context, value));
+      if (interpolated.isImport()) {
+        imports.add(interpolated);
+      } else {
+        managed.put(interpolated.managementKey(), interpolated);
+      }
+    }
+
+    // declared and inherited entries win over imported ones, earlier imports win over later ones
+    for (var bom : imports) {
+      resolveFromRepository(bom.gav(), withGav(chain, model.gav())).effective().dependencyManagement()
+          .forEach(managed::putIfAbsent);
+    }
+
+    var dependencies = model.dependencies().stream()
+        .map(dependency -> dependency.interpolate(value -> interpolate(context, value)))
+        .map(dependency -> dependency.managedBy(managed.get(dependency.managementKey())).withDefaults())
+        .toList();
+
+    return new EffectiveModel(
+        interpolate(context, model.groupId()),
+        model.artifactId(),
+        interpolate(context, model.version()),
+        model.packaging() != null ? model.packaging() : "jar",
+        model.parent() != null ? model.parent().gav() : null,
+        Map.copyOf(properties),
+        Map.copyOf(managed),
+        dependencies,
+        model.modules(),
+        model.pomFile());
+  }
+
+  private static String interpolate(Map<String, String> context, String value) {
+    return interpolate(context, value, 0);
+  }
+
+  private static String interpolate(Map<String, String> context, String value, int depth) {
+    if (value == null || !value.contains("${") || depth > MAX_INTERPOLATION_DEPTH) {
+      return value;
+    }
+
+    var matcher = EXPRESSION.matcher(value);
+    var result = new StringBuilder();
+
+    while (matcher.find()) {
+      var replacement = lookup(context, matcher.group(1));
+      replacement = replacement == null ? matcher.group() : interpolate(context, replacement, depth + 1);
+      matcher.appendReplacement(result, Matcher.quoteReplacement(replacement));
+    }
+    matcher.appendTail(result);
+
+    return result.toString();
+  }
+
+  private static String lookup(Map<String, String> context, String expression) {
+    if (context.containsKey(expression)) {
+      return context.get(expression);
+    }
+    if (expression.startsWith("env.")) {
+      return System.getenv(expression.substring(4));
+    }
+    return System.getProperty(expression);
+  }
+
+  private static void putProjectProperty(Map<String, String> context, String name, String value) {
+    if (value != null) {
+      context.put("project." + name, value);
+      context.put("pom." + name, value);
+    }
+  }
+
+  private static Map<String, String> merge(Map<String, String> parent, Map<String, String> child) {
+    var merged = new LinkedHashMap<>(parent);
+    merged.putAll(child);
+    return merged;
+  }
+
+  /**
+   * Orders the dependencies like Maven: the child's own first, then the inherited ones it does not declare.
+   * Declaration order breaks ties between dependencies at the same depth of the tree.
+   */
+  private static List<ModelDependency> mergeDependencies(List<ModelDependency> parent, List<ModelDependency> child) {
+    var merged = new LinkedHashMap<String, ModelDependency>();
+    child.forEach(dependency -> merged.put(dependency.managementKey(), dependency));
+    parent.forEach(dependency -> merged.putIfAbsent(dependency.managementKey(), dependency));
+    return List.copyOf(merged.values());
+  }
+
+  private static Set<String> withGav(Set<String> chain, String gav) {
+    var extended = new HashSet<>(chain);
+    extended.add(gav);
+    return extended;
+  }
+}
@@ -0,0 +1,362 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.model.Dependency;
+import dev.buildcli.core.utils.threads.ThreadPoolUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Index of what is already downloaded to the local Maven repository: for every
+ * {@code groupId:artifactId}, the versions present with their packaging and main file size.
+ *
+ * <p>The index is persisted in a small binary file under {@code ~/.buildcli/cache/index}. Loading it
+ * is a single sequential read, so lookups never walk {@code ~/.m2}. Refreshing walks the directory tree
+ * but only lists the contents of version directories whose modification time changed since the last
+ * refresh, which keeps re-indexing a multi-GB repository cheap. The first build, and every refresh once the
+ * index is older than {@link #REFRESH_INTERVAL}, runs in the background.</p>
+ *
+ * <p>A refresh saves what it has indexed so far every {@link #CHECKPOINT_INTERVAL}, marked as incomplete. A
+ * command that exits before the first build ends leaves that checkpoint behind, so the next one carries on
+ * from it, reusing every version directory it already lists, instead of starting over.</p>
+ */
+public class LocalRepositoryIndex {
+  private static final Logger log = LoggerFactory.getLogger(LocalRepositoryIndex.class);
+
+  public static final Path DEFAULT_FILE = ConfigDefaultConstants.BUILD_CLI_CACHE_DIR.resolve("index").resolve("m2-repository.bin");
+  public static final Duration REFRESH_INTERVAL = Duration.ofMinutes(15);
+  public static final Duration CHECKPOINT_INTERVAL = Duration.ofSeconds(5);
+
+  private static final int MAGIC = 0x42434c49; // "BCLI"
+  private static final int FORMAT_VERSION = 2;
+
+  private static LocalRepositoryIndex sharedInstance;
+
+  private final Path repository;
+  private final Path indexFile;
+  private final Duration checkpointInterval;
+  private final AtomicReference<CompletableFuture<Void>> refresh = new AtomicReference<>(CompletableFuture.completedFuture(null));
+  private final ReentrantLock refreshLock = new ReentrantLock();
+  private volatile Map<String, LocalArtifact> artifacts = Map.of();
+  private volatile boolean complete;
+
+  public LocalRepositoryIndex(Path repository, Path indexFile) {
+    this(repository, indexFile, CHECKPOINT_INTERVAL);
+  }
+
+  LocalRepositoryIndex(Path repository, Path indexFile, Duration checkpointInterval) {
+    this.repository = repository;
+    this.indexFile = indexFile;
+    this.checkpointInterval = checkpointInterval;
+  }
+
+  /**
+   * Loads the index of the configured local repository, building or refreshing it in the background.
+   */
+  public static synchronized LocalRepositoryIndex shared() {
+    if (sharedInstance == null) {
+      sharedInstance = new LocalRepositoryIndex(MavenRepository.fromConfig().getLocalRepository(), DEFAULT_FILE);
+      sharedInstance.open();
+    }
+
+    return sharedInstance;
+  }
+
+  public record LocalVersion(String version, String packaging, long size, long lastModified) {
+  }
+
+  public record LocalArtifact(String groupId, String artifactId, List<LocalVersion> versions) {
+    public String key() {
+      return Dependency.key(groupId, artifactId);
+    }
+
+    /**
+     * @return the highest release version present, or the highest version of any kind if there is no release
+     */
+    public Optional<String> newestVersion() {
+      var sorted = versions.stream().map(LocalVersion::version).sorted(MavenVersionComparator.INSTANCE.reversed()).toList();
+      return sorted.stream().filter(MavenVersionComparator::isRelease).findFirst()
+          .or(() -> sorted.stream().findFirst());
+    }
+  }
+
+  /**
+   * Loads the persisted index, and builds it in the background when it is missing, unreadable or incomplete, or
+   * refreshes it when it is old. Lookups see the artifacts indexed so far until the first build completes.
+   *
+   * @return the pending build or refresh, already complete when the persisted index is current
+   */
+  public CompletableFuture<Void> open() {
+    if (!Files.isRegularFile(indexFile)) {
+      return refreshAsync();
+    }
+
+    try {
+      artifacts = read();
+      var age = Duration.between(Files.getLastModifiedTime(indexFile).toInstant(), Instant.now());
+      if (!complete || age.compareTo(REFRESH_INTERVAL) > 0) {
+        return refreshAsync();
+      }
+      return CompletableFuture.completedFuture(null);
+    } catch (IOException e) {
+      log.debug("Rebuilding unreadable local repository index {}: {}", indexFile, e.getMessage());
+      return refreshAsync();
+    }
+  }
+
+  /**
+   * Starts a refresh in the background unless one is running.
+   *
+   * @return the running refresh
+   */
+  public CompletableFuture<Void> refreshAsync() {
+    while (true) {
+      var current = refresh.get();
+      if (!current.isDone()) {
+        return current;
+      }
+
+      var next = new CompletableFuture<Void>();
+      if (refresh.compareAndSet(current, next)) {
+        ThreadPoolUtils.virtual().execute(() -> {
+          try {
+            refresh();
+            next.complete(null);
+          } catch (Throwable e) {
+            next.completeExceptionally(e);
+          }
+        });
+        return next;
+      }
+    }
+  }
+
+  /**
+   * Re-walks the local repository, reusing the entries of every version directory that did not change.
+   */
+  public void refresh() {
+    refreshLock.lock();
+    try {
+      walk();
+    } finally {
+      refreshLock.unlock();
+    }
+  }
+
+  private void walk() {
+    if (!Files.isDirectory(repository)) {
+      artifacts = Map.of();
+      return;
+    }
+
+    var previous = new HashMap<String, LocalVersion>();
+    artifacts.values().forEach(artifact -> artifact.versions()
+        .forEach(v -> previous.put(artifact.key() + ":" + v.version(), v)));
+
+    var refreshed = new HashMap<String, List<LocalVersion>>();
+    var groups = new HashMap<String, String[]>();
+    var indexed = artifacts;
+
+    try {
+      Files.walkFileTree(repository, new SimpleFileVisitor<>() {
+        private long nextCheckpoint = System.nanoTime() + checkpointInterval.toNanos();
+
+        @Override
+        public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+          var relative = repository.relativize(dir);
+          if (relative.getNameCount() < 3) {
+            return FileVisitResult.CONTINUE;
+          }
+
+          var version = dir.getFileName().toString();
+          var artifactId = relative.getName(relative.getNameCount() - 2).toString();
+          if (!Files.exists(dir.resolve(artifactId + "-" + version + ".pom"))) {
+            return FileVisitResult.CONTINUE;
+          }
+
+          var groupId = relative.subpath(0, relative.getNameCount() - 2).toString()
+              .replace(relative.getFileSystem().getSeparator(), ".");
+          var key = Dependency.key(groupId, artifactId);
+          var modified = attrs.lastModifiedTime().toMillis();
+          var known = previous.get(key + ":" + version);
+
+          var entry = known != null && known.lastModified() == modified
+              ? known
+              : scanVersion(dir, artifactId, version, modified);
+
+          groups.putIfAbsent(key, new String[]{groupId, artifactId});
+          refreshed.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+
+          if (System.nanoTime() - nextCheckpoint >= 0) {
+            // what was indexed before and not walked yet is kept, as it most likely still exists
+            var checkpoint = new HashMap<>(indexed);
+            checkpoint.putAll(collect(refreshed, groups));
+            artifacts = Map.copyOf(checkpoint);
+            write(false);
+            nextCheckpoint = System.nanoTime() + checkpointInterval.toNanos();
+          }
+          return FileVisitResult.SKIP_SUBTREE;
+        }
+
+        @Override
+        public FileVisitResult visitFileFailed(Path file, IOException exc) {
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    } catch (IOException e) {
+      log.warn("Could not index local repository {}: {}", repository, e.getMessage());
+      return;
+    }
+
+    var result = collect(refreshed, groups);
+    artifacts = Map.copyOf(result);
+    write(true);
+    log.debug("Indexed {} artifacts from {}", result.size(), repository);
+  }
+
+  private static Map<String, LocalArtifact> collect(Map<String, List<LocalVersion>> refreshed, Map<String, String[]> groups) {
+    var result = new HashMap<String, LocalArtifact>();
+    refreshed.forEach((key, versions) -> {
+      var coordinates = groups.get(key);
+      var sorted = new ArrayList<>(versions);
+      sorted.sort(Comparator.comparing(LocalVersion::version, MavenVersionComparator.INSTANCE));
+      result.put(key, new LocalArtifact(coordinates[0], coordinates[1], List.copyOf(sorted)));
+    });
+    return result;
+  }
+
+  /**
+   * @return whether the index was last saved by a refresh that walked the whole repository
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  public Optional<LocalArtifact> find(String groupId, String artifactId) {
+    return Optional.ofNullable(artifacts.get(Dependency.key(groupId, artifactId)));
+  }
+
+  public Optional<String> newestVersion(String groupId, String artifactId) {
+    return find(groupId, artifactId).flatMap(LocalArtifact::newestVersion);
+  }
+
+  public Collection<LocalArtifact> artifacts() {
+    return artifacts.values();
+  }
+
+  private static LocalVersion scanVersion(Path dir, String artifactId, String version, long modified) {
+    var baseName = artifactId + "-" + version;
+    var packaging = "pom";
+    long size = 0;
+
+    try (var files = Files.list(dir)) {
+      for (var file : files.toList()) {
+        var name = file.getFileName().toString();
+        if (!name.startsWith(baseName + ".")) {
+          continue; // classified artifacts and resolver bookkeeping files
+        }
+
+        var extension = name.substring(baseName.length() + 1);
+        if (extension.equals("pom") || extension.contains(".")) {
+          continue;
+        }
+
+        packaging = extension;
+        size = Files.size(file);
+      }
+
+      if (packaging.equals("pom")) {
+        size = Files.size(dir.resolve(baseName + ".pom"));
+      }
+    } catch (IOException e) {
+      log.debug("Could not list {}: {}", dir, e.getMessage());
+    }
+
+    return new LocalVersion(version, packaging, size, modified);
+  }
+
+  private Map<String, LocalArtifact> read() throws IOException {
+    try (var input = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+      if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported index format");
+      }
+      complete = input.readBoolean();
+
+      int artifactCount = input.readInt();
+      var result = new HashMap<String, LocalArtifact>(artifactCount * 2);
+
+      for (int i = 0; i < artifactCount; i++) {
+        var groupId = input.readUTF();
+        var artifactId = input.readUTF();
+        int versionCount = input.readInt();
+        var versions = new ArrayList<LocalVersion>(versionCount);
+
+        for (int j = 0; j < versionCount; j++) {
+          versions.add(new LocalVersion(input.readUTF(), input.readUTF(), input.readLong(), input.readLong()));
+        }
+
+        var artifact = new LocalArtifact(groupId, artifactId, List.copyOf(versions));
+        result.put(artifact.key(), artifact);
+      }
+
+      return Map.copyOf(result);
+    }
+  }
+
+  void write(boolean complete) {
+    this.complete = complete;
+    try {
+      Files.createDirectories(indexFile.getParent());
+      var tmp = indexFile.resolveSibling(indexFile.getFileName() + ".tmp");
+
+      try (var output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+        output.writeBoolean(complete);
+        var snapshot = artifacts;
+        output.writeInt(snapshot.size());
+
+        for (var artifact : snapshot.values()) {
+          output.writeUTF(artifact.groupId());
+          output.writeUTF(artifact.artifactId());
+          output.writeInt(artifact.versions().size());
+
+          for (var version : artifact.versions()) {
+            output.writeUTF(version.version());
+            output.writeUTF(version.packaging());
+            output.writeLong(version.size());
+            output.writeLong(version.lastModified());
+          }
+        }
+      }
+
+      Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      log.warn("Could not write local repository index {}: {}", indexFile, e.getMessage());
+    }
+  }
+}
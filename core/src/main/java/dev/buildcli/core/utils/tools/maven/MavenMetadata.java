@@ -0,0 +1,75 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.w3c.dom.Element;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+/**
+ * The artifact-level {@code maven-metadata.xml} of a repository: every published version of a
+ * {@code groupId:artifactId}, plus the {@code latest} and {@code release} markers.
+ */
+public record MavenMetadata(String groupId, String artifactId, String latest, String release, List<String> versions) {
+
+  public static MavenMetadata parse(String xml) {
+    try {
+      var docFactory = DocumentBuilderFactory.newInstance();
+      docFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true); // prevent XXE attack
+      docFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      var root = docFactory.newDocumentBuilder().parse(new InputSource(new StringReader(xml))).getDocumentElement();
+
+      var versionNodes = root.getElementsByTagName("version");
+      var versions = IntStream.range(0, versionNodes.getLength())
+          .mapToObj(versionNodes::item)
+          // the top-level <version> is only present in snapshot/plugin metadata; keep the <versions> list
+          .filter(node -> node.getParentNode().getNodeName().equals("versions"))
+          .map(node -> node.getTextContent().trim())
+          .filter(version -> !version.isEmpty())
+          .toList();
+
+      return new MavenMetadata(text(root, "groupId"), text(root, "artifactId"),
+          text(root, "latest"), text(root, "release"), versions);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Invalid maven-metadata.xml", e);
+    }
+  }
+
+  /**
+   * Combines the versions of two metadata files of the same artifact, e.g. a local and a remote one.
+   */
+  public MavenMetadata merge(MavenMetadata other) {
+    var allVersions = new LinkedHashSet<>(versions);
+    allVersions.addAll(other.versions);
+
+    return new MavenMetadata(groupId, artifactId,
+        newest(latest, other.latest), newest(release, other.release), List.copyOf(allVersions));
+  }
+
+  public List<String> sortedVersions() {
+    return versions.stream().distinct().sorted(MavenVersionComparator.INSTANCE).toList();
+  }
+
+  private static String newest(String left, String right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    return MavenVersionComparator.INSTANCE.compare(left, right) >= 0 ? left : right;
+  }
+
+  private static String text(Element root, String tagName) {
+    var nodes = root.getElementsByTagName(tagName);
+    return Optional.ofNullable(nodes.item(0))
+        .map(node -> node.getTextContent().trim())
+        .filter(value -> !value.isEmpty())
+        .orElse(null);
+  }
+}
@@ -0,0 +1,153 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.constants.ConfigDefaultConstants;
+import dev.buildcli.core.utils.config.ConfigContextLoader;
+import dev.buildcli.core.utils.net.HttpResponseCache;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Read access to a Maven repository pair: the local repository ({@code ~/.m2/repository} by default)
+ * and one remote repository (Maven Central by default, or whatever {@code buildcli.maven.repository.url}
+ * points to, e.g. a mirror or a local stand-in).
+ */
+public class MavenRepository {
+  private static final Logger log = LoggerFactory.getLogger(MavenRepository.class);
+
+  public static final String DEFAULT_REMOTE_URL = "https://repo.maven.apache.org/maven2/";
+  public static final Path DEFAULT_LOCAL_REPOSITORY = Path.of(System.getProperty("user.home"), ".m2", "repository");
+
+  // Maven's own default update policy for remote metadata is daily
+  private static final Duration LOCAL_METADATA_MAX_AGE = Duration.ofDays(1);
+  // released poms are immutable, snapshots follow the metadata policy
+  private static final Duration RELEASE_POM_MAX_AGE = Duration.ofDays(365);
+
+  private final URI remoteUrl;
+  private final Path localRepository;
+  private final HttpResponseCache cache;
+
+  public MavenRepository(URI remoteUrl, Path localRepository, HttpResponseCache cache) {
+    var url = remoteUrl.toString();
+    this.remoteUrl = URI.create(url.endsWith("/") ? url : url + "/");
+    this.localRepository = localRepository;
+    this.cache = cache;
+  }
+
+  public static MavenRepository fromConfig() {
+    var configs = ConfigContextLoader.getAllConfigs();
+    var remote = configs.getProperty(ConfigDefaultConstants.MAVEN_REPOSITORY_URL).orElse(DEFAULT_REMOTE_URL);
+    var local = configs.getProperty(ConfigDefaultConstants.MAVEN_LOCAL_REPOSITORY)
+        .map(Path::of)
+        .orElse(DEFAULT_LOCAL_REPOSITORY);
+
+    return new MavenRepository(URI.create(remote), local, HttpResponseCache.shared());
+  }
+
+  public URI getRemoteUrl() {
+    return remoteUrl;
+  }
+
+  public Path getLocalRepository() {
+    return localRepository;
+  }
+
+  public Path localArtifactDirectory(String groupId, String artifactId) {
+    return localRepository.resolve(groupId.replace('.', '/')).resolve(artifactId);
+  }
+
+  /**
+   * Local metadata is used as-is while it is younger than a day; otherwise the remote metadata is fetched
+   * and merged with it. If the remote repository cannot be reached, whatever is known locally is returned.
+   */
+  public Optional<MavenMetadata> metadata(String groupId, String artifactId) {
+    var local = localMetadata(groupId, artifactId);
+
+    if (local.isPresent() && local.get().fresh()) {
+      return Optional.of(local.get().metadata());
+    }
+
+    try {
+      var remote = MavenMetadata.parse(cache.get(remotePath(groupId, artifactId, "maven-metadata.xml")));
+      return Optional.of(local.map(l -> remote.merge(l.metadata())).orElse(remote));
+    } catch (IOException | IllegalArgumentException e) {
+      log.debug("Could not read remote metadata for {}:{}: {}", groupId, artifactId, e.getMessage());
+      return local.map(LocalMetadata::metadata);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return local.map(LocalMetadata::metadata);
+    }
+  }
+
+  public Path localPom(String groupId, String artifactId, String version) {
+    return localArtifactDirectory(groupId, artifactId).resolve(version).resolve(artifactId + "-" + version + ".pom");
+  }
+
+  /**
+   * Reads a pom from the local repository, or from the remote one through the response cache.
+   */
+  public Optional<String> pom(String groupId, String artifactId, String version) {
+    var local = localPom(groupId, artifactId, version);
+
+    try {
+      if (Files.isRegularFile(local)) {
+        return Optional.of(Files.readString(local));
+      }
+
+      var ttl = version.endsWith("-SNAPSHOT") ? LOCAL_METADATA_MAX_AGE : RELEASE_POM_MAX_AGE;
+      return Optional.of(cache.get(remotePath(groupId, artifactId, version + "/" + artifactId + "-" + version + ".pom"), ttl));
+    } catch (IOException e) {
+      log.debug("Could not read pom {}:{}:{}: {}", groupId, artifactId, version, e.getMessage());
+      return Optional.empty();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return Optional.empty();
+    }
+  }
+
+  URI remotePath(String groupId, String artifactId, String fileName) {
+    return remoteUrl.resolve(groupId.replace('.', '/') + "/" + artifactId + "/" + fileName);
+  }
+
+  /**
+   * Merges every {@code maven-metadata*.xml} Maven left in the artifact directory (one per remote
+   * repository id, plus {@code maven-metadata-local.xml} for installed versions).
+   */
+  private Optional<LocalMetadata> localMetadata(String groupId, String artifactId) {
+    var directory = localArtifactDirectory(groupId, artifactId);
+    if (!Files.isDirectory(directory)) {
+      return Optional.empty();
+    }
+
+    try (var files = Files.list(directory)) {
+      var freshAfter = Instant.now().minus(LOCAL_METADATA_MAX_AGE);
+      LocalMetadata merged = null;
+
+      for (var file : files.filter(f -> f.getFileName().toString().matches("maven-metadata.*\\.xml")).toList()) {
+        try {
+          var metadata = MavenMetadata.parse(Files.readString(file));
+          var fresh = Files.getLastModifiedTime(file).toInstant().isAfter(freshAfter);
+          merged = merged == null
+              ? new LocalMetadata(metadata, fresh)
+              : new LocalMetadata(merged.metadata().merge(metadata), merged.fresh() && fresh);
+        } catch (IOException | IllegalArgumentException e) {
+          log.debug("Skipping unreadable metadata {}: {}", file, e.getMessage());
+        }
+      }
+
+      return Optional.ofNullable(merged);
+    } catch (IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  private record LocalMetadata(MavenMetadata metadata, boolean fresh) {
+  }
+}
@@ -0,0 +1,143 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Orders Maven version strings the way Maven's {@code ComparableVersion} does for the common cases:
+ * numeric segments compare numerically, and qualifiers rank
+ * {@code alpha < beta < milestone < rc < snapshot < release < sp}. Unknown qualifiers sort after
+ * the known ones, lexically.
+ */
+public final class MavenVersionComparator implements Comparator<String> {
+  public static final MavenVersionComparator INSTANCE = new MavenVersionComparator();
+
+  private static final Map<String, Integer> QUALIFIERS = Map.ofEntries(
+      Map.entry("alpha", 0), Map.entry("a", 0),
+      Map.entry("beta", 1), Map.entry("b", 1),
+      Map.entry("milestone", 2), Map.entry("m", 2),
+      Map.entry("rc", 3), Map.entry("cr", 3),
+      Map.entry("snapshot", 4),
+      Map.entry("", 5), Map.entry("ga", 5), Map.entry("final", 5), Map.entry("release", 5),
+      Map.entry("sp", 6)
+  );
+  private static final int UNKNOWN_QUALIFIER = 7;
+
+  private MavenVersionComparator() {
+  }
+
+  /**
+   * @return {@code true} when the version carries no pre-release qualifier (alpha, beta, milestone, rc, snapshot)
+   */
+  public static boolean isRelease(String version) {
+    return tokenize(version).stream()
+        .filter(token -> !isNumeric(token))
+        .allMatch(token -> qualifierRank(token) >= QUALIFIERS.get(""));
+  }
+
+  @Override
+  public int compare(String left, String right) {
+    var leftTokens = tokenize(left);
+    var rightTokens = tokenize(right);
+
+    for (int i = 0; i < Math.max(leftTokens.size(), rightTokens.size()); i++) {
+      var l = i < leftTokens.size() ? leftTokens.get(i) : null;
+      var r = i < rightTokens.size() ? rightTokens.get(i) : null;
+      int result = compareTokens(l, r);
+
+      if (result != 0) {
+        return result;
+      }
+    }
+
+    return 0;
+  }
+
+  private static int compareTokens(String left, String right) {
+    // a missing token behaves like "0" against numbers and like a release against qualifiers
+    if (left == null) {
+      return right == null ? 0 : -compareTokens(right, null);
+    }
+
+    if (right == null) {
+      if (isNumeric(left)) {
+        return new BigInteger(left).signum();
+      }
+      return Integer.compare(qualifierRank(left), QUALIFIERS.get(""));
+    }
+
+    boolean leftNumeric = isNumeric(left);
+    boolean rightNumeric = isNumeric(right);
+
+    if (leftNumeric && rightNumeric) {
+      return new BigInteger(left).compareTo(new BigInteger(right));
+    }
+
+    if (leftNumeric != rightNumeric) {
+      // 1.0.1 > 1.0-rc1, but 1.0.1 < 1.0-sp1 is not a realistic case; numbers win over qualifiers
+      return leftNumeric ? 1 : -1;
+    }
+
+    int byRank = Integer.compare(qualifierRank(left), qualifierRank(right));
+    return byRank != 0 ? byRank : left.compareTo(right);
+  }
+
+  private static int qualifierRank(String qualifier) {
+    return QUALIFIERS.getOrDefault(qualifier, UNKNOWN_QUALIFIER);
+  }
+
+  private static boolean isNumeric(String token) {
+    return !token.isEmpty() && token.chars().allMatch(Character::isDigit);
+  }
+
+  private static List<String> tokenize(String version) {
+    var tokens = new ArrayList<String>();
+    if (version == null) {
+      return tokens;
+    }
+
+    var normalized = version.trim().toLowerCase(Locale.ROOT);
+    var current = new StringBuilder();
+
+    for (int i = 0; i < normalized.length(); i++) {
+      char c = normalized.charAt(i);
+
+      if (c == '.' || c == '-' || c == '_') {
+        addToken(tokens, current);
+        continue;
+      }
+
+      // split on digit/letter transitions: "rc1" -> "rc", "1"
+      if (!current.isEmpty() && Character.isDigit(c) != Character.isDigit(current.charAt(current.length() - 1))) {
+        addToken(tokens, current);
+      }
+
+      current.append(c);
+    }
+    addToken(tokens, current);
+
+    // trailing zeros and release markers carry no ordering information: 1.0.0 == 1 == 1.0-final
+    while (!tokens.isEmpty()) {
+      var last = tokens.getLast();
+      if ((isNumeric(last) && new BigInteger(last).signum() == 0)
+          || (!isNumeric(last) && qualifierRank(last) == QUALIFIERS.get(""))) {
+        tokens.removeLast();
+      } else {
+        break;
+      }
+    }
+
+    return tokens;
+  }
+
+  private static void addToken(List<String> tokens, StringBuilder current) {
+    if (!current.isEmpty()) {
+      tokens.add(current.toString());
+      current.setLength(0);
+    }
+  }
+}
@@ -0,0 +1,77 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.model.Dependency;
+
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * A dependency as it appears in a {@code <dependencies>} or {@code <dependencyManagement>} section.
+ * Fields that were not declared are {@code null}; {@link EffectiveModelBuilder} fills them in from
+ * dependency management and defaults.
+ *
+ * @param exclusions {@code groupId:artifactId} patterns, either part may be {@code *}
+ */
+public record ModelDependency(String groupId, String artifactId, String version, String type, String classifier,
+                              String scope, boolean optional, List<String> exclusions) {
+
+  public ModelDependency {
+    exclusions = exclusions == null ? List.of() : List.copyOf(exclusions);
+  }
+
+  public String key() {
+    return Dependency.key(groupId, artifactId);
+  }
+
+  /**
+   * Dependency management matches on type and classifier as well, so a {@code test-jar} can be managed
+   * separately from the main jar.
+   */
+  public String managementKey() {
+    var key = key() + ":" + (type == null ? "jar" : type);
+    return classifier == null ? key : key + ":" + classifier;
+  }
+
+  public String gav() {
+    return key() + ":" + version;
+  }
+
+  public boolean isImport() {
+    return "import".equals(scope) && "pom".equals(type);
+  }
+
+  public boolean excludes(String groupId, String artifactId) {
+    return exclusions.stream().anyMatch(pattern -> {
+      var parts = pattern.split(":", 2);
+      return (parts[0].equals("*") || parts[0].equals(groupId))
+          && (parts.length < 2 || parts[1].equals("*") || parts[1].equals(artifactId));
+    });
+  }
+
+  ModelDependency interpolate(UnaryOperator<String> interpolator) {
+    return new ModelDependency(interpolator.apply(groupId), interpolator.apply(artifactId),
+        interpolator.apply(version), interpolator.apply(type), interpolator.apply(classifier),
+        interpolator.apply(scope), optional, exclusions.stream().map(interpolator).toList());
+  }
+
+  /**
+   * Fills what this declaration leaves out from the matching managed entry.
+   */
+  ModelDependency managedBy(ModelDependency managed) {
+    if (managed == null) {
+      return this;
+    }
+
+    return new ModelDependency(groupId, artifactId,
+        version != null ? version : managed.version,
+        type, classifier,
+        scope != null ? scope : managed.scope,
+        optional,
+        exclusions.isEmpty() ? managed.exclusions : exclusions);
+  }
+
+  ModelDependency withDefaults() {
+    return new ModelDependency(groupId, artifactId, version, type == null ? "jar" : type, classifier,
+        scope == null ? "compile" : scope, optional, exclusions);
+  }
+}
@@ -0,0 +1,44 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ModelResolutionException;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Optional;
+
+/**
+ * Follows a pom's {@code <parent>} through {@code <relativePath>} on disk, as Maven does inside a reactor,
+ * without resolving anything from a repository.
+ */
+public final class PomHierarchy {
+  private PomHierarchy() {
+  }
+
+  /**
+   * @return the nearest pom, starting with {@code pomFile} itself, whose {@code <properties>} define
+   * {@code property}; empty when no pom of the local chain does or when the property gives a project or parent
+   * version, as {@code ${revision}} does in CI-friendly builds
+   */
+  public static Optional<Path> definingPom(Path pomFile, String property) {
+    var reference = "${" + property + "}";
+    var visited = new HashSet<Path>();
+
+    try {
+      var model = Optional.of(RawModel.read(pomFile.toAbsolutePath().normalize()));
+      while (model.isPresent() && visited.add(model.get().pomFile())) {
+        var current = model.get();
+        if (reference.equals(current.version()) || (current.parent() != null && reference.equals(current.parent().version()))) {
+          return Optional.empty();
+        }
+        if (current.properties().containsKey(property)) {
+          return Optional.of(current.pomFile());
+        }
+        model = current.localParent();
+      }
+    } catch (ModelResolutionException e) {
+      // an unreadable pom ends the chain; the bump reports it on its own
+    }
+
+    return Optional.empty();
+  }
+}
@@ -137,11 +137,7 @@ public class PomReader {
       String artifactId = getElementText(existentDependency, "artifactId");
       String version = getElementText(existentDependency, "version");
 
-      if (!groupId.equals(newDependency.getGroupId())) {
-        continue;
-      }
-
-      if (!artifactId.equals(newDependency.getArtifactId())) {
+      if (!Dependency.key(groupId, artifactId).equals(newDependency.getKey())) {
         continue;
       }
 
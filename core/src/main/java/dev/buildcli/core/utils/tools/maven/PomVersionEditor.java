@@ -0,0 +1,181 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Changes dependency versions in the text of a pom without re-serializing it.
+ *
+ * <p>Unlike {@link PomReader}, which round-trips through a DOM and loses formatting, this editor only
+ * replaces the characters between {@code <version>} tags (or inside a referenced property), so
+ * indentation, comments, attribute order and line endings are kept byte for byte. Both
+ * {@code <dependencies>} and {@code <dependencyManagement>} entries are edited; commented-out
+ * dependencies are left alone.</p>
+ */
+public final class PomVersionEditor {
+  private static final Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.DOTALL);
+  private static final Pattern DEPENDENCY = Pattern.compile("<dependency>(.*?)</dependency>", Pattern.DOTALL);
+  private static final Pattern PROPERTIES = Pattern.compile("<properties>(.*?)</properties>", Pattern.DOTALL);
+  private static final Pattern PROPERTY_REFERENCE = Pattern.compile("\\$\\{([^}]+)}");
+
+  private PomVersionEditor() {
+  }
+
+  /**
+   * @param content the edited pom, identical to the input when {@code changes} is empty
+   * @param changes one human-readable line per replaced version
+   */
+  public record Result(String content, List<String> changes) {
+    public boolean isChanged() {
+      return !changes.isEmpty();
+    }
+  }
+
+  private record Replacement(int start, int end, String value) {
+  }
+
+  /**
+   * @return names of the properties that matching dependencies take their version from, e.g.
+   * {@code foo.version} for {@code <version>${foo.version}</version>}
+   */
+  public static Set<String> referencedProperties(String pom, String groupId, String artifactId) {
+    var properties = new LinkedHashSet<String>();
+
+    forEachMatchingDependency(pom, groupId, artifactId, (dependency, version) -> {
+      var reference = PROPERTY_REFERENCE.matcher(version.group(1).trim());
+      if (reference.matches()) {
+        properties.add(reference.group(1));
+      }
+    });
+
+    return properties;
+  }
+
+  /**
+   * Sets the version of every dependency of {@code groupId} (and {@code artifactId}, unless it is
+   * {@code null}) to {@code version}. Versions given through a property are changed in the
+   * {@code <properties>} section instead, unless the property is also the version of the project itself;
+   * {@code extraProperties} names properties referenced from other poms (typically child modules) that
+   * should be changed here as well.
+   */
+  public static Result setVersion(String pom, String groupId, String artifactId, String version,
+                                  Set<String> extraProperties) {
+    var replacements = new ArrayList<Replacement>();
+    var changes = new ArrayList<String>();
+    var properties = new LinkedHashSet<>(extraProperties);
+
+    forEachMatchingDependency(pom, groupId, artifactId, (dependency, current) -> {
+      var value = current.group(1).trim();
+      var reference = PROPERTY_REFERENCE.matcher(value);
+
+      if (reference.matches()) {
+        if (!isProjectVersion(pom, reference.group(1))) {
+          properties.add(reference.group(1));
+        }
+      } else if (!value.equals(version)) {
+        replacements.add(new Replacement(dependency.start(1) + current.start(1), dependency.start(1) + current.end(1), version));
+        changes.add("%s:%s %s -> %s".formatted(text(dependency.group(1), "groupId"),
+            text(dependency.group(1), "artifactId"), value, version));
+      }
+    });
+
+    var comments = comments(pom);
+    var sections = PROPERTIES.matcher(pom);
+    while (sections.find()) {
+      if (isInside(comments, sections.start())) {
+        continue;
+      }
+
+      for (var property : properties) {
+        var matcher = Pattern.compile("<" + Pattern.quote(property) + ">([^<]*)</" + Pattern.quote(property) + ">")
+            .matcher(sections.group(1));
+        if (matcher.find() && !matcher.group(1).trim().equals(version)) {
+          replacements.add(new Replacement(sections.start(1) + matcher.start(1), sections.start(1) + matcher.end(1), version));
+          changes.add("property %s %s -> %s".formatted(property, matcher.group(1).trim(), version));
+        }
+      }
+    }
+
+    if (replacements.isEmpty()) {
+      return new Result(pom, List.of());
+    }
+
+    replacements.sort(Comparator.comparingInt(Replacement::start).reversed());
+    var edited = new StringBuilder(pom);
+    replacements.forEach(replacement -> edited.replace(replacement.start(), replacement.end(), replacement.value()));
+
+    return new Result(edited.toString(), List.copyOf(changes));
+  }
+
+  /**
+   * @return whether {@code ${property}} is used as a version outside any dependency, typically the version of
+   * the project or its parent as with {@code ${revision}}
+   */
+  static boolean isProjectVersion(String pom, String property) {
+    var excluded = comments(pom);
+    var dependencies = DEPENDENCY.matcher(pom);
+    while (dependencies.find()) {
+      excluded.add(new int[]{dependencies.start(), dependencies.end()});
+    }
+
+    var versions = Pattern.compile("<version>\\s*" + Pattern.quote("${" + property + "}") + "\\s*</version>").matcher(pom);
+    while (versions.find()) {
+      if (!isInside(excluded, versions.start())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private interface DependencyVisitor {
+    void visit(Matcher dependency, Matcher version);
+  }
+
+  private static void forEachMatchingDependency(String pom, String groupId, String artifactId, DependencyVisitor visitor) {
+    var comments = comments(pom);
+    var dependencies = DEPENDENCY.matcher(pom);
+
+    while (dependencies.find()) {
+      if (isInside(comments, dependencies.start())) {
+        continue;
+      }
+
+      var body = dependencies.group(1);
+      if (!groupId.equals(text(body, "groupId")) || (artifactId != null && !artifactId.equals(text(body, "artifactId")))) {
+        continue;
+      }
+
+      var version = element("version").matcher(body);
+      if (version.find()) {
+        visitor.visit(dependencies, version);
+      }
+    }
+  }
+
+  private static Pattern element(String name) {
+    return Pattern.compile("<" + name + ">([^<]*)</" + name + ">");
+  }
+
+  private static String text(String body, String name) {
+    var matcher = element(name).matcher(body);
+    return matcher.find() ? matcher.group(1).trim() : null;
+  }
+
+  private static List<int[]> comments(String pom) {
+    var ranges = new ArrayList<int[]>();
+    var matcher = COMMENT.matcher(pom);
+    while (matcher.find()) {
+      ranges.add(new int[]{matcher.start(), matcher.end()});
+    }
+    return ranges;
+  }
+
+  private static boolean isInside(List<int[]> ranges, int offset) {
+    return ranges.stream().anyMatch(range -> offset >= range[0] && offset < range[1]);
+  }
+}
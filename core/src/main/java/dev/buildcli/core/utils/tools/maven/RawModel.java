@@ -0,0 +1,153 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ModelResolutionException;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A pom exactly as written, before inheritance and interpolation.
+ */
+record RawModel(String groupId, String artifactId, String version, String packaging, Parent parent,
+                Map<String, String> properties, List<ModelDependency> dependencyManagement,
+                List<ModelDependency> dependencies, List<String> modules, Path pomFile) {
+
+  record Parent(String groupId, String artifactId, String version, String relativePath) {
+    String gav() {
+      return groupId + ":" + artifactId + ":" + version;
+    }
+  }
+
+  /**
+   * @return the coordinates this pom will have after inheriting groupId and version from its parent
+   */
+  String gav() {
+    var group = groupId != null ? groupId : parent != null ? parent.groupId() : null;
+    var ver = version != null ? version : parent != null ? parent.version() : null;
+    return group + ":" + artifactId + ":" + ver;
+  }
+
+  /**
+   * @return the parent found on disk through {@code <relativePath>}, when it is the declared parent
+   */
+  Optional<RawModel> localParent() {
+    if (parent == null || pomFile == null || parent.relativePath().isEmpty()) {
+      return Optional.empty();
+    }
+
+    var candidate = pomFile.getParent().resolve(parent.relativePath()).normalize();
+    if (Files.isDirectory(candidate)) {
+      candidate = candidate.resolve("pom.xml");
+    }
+    if (!Files.isRegularFile(candidate)) {
+      return Optional.empty();
+    }
+
+    var local = read(candidate);
+    var localGroupId = local.groupId() != null ? local.groupId()
+        : local.parent() != null ? local.parent().groupId() : null;
+
+    // like Maven, a pom at relativePath that is not the declared parent is ignored
+    return Objects.equals(parent.groupId(), localGroupId) && Objects.equals(parent.artifactId(), local.artifactId())
+        ? Optional.of(local)
+        : Optional.empty();
+  }
+
+  static RawModel read(Path pomFile) {
+    try {
+      return parse(Files.readString(pomFile), pomFile);
+    } catch (IOException e) {
+      throw new ModelResolutionException("Could not read " + pomFile, e);
+    }
+  }
+
+  static RawModel parse(String xml, Path pomFile) {
+    Element project;
+    try {
+      var docFactory = DocumentBuilderFactory.newInstance();
+      docFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true); // prevent XXE attack
+      docFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+      project = docFactory.newDocumentBuilder().parse(new InputSource(new StringReader(xml))).getDocumentElement();
+    } catch (Exception e) {
+      throw new ModelResolutionException("Invalid pom" + (pomFile == null ? "" : " " + pomFile), e);
+    }
+
+    var parent = child(project, "parent")
+        .map(p -> new Parent(text(p, "groupId"), text(p, "artifactId"), text(p, "version"),
+            p.getElementsByTagName("relativePath").getLength() > 0
+                ? Optional.ofNullable(text(p, "relativePath")).orElse("")
+                : "../pom.xml"))
+        .orElse(null);
+
+    var properties = new LinkedHashMap<String, String>();
+    child(project, "properties").ifPresent(p -> children(p, null)
+        .forEach(property -> properties.put(name(property), property.getTextContent().trim())));
+
+    var managed = child(project, "dependencyManagement")
+        .flatMap(m -> child(m, "dependencies"))
+        .map(RawModel::dependencies)
+        .orElse(List.of());
+
+    var dependencies = child(project, "dependencies")
+        .map(RawModel::dependencies)
+        .orElse(List.of());
+
+    var modules = child(project, "modules")
+        .map(m -> children(m, "module").stream().map(module -> module.getTextContent().trim()).toList())
+        .orElse(List.of());
+
+    return new RawModel(text(project, "groupId"), text(project, "artifactId"), text(project, "version"),
+        text(project, "packaging"), parent, properties, managed, dependencies, modules, pomFile);
+  }
+
+  private static List<ModelDependency> dependencies(Element dependencies) {
+    return children(dependencies, "dependency").stream()
+        .map(d -> new ModelDependency(text(d, "groupId"), text(d, "artifactId"), text(d, "version"),
+            text(d, "type"), text(d, "classifier"), text(d, "scope"), "true".equals(text(d, "optional")),
+            child(d, "exclusions")
+                .map(e -> children(e, "exclusion").stream()
+                    .map(x -> text(x, "groupId") + ":" + text(x, "artifactId"))
+                    .toList())
+                .orElse(List.of())))
+        .toList();
+  }
+
+  private static String name(Node node) {
+    var name = node.getNodeName();
+    return name.substring(name.indexOf(':') + 1);
+  }
+
+  private static List<Element> children(Element parent, String tagName) {
+    var result = new ArrayList<Element>();
+    for (var node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+      if (node.getNodeType() == Node.ELEMENT_NODE && (tagName == null || name(node).equals(tagName))) {
+        result.add((Element) node);
+      }
+    }
+    return result;
+  }
+
+  private static Optional<Element> child(Element parent, String tagName) {
+    return children(parent, tagName).stream().findFirst();
+  }
+
+  private static String text(Element parent, String tagName) {
+    return child(parent, tagName)
+        .map(element -> element.getTextContent().trim())
+        .filter(value -> !value.isEmpty())
+        .orElse(null);
+  }
+}
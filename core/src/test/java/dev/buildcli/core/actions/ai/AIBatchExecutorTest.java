@@ -0,0 +1,221 @@
+package dev.buildcli.core.actions.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIBatchExecutorTest {
+
+  @Test
+  void limitsRequestsInFlight() {
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+    var futures = new ArrayList<CompletableFuture<Integer>>();
+
+    try (var executor = AIBatchExecutor.builder().maxInFlight(3).queueCapacity(2).build()) {
+      for (int i = 0; i < 20; i++) {
+        var request = i;
+        futures.add(executor.submit(() -> {
+          maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+          sleep(10);
+          inFlight.decrementAndGet();
+          return request;
+        }));
+      }
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      assertEquals(i, futures.get(i).join());
+    }
+    assertEquals(3, maxInFlight.get());
+  }
+
+  @Test
+  void blocksSubmitWhenTheQueueIsFull() throws Exception {
+    var release = new CountDownLatch(1);
+    var submitted = new AtomicInteger();
+
+    try (var executor = AIBatchExecutor.builder().maxInFlight(1).queueCapacity(1).build()) {
+      var producer = Thread.ofVirtual().start(() -> {
+        for (int i = 0; i < 5; i++) {
+          executor.submit(() -> await(release));
+          submitted.incrementAndGet();
+        }
+      });
+
+      Thread.sleep(200);
+      // one request running and one queued; the third submit waits for room
+      assertEquals(2, submitted.get());
+
+      release.countDown();
+      producer.join();
+      assertEquals(5, submitted.get());
+    }
+  }
+
+  @Test
+  void retriesFailedRequests() {
+    var attempts = new AtomicInteger();
+
+    try (var executor = AIBatchExecutor.builder().retries(2).backoff(Duration.ofMillis(1)).build()) {
+      var result = executor.submit(() -> {
+        if (attempts.incrementAndGet() < 3) {
+          throw new IllegalStateException("model busy");
+        }
+        return "documented";
+      });
+
+      assertEquals("documented", result.join());
+      assertEquals(3, attempts.get());
+
+      var failure = assertThrows(CompletionException.class, () -> executor.submit(() -> {
+        throw new IllegalStateException("model not found");
+      }).join());
+      assertEquals("model not found", failure.getCause().getMessage());
+    }
+  }
+
+  @Test
+  void abandonsRequestsThatTimeOut() {
+    var attempts = new AtomicInteger();
+
+    try (var executor = AIBatchExecutor.builder().timeout(Duration.ofMillis(50)).retries(1).backoff(Duration.ofMillis(1)).build()) {
+      var failure = assertThrows(CompletionException.class, () -> executor.submit(() -> {
+        attempts.incrementAndGet();
+        sleep(5_000);
+        return "too late";
+      }).join());
+
+      assertInstanceOf(TimeoutException.class, failure.getCause());
+      assertEquals(2, attempts.get());
+    }
+  }
+
+  @Test
+  void keepsAbandonedRequestsInFlightUntilTheyEnd() {
+    var inFlight = new AtomicInteger();
+    var maxInFlight = new AtomicInteger();
+
+    try (var executor = AIBatchExecutor.builder().maxInFlight(1).timeout(Duration.ofMillis(50)).retries(1)
+        .backoff(Duration.ofMillis(1)).build()) {
+      var failure = assertThrows(CompletionException.class, () -> executor.submit(() -> {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        // like an HTTP call, it ignores the interrupt
+        var end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(200);
+        for (var left = end - System.nanoTime(); left > 0; left = end - System.nanoTime()) {
+          try {
+            Thread.sleep(Duration.ofNanos(left));
+          } catch (InterruptedException ignored) {
+          }
+        }
+        inFlight.decrementAndGet();
+        return "too late";
+      }).join());
+
+      assertInstanceOf(TimeoutException.class, failure.getCause());
+    }
+
+    assertEquals(1, maxInFlight.get());
+  }
+
+  @Test
+  void warmsUpBeforeTimingTheRequest() {
+    var warmUps = new AtomicInteger();
+
+    try (var executor = AIBatchExecutor.builder().timeout(Duration.ofMillis(100)).retries(0)
+        .warmUp(() -> CompletableFuture.runAsync(() -> {
+          warmUps.incrementAndGet();
+          sleep(300);
+        })).build()) {
+      assertEquals("ok", executor.submit(() -> "ok").join());
+    }
+
+    assertEquals(1, warmUps.get());
+  }
+
+  @Test
+  void limitsRequestRate() {
+    var start = System.nanoTime();
+
+    // 600 per minute is one every 100 ms after a burst of one per worker
+    try (var executor = AIBatchExecutor.builder().maxInFlight(1).requestsPerMinute(600).build()) {
+      for (int i = 0; i < 4; i++) {
+        executor.submit(() -> "ok");
+      }
+    }
+
+    assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 280);
+  }
+
+  @Test
+  void skipsRequestsCancelledWhileQueued() {
+    var release = new CountDownLatch(1);
+    var sent = new AtomicInteger();
+
+    try (var executor = AIBatchExecutor.builder().maxInFlight(1).build()) {
+      var running = executor.submit(() -> await(release));
+      var queued = executor.submit(sent::incrementAndGet);
+
+      queued.cancel(true);
+      release.countDown();
+      assertEquals("ok", running.join());
+    }
+
+    assertEquals(0, sent.get());
+  }
+
+  @Test
+  void interruptsRunningRequestsWhenCancelled() throws Exception {
+    var started = new CountDownLatch(1);
+    var attempts = new AtomicInteger();
+    var interrupted = new CountDownLatch(1);
+
+    try (var executor = AIBatchExecutor.builder().maxInFlight(1).retries(3).backoff(Duration.ofMillis(1)).build()) {
+      var running = executor.submit(() -> {
+        attempts.incrementAndGet();
+        started.countDown();
+        try {
+          Thread.sleep(5_000);
+        } catch (InterruptedException e) {
+          interrupted.countDown();
+          throw new IllegalStateException(e);
+        }
+        return "too late";
+      });
+
+      started.await();
+      running.cancel(true);
+
+      assertTrue(interrupted.await(1, TimeUnit.SECONDS));
+      assertEquals("next", executor.submit(() -> "next").join());
+    }
+
+    assertEquals(1, attempts.get());
+  }
+
+  private static String await(CountDownLatch latch) {
+    try {
+      latch.await();
+      return "ok";
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
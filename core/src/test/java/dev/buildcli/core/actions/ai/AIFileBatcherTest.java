@@ -0,0 +1,101 @@
+package dev.buildcli.core.actions.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIFileBatcherTest {
+  private static final Pattern FILE = Pattern.compile("<<<FILE (\\d+): [^>]+>>>\\n(.*?)\\n<<<END FILE \\1>>>", Pattern.DOTALL);
+
+  @TempDir
+  Path sources;
+
+  private final List<AIChat> requests = new CopyOnWriteArrayList<>();
+
+  @Test
+  void sendsSmallFilesInOneRequest() throws IOException {
+    var files = List.of(source("A.java", "class A {}"), source("B.java", "class B {}"), source("C.java", "enum C {}"));
+
+    var answers = answer(files, 1024, chat -> documentEach(chat.getUserMessage()));
+
+    assertEquals(List.of("/** Doc. */\nclass A {}", "/** Doc. */\nclass B {}", "/** Doc. */\nenum C {}"), answers);
+    assertEquals(1, requests.size());
+  }
+
+  @Test
+  void sendsFilesOnTheirOwnWhenTheAnswerCannotBeSplit() throws IOException {
+    var files = List.of(source("A.java", "class A {}"), source("B.java", "class B {}"));
+
+    var answers = answer(files, 1024, chat -> chat.getUserMessage().startsWith("<<<FILE")
+        ? "Here are your files!"
+        : "/** Doc. */\n" + chat.getUserMessage());
+
+    assertEquals(List.of("/** Doc. */\nclass A {}", "/** Doc. */\nclass B {}"), answers);
+    assertEquals(3, requests.size());
+  }
+
+  @Test
+  void sendsRejectedAnswersAgainOnTheirOwn() throws IOException {
+    var files = List.of(source("A.java", "class A {}"), source("B.java", "class B {}"));
+
+    var answers = answer(files, 1024, chat -> chat.getUserMessage().startsWith("<<<FILE")
+        ? documentEach(chat.getUserMessage()).replace("class B", "class Oops")
+        : "/** Single. */\n" + chat.getUserMessage());
+
+    assertEquals(List.of("/** Doc. */\nclass A {}", "/** Single. */\nclass B {}"), answers);
+    assertEquals(2, requests.size());
+  }
+
+  @Test
+  void packsFilesUpToTheBudget() throws IOException {
+    var files = new ArrayList<Path>();
+    for (int i = 0; i < 4; i++) {
+      files.add(source("F" + i + ".java", "x".repeat(40)));
+    }
+    files.add(source("Large.java", "y".repeat(200)));
+
+    var batches = AIFileBatcher.pack(files, 100);
+
+    assertEquals(List.of(files.subList(0, 2), files.subList(2, 4), files.subList(4, 5)), batches);
+  }
+
+  @Test
+  void rejectsIncompleteOrRepeatedAnswers() {
+    assertTrue(AIFileBatcher.parse("<<<FILE 1: A>>>\na\n<<<END FILE 1>>>\n<<<FILE 2>>>\nb\n<<<END FILE 2>>>", 2).isPresent());
+    assertTrue(AIFileBatcher.parse("<<<FILE 1: A>>>\na\n<<<END FILE 1>>>", 2).isEmpty());
+    assertTrue(AIFileBatcher.parse("<<<FILE 1>>>\na\n<<<END FILE 1>>>\n<<<FILE 1>>>\nb\n<<<END FILE 1>>>", 2).isEmpty());
+    assertTrue(AIFileBatcher.parse("<<<FILE 1>>>\na\n<<<END FILE 1>>>\n<<<FILE 3>>>\nb\n<<<END FILE 3>>>", 2).isEmpty());
+  }
+
+  private List<String> answer(List<Path> files, long maxChars, Function<AIChat, String> model) {
+    try (var executor = AIBatchExecutor.builder().maxInFlight(2).build()) {
+      var batcher = new AIFileBatcher(executor, chat -> {
+        requests.add(chat);
+        return model.apply(chat);
+      });
+      var answers = batcher.submit("document", files, maxChars,
+          (source, answer) -> answer.replace("/** Doc. */\n", "").equals(source));
+
+      return answers.values().stream().map(CompletableFuture::join).toList();
+    }
+  }
+
+  private static String documentEach(String message) {
+    return FILE.matcher(message).replaceAll("<<<FILE $1>>>\n/** Doc. */\n$2\n<<<END FILE $1>>>");
+  }
+
+  private Path source(String name, String content) throws IOException {
+    return Files.writeString(sources.resolve(name), content);
+  }
+}
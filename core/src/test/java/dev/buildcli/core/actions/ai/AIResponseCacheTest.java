@@ -0,0 +1,92 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.params.JlamaAIServiceParams;
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIResponseCacheTest {
+  @TempDir
+  Path cacheDir;
+
+  private final AtomicInteger generations = new AtomicInteger();
+  private final AIService service = chat -> {
+    generations.incrementAndGet();
+    return "/** documented */ " + chat.getUserMessage();
+  };
+
+  @Test
+  void answersUnchangedRequestsFromTheCache() {
+    var cache = new AIResponseCache(cacheDir, 1024 * 1024);
+    var params = new JlamaAIServiceParams("qwen");
+
+    var first = cache.generate(params, new AIChat("document", "class A {}"), () -> service);
+    var second = cache.generate(params, new AIChat("document", "class A {}"), () -> fail("the model must not be asked again"));
+
+    assertEquals(first, second);
+    assertEquals(1, generations.get());
+  }
+
+  @Test
+  void keysByVendorModelPromptAndSource() {
+    var chat = new AIChat("document", "class A {}");
+    var key = AIResponseCache.key(new JlamaAIServiceParams("qwen"), chat);
+
+    assertEquals(key, AIResponseCache.key(new JlamaAIServiceParams("qwen"), new AIChat("document", "class A {}")));
+    assertNotEquals(key, AIResponseCache.key(new JlamaAIServiceParams("llama"), chat));
+    assertNotEquals(key, AIResponseCache.key(new OllamaAIServiceParams(null, "qwen"), chat));
+    assertNotEquals(AIResponseCache.key(new OllamaAIServiceParams("http://localhost:11434", "qwen"), chat),
+        AIResponseCache.key(new OllamaAIServiceParams("http://gpu:11434", "qwen"), chat));
+    assertNotEquals(key, AIResponseCache.key(new JlamaAIServiceParams("qwen"), new AIChat("comment", "class A {}")));
+    assertNotEquals(key, AIResponseCache.key(new JlamaAIServiceParams("qwen"), new AIChat("document", "class B {}")));
+  }
+
+  @Test
+  void remembersTheContentWrittenToAFile(@TempDir Path project) {
+    var cache = new AIResponseCache(cacheDir, 1024 * 1024);
+    var params = new JlamaAIServiceParams("qwen");
+    var file = project.resolve("A.java");
+
+    cache.markProcessed(params, "document", file, "/** A */ class A {}");
+
+    assertTrue(cache.isProcessed(params, "document", file, "/** A */ class A {}"));
+    assertFalse(cache.isProcessed(params, "document", file, "/** A */ class A { int a; }"));
+    assertFalse(cache.isProcessed(params, "document", project.resolve("B.java"), "/** A */ class A {}"));
+    assertFalse(cache.isProcessed(params, "comment", file, "/** A */ class A {}"));
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntries() throws IOException {
+    var cache = new AIResponseCache(cacheDir, 250);
+    cache.put("aa01", "x".repeat(100));
+    cache.put("bb02", "y".repeat(100));
+    Files.setLastModifiedTime(cacheDir.resolve("aa").resolve("aa01"), FileTime.fromMillis(1_000));
+    Files.setLastModifiedTime(cacheDir.resolve("bb").resolve("bb02"), FileTime.fromMillis(2_000));
+
+    cache.put("cc03", "z".repeat(100));
+
+    assertTrue(cache.get("aa01").isEmpty());
+    assertTrue(cache.get("bb02").isPresent());
+    assertTrue(cache.get("cc03").isPresent());
+  }
+
+  @Test
+  void disabledWithoutSize() {
+    var cache = new AIResponseCache(cacheDir, 0);
+    var params = new JlamaAIServiceParams("qwen");
+
+    cache.generate(params, new AIChat("document", "class A {}"), () -> service);
+    cache.generate(params, new AIChat("document", "class A {}"), () -> service);
+
+    assertEquals(2, generations.get());
+    assertFalse(Files.exists(cacheDir.resolve("aa")));
+  }
+}
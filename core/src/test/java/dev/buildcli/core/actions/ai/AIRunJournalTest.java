@@ -0,0 +1,103 @@
+package dev.buildcli.core.actions.ai;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIRunJournalTest {
+  @TempDir
+  Path runs;
+
+  @TempDir
+  Path sources;
+
+  @Test
+  void resumesWithoutTheCompletedFiles() throws IOException {
+    var a = source("A.java", "/** Doc. */ class A {}");
+    var b = source("B.java", "class B {}");
+    var c = source("C.java", "class C {}");
+
+    var journal = AIRunJournal.start(runs, "ai code document", "qwen");
+    journal.completed(a, "/** Doc. */ class A {}");
+    journal.failed(b);
+
+    var resumed = AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen");
+
+    assertTrue(resumed.isDone(a));
+    assertFalse(resumed.isDone(b));
+    assertFalse(resumed.isDone(c));
+  }
+
+  @Test
+  void redoesFilesChangedSinceTheyCompleted() throws IOException {
+    var a = source("A.java", "class A {}");
+    var journal = AIRunJournal.start(runs, "ai code document", "qwen");
+    journal.completed(a, "review of A");
+
+    Files.writeString(a, "class A { int edited; }");
+
+    assertFalse(AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen").isDone(a));
+  }
+
+  @Test
+  void recordsConcurrentCompletionsAsWholeLines() throws IOException {
+    var files = new ArrayList<Path>();
+    for (int i = 0; i < 50; i++) {
+      files.add(source("F" + i + ".java", "class F" + i + " {}"));
+    }
+
+    var journal = AIRunJournal.start(runs, "ai code document", "qwen");
+    CompletableFuture.allOf(IntStream.range(0, files.size())
+        .mapToObj(i -> CompletableFuture.runAsync(() -> journal.completed(files.get(i), "output " + i)))
+        .toArray(CompletableFuture[]::new)).join();
+
+    assertEquals(50, Files.readAllLines(journal.getJournal()).size());
+    var resumed = AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen");
+    assertTrue(files.stream().allMatch(resumed::isDone));
+  }
+
+  @Test
+  void ignoresALineCutShortByACrash() throws IOException {
+    var a = source("A.java", "class A {}");
+    var b = source("B.java", "class B {}");
+    var journal = AIRunJournal.start(runs, "ai code document", "qwen");
+    journal.completed(a, "review of A");
+    Files.writeString(journal.getJournal(), "DONE 12ab", StandardOpenOption.APPEND);
+
+    var resumed = AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen");
+    resumed.completed(b, "review of B");
+
+    var again = AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen");
+    assertTrue(again.isDone(a));
+    assertTrue(again.isDone(b));
+  }
+
+  @Test
+  void resumesOnlyTheCommandAndOptionsThatStartedTheRun() {
+    var journal = AIRunJournal.start(runs, "ai code document", "qwen", null);
+
+    assertDoesNotThrow(() -> AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen", null));
+    assertThrows(IllegalArgumentException.class, () -> AIRunJournal.resume(runs, journal.getId(), "ai code comment", "qwen", null));
+    assertThrows(IllegalArgumentException.class, () -> AIRunJournal.resume(runs, journal.getId(), "ai code document", "llama", null));
+    assertThrows(IllegalArgumentException.class, () -> AIRunJournal.resume(runs, journal.getId(), "ai code document", "qwen", "Be brief"));
+  }
+
+  @Test
+  void rejectsUnknownRuns() {
+    assertThrows(IllegalArgumentException.class, () -> AIRunJournal.resume(runs, "20260101-000000-0000", "ai code document"));
+    assertThrows(IllegalArgumentException.class, () -> AIRunJournal.resume(runs, "../elsewhere", "ai code document"));
+  }
+
+  private Path source(String name, String content) throws IOException {
+    return Files.writeString(sources.resolve(name), content);
+  }
+}
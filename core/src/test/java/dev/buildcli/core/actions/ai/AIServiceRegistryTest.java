@@ -0,0 +1,78 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.actions.ai.params.JlamaAIServiceParams;
+import dev.buildcli.core.actions.ai.params.OllamaAIServiceParams;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AIServiceRegistryTest {
+  private final AtomicInteger builds = new AtomicInteger();
+
+  @Test
+  void buildsOneServicePerKeyForConcurrentCallers() throws Exception {
+    var registry = new AIServiceRegistry(params -> {
+      builds.incrementAndGet();
+      return chat -> chat.getUserMessage().toUpperCase();
+    });
+    var start = new CountDownLatch(1);
+    var results = new ArrayList<Future<AIService>>();
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < 32; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return registry.get(new OllamaAIServiceParams("http://localhost:11434", "llama3.2"));
+        }));
+      }
+      start.countDown();
+
+      var first = results.getFirst().get();
+      for (var result : results) {
+        assertSame(first, result.get());
+      }
+    }
+
+    assertEquals(1, builds.get());
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  void keysByVendorModelAndUrl() {
+    var registry = new AIServiceRegistry(params -> {
+      builds.incrementAndGet();
+      return chat -> "";
+    });
+
+    registry.get(new JlamaAIServiceParams("qwen"));
+    registry.get(new JlamaAIServiceParams("qwen"));
+    registry.get(new JlamaAIServiceParams("llama"));
+    registry.get(new OllamaAIServiceParams("http://localhost:11434", "qwen"));
+    registry.get(new OllamaAIServiceParams("http://gpu-box:11434", "qwen"));
+
+    assertEquals(4, builds.get());
+    assertEquals(4, registry.size());
+  }
+
+  @Test
+  void retriesAfterFailedBuild() {
+    var registry = new AIServiceRegistry(params -> {
+      if (builds.incrementAndGet() == 1) {
+        throw new IllegalStateException("model not found");
+      }
+      return chat -> "ok";
+    });
+    var params = new JlamaAIServiceParams("qwen");
+
+    assertThrows(CompletionException.class, () -> registry.get(params));
+    assertEquals("ok", registry.get(params).generate(new AIChat("system", "user")));
+    assertEquals(2, builds.get());
+  }
+}
@@ -0,0 +1,102 @@
+package dev.buildcli.core.actions.ai;
+
+import dev.buildcli.core.utils.ai.SourceChunker;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangedSourcesTest {
+  private static final String SOURCE = """
+      class A {
+        void first() {
+        }
+
+        void second() {
+        }
+      }
+      """;
+
+  @TempDir
+  Path repository;
+
+  private Path a;
+  private Path b;
+
+  @BeforeEach
+  void commitSources() throws Exception {
+    a = Files.writeString(repository.resolve("A.java"), SOURCE);
+    b = Files.writeString(repository.resolve("B.java"), "class B {}\n");
+    Files.writeString(repository.resolve(".gitignore"), "target/\n");
+
+    try (var git = Git.init().setDirectory(repository.toFile()).call()) {
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("initial").setAuthor("dev", "dev@example.com").setSign(false).call();
+    }
+  }
+
+  @Test
+  void listsFilesChangedSinceARevision() throws Exception {
+    Files.writeString(a, SOURCE.replace("void second", "int second"));
+    var c = Files.writeString(repository.resolve("C.java"), "class C {}\n");
+    Files.createDirectories(repository.resolve("target"));
+    var generated = Files.writeString(repository.resolve("target/D.java"), "class D {}\n");
+
+    var changed = ChangedSources.since(repository, "HEAD");
+
+    assertEquals(List.of(a, c), changed.filter(List.of(a, b, c, generated)));
+  }
+
+  @Test
+  void findsTheChangedChunks() throws Exception {
+    var source = SOURCE.replace("void second", "int second");
+    Files.writeString(a, source);
+
+    var changed = ChangedSources.since(repository.resolve("A.java"), "HEAD");
+    var cut = source.indexOf("\n  int second") + 1;
+    var first = new SourceChunker.Chunk(0, cut, source.substring(0, cut), true);
+    var second = new SourceChunker.Chunk(cut, source.length(), source.substring(cut), true);
+
+    assertFalse(changed.isChanged(a, source, first));
+    assertTrue(changed.isChanged(a, source, second));
+    assertFalse(changed.isChanged(b, "class B {}\n", new SourceChunker.Chunk(0, 11, "class B {}\n", true)));
+  }
+
+  @Test
+  void matchesFilesReachedThroughALink(@TempDir Path links) throws Exception {
+    Files.writeString(a, SOURCE.replace("void second", "int second"));
+    var link = Files.createSymbolicLink(links.resolve("project"), repository);
+
+    var changed = ChangedSources.since(link, "HEAD");
+
+    assertTrue(changed.isChanged(a));
+    assertTrue(changed.isChanged(link.resolve("A.java")));
+    assertFalse(changed.isChanged(link.resolve("B.java")));
+  }
+
+  @Test
+  void diffsEachRepositoryOfThePaths(@TempDir Path other) throws Exception {
+    var d = Files.writeString(other.resolve("D.java"), "class D {}\n");
+    try (var git = Git.init().setDirectory(other.toFile()).call()) {
+      git.add().addFilepattern(".").call();
+      git.commit().setMessage("initial").setAuthor("dev", "dev@example.com").setSign(false).call();
+    }
+    Files.writeString(a, SOURCE.replace("void second", "int second"));
+    Files.writeString(d, "class D { int d; }\n");
+
+    var changed = ChangedSources.since(List.of(repository, other), "HEAD");
+
+    assertEquals(List.of(a, d), changed.filter(List.of(a, b, d)));
+  }
+
+  @Test
+  void rejectsUnknownRevisions() {
+    assertThrows(RuntimeException.class, () -> ChangedSources.since(repository, "no-such-branch"));
+  }
+}
@@ -0,0 +1,62 @@
+package dev.buildcli.core.actions.ai.service;
+
+import dev.buildcli.core.actions.ai.AIChat;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.StreamingResponseHandler;
+import dev.langchain4j.model.chat.StreamingChatLanguageModel;
+import dev.langchain4j.model.output.Response;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AbstractLangchain4jAIServiceTest {
+
+  @Test
+  void streamsTokensAsTheyArrive() {
+    var tokens = new ArrayList<String>();
+    var service = new StreamingService(echo());
+
+    var response = service.generate(new AIChat("document", "class A {}"), tokens::add);
+
+    assertEquals("class A {}", response);
+    assertEquals(List.of("class", " A", " {}"), tokens);
+  }
+
+  @Test
+  void collectsTokensWithoutABlockingModel() {
+    assertEquals("class A {}", new StreamingService(echo()).generate(new AIChat("document", "class A {}")));
+  }
+
+  @Test
+  void propagatesStreamingErrors() {
+    StreamingChatLanguageModel failing = (messages, handler) -> handler.onError(new IllegalStateException("model not found"));
+
+    var exception = assertThrows(IllegalStateException.class, () -> new StreamingService(failing).generate(new AIChat("document", "class A {}")));
+
+    assertEquals("model not found", exception.getMessage());
+  }
+
+  /**
+   * Answers with the user message, split on spaces, from another thread like the real models do.
+   */
+  private static StreamingChatLanguageModel echo() {
+    return (List<ChatMessage> messages, StreamingResponseHandler<AiMessage> handler) -> Thread.ofVirtual().start(() -> {
+      var text = ((UserMessage) messages.getLast()).singleText();
+      for (var token : text.split("(?= )")) {
+        handler.onNext(token);
+      }
+      handler.onComplete(Response.from(AiMessage.from(text)));
+    });
+  }
+
+  private static class StreamingService extends AbstractLangchain4jAIService {
+    StreamingService(StreamingChatLanguageModel streamingModel) {
+      super(null, streamingModel);
+    }
+  }
+}
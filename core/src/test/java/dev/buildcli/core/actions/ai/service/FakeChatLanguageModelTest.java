@@ -0,0 +1,54 @@
+package dev.buildcli.core.actions.ai.service;
+
+import dev.buildcli.core.actions.ai.AIChat;
+import dev.buildcli.core.actions.ai.factories.GeneralAIServiceFactory;
+import dev.buildcli.core.actions.ai.params.FakeAIServiceParams;
+import dev.buildcli.core.utils.ai.CodeUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FakeChatLanguageModelTest {
+  private final AIChat chat = new AIChat("Document this code", "class A {\n  int a;\n}");
+
+  @Test
+  void echoesTheCodeItIsGiven() {
+    var service = FakeAIService.builder().latency(Duration.ZERO).jitter(Duration.ZERO).tokensPerSecond(0).build();
+
+    assertEquals(chat.getUserMessage(), CodeUtils.extractCode(service.generate(chat)));
+  }
+
+  @Test
+  void streamsTheSameAnswer() {
+    var service = FakeAIService.builder().latency(Duration.ZERO).jitter(Duration.ZERO).tokensPerSecond(0).build();
+    var tokens = new ArrayList<String>();
+
+    var answer = service.generate(chat, tokens::add);
+
+    assertEquals(answer, String.join("", tokens));
+    assertEquals(service.generate(chat), answer);
+    assertTrue(tokens.stream().allMatch(token -> token.length() <= 4));
+  }
+
+  @Test
+  void takesTheConfiguredTime() {
+    var service = FakeAIService.builder().latency(Duration.ofMillis(100)).jitter(Duration.ZERO).tokensPerSecond(200).build();
+    var tokens = FakeChatLanguageModel.tokens(service.generate(chat)).size();
+
+    var start = System.nanoTime();
+    service.generate(chat);
+    var elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+    assertTrue(elapsed.toMillis() >= 100 + tokens * 5L, "took " + elapsed);
+  }
+
+  @Test
+  void isSelectedByTheFakeVendor() {
+    var params = new FakeAIServiceParams(Duration.ZERO, Duration.ZERO, 0);
+
+    assertInstanceOf(FakeAIService.class, new GeneralAIServiceFactory().create(params));
+  }
+}
@@ -0,0 +1,130 @@
+package dev.buildcli.core.actions.dependency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkDependencyBumpTest {
+  @TempDir
+  Path root;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    write("pom.xml", """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>parent</artifactId>
+          <version>1</version>
+          <properties><foo.version>1.0</foo.version></properties>
+          <modules><module>a</module><module>b</module></modules>
+        </project>
+        """);
+    write("a/pom.xml", pom("<version>${foo.version}</version>").replace("<project>", PARENT));
+    write("b/pom.xml", pom("<version>1.0</version>"));
+    write("c/nested/pom.xml", pom("<version>1.0</version>"));
+    write("a/target/classes/pom.xml", pom("<version>1.0</version>"));
+    write("d/pom.xml", "<project><dependencies/></project>");
+  }
+
+  @Test
+  void bumpsEveryPomUnderTheRoot() throws IOException {
+    var results = new BulkDependencyBump("org.foo", null, "2.3.1", 2).apply(root, true);
+
+    assertEquals(List.of("a/pom.xml", "b/pom.xml", "c/nested/pom.xml", "d/pom.xml", "pom.xml"),
+        results.stream().map(r -> root.relativize(r.pom()).toString()).toList());
+    assertTrue(results.stream().noneMatch(PomBumpResult::isFailed));
+
+    // the property used in module a is changed where it is defined
+    assertTrue(Files.readString(root.resolve("pom.xml")).contains("<foo.version>2.3.1</foo.version>"));
+    assertTrue(Files.readString(root.resolve("a/pom.xml")).contains("${foo.version}"));
+    assertTrue(Files.readString(root.resolve("b/pom.xml")).contains("<version>2.3.1</version>"));
+    assertTrue(Files.readString(root.resolve("c/nested/pom.xml")).contains("<version>2.3.1</version>"));
+    assertFalse(results.get(3).isChanged());
+
+    // build output is not walked
+    assertTrue(Files.readString(root.resolve("a/target/classes/pom.xml")).contains("<version>1.0</version>"));
+  }
+
+  @Test
+  void bumpsPropertiesOnlyWhereTheParentChainDefinesThem() throws IOException {
+    write("c/nested/pom.xml", pom("<version>${foo.version}</version>"));
+    write("d/pom.xml", "<project><properties><foo.version>1.0</foo.version></properties></project>");
+
+    new BulkDependencyBump("org.foo", null, "2.3.1", 2).apply(root, true);
+
+    assertTrue(Files.readString(root.resolve("pom.xml")).contains("<foo.version>2.3.1</foo.version>"));
+    assertTrue(Files.readString(root.resolve("d/pom.xml")).contains("<foo.version>1.0</foo.version>"));
+  }
+
+  @Test
+  void leavesTheProjectVersionAlone() throws IOException {
+    write("pom.xml", """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>parent</artifactId>
+          <version>${revision}</version>
+          <properties><revision>1.0</revision></properties>
+        </project>
+        """);
+    write("a/pom.xml", pom("<version>${revision}</version>").replace("<project>", """
+        <project>
+          <parent><groupId>org.example</groupId><artifactId>parent</artifactId><version>${revision}</version></parent>
+        """));
+
+    var results = new BulkDependencyBump("org.foo", null, "2.3.1", 2).apply(root, true);
+
+    assertTrue(Files.readString(root.resolve("pom.xml")).contains("<revision>1.0</revision>"));
+    assertFalse(results.getFirst().isChanged());
+  }
+
+  @Test
+  void onlyTouchesTheRootPomWhenNotRecursive() throws IOException {
+    var results = new BulkDependencyBump("org.foo", null, "2.3.1").apply(root.resolve("b"), false);
+
+    assertEquals(1, results.size());
+    assertTrue(results.getFirst().isChanged());
+    assertTrue(Files.readString(root.resolve("c/nested/pom.xml")).contains("<version>1.0</version>"));
+  }
+
+  @Test
+  void reportsUnreadablePoms() throws IOException {
+    Files.write(root.resolve("d/pom.xml"), new byte[]{(byte) 0xC3, (byte) 0x28});
+
+    var results = new BulkDependencyBump("org.foo", null, "2.3.1").apply(root, true);
+
+    assertTrue(results.get(3).isFailed());
+    assertTrue(results.get(1).isChanged());
+  }
+
+  private static final String PARENT = """
+      <project>
+        <parent><groupId>org.example</groupId><artifactId>parent</artifactId><version>1</version></parent>
+      """;
+
+  private static String pom(String version) {
+    return """
+        <project>
+          <dependencies>
+            <dependency>
+              <groupId>org.foo</groupId>
+              <artifactId>foo</artifactId>
+              %s
+            </dependency>
+          </dependencies>
+        </project>
+        """.formatted(version);
+  }
+
+  private void write(String path, String content) throws IOException {
+    var file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+}
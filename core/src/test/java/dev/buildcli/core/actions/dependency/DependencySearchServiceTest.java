@@ -0,0 +1,47 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.actions.dependency.index.ArtifactIndexStore;
+import dev.buildcli.core.actions.dependency.index.IndexedArtifact;
+import dev.buildcli.core.utils.tools.maven.LocalRepositoryIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DependencySearchServiceTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldRankLocalRepositoryMatchesFirstWithoutIndexingThem() throws IOException {
+    var repository = tempDir.resolve("repository");
+    install(repository, "com.fasterxml.jackson.core", "jackson-databind", "2.17.0");
+    var localRepository = new LocalRepositoryIndex(repository, tempDir.resolve("m2-repository.bin"));
+    localRepository.open().join();
+
+    var store = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1));
+    store.merge(List.of(
+        IndexedArtifact.parse("com.fasterxml.jackson.core:jackson-core:2.17.0"),
+        IndexedArtifact.parse("com.fasterxml.jackson.core:jackson-databind:2.18.0")));
+
+    var results = new DependencySearchService(store, localRepository).offline(true).sendSearchRequest("jackson");
+
+    assertEquals(List.of(
+        "com.fasterxml.jackson.core:jackson-databind:2.17.0",
+        "com.fasterxml.jackson.core:jackson-core:2.17.0"), results);
+    assertEquals(2, store.load().size());
+  }
+
+  private static void install(Path repository, String groupId, String artifactId, String version) throws IOException {
+    var directory = repository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+    Files.createDirectories(directory);
+    Files.writeString(directory.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+  }
+}
@@ -0,0 +1,192 @@
+package dev.buildcli.core.actions.dependency;
+
+import dev.buildcli.core.utils.net.HttpResponseCache;
+import dev.buildcli.core.utils.tools.maven.EffectiveModelBuilder;
+import dev.buildcli.core.utils.tools.maven.MavenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DependencyTreeResolverTest {
+  @TempDir
+  Path tempDir;
+
+  private Path repository;
+  private DependencyTree tree;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    repository = tempDir.resolve("repository");
+
+    install("a", "1", dependency("d", "1.0", null) + dependency("e", "1", "test")
+        + "<dependency><groupId>org.example</groupId><artifactId>o</artifactId><version>1</version><optional>true</optional></dependency>");
+    install("b", "1", dependency("a", "2", null) + dependency("d", "2.0", null) + dependency("f", "1", "runtime"));
+    install("f", "1", dependency("g", "1", null));
+    install("t", "1", dependency("d", "1.0", null));
+    install("x", "1", dependency("excluded", "1", null) + dependency("kept", "1", null));
+    for (var leaf : List.of("a:2", "d:1.0", "d:2.0", "e:1", "o:1", "g:1", "g:2", "excluded:1", "kept:1")) {
+      var parts = leaf.split(":");
+      install(parts[0], parts[1], "");
+    }
+
+    var pom = tempDir.resolve("project").resolve("pom.xml");
+    Files.createDirectories(pom.getParent());
+    Files.writeString(pom, """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>app</artifactId>
+          <version>1.0</version>
+          <dependencyManagement>
+            <dependencies>%s</dependencies>
+          </dependencyManagement>
+          <dependencies>
+            %s%s%s%s
+            <dependency>
+              <groupId>org.example</groupId><artifactId>x</artifactId><version>1</version>
+              <exclusions><exclusion><groupId>org.example</groupId><artifactId>excluded</artifactId></exclusion></exclusions>
+            </dependency>
+          </dependencies>
+        </project>
+        """.formatted(dependency("g", "2", null), dependency("a", "1", null), dependency("b", "1", null),
+        dependency("t", "1", "test"), dependency("missing", "1", null)));
+
+    // nothing listens on port 9: every pom must come from the local repository
+    var mavenRepository = new MavenRepository(URI.create("http://127.0.0.1:9/"), repository,
+        new HttpResponseCache(HttpClient.newHttpClient(), tempDir.resolve("cache"), Duration.ofHours(1)));
+    tree = new DependencyTreeResolver(new EffectiveModelBuilder(mavenRepository)).resolve(pom);
+  }
+
+  @Test
+  void nearestDeclarationWins() {
+    var selected = selected();
+
+    assertTrue(selected.contains("org.example:a:jar:1:compile"));
+    // d:1.0 is met first through a, at the same depth as d:2.0 through b
+    assertTrue(selected.contains("org.example:d:jar:1.0:compile"));
+    assertFalse(selected.contains("org.example:d:jar:2.0:compile"));
+  }
+
+  @Test
+  void reportsConflicts() {
+    assertEquals(List.of(
+        new DependencyConflict("org.example:a", "1", List.of("2")),
+        new DependencyConflict("org.example:d", "1.0", List.of("2.0"))), tree.conflicts());
+
+    var b = root("b");
+    var omittedA = b.getChildren().getFirst();
+    assertTrue(omittedA.isOmitted());
+    assertEquals("1", omittedA.getOmittedFor());
+    assertTrue(omittedA.getChildren().isEmpty());
+  }
+
+  @Test
+  void appliesScopeTransitivity() {
+    var selected = selected();
+
+    assertTrue(selected.contains("org.example:f:jar:1:runtime"));
+    assertTrue(selected.contains("org.example:t:jar:1:test"));
+    // test dependencies and optional dependencies of dependencies are not inherited
+    assertFalse(selected.stream().anyMatch(node -> node.contains(":e:") || node.contains(":o:")));
+
+    // t's d:1.0 is a duplicate of the compile-scoped one
+    assertTrue(root("t").getChildren().getFirst().isOmitted());
+  }
+
+  @Test
+  void projectManagementPinsTransitiveVersions() {
+    assertTrue(selected().contains("org.example:g:jar:2:runtime"));
+  }
+
+  @Test
+  void exclusionsApplyToTheSubtree() {
+    var x = root("x");
+
+    assertEquals(List.of("kept"), x.getChildren().stream().map(DependencyNode::getArtifactId).toList());
+  }
+
+  @Test
+  void missingPomsAreReportedOnTheNode() {
+    var missing = root("missing");
+
+    assertNotNull(missing.getError());
+    assertTrue(missing.getChildren().isEmpty());
+  }
+
+  @Test
+  void ownDependenciesComeBeforeInheritedOnes() throws IOException {
+    install("inherited", "1", dependency("h", "1", null));
+    install("own", "1", dependency("h", "2", null));
+    install("h", "1", "");
+    install("h", "2", "");
+
+    var parent = tempDir.resolve("multi").resolve("pom.xml");
+    Files.createDirectories(parent.getParent().resolve("child"));
+    Files.writeString(parent, """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>multi</artifactId>
+          <version>1.0</version>
+          <packaging>pom</packaging>
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(dependency("inherited", "1", null)));
+    var child = parent.resolveSibling("child").resolve("pom.xml");
+    Files.writeString(child, """
+        <project>
+          <parent><groupId>org.example</groupId><artifactId>multi</artifactId><version>1.0</version></parent>
+          <artifactId>child</artifactId>
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(dependency("own", "1", null)));
+
+    var mavenRepository = new MavenRepository(URI.create("http://127.0.0.1:9/"), repository,
+        new HttpResponseCache(HttpClient.newHttpClient(), tempDir.resolve("cache"), Duration.ofHours(1)));
+    var childTree = new DependencyTreeResolver(new EffectiveModelBuilder(mavenRepository)).resolve(child);
+
+    // h:2 through own and h:1 through inherited are at the same depth; Maven lists own first
+    var selected = childTree.selected().stream().map(DependencyNode::toString).toList();
+    assertEquals(List.of("own", "inherited"), childTree.dependencies().stream().map(DependencyNode::getArtifactId).toList());
+    assertTrue(selected.contains("org.example:h:jar:2:compile"));
+    assertFalse(selected.contains("org.example:h:jar:1:compile"));
+  }
+
+  private List<String> selected() {
+    return tree.selected().stream().map(DependencyNode::toString).toList();
+  }
+
+  private DependencyNode root(String artifactId) {
+    return tree.dependencies().stream()
+        .filter(node -> node.getArtifactId().equals(artifactId))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static String dependency(String artifactId, String version, String scope) {
+    return "<dependency><groupId>org.example</groupId><artifactId>%s</artifactId><version>%s</version>%s</dependency>"
+        .formatted(artifactId, version, scope == null ? "" : "<scope>" + scope + "</scope>");
+  }
+
+  private void install(String artifactId, String version, String dependencies) throws IOException {
+    var file = repository.resolve("org/example").resolve(artifactId).resolve(version)
+        .resolve(artifactId + "-" + version + ".pom");
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>%s</artifactId>
+          <version>%s</version>
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(artifactId, version, dependencies));
+  }
+}
@@ -0,0 +1,113 @@
+package dev.buildcli.core.actions.dependency;
+
+import com.sun.net.httpserver.HttpServer;
+import dev.buildcli.core.model.Pom;
+import dev.buildcli.core.utils.net.HttpResponseCache;
+import dev.buildcli.core.utils.tools.maven.MavenRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DependencyUpdateCheckerTest {
+
+  @TempDir
+  Path tempDir;
+
+  private HttpServer server;
+  private HttpClient client;
+  private final AtomicInteger remoteRequests = new AtomicInteger();
+  private DependencyUpdateChecker checker;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/org/example/lib/maven-metadata.xml", exchange -> {
+      remoteRequests.incrementAndGet();
+      var body = metadata("org.example", "lib", "1.10.0", "1.2.0", "1.9.0", "1.10.0", "2.0.0-RC1")
+          .getBytes(StandardCharsets.UTF_8);
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.start();
+    client = HttpClient.newHttpClient();
+
+    var localRepository = tempDir.resolve("repository");
+    var localArtifact = localRepository.resolve("org/example/local-only");
+    Files.createDirectories(localArtifact);
+    Files.writeString(localArtifact.resolve("maven-metadata-central.xml"),
+        metadata("org.example", "local-only", "3.1.0", "3.0.0", "3.1.0"));
+
+    var repository = new MavenRepository(URI.create("http://127.0.0.1:" + server.getAddress().getPort()),
+        localRepository, new HttpResponseCache(client, tempDir.resolve("cache"), Duration.ofHours(1)));
+    checker = new DependencyUpdateChecker(repository);
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    client.close();
+  }
+
+  @Test
+  void shouldListNewerReleasesInVersionOrder() {
+    var pom = new Pom();
+    pom.addDependency("org.example", "lib", "1.2.0");
+
+    var update = checker.check(pom).getFirst();
+
+    assertTrue(update.hasUpdates());
+    assertEquals(List.of("1.9.0", "1.10.0"), update.newerVersions());
+    assertEquals("1.10.0", update.latestVersion());
+  }
+
+  @Test
+  void shouldUseFreshLocalMetadataWithoutRemoteRequest() {
+    var pom = new Pom();
+    pom.addDependency("org.example", "local-only", "3.0.0");
+
+    var update = checker.check(pom).getFirst();
+
+    assertEquals(List.of("3.1.0"), update.newerVersions());
+    assertEquals(0, remoteRequests.get());
+  }
+
+  @Test
+  void shouldSkipUncheckableVersions() {
+    var pom = new Pom();
+    pom.addDependency("org.example", "lib", "${lib.version}");
+    pom.addDependency("org.example", "missing", "1.0");
+
+    var updates = checker.check(pom);
+
+    assertEquals(2, updates.size());
+    assertTrue(updates.stream().allMatch(DependencyUpdate::isSkipped));
+    assertFalse(updates.stream().anyMatch(DependencyUpdate::hasUpdates));
+  }
+
+  private static String metadata(String groupId, String artifactId, String release, String... versions) {
+    var builder = new StringBuilder("<metadata><groupId>%s</groupId><artifactId>%s</artifactId><versioning>"
+        .formatted(groupId, artifactId));
+    builder.append("<release>").append(release).append("</release><versions>");
+    for (var version : versions) {
+      builder.append("<version>").append(version).append("</version>");
+    }
+    return builder.append("</versions></versioning></metadata>").toString();
+  }
+}
@@ -0,0 +1,100 @@
+package dev.buildcli.core.actions.dependency.index;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtifactIndexStoreTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldImportFromCoordinatesFileAndPersist() throws Exception {
+    var source = tempDir.resolve("artifacts.txt");
+    Files.writeString(source, """
+        # exported index
+        org.projectlombok:lombok:1.18.30
+        info.picocli:picocli:4.7.6
+        not-a-coordinate
+        """);
+
+    var store = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1));
+    assertTrue(store.isStale());
+
+    assertEquals(2, store.importFrom(source.toString()));
+    assertFalse(store.isStale());
+
+    var reloaded = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1)).load();
+    assertEquals(2, reloaded.size());
+    assertEquals("info.picocli:picocli:4.7.6", reloaded.search("picocli", 1).getFirst().coordinates());
+  }
+
+  @Test
+  void shouldImportFromRepositoryLayout() throws Exception {
+    var repository = tempDir.resolve("repository");
+    createPom(repository, "org/apache/commons", "commons-lang3", "3.12.0");
+    createPom(repository, "org/apache/commons", "commons-lang3", "3.14.0");
+    createPom(repository, "info/picocli", "picocli", "4.7.6");
+
+    var store = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1));
+    store.importFrom(repository.toString());
+
+    var results = store.load().search("commons-lang3", 5);
+    assertEquals(1, results.size());
+    assertEquals("org.apache.commons:commons-lang3:3.14.0", results.getFirst().coordinates());
+  }
+
+  @Test
+  void shouldBeStaleWhenOlderThanTtl() throws Exception {
+    var store = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ZERO);
+    store.merge(List.of(IndexedArtifact.parse("info.picocli:picocli:4.7.6")));
+
+    Thread.sleep(5);
+    assertTrue(store.isStale());
+  }
+
+  @Test
+  void shouldNotBecomeFreshByMergingSearchResults() throws Exception {
+    var source = tempDir.resolve("artifacts.txt");
+    Files.writeString(source, "org.projectlombok:lombok:1.18.30\n");
+
+    var store = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1));
+    store.merge(List.of(IndexedArtifact.parse("info.picocli:picocli:4.7.6")));
+    assertTrue(store.isStale());
+
+    store.importFrom(source.toString());
+    var refreshed = store.lastRefreshed().orElseThrow();
+    store.merge(List.of(IndexedArtifact.parse("info.picocli:picocli:4.7.7")));
+
+    assertEquals(refreshed, new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1)).lastRefreshed().orElseThrow());
+  }
+
+  @Test
+  void shouldBeFreshForTheTtlAfterAMerge() throws Exception {
+    var store = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ofHours(1));
+    assertTrue(store.isMergeStale());
+
+    store.merge(List.of(IndexedArtifact.parse("info.picocli:picocli:4.7.6")));
+    assertFalse(store.isMergeStale());
+
+    var expired = new ArtifactIndexStore(tempDir.resolve("index"), Duration.ZERO);
+    Thread.sleep(5);
+    assertTrue(expired.isMergeStale());
+  }
+
+  private static void createPom(Path repository, String groupPath, String artifactId, String version) throws IOException {
+    var dir = repository.resolve(groupPath).resolve(artifactId).resolve(version);
+    Files.createDirectories(dir);
+    Files.writeString(dir.resolve(artifactId + "-" + version + ".pom"), "<project/>");
+  }
+}
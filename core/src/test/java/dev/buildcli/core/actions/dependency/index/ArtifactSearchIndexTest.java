@@ -0,0 +1,61 @@
+package dev.buildcli.core.actions.dependency.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ArtifactSearchIndexTest {
+
+  private ArtifactSearchIndex index;
+
+  @BeforeEach
+  void setUp() {
+    index = new ArtifactSearchIndex();
+    index.add(new IndexedArtifact("com.fasterxml.jackson.core", "jackson-databind", "2.17.0"));
+    index.add(new IndexedArtifact("com.fasterxml.jackson.core", "jackson-core", "2.17.0"));
+    index.add(new IndexedArtifact("org.springframework.boot", "spring-boot-starter", "3.2.0"));
+    index.add(new IndexedArtifact("org.springframework.boot", "spring-boot-starter-web", "3.2.0"));
+    index.add(new IndexedArtifact("org.projectlombok", "lombok", "1.18.30"));
+  }
+
+  @Test
+  void shouldFindByArtifactIdPrefix() {
+    var results = index.prefixSearch("spring-boot-st", 10);
+
+    assertEquals(2, results.size());
+    assertEquals("spring-boot-starter", results.getFirst().artifactId());
+  }
+
+  @Test
+  void shouldFindByCoordinatesPrefix() {
+    var results = index.prefixSearch("com.fasterxml.jackson.core:jackson-d", 10);
+
+    assertEquals(1, results.size());
+    assertEquals("jackson-databind", results.getFirst().artifactId());
+  }
+
+  @Test
+  void shouldRankExactArtifactIdFirst() {
+    var results = index.search("spring-boot-starter", 10);
+
+    assertEquals("org.springframework.boot:spring-boot-starter:3.2.0", results.getFirst().coordinates());
+  }
+
+  @Test
+  void shouldTolerateTyposWithFuzzySearch() {
+    var results = index.search("jakson-databind", 10);
+
+    assertTrue(results.stream().anyMatch(a -> a.artifactId().equals("jackson-databind")));
+  }
+
+  @Test
+  void shouldKeepNewestVersionForSameArtifact() {
+    index.add(new IndexedArtifact("org.projectlombok", "lombok", "1.18.2"));
+    index.add(new IndexedArtifact("org.projectlombok", "lombok", "1.18.32"));
+
+    assertEquals(5, index.size());
+    assertEquals("1.18.32", index.prefixSearch("lombok", 1).getFirst().latestVersion());
+  }
+}
@@ -74,4 +74,14 @@ public class DependencyTest {
     Assertions.assertEquals("test", dependency.getScope());
     Assertions.assertEquals("false", dependency.getOptional());
   }
-}
\ No newline at end of file
+
+  @Test
+  void testIdentityIgnoresVersionAndScope() {
+    Dependency first = new Dependency("org.demo", "demo-lib", "1.0.0", null, "test", null);
+    Dependency second = new Dependency("org.demo", "demo-lib", "2.0.0");
+
+    Assertions.assertEquals("org.demo:demo-lib", first.getKey());
+    Assertions.assertEquals(first.getKey(), second.getKey());
+    Assertions.assertNotEquals(first.getKey(), new Dependency("org.demo", "other-lib", "1.0.0").getKey());
+  }
+}
@@ -1,5 +1,7 @@
 package dev.buildcli.core.model;
 
+import dev.buildcli.core.utils.tools.maven.PomReader;
+import java.util.NoSuchElementException;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -193,4 +195,48 @@ public final class PomTest {
     Assertions.assertTrue(str.contains("com.to:string-lib:1.0"),
         "toString() should include the new dependency");
   }
+
+  /**
+   * Tests that re-adding an existing groupId:artifactId updates its version
+   * in place instead of appending a duplicate.
+   */
+  @Test
+  void testAddExistingDependencyUpdatesVersion() {
+    Pom pom = new Pom();
+    pom.addDependency("com.first", "a", "1.0");
+    pom.addDependency("com.second", "b", "1.0");
+    pom.addDependency("com.first", "a", "2.0");
+
+    Assertions.assertEquals(2, pom.countDependencies(),
+        "Re-adding the same artifact should not create a duplicate");
+    Assertions.assertEquals("com.first", pom.getDependencies().get(0).getGroupId(),
+        "Declaration order should be preserved");
+    Assertions.assertEquals("2.0", pom.getDependency(new Dependency("com.first", "a", null)).getVersion(),
+        "Version should be updated in place");
+  }
+
+  /**
+   * Tests getDependency(Dependency) fails for an artifact that is not declared.
+   */
+  @Test
+  void testGetDependencyNotPresent() {
+    Pom pom = new Pom();
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> pom.getDependency(new Dependency("com.none", "missing", "1.0")));
+  }
+
+  /**
+   * Tests that dependencies read from a pom file are indexed and can be looked up.
+   */
+  @Test
+  void testUnmarshalledPomIsIndexed() {
+    Pom pom = PomReader.read("src/test/resources/pom-utils-test/pom.xml");
+
+    Assertions.assertTrue(pom.hasDependency("com.foo", "bar-lib"),
+        "Dependencies read from the file should be indexed");
+    Assertions.assertEquals("1.2.3", pom.getDependency(new Dependency("com.foo", "bar-lib", null)).getVersion());
+
+    pom.rmDependency("com.foo:bar-lib");
+    Assertions.assertEquals(0, pom.countDependencies());
+  }
 }
@@ -0,0 +1,105 @@
+package dev.buildcli.core.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryCleanupTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void movesDirectoryToTrashAtomically() throws IOException {
+    var target = createTree(root.resolve("target"));
+
+    var trash = DirectoryCleanup.moveToTrash(target).orElseThrow();
+
+    assertFalse(Files.exists(target));
+    assertTrue(Files.isRegularFile(trash.resolve("classes/File0.class")));
+    assertEquals(List.of(trash), DirectoryCleanup.findTrash(root));
+  }
+
+  @Test
+  void deletesTreeInParallel() throws IOException {
+    var target = createTree(root.resolve("target"));
+
+    var progress = new LongAdder();
+    var report = DirectoryCleanup.deleteAsync(target, progress).join();
+
+    assertTrue(report.isSuccessful());
+    assertFalse(Files.exists(target));
+    // 3 directories with 20 files each, the 2 subdirectories and the root
+    assertEquals(63, report.deleted());
+    assertEquals(63, progress.sum());
+  }
+
+  @Test
+  void reportsCountEachDeleteOnly() throws IOException {
+    var first = createTree(root.resolve("a/target"));
+    var second = createTree(root.resolve("b/target"));
+
+    var progress = new LongAdder();
+    var reports = List.of(DirectoryCleanup.deleteAsync(first, progress), DirectoryCleanup.deleteAsync(second, progress));
+
+    assertEquals(List.of(63L, 63L), reports.stream().map(report -> report.join().deleted()).toList());
+    assertEquals(126, progress.sum());
+  }
+
+  @Test
+  void removesSymbolicLinksWithoutFollowingThem() throws IOException {
+    var outside = Files.createDirectories(root.resolve("outside"));
+    Files.writeString(outside.resolve("keep.txt"), "keep");
+    var target = Files.createDirectories(root.resolve("target"));
+    try {
+      Files.createSymbolicLink(target.resolve("link"), outside);
+    } catch (UnsupportedOperationException | IOException e) {
+      return; // no symlink support on this file system
+    }
+
+    assertTrue(DirectoryCleanup.delete(target, new LongAdder()).isSuccessful());
+
+    assertFalse(Files.exists(target));
+    assertTrue(Files.exists(outside.resolve("keep.txt")));
+  }
+
+  @Test
+  void cleanupDeletesSingleFiles() throws IOException {
+    var archive = Files.writeString(root.resolve("maven.zip"), "zip");
+
+    DirectoryCleanup.cleanup(archive.toString());
+
+    assertFalse(Files.exists(archive));
+    assertEquals(List.of(), DirectoryCleanup.findTrash(root));
+  }
+
+  @Test
+  void findsTargetsOfEveryModule() throws IOException {
+    Files.writeString(root.resolve("pom.xml"), "<project/>");
+    Files.createDirectories(root.resolve("target"));
+    Files.createDirectories(root.resolve("core"));
+    Files.writeString(root.resolve("core/pom.xml"), "<project/>");
+    Files.createDirectories(root.resolve("core/target"));
+    Files.createDirectories(root.resolve("cli"));
+    Files.writeString(root.resolve("cli/pom.xml"), "<project/>");
+
+    assertEquals(List.of(root.resolve("core/target"), root.resolve("target")),
+        DirectoryCleanup.findTargets(root).stream().sorted().toList());
+  }
+
+  private static Path createTree(Path target) throws IOException {
+    for (var directory : List.of(target, target.resolve("classes"), target.resolve("test-classes"))) {
+      Files.createDirectories(directory);
+      for (int i = 0; i < 20; i++) {
+        Files.writeString(directory.resolve("File" + i + ".class"), "class");
+      }
+    }
+    return target;
+  }
+}
@@ -0,0 +1,132 @@
+package dev.buildcli.core.utils.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SourceChunkerTest {
+
+  @Test
+  void keepsSmallSourcesWhole() {
+    var source = "package a;\n\nclass A {}\n";
+
+    var chunks = SourceChunker.split("A.java", source, 1024);
+
+    assertEquals(1, chunks.size());
+    assertEquals(source, chunks.getFirst().text());
+  }
+
+  @Test
+  void splitsLargeClassesBetweenMembers() {
+    var source = javaClass(30);
+
+    var chunks = SourceChunker.split("Calculator.java", source, 500);
+
+    assertTrue(chunks.size() > 5);
+    assertEquals(source, join(chunks));
+    for (var chunk : chunks) {
+      assertTrue(chunk.text().length() <= 500, chunk.text());
+    }
+    // no chunk ends inside a method: every method opened in a chunk is closed in it
+    for (var chunk : chunks.subList(1, chunks.size() - 1)) {
+      assertEquals(count(chunk.text(), '{'), count(chunk.text(), '}'), chunk.text());
+    }
+    assertTrue(chunks.getFirst().text().contains("public class Calculator {"));
+    assertTrue(chunks.getLast().text().endsWith("  }\n}\n"));
+  }
+
+  @Test
+  void ignoresBracesInCommentsAndLiterals() {
+    var method = """
+
+          /** Returns "}" when { is unbalanced. */
+          String brace(char c) {
+            // }
+            return c == '{' ? "}" : \"""
+                {{
+                \""";
+          }
+        """;
+    var source = "class Braces {\n" + method.repeat(12) + "}\n";
+
+    var chunks = SourceChunker.split("Braces.java", source, 400);
+
+    assertEquals(source, join(chunks));
+    for (var chunk : chunks.subList(1, chunks.size() - 1)) {
+      assertTrue(chunk.text().strip().startsWith("/** Returns"), chunk.text());
+      assertTrue(chunk.text().strip().endsWith("}"), chunk.text());
+    }
+  }
+
+  @Test
+  void splitsKotlinDeclarationsWithoutBraces() {
+    var members = new StringBuilder();
+    for (int i = 0; i < 20; i++) {
+      members.append("\n  @JvmStatic\n  fun twice").append(i).append("(value: Int): Int = value * 2 + ").append(i).append('\n');
+      members.append("  val constant").append(i).append(" = listOf(").append(i).append(", ").append(i + 1).append(")\n");
+    }
+    var source = "package calc\n\nobject Calculator {" + members + "}\n";
+
+    var chunks = SourceChunker.split("Calculator.kt", source, 300);
+
+    assertTrue(chunks.size() > 3);
+    assertEquals(source, join(chunks));
+    for (var chunk : chunks) {
+      assertFalse(chunk.text().strip().endsWith("@JvmStatic"), chunk.text());
+    }
+  }
+
+  @Test
+  void splicesDocumentedChunksAndKeepsChangedOnes() {
+    var source = javaClass(10);
+    var chunks = SourceChunker.split("Calculator.java", source, 300);
+    var answers = new ArrayList<String>();
+    for (var chunk : chunks) {
+      answers.add(null);
+    }
+    var documented = chunks.get(1).text().replace("public int add", "/** Adds. */\n  public int add");
+    answers.set(1, "  " + documented.strip() + "\n");
+    answers.set(2, chunks.get(2).text().replace("a + b", "a - b"));
+
+    var result = SourceChunker.splice(chunks, answers);
+
+    assertTrue(result.contains("/** Adds. */"));
+    assertFalse(result.contains("a - b"));
+    assertTrue(SourceChunker.sameCode(source, result));
+    assertEquals(source, result.replace("/** Adds. */\n  ", ""));
+  }
+
+  @Test
+  void onlyDocumentsDeclarations() {
+    var source = "package a;\n\nimport java.util.List;\n" + javaClass(10).substring("package calc;\n".length());
+
+    var chunks = SourceChunker.split("Calculator.java", source, 60);
+
+    assertFalse(chunks.getFirst().documentable());
+    assertTrue(chunks.get(chunks.size() - 2).documentable());
+  }
+
+  private static String javaClass(int methods) {
+    var source = new StringBuilder("package calc;\n\n/** Calculator. */\npublic class Calculator {\n");
+    source.append("  private final int[] seeds = {1, 2, 3};\n");
+    for (int i = 0; i < methods; i++) {
+      source.append("\n  public int add").append(i).append("(int a, int b) {\n")
+          .append("    Runnable log = () -> { System.out.println(a); };\n")
+          .append("    return a + b + ").append(i).append(";\n  }\n");
+    }
+    return source.append("}\n").toString();
+  }
+
+  private static String join(List<SourceChunker.Chunk> chunks) {
+    var joined = new StringBuilder();
+    chunks.forEach(chunk -> joined.append(chunk.text()));
+    return joined.toString();
+  }
+
+  private static long count(String text, char character) {
+    return text.chars().filter(c -> c == character).count();
+  }
+}
@@ -0,0 +1,74 @@
+package dev.buildcli.core.utils.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderedPrefetchTest {
+  private final Map<Integer, CompletableFuture<String>> started = new ConcurrentHashMap<>();
+
+  @Test
+  void reviewsInOrderWhateverOrderTheResultsArriveIn() {
+    var reviewed = new ArrayList<String>();
+
+    var count = OrderedPrefetch.review(List.of(1, 2, 3, 4), 3,
+        item -> CompletableFuture.supplyAsync(() -> "result " + item,
+            CompletableFuture.delayedExecutor(50L * (5 - item), TimeUnit.MILLISECONDS)),
+        (item, result, failure) -> reviewed.add(result));
+
+    assertEquals(4, count);
+    assertEquals(List.of("result 1", "result 2", "result 3", "result 4"), reviewed);
+  }
+
+  @Test
+  void keepsTheWorkForTheNextItemsRunningAhead() {
+    var startedBeforeReview = new ArrayList<Integer>();
+
+    OrderedPrefetch.review(List.of(1, 2, 3, 4, 5), 2, this::start, (item, result, failure) -> {
+      startedBeforeReview.add(started.size());
+      return true;
+    });
+
+    assertEquals(List.of(3, 4, 5, 5, 5), startedBeforeReview);
+  }
+
+  @Test
+  void cancelsTheWorkAheadWhenTheReviewStops() {
+    var pending = new ArrayList<CompletableFuture<String>>();
+
+    var count = OrderedPrefetch.review(List.of(1, 2, 3, 4, 5), 2, item -> {
+      if (item == 1) {
+        return start(item);
+      }
+      var future = new CompletableFuture<String>();
+      pending.add(future);
+      return future;
+    }, (item, result, failure) -> false);
+
+    assertEquals(1, count);
+    assertEquals(2, pending.size());
+    assertTrue(pending.stream().allMatch(CompletableFuture::isCancelled));
+  }
+
+  @Test
+  void reportsFailuresToTheReviewer() {
+    var failures = new ArrayList<String>();
+
+    OrderedPrefetch.review(List.of(1, 2), 1,
+        item -> item == 1 ? CompletableFuture.failedFuture(new IllegalStateException("model busy")) : start(item),
+        (item, result, failure) -> failures.add(failure == null ? result : failure.getMessage()));
+
+    assertEquals(List.of("model busy", "result 2"), failures);
+  }
+
+  private CompletableFuture<String> start(int item) {
+    return started.computeIfAbsent(item, key -> CompletableFuture.completedFuture("result " + key));
+  }
+}
@@ -0,0 +1,154 @@
+package dev.buildcli.core.utils.compress;
+
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.gzip.GzipCompressorOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FileExtractorTest {
+  @TempDir
+  Path root;
+
+  @Test
+  void extractsZipEntriesInParallel() throws IOException {
+    var entries = new LinkedHashMap<String, String>();
+    for (int i = 0; i < 50; i++) {
+      entries.put("maven/lib/lib" + i + ".jar", "jar " + i);
+    }
+    entries.put("maven/bin/mvn", "#!/bin/sh");
+    var archive = zip(entries, Map.of("maven/bin/mvn", 0755));
+
+    new FileExtractor.ZipFileExtractor(4).extract(archive.toString(), root.resolve("out").toString());
+
+    entries.forEach((name, content) -> assertContent(content, root.resolve("out").resolve(name)));
+  }
+
+  @Test
+  void keepsExecutableBitsOfZipEntries() throws IOException {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("posix"));
+    var archive = zip(Map.of("bin/mvn", "#!/bin/sh", "conf/settings.xml", "<settings/>"), Map.of("bin/mvn", 0755, "conf/settings.xml", 0644));
+
+    FileExtractor.extractFile(archive.toString(), root.resolve("out").toString());
+
+    assertTrue(Files.isExecutable(root.resolve("out/bin/mvn")));
+    assertFalse(Files.isExecutable(root.resolve("out/conf/settings.xml")));
+  }
+
+  @Test
+  void extractsTarGzWithModesAndLinks() throws IOException {
+    var archive = root.resolve("gradle.tar.gz");
+    try (var tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+      var launcher = "#!/bin/sh".getBytes(StandardCharsets.UTF_8);
+      var entry = new TarArchiveEntry("gradle/bin/gradle");
+      entry.setSize(launcher.length);
+      entry.setMode(0100755);
+      tar.putArchiveEntry(entry);
+      tar.write(launcher);
+      tar.closeArchiveEntry();
+
+      var link = new TarArchiveEntry("gradle/gradle", TarArchiveEntry.LF_SYMLINK);
+      link.setLinkName("bin/gradle");
+      tar.putArchiveEntry(link);
+      tar.closeArchiveEntry();
+    }
+
+    FileExtractor.extractFile(archive.toString(), root.resolve("out").toString());
+
+    assertContent("#!/bin/sh", root.resolve("out/gradle/bin/gradle"));
+    assertContent("#!/bin/sh", root.resolve("out/gradle/gradle"));
+    if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+      assertTrue(Files.isExecutable(root.resolve("out/gradle/bin/gradle")));
+    }
+  }
+
+  @Test
+  void rejectsEntriesOutsideTheTargetDirectory() throws IOException {
+    var archive = zip(Map.of("../evil.sh", "rm -rf ~"), Map.of());
+
+    var exception = assertThrows(IOException.class,
+        () -> FileExtractor.extractFile(archive.toString(), root.resolve("out").toString()));
+
+    assertTrue(exception.getMessage().contains("outside of the target directory"));
+    assertFalse(Files.exists(root.resolve("evil.sh")));
+  }
+
+  @Test
+  void rejectsTarLinksOutsideTheTargetDirectory() throws IOException {
+    var archive = root.resolve("evil.tar.gz");
+    try (var tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      var link = new TarArchiveEntry("passwd", TarArchiveEntry.LF_SYMLINK);
+      link.setLinkName("../../etc/passwd");
+      tar.putArchiveEntry(link);
+      tar.closeArchiveEntry();
+    }
+
+    assertThrows(IOException.class, () -> FileExtractor.extractFile(archive.toString(), root.resolve("out").toString()));
+  }
+
+  @Test
+  void doesNotWriteThroughLinksOfTheSameArchive() throws IOException {
+    Files.createDirectories(root.resolve("victim"));
+    var archive = root.resolve("evil.tar.gz");
+    try (var tar = new TarArchiveOutputStream(new GzipCompressorOutputStream(Files.newOutputStream(archive)))) {
+      var up = new TarArchiveEntry("up", TarArchiveEntry.LF_SYMLINK);
+      up.setLinkName(".");
+      tar.putArchiveEntry(up);
+      tar.closeArchiveEntry();
+
+      var x = new TarArchiveEntry("up/up/up/x", TarArchiveEntry.LF_SYMLINK);
+      x.setLinkName("../../victim");
+      tar.putArchiveEntry(x);
+      tar.closeArchiveEntry();
+
+      var content = "owned".getBytes(StandardCharsets.UTF_8);
+      var owned = new TarArchiveEntry("x/owned.txt");
+      owned.setSize(content.length);
+      tar.putArchiveEntry(owned);
+      tar.write(content);
+      tar.closeArchiveEntry();
+    }
+
+    assertThrows(IOException.class, () -> FileExtractor.extractFile(archive.toString(), root.resolve("out/target").toString()));
+    assertFalse(Files.exists(root.resolve("victim/owned.txt")));
+    assertFalse(Files.exists(root.resolve("out/victim/owned.txt")));
+  }
+
+  private Path zip(Map<String, String> entries, Map<String, Integer> modes) throws IOException {
+    var archive = root.resolve("archive.zip");
+    try (var zip = new ZipArchiveOutputStream(Files.newOutputStream(archive))) {
+      for (var entry : entries.entrySet()) {
+        var zipEntry = new ZipArchiveEntry(entry.getKey());
+        if (modes.containsKey(entry.getKey())) {
+          zipEntry.setUnixMode(0100000 | modes.get(entry.getKey()));
+        }
+        zip.putArchiveEntry(zipEntry);
+        zip.write(entry.getValue().getBytes(StandardCharsets.UTF_8));
+        zip.closeArchiveEntry();
+      }
+    }
+    return archive;
+  }
+
+  private static void assertContent(String expected, Path file) {
+    try {
+      assertEquals(expected, Files.readString(file));
+    } catch (IOException e) {
+      fail("Could not read " + file + ": " + e.getMessage());
+    }
+  }
+}
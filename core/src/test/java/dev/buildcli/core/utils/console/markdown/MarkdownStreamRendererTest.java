@@ -0,0 +1,86 @@
+package dev.buildcli.core.utils.console.markdown;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MarkdownStreamRendererTest {
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+  private final MarkdownStreamRenderer renderer = new MarkdownStreamRenderer(new PrintStream(output, true, StandardCharsets.UTF_8));
+
+  @Test
+  void rendersLikeTheInterpreterWhenStreamedCharacterByCharacter() {
+    var markdown = """
+        # Tests for **Calculator**
+
+        Covers `add` and *subtract*.
+        - happy path
+        - ~~overflow~~
+        > generated, review before merging
+        """;
+
+    markdown.chars().forEach(c -> renderer.accept(String.valueOf((char) c)));
+    renderer.finish();
+
+    assertEquals(new MarkdownInterpreter().interpret(markdown), rendered());
+  }
+
+  @Test
+  void rendersCompleteLinesBeforeTheResponseEnds() {
+    renderer.accept("# Calculator");
+    assertEquals("", rendered());
+
+    renderer.accept("Test\nThe tests cov");
+    assertTrue(plain().contains("CalculatorTest"));
+    assertFalse(plain().contains("The tests"));
+
+    renderer.finish();
+    assertTrue(plain().contains("The tests cov"));
+  }
+
+  @Test
+  void highlightsCodeBlocksLineByLine() {
+    renderer.accept("```java\nclass CalculatorTest {\n");
+    assertTrue(plain().contains("│ class CalculatorTest {"));
+
+    renderer.accept("}\n```\n");
+    renderer.finish();
+    assertTrue(plain().contains("java"));
+    assertTrue(plain().contains("└─"));
+  }
+
+  @Test
+  void flushesLongLinesAtWordBoundaries() {
+    var sentence = "The generated tests cover addition, subtraction and division by zero. ".repeat(4);
+
+    for (var word : sentence.split("(?<= )")) {
+      renderer.accept(word);
+    }
+    assertFalse(plain().isEmpty());
+
+    renderer.finish();
+    assertEquals(sentence.strip(), plain().strip());
+  }
+
+  @Test
+  void keepsOpenInlineMarkupTogether() {
+    renderer.accept("`" + "x ".repeat(80));
+    assertEquals("", rendered());
+
+    renderer.accept("`\n");
+    renderer.finish();
+    assertEquals(new MarkdownInterpreter().interpret("`" + "x ".repeat(80) + "`"), rendered());
+  }
+
+  private String rendered() {
+    return output.toString(StandardCharsets.UTF_8);
+  }
+
+  private String plain() {
+    return rendered().replaceAll("\u001B\\[[;\\d]*m", "");
+  }
+}
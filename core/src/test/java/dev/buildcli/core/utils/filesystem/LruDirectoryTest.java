@@ -0,0 +1,54 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LruDirectoryTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void evictsTheLeastRecentlyUsedEntriesFirst() throws IOException {
+    var oldest = write("a/oldest", 10, 1_000);
+    var kept = write("a/kept", 10, 2_000);
+    var touched = write("b/touched", 10, 3_000);
+    var newest = write("b/newest", 10, 4_000);
+    write("b/.lock", 100, 0);
+    var lru = new LruDirectory(directory, 2, file -> !file.getFileName().toString().startsWith("."));
+
+    LruDirectory.touch(touched);
+    var left = lru.evict(20, kept::equals);
+
+    assertEquals(20, left);
+    assertFalse(Files.exists(oldest));
+    assertTrue(Files.exists(kept));
+    assertTrue(Files.exists(touched));
+    assertFalse(Files.exists(newest));
+    assertEquals(List.of(kept, touched), lru.entries().stream().sorted().toList());
+    assertEquals(20, lru.size());
+  }
+
+  @Test
+  void missingDirectoryHasNoEntries() {
+    var lru = new LruDirectory(directory.resolve("missing"), 2, file -> true);
+
+    assertTrue(lru.entries().isEmpty());
+    assertEquals(0, lru.evict(0, file -> false));
+  }
+
+  private Path write(String path, int size, long lastUsed) throws IOException {
+    var file = directory.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.write(file, new byte[size]);
+    Files.setLastModifiedTime(file, FileTime.fromMillis(lastUsed));
+    return file;
+  }
+}
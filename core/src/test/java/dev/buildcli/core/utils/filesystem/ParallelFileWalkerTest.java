@@ -0,0 +1,145 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelFileWalkerTest {
+  @TempDir
+  Path root;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    Files.createDirectories(root.resolve(".git"));
+    write(".gitignore", """
+        # build output of the docs site
+        site/
+        *.log
+        !keep.log
+        /generated
+        """);
+    write("src/main/java/App.java");
+    write("src/main/java/App.kt");
+    write("src/main/resources/app.log");
+    write("src/main/resources/keep.log");
+    write("src/main/generated/Kept.java"); // "/generated" is anchored to the root
+    write("generated/Gen.java");
+    write("site/Page.java");
+    write("docs/site");                     // "site/" only matches directories
+    write("module/.gitignore", "*.tmp.java\n");
+    write("module/src/Mod.java");
+    write("module/src/Scratch.tmp.java");
+    write("pom.xml");
+    write("target/classes/App.java");
+    write("target/app.jar");
+    write("node_modules/lib/index.java");
+    write("archive.tar.gz");
+  }
+
+  @Test
+  void skipsBuildOutputAndIgnoredFiles() {
+    var found = relative(new ParallelFileWalker().find(root, path -> true));
+
+    assertEquals(List.of(".gitignore", "archive.tar.gz", "docs/site", "module/.gitignore", "module/src/Mod.java",
+        "pom.xml", "src/main/generated/Kept.java", "src/main/java/App.java", "src/main/java/App.kt",
+        "src/main/resources/keep.log"), found);
+  }
+
+  @Test
+  void skipsBuildOutputOnlyUnderModuleRoots() throws IOException {
+    write("src/main/java/com/acme/build/Tool.java");
+    write("out/pom.xml");
+    write("out/src/Out.java");
+    write("out/target/Out.class");
+    write("lib/build.gradle.kts");
+    write("lib/build/Lib.class");
+    write("docs/out/index.html");
+
+    var found = relative(new ParallelFileWalker().find(root, path -> true));
+
+    assertTrue(found.contains("src/main/java/com/acme/build/Tool.java"));
+    assertTrue(found.contains("out/src/Out.java"));
+    assertTrue(found.contains("docs/out/index.html"));
+    assertFalse(found.contains("out/target/Out.class"));
+    assertFalse(found.contains("lib/build/Lib.class"));
+    assertFalse(found.contains("target/app.jar"));
+  }
+
+  @Test
+  void appliesGitIgnoreOfEnclosingRepository() {
+    var found = relative(new ParallelFileWalker().find(root.resolve("src"), path -> true));
+
+    assertFalse(found.contains("src/main/resources/app.log"));
+    assertTrue(found.contains("src/main/resources/keep.log"));
+  }
+
+  @Test
+  void appliesConfiguredExcludes() {
+    var walker = new ParallelFileWalker(ParallelFileWalker.DEFAULT_SKIPPED_DIRECTORIES,
+        ParallelFileWalker.DEFAULT_BUILD_OUTPUT_DIRECTORIES, true, List.of("**/resources/**", "module"));
+
+    assertEquals(List.of("src/main/generated/Kept.java", "src/main/java/App.java"),
+        relative(walker.find(root, ParallelFileWalker.withExtensions("java"))));
+  }
+
+  @Test
+  void matchesExtensions() {
+    var walker = new ParallelFileWalker(Set.of(), false, List.of());
+
+    assertEquals(List.of("archive.tar.gz"), relative(walker.find(root, ParallelFileWalker.withExtensions(".tar.gz"))));
+    assertEquals(List.of("src/main/java/App.kt"), relative(walker.find(root, ParallelFileWalker.withExtensions("kt"))));
+    assertEquals(walker.find(root, path -> true), walker.find(root, ParallelFileWalker.withExtensions("all")));
+  }
+
+  @Test
+  void unfilteredWalkerFindsJarsInTarget() {
+    assertEquals(List.of("target/app.jar"),
+        relative(ParallelFileWalker.unfiltered().find(root, ParallelFileWalker.withExtensions("jar"))));
+  }
+
+  @Test
+  void streamYieldsTheSameFilesAsFind() {
+    var walker = new ParallelFileWalker();
+
+    try (var stream = walker.stream(root, ParallelFileWalker.withExtensions("java"))) {
+      assertEquals(walker.find(root, ParallelFileWalker.withExtensions("java")), stream.sorted().toList());
+    }
+  }
+
+  @Test
+  void streamCanBeAbandonedEarly() {
+    try (var stream = new ParallelFileWalker().stream(root, path -> true)) {
+      assertEquals(1, stream.limit(1).count());
+    }
+  }
+
+  @Test
+  void singleFileRootIsReturnedWhenItMatches() {
+    var file = root.resolve("src/main/java/App.java");
+
+    assertEquals(List.of(file), new ParallelFileWalker().find(file, ParallelFileWalker.withExtensions("java")));
+    assertEquals(List.of(), new ParallelFileWalker().find(file, ParallelFileWalker.withExtensions("kt")));
+  }
+
+  private List<String> relative(List<Path> paths) {
+    return paths.stream().map(path -> root.relativize(path).toString().replace('\\', '/')).toList();
+  }
+
+  private void write(String path) throws IOException {
+    write(path, "");
+  }
+
+  private void write(String path, String content) throws IOException {
+    var file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+}
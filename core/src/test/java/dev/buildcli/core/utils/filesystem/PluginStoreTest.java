@@ -0,0 +1,110 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PluginStoreTest {
+  @TempDir
+  Path plugins;
+
+  @TempDir
+  Path sources;
+
+  @Test
+  void installsIntoVersionedDirectory() throws IOException {
+    var store = new PluginStore(plugins);
+
+    var version = store.install(jar("hello-plugin.jar", "v1"));
+
+    assertTrue(version.startsWith(plugins.resolve(".versions/hello-plugin")));
+    assertEquals("v1", Files.readString(version));
+    assertTrue(store.isInstalled("hello-plugin"));
+    assertEquals(List.of("v1"), contents(store.jars()));
+  }
+
+  @Test
+  void newVersionNeverOverwritesTheActiveFile() throws IOException {
+    var store = new PluginStore(plugins);
+    var first = store.install(jar("hello-plugin.jar", "v1"));
+
+    try (var inUse = Files.newInputStream(store.jars().getFirst())) {
+      var second = store.install(jar("hello-plugin.jar", "v2"));
+
+      assertNotEquals(first, second);
+      assertEquals("v1", new String(inUse.readAllBytes()));
+    }
+
+    assertEquals(List.of("v2"), contents(store.jars()));
+  }
+
+  @Test
+  void reinstallingTheSameJarIsANoOp() throws IOException {
+    var store = new PluginStore(plugins);
+
+    var first = store.install(jar("hello-plugin.jar", "v1"));
+    var second = store.install(jar("hello-plugin.jar", "v1"));
+
+    assertEquals(first, second);
+    assertEquals(1, store.jars().size());
+  }
+
+  @Test
+  void replacesPlainJarsAndKeepsLoadingOthers() throws IOException {
+    Files.writeString(plugins.resolve("hello-plugin.jar"), "old");
+    Files.createDirectories(plugins.resolve("team"));
+    Files.writeString(plugins.resolve("team/other-plugin.jar"), "other");
+    var store = new PluginStore(plugins);
+
+    store.install(jar("hello-plugin.jar", "new"));
+
+    assertEquals(List.of("new", "other"), contents(store.jars()).stream().sorted().toList());
+  }
+
+  @Test
+  void resolvesPointerFiles() throws IOException {
+    var version = plugins.resolve(".versions/hello-plugin/abc.jar");
+    Files.createDirectories(version.getParent());
+    Files.writeString(version, "pointed");
+    Files.writeString(plugins.resolve("hello-plugin.plugin"), ".versions/hello-plugin/abc.jar");
+    Files.writeString(plugins.resolve("escape.plugin"), "../outside.jar");
+
+    var store = new PluginStore(plugins);
+
+    assertEquals(List.of(version), store.jars());
+    assertTrue(store.isInstalled("hello-plugin"));
+  }
+
+  @Test
+  void removeDeletesLinkAndVersions() throws IOException {
+    var store = new PluginStore(plugins);
+    store.install(jar("hello-plugin.jar", "v1"));
+
+    assertTrue(store.remove("hello-plugin"));
+
+    assertFalse(store.isInstalled("hello-plugin"));
+    assertEquals(List.of(), store.jars());
+    assertFalse(Files.exists(plugins.resolve(".versions/hello-plugin")));
+    assertFalse(store.remove("hello-plugin"));
+  }
+
+  private Path jar(String name, String content) throws IOException {
+    return Files.writeString(sources.resolve(name), content);
+  }
+
+  private static List<String> contents(List<Path> jars) {
+    return jars.stream().map(jar -> {
+      try {
+        return Files.readString(jar);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }).toList();
+  }
+}
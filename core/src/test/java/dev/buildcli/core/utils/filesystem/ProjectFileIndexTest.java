@@ -0,0 +1,174 @@
+package dev.buildcli.core.utils.filesystem;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectFileIndexTest {
+  @TempDir
+  Path root;
+
+  @TempDir
+  Path cache;
+
+  private ProjectFileIndex index;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    write("pom.xml", "<project/>");
+    write("src/main/java/App.java", "class App {}");
+    write("target/classes/App.class", "compiled");
+    index = new ProjectFileIndex(root, cache.resolve("project.idx"), new ParallelFileWalker());
+  }
+
+  @Test
+  void firstRefreshAddsEverySourceFile() {
+    var changes = index.refresh();
+
+    assertEquals(List.of("src/main/java/App.java"), changes.added());
+    assertTrue(changes.modified().isEmpty());
+    assertTrue(changes.removed().isEmpty());
+    assertEquals(ProjectFileIndex.sha256("class App {}".getBytes()),
+        index.entry(root.resolve("src/main/java/App.java")).orElseThrow().hash());
+    assertTrue(index.entry(root.resolve("pom.xml")).isEmpty());
+  }
+
+  @Test
+  void refreshReportsWhatChangedSinceTheLastRun() throws IOException {
+    write("src/main/java/Old.java", "class Old {}");
+    index.refresh();
+    write("src/main/java/App.java", "class App { int x; }");
+    write("src/main/java/Util.java", "class Util {}");
+    Files.delete(root.resolve("src/main/java/Old.java"));
+
+    var changes = index.refresh();
+
+    assertEquals(List.of("src/main/java/Util.java"), changes.added());
+    assertEquals(List.of("src/main/java/App.java"), changes.modified());
+    assertEquals(List.of("src/main/java/Old.java"), changes.removed());
+    assertTrue(index.refresh().isEmpty());
+  }
+
+  @Test
+  void unchangedFilesAreNotHashedAgain() throws IOException {
+    index.refresh();
+    var app = root.resolve("src/main/java/App.java");
+    var modified = Files.getLastModifiedTime(app);
+
+    // same size and timestamp: the stored hash is trusted even though the content differs
+    Files.writeString(app, "class Ppa {}");
+    Files.setLastModifiedTime(app, modified);
+    index.refresh();
+
+    assertEquals(ProjectFileIndex.sha256("class App {}".getBytes()), index.entry(app).orElseThrow().hash());
+
+    Files.setLastModifiedTime(app, FileTime.fromMillis(modified.toMillis() + 2000));
+    assertEquals(List.of("src/main/java/App.java"), index.refresh().modified());
+  }
+
+  @Test
+  void loadsThePersistedIndex() {
+    index.refresh();
+
+    var reloaded = new ProjectFileIndex(root, index.getIndexFile(), new ParallelFileWalker());
+    reloaded.load();
+
+    assertEquals(index.entries().stream().sorted(Comparator.comparing(ProjectFileIndex.FileEntry::path)).toList(),
+        reloaded.entries().stream().sorted(Comparator.comparing(ProjectFileIndex.FileEntry::path)).toList());
+    assertTrue(reloaded.refresh().isEmpty());
+  }
+
+  @Test
+  void ignoresIndexFilesOfAnotherRoot() throws IOException {
+    index.refresh();
+
+    var other = Files.createDirectories(root.resolve("src"));
+    var reloaded = new ProjectFileIndex(other, index.getIndexFile(), new ParallelFileWalker());
+    reloaded.load();
+
+    assertTrue(reloaded.entries().isEmpty());
+  }
+
+  @Test
+  void projectRootIsTheOutermostBuildDirectory() throws IOException {
+    write("module/pom.xml", "<project/>");
+    write("module/src/main/java/Mod.java", "class Mod {}");
+
+    assertEquals(root, ProjectFileIndex.projectRoot(root.resolve("module/src/main/java")));
+    assertEquals(root, ProjectFileIndex.projectRoot(root));
+    assertEquals(cache, ProjectFileIndex.projectRoot(cache));
+  }
+
+  @Test
+  void filtersIndexedFiles() {
+    index.refresh();
+
+    assertEquals(List.of(root.resolve("src/main/java/App.java")), index.files(ParallelFileWalker.withExtensions("java")));
+  }
+
+  @Test
+  void refreshOfADirectoryOnlyWalksThatDirectory() throws IOException {
+    write("module/pom.xml", "<project/>");
+    write("module/src/main/java/Mod.java", "class Mod {}");
+    write("module/src/test/java/ModTest.java", "class ModTest {}");
+    var module = root.resolve("module");
+    var scoped = new ProjectFileIndex(root, cache.resolve("scoped.idx"),
+        new ParallelFileWalker(Set.of(), false, List.of("src/test")));
+
+    var changes = scoped.refresh(module);
+
+    // the exclude glob is relative to the refreshed directory, and the rest of the project is not indexed
+    assertEquals(List.of("module/src/main/java/Mod.java"), changes.added());
+    assertTrue(scoped.entry(root.resolve("src/main/java/App.java")).isEmpty());
+
+    scoped.refresh(root.resolve("src"));
+    Files.delete(root.resolve("module/src/main/java/Mod.java"));
+
+    assertEquals(List.of("module/src/main/java/Mod.java"), scoped.refresh(module).removed());
+    assertTrue(scoped.entry(root.resolve("src/main/java/App.java")).isPresent());
+  }
+
+  @Test
+  void searchReturnsSingleFiles() {
+    var file = root.resolve("pom.xml");
+
+    assertEquals(List.of(file), ProjectFileIndex.search(file, ".xml"));
+    assertEquals(List.of(), ProjectFileIndex.search(file, ".java"));
+  }
+
+  @Test
+  void watchAppliesFileEvents() throws Exception {
+    index.refresh();
+    var batches = new LinkedBlockingQueue<ProjectFileIndex.Changes>();
+
+    try (var ignored = index.watch(batches::add)) {
+      assertTrue(index.isWatched());
+      write("src/main/java/Util.java", "class Util {}");
+
+      var changes = batches.poll(10, TimeUnit.SECONDS);
+      assertNotNull(changes, "no change was reported");
+      assertEquals(List.of("src/main/java/Util.java"), changes.added());
+      assertTrue(index.entry(root.resolve("src/main/java/Util.java")).isPresent());
+    }
+
+    assertFalse(index.isWatched());
+  }
+
+  private void write(String path, String content) throws IOException {
+    var file = root.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+}
@@ -10,19 +10,22 @@ import org.mockito.Mockito;
 
 import java.io.File;
 
-import java.net.http.HttpClient;
-import java.net.http.HttpResponse;
-import java.net.http.HttpRequest;
-import java.net.http.HttpHeaders;
+import com.sun.net.httpserver.HttpServer;
+import dev.buildcli.core.utils.net.DownloadCache;
+import dev.buildcli.core.utils.net.FileDownloader;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.Map;
-import java.util.List; 
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
-import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 
 
@@ -46,33 +49,41 @@ public class GradleInstallerTest {
     }
 
     @Test
-    void testDownloadGradle_successful() throws Exception {
-        try (MockedStatic<SystemOutLogger> loggerMock = Mockito.mockStatic(SystemOutLogger.class);
-            MockedStatic<DirectoryCleanup> cleanupMock = Mockito.mockStatic(DirectoryCleanup.class);
-            MockedStatic<HttpClient> httpClientMock = Mockito.mockStatic(HttpClient.class)) {
-
-            HttpClient.Builder builderMock = mock(HttpClient.Builder.class);
-            HttpClient clientMock = mock(HttpClient.class);
-            HttpResponse<java.io.InputStream> responseMock = mock(HttpResponse.class);
-
-            when(builderMock.followRedirects(any())).thenReturn(builderMock);
-            when(builderMock.build()).thenReturn(clientMock);
-            httpClientMock.when(HttpClient::newBuilder).thenReturn(builderMock);
+    void testDownloadGradle_successful(@TempDir Path cacheDir) throws Exception {
+        var content = "gradle distribution".getBytes(StandardCharsets.UTF_8);
+        var requests = new AtomicInteger();
+        var server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/gradle-bin.zip", exchange -> {
+            if (!exchange.getRequestURI().getPath().equals("/gradle-bin.zip")) {
+                exchange.sendResponseHeaders(404, -1); // no published checksum
+            } else if (exchange.getRequestMethod().equals("HEAD")) {
+                exchange.sendResponseHeaders(200, -1);
+            } else {
+                requests.incrementAndGet();
+                exchange.sendResponseHeaders(200, content.length);
+                exchange.getResponseBody().write(content);
+            }
+            exchange.close();
+        });
+        server.start();
 
-            when(responseMock.statusCode()).thenReturn(200);
-            when(responseMock.headers()).thenReturn(HttpHeaders.of(Map.of("Content-Length", List.of("123")), (s1, s2) -> true));
-            when(responseMock.body()).thenReturn(Files.newInputStream(Files.createTempFile("gradle", ".zip")));
-            when(clientMock.send(any(HttpRequest.class), any(HttpResponse.BodyHandler.class))).thenReturn(responseMock);
-
-            File gradleZip = new File("gradle-8.12.1.zip");
-            gradleZip.createNewFile();
-
-            File result = GradleInstaller.downloadGradle();
+        var url = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/gradle-bin.zip");
+        var cache = new DownloadCache(cacheDir, Long.MAX_VALUE, new FileDownloader());
+        try (MockedStatic<SystemOutLogger> loggerMock = Mockito.mockStatic(SystemOutLogger.class)) {
+            File result = GradleInstaller.downloadGradle(url, cache);
             assertNotNull(result);
-            assertTrue(result.exists());
+            assertArrayEquals(content, Files.readAllBytes(result.toPath()));
+            result.delete();
 
-            gradleZip.delete();
+            // a second install is served from the cache
+            result = GradleInstaller.downloadGradle(url, cache);
+            assertArrayEquals(content, Files.readAllBytes(result.toPath()));
+            result.delete();
+        } finally {
+            server.stop(0);
         }
+
+        assertEquals(1, requests.get());
     }
 
     @Test
@@ -0,0 +1,156 @@
+package dev.buildcli.core.utils.net;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DownloadCacheTest {
+  @TempDir
+  Path cacheDir;
+
+  @TempDir
+  Path workDir;
+
+  private final AtomicInteger downloads = new AtomicInteger();
+  private HttpServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> {
+      var body = exchange.getRequestURI().getPath().getBytes(StandardCharsets.UTF_8);
+      if (exchange.getRequestMethod().equals("HEAD")) {
+        exchange.sendResponseHeaders(200, -1);
+      } else {
+        downloads.incrementAndGet();
+        exchange.sendResponseHeaders(200, body.length);
+        exchange.getResponseBody().write(body);
+      }
+      exchange.close();
+    });
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    client.close();
+  }
+
+  @Test
+  void downloadsOnceAndLinksTheEntry() throws Exception {
+    var cache = cache(Long.MAX_VALUE);
+    var checksum = FileDownloader.Checksum.sha256(sha256("/maven.tar.gz"));
+
+    var first = cache.copy(uri("/maven.tar.gz"), checksum, workDir.resolve("maven.tar.gz"), FileDownloader.ProgressListener.none());
+    Files.delete(first);
+    var second = cache.copy(uri("/maven.tar.gz"), checksum, workDir.resolve("maven.tar.gz"), FileDownloader.ProgressListener.none());
+
+    assertEquals("/maven.tar.gz", Files.readString(second));
+    assertEquals(1, downloads.get());
+    assertTrue(Files.isRegularFile(cacheDir.resolve("sha256").resolve(checksum.hex()).resolve("maven.tar.gz")));
+  }
+
+  @Test
+  void sameChecksumIsSharedAcrossUrls() throws Exception {
+    var cache = cache(Long.MAX_VALUE);
+    var checksum = FileDownloader.Checksum.sha256(sha256("/mirror-a/tool.zip"));
+
+    cache.get(uri("/mirror-a/tool.zip"), checksum, "tool.zip", FileDownloader.ProgressListener.none());
+    var entry = cache.get(uri("/mirror-b/tool.zip"), checksum, "tool.zip", FileDownloader.ProgressListener.none());
+
+    assertEquals("/mirror-a/tool.zip", Files.readString(entry));
+    assertEquals(1, downloads.get());
+  }
+
+  @Test
+  void entriesWithoutChecksumAreKeyedByUrl() throws Exception {
+    var cache = cache(Long.MAX_VALUE);
+
+    var a = cache.get(uri("/a.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+    var b = cache.get(uri("/b.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+    cache.get(uri("/a.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+
+    assertNotEquals(a, b);
+    assertEquals(2, downloads.get());
+  }
+
+  @Test
+  void findsTheChecksumEntryOfAUrlWhenTheChecksumIsUnavailable() throws Exception {
+    var cache = cache(Long.MAX_VALUE);
+    var checksum = FileDownloader.Checksum.sha256(sha256("/gradle.zip"));
+    var online = cache.get(uri("/gradle.zip"), checksum, "gradle.zip", FileDownloader.ProgressListener.none());
+    server.stop(0);
+
+    // offline, the published checksum cannot be fetched
+    var offline = cache.get(uri("/gradle.zip"), null, "gradle.zip", FileDownloader.ProgressListener.none());
+
+    assertEquals(online, offline);
+    assertEquals(1, downloads.get());
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedEntries() throws Exception {
+    var cache = cache(30); // room for two of the three entries
+    var old = cache.get(uri("/old-tool.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+    var used = cache.get(uri("/used-tool.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+    Files.setLastModifiedTime(old, FileTime.fromMillis(1_000));
+    Files.setLastModifiedTime(used, FileTime.fromMillis(2_000));
+
+    var fresh = cache.get(uri("/new-tool.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+
+    assertFalse(Files.exists(old));
+    assertTrue(Files.exists(used));
+    assertTrue(Files.exists(fresh));
+  }
+
+  @Test
+  void createsGroupWritableDirectoriesAndLock() throws Exception {
+    assumeTrue(FileSystems.getDefault().supportedFileAttributeViews().contains("unix"));
+    var root = cacheDir.resolve("shared");
+    var cache = new DownloadCache(root, Long.MAX_VALUE, new FileDownloader(client, 2, 1024));
+
+    var entry = cache.get(uri("/tool.zip"), null, "tool.zip", FileDownloader.ProgressListener.none());
+
+    for (var directory = entry.getParent(); !directory.equals(cacheDir); directory = directory.getParent()) {
+      assertEquals(02775, mode(directory) & 07777, directory.toString());
+    }
+    assertEquals(0664, mode(entry.resolveSibling(".lock")) & 0777);
+  }
+
+  private static int mode(Path path) throws IOException {
+    return (Integer) Files.getAttribute(path, "unix:mode");
+  }
+
+  private DownloadCache cache(long maxSize) {
+    return new DownloadCache(cacheDir, maxSize, new FileDownloader(client, 2, 1024));
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+  }
+
+  private static String sha256(String content) throws Exception {
+    return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,243 @@
+package dev.buildcli.core.utils.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileDownloaderTest {
+  private static final int CHUNK_SIZE = 1024;
+  private static final String LAST_MODIFIED = "Tue, 15 Oct 2024 08:00:00 GMT";
+
+  @TempDir
+  Path dir;
+
+  private final byte[] content = new byte[10 * CHUNK_SIZE + 123];
+  private final AtomicInteger rangeRequests = new AtomicInteger();
+  private final AtomicInteger fullRequests = new AtomicInteger();
+  private final Set<String> ifRanges = ConcurrentHashMap.newKeySet();
+  private HttpServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    new Random(42).nextBytes(content);
+
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/ranged/maven.tar.gz", exchange -> serve(exchange, true, "\"v1\"", null));
+    server.createContext("/plain/maven.tar.gz", exchange -> serve(exchange, false, "\"v1\"", null));
+    server.createContext("/dated/maven.tar.gz", exchange -> serve(exchange, true, null, LAST_MODIFIED));
+    server.createContext("/unversioned/maven.tar.gz", exchange -> serve(exchange, true, null, null));
+    server.createContext("/ranged/maven.tar.gz.sha512", exchange -> respond(exchange, digest("SHA-512") + "  maven.tar.gz\n"));
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    client.close();
+  }
+
+  @Test
+  void downloadsChunksInParallel() throws Exception {
+    var target = dir.resolve("maven.tar.gz");
+
+    new FileDownloader(client, 4, CHUNK_SIZE).fetch(uri("/ranged/maven.tar.gz"), target, null, FileDownloader.ProgressListener.none());
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(11, rangeRequests.get());
+    assertEquals(0, fullRequests.get());
+    assertFalse(Files.exists(dir.resolve("maven.tar.gz.part")));
+    assertFalse(Files.exists(dir.resolve("maven.tar.gz.part.state")));
+  }
+
+  @Test
+  void resumesPartialDownload() throws Exception {
+    var target = dir.resolve("maven.tar.gz");
+    var part = dir.resolve("maven.tar.gz.part");
+    var partial = Arrays.copyOf(content, content.length);
+    Arrays.fill(partial, 3 * CHUNK_SIZE, partial.length, (byte) 0);
+    Files.write(part, partial);
+    Files.writeString(dir.resolve("maven.tar.gz.part.state"), "%d %d \"v1\"\n0\n1\n2\n".formatted(content.length, CHUNK_SIZE));
+
+    new FileDownloader(client, 2, CHUNK_SIZE).fetch(uri("/ranged/maven.tar.gz"), target, null, FileDownloader.ProgressListener.none());
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(8, rangeRequests.get());
+  }
+
+  @Test
+  void restartsWhenTheRemoteFileChanged() throws Exception {
+    var target = dir.resolve("maven.tar.gz");
+    Files.write(dir.resolve("maven.tar.gz.part"), new byte[content.length]);
+    Files.writeString(dir.resolve("maven.tar.gz.part.state"), "%d %d \"v0\"\n0\n1\n".formatted(content.length, CHUNK_SIZE));
+
+    new FileDownloader(client, 4, CHUNK_SIZE).fetch(uri("/ranged/maven.tar.gz"), target, null, FileDownloader.ProgressListener.none());
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(11, rangeRequests.get());
+  }
+
+  @Test
+  void resumesWithLastModifiedWithoutETag() throws Exception {
+    var target = dir.resolve("maven.tar.gz");
+    Files.write(dir.resolve("maven.tar.gz.part"), Arrays.copyOf(content, content.length));
+    Files.writeString(dir.resolve("maven.tar.gz.part.state"),
+        "%d %d %s\n0\n1\n2\n".formatted(content.length, CHUNK_SIZE, LAST_MODIFIED));
+
+    new FileDownloader(client, 2, CHUNK_SIZE).fetch(uri("/dated/maven.tar.gz"), target, null, FileDownloader.ProgressListener.none());
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(8, rangeRequests.get());
+    assertEquals(Set.of(LAST_MODIFIED), ifRanges);
+  }
+
+  @Test
+  void restartsWhenTheRemoteFileCannotBeValidated() throws Exception {
+    var target = dir.resolve("maven.tar.gz");
+    Files.write(dir.resolve("maven.tar.gz.part"), new byte[content.length]);
+    Files.writeString(dir.resolve("maven.tar.gz.part.state"), "%d %d \n0\n1\n".formatted(content.length, CHUNK_SIZE));
+
+    new FileDownloader(client, 4, CHUNK_SIZE).fetch(uri("/unversioned/maven.tar.gz"), target, null, FileDownloader.ProgressListener.none());
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(11, rangeRequests.get());
+  }
+
+  @Test
+  void alwaysReportsCompletionOnce() throws Exception {
+    var completions = new AtomicInteger();
+    var last = new AtomicLong();
+
+    new FileDownloader(client, 4, CHUNK_SIZE).fetch(uri("/ranged/maven.tar.gz"), dir.resolve("maven.tar.gz"), null,
+        (done, total) -> {
+          last.set(done);
+          if (done == total) {
+            completions.incrementAndGet();
+          }
+        });
+
+    assertEquals(1, completions.get());
+    assertEquals(content.length, last.get());
+  }
+
+  @Test
+  void streamsWhenRangesAreNotSupported() throws Exception {
+    var target = dir.resolve("maven.tar.gz");
+    var reported = new long[1];
+
+    new FileDownloader(client, 4, CHUNK_SIZE).fetch(uri("/plain/maven.tar.gz"), target, null, (done, total) -> reported[0] = done);
+
+    assertArrayEquals(content, Files.readAllBytes(target));
+    assertEquals(1, fullRequests.get());
+    assertEquals(0, rangeRequests.get());
+    assertEquals(content.length, reported[0]);
+  }
+
+  @Test
+  void verifiesPublishedChecksum() throws Exception {
+    var uri = uri("/ranged/maven.tar.gz");
+    var checksum = FileDownloader.Checksum.published(client, uri).orElseThrow();
+
+    assertEquals("SHA-512", checksum.algorithm());
+    var target = new FileDownloader(client, 4, CHUNK_SIZE).fetch(uri, dir.resolve("maven.tar.gz"), checksum,
+        FileDownloader.ProgressListener.none());
+    assertArrayEquals(content, Files.readAllBytes(target));
+  }
+
+  @Test
+  void rejectsChecksumMismatch() {
+    var target = dir.resolve("maven.tar.gz");
+    var checksum = FileDownloader.Checksum.sha256("0".repeat(64));
+
+    var exception = assertThrows(IOException.class, () -> new FileDownloader(client, 4, CHUNK_SIZE)
+        .fetch(uri("/ranged/maven.tar.gz"), target, checksum, FileDownloader.ProgressListener.none()));
+
+    assertTrue(exception.getMessage().contains("checksum mismatch"));
+    assertFalse(Files.exists(target));
+    assertFalse(Files.exists(dir.resolve("maven.tar.gz.part")));
+  }
+
+  @Test
+  void noPublishedChecksum() {
+    assertTrue(FileDownloader.Checksum.published(client, uri("/plain/maven.tar.gz")).isEmpty());
+  }
+
+  private void serve(HttpExchange exchange, boolean ranges, String etag, String lastModified) throws IOException {
+    var headers = exchange.getResponseHeaders();
+    if (etag != null) {
+      headers.add("ETag", etag);
+    }
+    if (lastModified != null) {
+      headers.add("Last-Modified", lastModified);
+    }
+    if (ranges) {
+      headers.add("Accept-Ranges", "bytes");
+    }
+
+    if (exchange.getRequestMethod().equals("HEAD")) {
+      headers.add("Content-Length", String.valueOf(content.length));
+      exchange.sendResponseHeaders(200, -1);
+      exchange.close();
+      return;
+    }
+
+    var range = exchange.getRequestHeaders().getFirst("Range");
+    if (ranges && range != null) {
+      rangeRequests.incrementAndGet();
+      Optional.ofNullable(exchange.getRequestHeaders().getFirst("If-Range")).ifPresent(ifRanges::add);
+      var bounds = range.substring("bytes=".length()).split("-");
+      var start = Integer.parseInt(bounds[0]);
+      var end = Integer.parseInt(bounds[1]);
+      headers.add("Content-Range", "bytes %d-%d/%d".formatted(start, end, content.length));
+      exchange.sendResponseHeaders(206, end - start + 1);
+      exchange.getResponseBody().write(content, start, end - start + 1);
+    } else {
+      fullRequests.incrementAndGet();
+      exchange.sendResponseHeaders(200, content.length);
+      exchange.getResponseBody().write(content);
+    }
+    exchange.close();
+  }
+
+  private static void respond(HttpExchange exchange, String body) throws IOException {
+    var bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+
+  private String digest(String algorithm) {
+    try {
+      return HexFormat.of().formatHex(MessageDigest.getInstance(algorithm).digest(content));
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+  }
+}
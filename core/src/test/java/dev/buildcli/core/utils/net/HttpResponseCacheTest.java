@@ -0,0 +1,106 @@
+package dev.buildcli.core.utils.net;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HttpResponseCacheTest {
+
+  @TempDir
+  Path cacheDir;
+
+  private HttpServer server;
+  private final AtomicInteger fullResponses = new AtomicInteger();
+  private final AtomicInteger notModifiedResponses = new AtomicInteger();
+  private HttpClient client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/search", exchange -> {
+      if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+        notModifiedResponses.incrementAndGet();
+        exchange.sendResponseHeaders(304, -1);
+        exchange.close();
+        return;
+      }
+
+      var body = "{\"result\":1}".getBytes(StandardCharsets.UTF_8);
+      fullResponses.incrementAndGet();
+      exchange.getResponseHeaders().add("ETag", "\"v1\"");
+      exchange.sendResponseHeaders(200, body.length);
+      exchange.getResponseBody().write(body);
+      exchange.close();
+    });
+    server.createContext("/missing", exchange -> {
+      exchange.sendResponseHeaders(404, -1);
+      exchange.close();
+    });
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+    client.close();
+  }
+
+  @Test
+  void shouldServeFreshEntriesWithoutNetwork() throws Exception {
+    var cache = new HttpResponseCache(client, cacheDir, Duration.ofHours(1));
+
+    assertEquals("{\"result\":1}", cache.get(uri("/search")));
+    assertEquals("{\"result\":1}", cache.get(uri("/search")));
+
+    assertEquals(1, fullResponses.get());
+    assertEquals(0, notModifiedResponses.get());
+  }
+
+  @Test
+  void shouldRevalidateExpiredEntriesWithEtag() throws Exception {
+    var cache = new HttpResponseCache(client, cacheDir, Duration.ZERO);
+
+    cache.get(uri("/search"));
+    assertEquals("{\"result\":1}", cache.get(uri("/search")));
+
+    assertEquals(1, fullResponses.get());
+    assertEquals(1, notModifiedResponses.get());
+  }
+
+  @Test
+  void shouldServeStaleEntryWhenServerIsUnreachable() throws Exception {
+    var cache = new HttpResponseCache(client, cacheDir, Duration.ZERO);
+    var target = uri("/search");
+    cache.get(target);
+
+    server.stop(0);
+
+    assertEquals("{\"result\":1}", cache.get(target));
+  }
+
+  @Test
+  void shouldFailOnErrorStatus() {
+    var cache = new HttpResponseCache(client, cacheDir, Duration.ofHours(1));
+
+    assertThrows(IOException.class, () -> cache.get(uri("/missing")));
+  }
+
+  private URI uri(String path) {
+    return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+  }
+}
@@ -0,0 +1,228 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import dev.buildcli.core.exceptions.ModelResolutionException;
+import dev.buildcli.core.utils.net.HttpResponseCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EffectiveModelBuilderTest {
+  @TempDir
+  Path tempDir;
+
+  private Path repository;
+  private Path workspace;
+  private EffectiveModelBuilder builder;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    repository = tempDir.resolve("repository");
+    workspace = tempDir.resolve("workspace");
+    Files.createDirectories(workspace);
+
+    // nothing listens on port 9: everything must come from the workspace or the local repository
+    var mavenRepository = new MavenRepository(URI.create("http://127.0.0.1:9/"), repository,
+        new HttpResponseCache(HttpClient.newHttpClient(), tempDir.resolve("cache"), Duration.ofHours(1)));
+    builder = new EffectiveModelBuilder(mavenRepository);
+
+    install("org.example", "example-bom", "1.0", """
+        <project>
+          <groupId>org.example</groupId>
+          <artifactId>example-bom</artifactId>
+          <version>1.0</version>
+          <packaging>pom</packaging>
+          <dependencyManagement>
+            <dependencies>
+              <dependency><groupId>org.example</groupId><artifactId>from-bom</artifactId><version>3.0</version></dependency>
+              <dependency><groupId>org.example</groupId><artifactId>overridden</artifactId><version>3.0</version></dependency>
+            </dependencies>
+          </dependencyManagement>
+        </project>
+        """);
+
+    write("pom.xml", """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <groupId>org.example</groupId>
+          <artifactId>root</artifactId>
+          <version>2.0</version>
+          <packaging>pom</packaging>
+          <modules><module>a</module><module>b</module></modules>
+          <properties>
+            <lib.version>1.5</lib.version>
+            <derived.version>${lib.version}.1</derived.version>
+          </properties>
+          <dependencyManagement>
+            <dependencies>
+              <dependency><groupId>org.example</groupId><artifactId>lib</artifactId><version>${lib.version}</version><scope>runtime</scope></dependency>
+              <dependency><groupId>org.example</groupId><artifactId>overridden</artifactId><version>1.0</version></dependency>
+              <dependency><groupId>org.example</groupId><artifactId>example-bom</artifactId><version>1.0</version><type>pom</type><scope>import</scope></dependency>
+            </dependencies>
+          </dependencyManagement>
+          <dependencies>
+            <dependency><groupId>${project.groupId}</groupId><artifactId>shared</artifactId><version>${project.version}</version></dependency>
+          </dependencies>
+        </project>
+        """);
+
+    write("a/pom.xml", module("a", "<version>2.1</version>", """
+        <dependency><groupId>org.example</groupId><artifactId>lib</artifactId></dependency>
+        <dependency><groupId>org.example</groupId><artifactId>from-bom</artifactId><scope>test</scope></dependency>
+        <dependency><groupId>org.example</groupId><artifactId>overridden</artifactId></dependency>
+        <dependency>
+          <groupId>org.example</groupId><artifactId>excluding</artifactId><version>${derived.version}</version>
+          <exclusions><exclusion><groupId>org.unwanted</groupId><artifactId>*</artifactId></exclusion></exclusions>
+        </dependency>
+        """));
+    write("b/pom.xml", module("b", "", ""));
+  }
+
+  @Test
+  void inheritsCoordinatesPropertiesAndDependencies() {
+    var model = builder.build(workspace.resolve("b/pom.xml"));
+
+    assertEquals("org.example:b:2.0", model.gav());
+    assertEquals("org.example:root:2.0", model.parent());
+    assertEquals("1.5.1", model.properties().get("derived.version"));
+    assertEquals(List.of("org.example:shared:2.0"), model.dependencies().stream().map(ModelDependency::gav).toList());
+  }
+
+  @Test
+  void inheritedExpressionsAreEvaluatedInTheChildContext() {
+    var model = builder.build(workspace.resolve("a/pom.xml"));
+
+    // the parent declares shared:${project.version}, module a overrides its own version
+    var shared = find(model, "shared");
+    assertEquals("2.1", shared.version());
+    assertEquals("compile", shared.scope());
+    assertEquals("jar", shared.type());
+  }
+
+  @Test
+  void appliesDependencyManagementAndBomImports() {
+    var model = builder.build(workspace.resolve("a/pom.xml"));
+
+    var lib = find(model, "lib");
+    assertEquals("1.5", lib.version());
+    assertEquals("runtime", lib.scope());
+
+    var fromBom = find(model, "from-bom");
+    assertEquals("3.0", fromBom.version());
+    assertEquals("test", fromBom.scope());
+
+    // declared management wins over the imported BOM
+    assertEquals("1.0", find(model, "overridden").version());
+    assertFalse(model.dependencyManagement().values().stream().anyMatch(ModelDependency::isImport));
+  }
+
+  @Test
+  void keepsExclusions() {
+    var excluding = find(builder.build(workspace.resolve("a/pom.xml")), "excluding");
+
+    assertEquals("1.5.1", excluding.version());
+    assertTrue(excluding.excludes("org.unwanted", "anything"));
+    assertFalse(excluding.excludes("org.example", "anything"));
+  }
+
+  @Test
+  void parentIsResolvedOncePerBuilder() throws IOException {
+    builder.build(workspace.resolve("a/pom.xml"));
+    int afterFirstModule = builder.size();
+
+    // the second module must be served from the memoized parent
+    Files.delete(workspace.resolve("pom.xml"));
+    var model = builder.build(workspace.resolve("b/pom.xml"));
+
+    assertEquals("org.example:b:2.0", model.gav());
+    assertEquals(afterFirstModule + 1, builder.size());
+  }
+
+  @Test
+  void resolvesParentFromRepositoryWhenRelativePathDoesNotMatch() throws IOException {
+    install("org.other", "corporate-parent", "7", """
+        <project>
+          <groupId>org.other</groupId>
+          <artifactId>corporate-parent</artifactId>
+          <version>7</version>
+          <properties><java.version>21</java.version></properties>
+        </project>
+        """);
+    write("c/pom.xml", """
+        <project>
+          <parent><groupId>org.other</groupId><artifactId>corporate-parent</artifactId><version>7</version></parent>
+          <artifactId>c</artifactId>
+        </project>
+        """);
+
+    var model = builder.build(workspace.resolve("c/pom.xml"));
+
+    assertEquals("org.other:c:7", model.gav());
+    assertEquals("21", model.properties().get("java.version"));
+  }
+
+  @Test
+  void missingParentFails() throws IOException {
+    write("d/pom.xml", """
+        <project>
+          <parent><groupId>org.missing</groupId><artifactId>parent</artifactId><version>1</version><relativePath/></parent>
+          <artifactId>d</artifactId>
+        </project>
+        """);
+
+    var pom = workspace.resolve("d/pom.xml");
+    assertThrows(ModelResolutionException.class, () -> builder.build(pom));
+  }
+
+  @Test
+  void parentCycleFails() throws IOException {
+    install("org.cycle", "x", "1", """
+        <project><parent><groupId>org.cycle</groupId><artifactId>y</artifactId><version>1</version></parent><artifactId>x</artifactId></project>
+        """);
+    install("org.cycle", "y", "1", """
+        <project><parent><groupId>org.cycle</groupId><artifactId>x</artifactId><version>1</version></parent><artifactId>y</artifactId></project>
+        """);
+
+    var exception = assertThrows(ModelResolutionException.class, () -> builder.resolve("org.cycle", "x", "1"));
+    assertTrue(exception.getMessage().contains("Cycle"));
+  }
+
+  private static ModelDependency find(EffectiveModel model, String artifactId) {
+    return model.dependencies().stream()
+        .filter(dependency -> dependency.artifactId().equals(artifactId))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static String module(String artifactId, String version, String dependencies) {
+    return """
+        <project>
+          <parent><groupId>org.example</groupId><artifactId>root</artifactId><version>2.0</version></parent>
+          <artifactId>%s</artifactId>
+          %s
+          <dependencies>%s</dependencies>
+        </project>
+        """.formatted(artifactId, version, dependencies);
+  }
+
+  private void write(String path, String content) throws IOException {
+    var file = workspace.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+
+  private void install(String groupId, String artifactId, String version, String content) throws IOException {
+    var file = repository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version)
+        .resolve(artifactId + "-" + version + ".pom");
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, content);
+  }
+}
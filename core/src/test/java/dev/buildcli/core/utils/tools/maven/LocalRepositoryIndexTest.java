@@ -0,0 +1,168 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalRepositoryIndexTest {
+  @TempDir
+  Path tempDir;
+
+  private Path repository;
+  private Path indexFile;
+
+  @BeforeEach
+  void setUp() {
+    repository = tempDir.resolve("repository");
+    indexFile = tempDir.resolve("index").resolve("m2-repository.bin");
+  }
+
+  @Test
+  void refreshIndexesEveryVersionDirectory() throws IOException {
+    install("com.fasterxml.jackson.core", "jackson-databind", "2.17.0", "jar", 42);
+    install("com.fasterxml.jackson.core", "jackson-databind", "2.18.0", "jar", 43);
+    install("org.springframework.boot", "spring-boot-dependencies", "3.3.0", null, 0);
+
+    var index = new LocalRepositoryIndex(repository, indexFile);
+    index.refresh();
+
+    var databind = index.find("com.fasterxml.jackson.core", "jackson-databind").orElseThrow();
+    assertEquals(2, databind.versions().size());
+    assertEquals("2.17.0", databind.versions().get(0).version());
+    assertEquals("jar", databind.versions().get(0).packaging());
+    assertEquals(42, databind.versions().get(0).size());
+
+    var bom = index.find("org.springframework.boot", "spring-boot-dependencies").orElseThrow();
+    assertEquals("pom", bom.versions().get(0).packaging());
+    assertEquals(2, index.artifacts().size());
+  }
+
+  @Test
+  void ignoresDirectoriesWithoutPom() throws IOException {
+    Files.createDirectories(repository.resolve("org/example/lib/1.0"));
+    Files.writeString(repository.resolve("org/example/lib/1.0/lib-1.0.jar.lastUpdated"), "");
+
+    var index = new LocalRepositoryIndex(repository, indexFile);
+    index.refresh();
+
+    assertTrue(index.artifacts().isEmpty());
+  }
+
+  @Test
+  void persistedIndexIsReadBackWithoutWalkingTheRepository() throws IOException {
+    install("org.example", "lib", "1.0", "jar", 10);
+    new LocalRepositoryIndex(repository, indexFile).refresh();
+    assertTrue(Files.isRegularFile(indexFile));
+
+    // the repository disappearing proves open() served the persisted copy
+    Files.walk(repository).sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+
+    var reopened = new LocalRepositoryIndex(repository, indexFile);
+    reopened.open();
+
+    assertEquals("1.0", reopened.newestVersion("org.example", "lib").orElseThrow());
+  }
+
+  @Test
+  void unchangedVersionDirectoriesAreReused() throws IOException {
+    var version = install("org.example", "lib", "1.0", "jar", 10);
+    var stamp = FileTime.from(Instant.parse("2024-01-01T00:00:00Z"));
+    Files.setLastModifiedTime(version, stamp);
+
+    var index = new LocalRepositoryIndex(repository, indexFile);
+    index.refresh();
+
+    // grow the jar but keep the directory timestamp: the cached entry must be kept as-is
+    Files.write(version.resolve("lib-1.0.jar"), new byte[99]);
+    Files.setLastModifiedTime(version, stamp);
+    index.refresh();
+    assertEquals(10, index.find("org.example", "lib").orElseThrow().versions().get(0).size());
+
+    Files.setLastModifiedTime(version, FileTime.from(Instant.parse("2024-02-01T00:00:00Z")));
+    index.refresh();
+    assertEquals(99, index.find("org.example", "lib").orElseThrow().versions().get(0).size());
+  }
+
+  @Test
+  void newestVersionPrefersReleases() throws IOException {
+    install("org.example", "lib", "1.9", "jar", 1);
+    install("org.example", "lib", "2.0-RC1", "jar", 1);
+    install("org.example", "lib", "2.1-SNAPSHOT", "jar", 1);
+    install("org.example", "snapshots-only", "0.1-SNAPSHOT", "jar", 1);
+
+    var index = new LocalRepositoryIndex(repository, indexFile);
+    index.refresh();
+
+    assertEquals("1.9", index.newestVersion("org.example", "lib").orElseThrow());
+    assertEquals("0.1-SNAPSHOT", index.newestVersion("org.example", "snapshots-only").orElseThrow());
+    assertTrue(index.newestVersion("org.example", "missing").isEmpty());
+  }
+
+  @Test
+  void unreadableIndexIsRebuilt() throws IOException {
+    install("org.example", "lib", "1.0", "jar", 10);
+    Files.createDirectories(indexFile.getParent());
+    Files.writeString(indexFile, "not an index");
+
+    var index = new LocalRepositoryIndex(repository, indexFile);
+    index.open().join();
+
+    assertTrue(index.find("org.example", "lib").isPresent());
+  }
+
+  @Test
+  void missingIndexIsBuiltInTheBackground() throws IOException {
+    install("org.example", "lib", "1.0", "jar", 10);
+
+    var index = new LocalRepositoryIndex(repository, indexFile);
+    var build = index.open();
+    build.join();
+
+    assertTrue(index.find("org.example", "lib").isPresent());
+    assertTrue(Files.isRegularFile(indexFile));
+    assertTrue(index.open().isDone());
+  }
+
+  @Test
+  void incompleteIndexIsCarriedOnByTheNextOpen() throws IOException {
+    install("org.example", "lib", "1.0", "jar", 10);
+    install("org.example", "other", "1.0", "jar", 10);
+
+    // a checkpoint after every version directory, as if the command exited during the first build
+    var interrupted = new LocalRepositoryIndex(repository, indexFile, Duration.ZERO);
+    interrupted.refresh();
+    interrupted.write(false);
+
+    var next = new LocalRepositoryIndex(repository, indexFile);
+    var build = next.open();
+    assertEquals(2, next.artifacts().size());
+    build.join();
+
+    assertTrue(next.isComplete());
+    assertTrue(new LocalRepositoryIndex(repository, indexFile).open().isDone());
+  }
+
+  private Path install(String groupId, String artifactId, String version, String packaging, int size) throws IOException {
+    var directory = repository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+    Files.createDirectories(directory);
+
+    var baseName = artifactId + "-" + version;
+    Files.writeString(directory.resolve(baseName + ".pom"), "<project/>");
+    if (packaging != null) {
+      Files.write(directory.resolve(baseName + "." + packaging), new byte[size]);
+      Files.writeString(directory.resolve(baseName + "." + packaging + ".sha1"), "0");
+      Files.write(directory.resolve(baseName + "-sources." + packaging), new byte[size + 1]);
+    }
+
+    return directory;
+  }
+}
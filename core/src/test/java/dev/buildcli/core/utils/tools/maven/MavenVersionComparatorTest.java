@@ -0,0 +1,52 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MavenVersionComparatorTest {
+
+  @ParameterizedTest
+  @CsvSource({
+      "1.0, 1.0.1",
+      "1.9, 1.10",
+      "1.0-alpha1, 1.0-beta1",
+      "1.0-rc1, 1.0",
+      "1.0-SNAPSHOT, 1.0",
+      "1.0, 1.0-sp1",
+      "2.17.0-rc1, 2.17.0"
+  })
+  void shouldOrderOlderBeforeNewer(String older, String newer) {
+    assertTrue(MavenVersionComparator.INSTANCE.compare(older, newer) < 0);
+    assertTrue(MavenVersionComparator.INSTANCE.compare(newer, older) > 0);
+  }
+
+  @Test
+  void shouldTreatTrailingZerosAsEqual() {
+    assertEquals(0, MavenVersionComparator.INSTANCE.compare("1.0.0", "1"));
+    assertEquals(0, MavenVersionComparator.INSTANCE.compare("1.0.Final", "1.0"));
+  }
+
+  @Test
+  void shouldSortVersions() {
+    var versions = new ArrayList<>(List.of("1.10.0", "1.2.0", "1.2.0-rc1", "1.9.9"));
+    versions.sort(MavenVersionComparator.INSTANCE);
+
+    assertEquals(List.of("1.2.0-rc1", "1.2.0", "1.9.9", "1.10.0"), versions);
+  }
+
+  @Test
+  void shouldDetectReleases() {
+    assertTrue(MavenVersionComparator.isRelease("3.2.0"));
+    assertTrue(MavenVersionComparator.isRelease("5.6.15.Final"));
+    assertFalse(MavenVersionComparator.isRelease("3.2.0-M1"));
+    assertFalse(MavenVersionComparator.isRelease("1.0-SNAPSHOT"));
+  }
+}
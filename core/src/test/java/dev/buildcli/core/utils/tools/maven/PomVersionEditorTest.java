@@ -0,0 +1,97 @@
+package dev.buildcli.core.utils.tools.maven;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PomVersionEditorTest {
+  private static final String POM = """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <project>
+      \t<properties>
+      \t\t<foo.version>1.0.0</foo.version>   <!-- keep this comment -->
+      \t\t<other.version>9</other.version>
+      \t</properties>
+      \t<dependencyManagement>
+      \t\t<dependencies>
+      \t\t\t<dependency>
+      \t\t\t\t<groupId>org.foo</groupId>
+      \t\t\t\t<artifactId>foo-bom</artifactId>
+      \t\t\t\t<version>${foo.version}</version>
+      \t\t\t\t<type>pom</type>
+      \t\t\t\t<scope>import</scope>
+      \t\t\t</dependency>
+      \t\t</dependencies>
+      \t</dependencyManagement>
+      \t<dependencies>
+      \t\t<dependency>
+      \t\t\t<groupId>org.foo</groupId>
+      \t\t\t<artifactId>foo-core</artifactId>
+      \t\t\t<version> 2.2.0 </version>
+      \t\t</dependency>
+      \t\t<!--
+      \t\t<dependency><groupId>org.foo</groupId><artifactId>old</artifactId><version>0.1</version></dependency>
+      \t\t-->
+      \t\t<dependency>
+      \t\t\t<groupId>org.foo</groupId>
+      \t\t\t<artifactId>foo-managed</artifactId>
+      \t\t</dependency>
+      \t\t<dependency>
+      \t\t\t<groupId>org.bar</groupId>
+      \t\t\t<artifactId>bar</artifactId>
+      \t\t\t<version>2.2.0</version>
+      \t\t</dependency>
+      \t</dependencies>
+      </project>
+      """;
+
+  @Test
+  void replacesOnlyVersionTextAndKeepsFormatting() {
+    var result = PomVersionEditor.setVersion(POM, "org.foo", null, "2.3.1", Set.of());
+
+    assertEquals(List.of("org.foo:foo-core 2.2.0 -> 2.3.1", "property foo.version 1.0.0 -> 2.3.1"), result.changes());
+    var expected = POM
+        .replace("<version> 2.2.0 </version>", "<version>2.3.1</version>")
+        .replace("<foo.version>1.0.0</foo.version>", "<foo.version>2.3.1</foo.version>");
+    assertEquals(expected, result.content());
+  }
+
+  @Test
+  void leavesCommentedOutDependenciesAndOtherGroupsAlone() {
+    var content = PomVersionEditor.setVersion(POM, "org.foo", null, "2.3.1", Set.of()).content();
+
+    assertTrue(content.contains("<artifactId>old</artifactId><version>0.1</version>"));
+    assertTrue(content.contains("<artifactId>bar</artifactId>\n\t\t\t<version>2.2.0</version>"));
+  }
+
+  @Test
+  void restrictsToArtifact() {
+    var result = PomVersionEditor.setVersion(POM, "org.foo", "foo-core", "2.3.1", Set.of());
+
+    assertEquals(List.of("org.foo:foo-core 2.2.0 -> 2.3.1"), result.changes());
+  }
+
+  @Test
+  void updatesPropertiesReferencedElsewhere() {
+    var result = PomVersionEditor.setVersion(POM, "org.none", null, "10", Set.of("other.version"));
+
+    assertEquals(List.of("property other.version 9 -> 10"), result.changes());
+  }
+
+  @Test
+  void reportsReferencedProperties() {
+    assertEquals(Set.of("foo.version"), PomVersionEditor.referencedProperties(POM, "org.foo", null));
+    assertEquals(Set.of(), PomVersionEditor.referencedProperties(POM, "org.bar", null));
+  }
+
+  @Test
+  void unchangedWhenAlreadyOnVersion() {
+    var result = PomVersionEditor.setVersion(POM, "org.bar", null, "2.2.0", Set.of());
+
+    assertFalse(result.isChanged());
+    assertSame(POM, result.content());
+  }
+}
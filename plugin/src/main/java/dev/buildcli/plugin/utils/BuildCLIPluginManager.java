@@ -2,7 +2,7 @@ package dev.buildcli.plugin.utils;
 
 import dev.buildcli.core.domain.jar.Jar;
 import dev.buildcli.core.utils.config.ConfigContextLoader;
-import dev.buildcli.core.utils.filesystem.FindFilesUtils;
+import dev.buildcli.core.utils.filesystem.PluginStore;
 import dev.buildcli.plugin.BuildCLICommandPlugin;
 import dev.buildcli.plugin.BuildCLIPlugin;
 import dev.buildcli.plugin.BuildCLITemplatePlugin;
@@ -12,7 +12,7 @@ import dev.buildcli.plugin.utils.pf4j.CustomDefaultPluginManager;
 import org.pf4j.PluginWrapper;
 import picocli.CommandLine;
 
-import java.io.File;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.List;
 import java.util.function.Predicate;
@@ -51,7 +51,7 @@ public final class BuildCLIPluginManager {
   }
 
   private static String[] pluginPaths() {
-    var defaultPath = System.getProperty("user.home") + "/.buildcli/plugins";
+    var defaultPath = PluginStore.DEFAULT_DIRECTORY.toString();
     var property = ConfigContextLoader.getAllConfigs().getProperty(PLUGIN_PATHS);
 
     return property.orElse("").concat((property.isPresent() ? "" : ";") + defaultPath).split(";");
@@ -60,10 +60,9 @@ public final class BuildCLIPluginManager {
   private static List<Jar> loadJars() {
     return Arrays.stream(pluginPaths())
         .filter(Predicate.not(String::isBlank))
-        .map(File::new)
-        .map(FindFilesUtils::searchJarFiles)
+        .map(path -> new PluginStore(Path.of(path)).jars())
         .flatMap(List::stream)
-        .map(Jar::new)
+        .map(jar -> new Jar(jar.toFile()))
         .toList();
   }
 